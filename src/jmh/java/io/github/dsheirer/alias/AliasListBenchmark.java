@@ -0,0 +1,202 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.alias;
+
+import io.github.dsheirer.alias.id.radio.Radio;
+import io.github.dsheirer.alias.id.radio.RadioRange;
+import io.github.dsheirer.alias.id.talkgroup.Talkgroup;
+import io.github.dsheirer.alias.id.talkgroup.TalkgroupRange;
+import io.github.dsheirer.identifier.Identifier;
+import io.github.dsheirer.identifier.Role;
+import io.github.dsheirer.module.decode.p25.identifier.radio.APCO25RadioIdentifier;
+import io.github.dsheirer.module.decode.p25.identifier.talkgroup.APCO25Talkgroup;
+import io.github.dsheirer.protocol.Protocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks alias lookup against a 50,000 alias list, similar to a large RadioReference import, with talkgroup and
+ * radio aliases plus several thousand talkgroup and radio ranges.  Identifiers are drawn from a working set, as on a
+ * busy control channel, and include values that only match a range.
+ *
+ * The cached benchmark measures steady state lookups, while the uncached benchmark invalidates the lookup cache before
+ * each batch so that every lookup uses the exact value maps and range index.  The range benchmarks compare the talkgroup
+ * range index with the linear range scan that it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AliasListBenchmark
+{
+    private static final int ALIAS_COUNT = 50_000;
+    private static final int RANGE_COUNT = 5_000;
+    private static final int WORKING_SET = 512;
+
+    private AliasList mAliasList;
+    private List<Identifier> mIdentifiers = new ArrayList<>();
+    private List<TalkgroupRange> mTalkgroupRanges = new ArrayList<>();
+    private List<Alias> mTalkgroupRangeAliases = new ArrayList<>();
+    private AliasRangeIndex mTalkgroupRangeIndex;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(50_000);
+        mAliasList = new AliasList("benchmark");
+
+        for(int x = 0; x < ALIAS_COUNT - RANGE_COUNT; x++)
+        {
+            Alias alias = new Alias("alias " + x);
+            alias.setAliasListName("benchmark");
+
+            if(x % 2 == 0)
+            {
+                alias.addAliasID(new Talkgroup(Protocol.APCO25, x));
+            }
+            else
+            {
+                alias.addAliasID(new Radio(Protocol.APCO25, 1_000_000 + x));
+            }
+
+            mAliasList.addAlias(alias);
+        }
+
+        //Non-overlapping talkgroup ranges above the exact talkgroups and radio ranges above the exact radios
+        for(int x = 0; x < RANGE_COUNT; x++)
+        {
+            Alias alias = new Alias("range " + x);
+            alias.setAliasListName("benchmark");
+
+            if(x % 2 == 0)
+            {
+                TalkgroupRange range = new TalkgroupRange(Protocol.APCO25, 100_000 + x * 10, 100_000 + x * 10 + 7);
+                alias.addAliasID(range);
+                mTalkgroupRanges.add(range);
+                mTalkgroupRangeAliases.add(alias);
+            }
+            else
+            {
+                alias.addAliasID(new RadioRange(Protocol.APCO25, 2_000_000 + x * 10, 2_000_000 + x * 10 + 7));
+            }
+
+            mAliasList.addAlias(alias);
+        }
+
+        List<AliasRangeIndex.Range> ranges = new ArrayList<>();
+
+        for(int x = 0; x < mTalkgroupRanges.size(); x++)
+        {
+            ranges.add(new AliasRangeIndex.Range(mTalkgroupRanges.get(x).getMinTalkgroup(),
+                mTalkgroupRanges.get(x).getMaxTalkgroup(), mTalkgroupRangeAliases.get(x)));
+        }
+
+        mTalkgroupRangeIndex = new AliasRangeIndex(ranges);
+
+        for(int x = 0; x < WORKING_SET; x++)
+        {
+            switch(x % 4)
+            {
+                case 0 -> mIdentifiers.add(new APCO25Talkgroup(random.nextInt(ALIAS_COUNT), Role.TO));
+                case 1 -> mIdentifiers.add(new APCO25RadioIdentifier(1_000_000 + random.nextInt(ALIAS_COUNT),
+                    Role.FROM));
+                case 2 -> mIdentifiers.add(new APCO25Talkgroup(100_000 + random.nextInt(RANGE_COUNT * 10), Role.TO));
+                default -> mIdentifiers.add(new APCO25RadioIdentifier(2_000_000 + random.nextInt(RANGE_COUNT * 10),
+                    Role.FROM));
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCache()
+    {
+        mAliasList.invalidateLookupCache();
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole)
+    {
+        for(Identifier identifier: mIdentifiers)
+        {
+            blackhole.consume(mAliasList.getAliases(identifier));
+        }
+    }
+
+    @Benchmark
+    public void uncached(Blackhole blackhole)
+    {
+        mAliasList.invalidateLookupCache();
+
+        for(Identifier identifier: mIdentifiers)
+        {
+            blackhole.consume(mAliasList.getAliases(identifier));
+        }
+    }
+
+    @Benchmark
+    public void rangeIndex(Blackhole blackhole)
+    {
+        for(Identifier identifier: mIdentifiers)
+        {
+            if(identifier instanceof APCO25Talkgroup talkgroup)
+            {
+                blackhole.consume(mTalkgroupRangeIndex.get(talkgroup.getValue()));
+            }
+        }
+    }
+
+    @Benchmark
+    public void linearRangeScan(Blackhole blackhole)
+    {
+        for(Identifier identifier: mIdentifiers)
+        {
+            if(identifier instanceof APCO25Talkgroup talkgroup)
+            {
+                Alias match = null;
+
+                for(int x = 0; x < mTalkgroupRanges.size() && match == null; x++)
+                {
+                    if(mTalkgroupRanges.get(x).contains(talkgroup.getValue()))
+                    {
+                        match = mTalkgroupRangeAliases.get(x);
+                    }
+                }
+
+                blackhole.consume(match);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.vector.calibrate.Implementation;
+import jdk.incubator.vector.FloatVector;
+
+import java.util.Random;
+
+/**
+ * Utilities shared by the JMH benchmarks.  Sample buffers are generated from a fixed seed so that each forked
+ * benchmark JVM works with the same sample data and results are comparable across runs.
+ */
+public class BenchmarkUtil
+{
+    private static final Random RANDOM = new Random(0x5D257A1L);
+
+    /**
+     * Generates an array of floating point samples in the range -1.0 - 1.0
+     * @param size of array
+     * @return generated samples
+     */
+    public static float[] getFloatSamples(int size)
+    {
+        float[] samples = new float[size];
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = RANDOM.nextFloat() * 2.0f - 1.0f;
+        }
+
+        return samples;
+    }
+
+    /**
+     * Generates an array of short samples spanning the full signed 16-bit range.
+     * @param size of array
+     * @return generated samples
+     */
+    public static short[] getShortSamples(int size)
+    {
+        short[] samples = new short[size];
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = (short)((RANDOM.nextFloat() * 2.0f - 1.0f) * Short.MAX_VALUE);
+        }
+
+        return samples;
+    }
+
+    /**
+     * Generates an array of random bytes.
+     * @param size of array
+     * @return generated bytes
+     */
+    public static byte[] getByteSamples(int size)
+    {
+        byte[] samples = new byte[size];
+        RANDOM.nextBytes(samples);
+        return samples;
+    }
+
+    /**
+     * Verifies that the host CPU preferred vector species is wide enough for the implementation.  The Vector API
+     * falls back to (very slow) scalar emulation for unsupported widths, which would make the results meaningless.
+     * @param implementation to check
+     * @throws IllegalStateException if the implementation is not supported, causing JMH to skip the benchmark
+     */
+    public static void requireSupported(Implementation implementation)
+    {
+        int requiredLanes = switch(implementation)
+        {
+            case VECTOR_SIMD_64 -> 2;
+            case VECTOR_SIMD_128 -> 4;
+            case VECTOR_SIMD_256 -> 8;
+            case VECTOR_SIMD_512 -> 16;
+            default -> 1;
+        };
+
+        if(FloatVector.SPECIES_PREFERRED.length() < requiredLanes)
+        {
+            throw new IllegalStateException("Implementation [" + implementation + "] is not supported by this CPU");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.bits;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks binary message field extraction for a 196-bit message, similar to a P25 TSBK or DMR CSBK parser.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryMessageBenchmark
+{
+    private static final int[] OPCODE = {2, 3, 4, 5, 6, 7};
+    private static final int[] VENDOR = {8, 9, 10, 11, 12, 13, 14, 15};
+    private static final int[] TALKGROUP = {48, 49, 50, 51, 52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63};
+    private static final int[] SOURCE = {64, 65, 66, 67, 68, 69, 70, 71, 72, 73, 74, 75, 76, 77, 78, 79, 80, 81, 82,
+        83, 84, 85, 86, 87};
+
+    private CorrectedBinaryMessage mMessage;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(196);
+        mMessage = new CorrectedBinaryMessage(196);
+
+        for(int x = 0; x < 196; x++)
+        {
+            mMessage.set(x, random.nextBoolean());
+        }
+    }
+
+    @Benchmark
+    public void fieldIndexes(Blackhole blackhole)
+    {
+        blackhole.consume(mMessage.getInt(OPCODE));
+        blackhole.consume(mMessage.getInt(VENDOR));
+        blackhole.consume(mMessage.getInt(TALKGROUP));
+        blackhole.consume(mMessage.getInt(SOURCE));
+    }
+
+    @Benchmark
+    public void fieldRanges(Blackhole blackhole)
+    {
+        blackhole.consume(mMessage.getInt(2, 7));
+        blackhole.consume(mMessage.getInt(8, 15));
+        blackhole.consume(mMessage.getInt(48, 63));
+        blackhole.consume(mMessage.getLong(64, 127));
+    }
+
+    @Benchmark
+    public CorrectedBinaryMessage subMessage()
+    {
+        return mMessage.getSubMessage(16, 144);
+    }
+
+    @Benchmark
+    public byte[] toByteArray()
+    {
+        return mMessage.toByteArray();
+    }
+}
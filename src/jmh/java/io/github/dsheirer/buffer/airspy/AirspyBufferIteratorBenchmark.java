@@ -0,0 +1,119 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer.airspy;
+
+import io.github.dsheirer.benchmark.BenchmarkUtil;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scalar and vector Airspy native buffer iterators that apply the half-band filter and convert the
+ * unpacked 12-bit samples to complex (AIRSPY_UNPACKED_ITERATOR) and interleaved complex
+ * (AIRSPY_UNPACKED_INTERLEAVED_ITERATOR) sample buffers.  Each invocation iterates one complete native buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AirspyBufferIteratorBenchmark
+{
+    private static final int BUFFER_SIZE = 131072;
+
+    @Param({"SCALAR", "VECTOR_SIMD_64", "VECTOR_SIMD_128", "VECTOR_SIMD_256", "VECTOR_SIMD_512"})
+    public Implementation mImplementation;
+
+    @Param({"false", "true"})
+    public boolean mInterleaved;
+
+    private short[] mSamples;
+    private short[] mResidualI;
+    private short[] mResidualQ;
+
+    @Setup
+    public void setup()
+    {
+        BenchmarkUtil.requireSupported(mImplementation);
+        mSamples = BenchmarkUtil.getShortSamples(BUFFER_SIZE);
+        mResidualI = BenchmarkUtil.getShortSamples(AirspyBufferIterator.I_OVERLAP);
+        mResidualQ = BenchmarkUtil.getShortSamples(AirspyBufferIterator.Q_OVERLAP);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole)
+    {
+        AirspyBufferIterator<?> iterator = getIterator();
+
+        while(iterator.hasNext())
+        {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    /**
+     * Creates a new iterator over the native sample buffer for the benchmark implementation.
+     */
+    private AirspyBufferIterator<?> getIterator()
+    {
+        if(mInterleaved)
+        {
+            return switch(mImplementation)
+            {
+                case VECTOR_SIMD_64 -> new AirspyInterleavedBufferIteratorVector64Bits(mSamples, mResidualI,
+                        mResidualQ, 0.0f, 0L, 0.0f);
+                case VECTOR_SIMD_128 -> new AirspyInterleavedBufferIteratorVector128Bits(mSamples, mResidualI,
+                        mResidualQ, 0.0f, 0L, 0.0f);
+                case VECTOR_SIMD_256 -> new AirspyInterleavedBufferIteratorVector256Bits(mSamples, mResidualI,
+                        mResidualQ, 0.0f, 0L, 0.0f);
+                case VECTOR_SIMD_512 -> new AirspyInterleavedBufferIteratorVector512Bits(mSamples, mResidualI,
+                        mResidualQ, 0.0f, 0L, 0.0f);
+                default -> new AirspyInterleavedBufferIteratorScalar(mSamples, mResidualI, mResidualQ, 0.0f,
+                        0L, 0.0f);
+            };
+        }
+
+        return switch(mImplementation)
+        {
+            case VECTOR_SIMD_64 -> new AirspyBufferIteratorVector64Bits(mSamples, mResidualI, mResidualQ, 0.0f,
+                    0L, 0.0f);
+            case VECTOR_SIMD_128 -> new AirspyBufferIteratorVector128Bits(mSamples, mResidualI, mResidualQ, 0.0f,
+                    0L, 0.0f);
+            case VECTOR_SIMD_256 -> new AirspyBufferIteratorVector256Bits(mSamples, mResidualI, mResidualQ, 0.0f,
+                    0L, 0.0f);
+            case VECTOR_SIMD_512 -> new AirspyBufferIteratorVector512Bits(mSamples, mResidualI, mResidualQ, 0.0f,
+                    0L, 0.0f);
+            default -> new AirspyBufferIteratorScalar(mSamples, mResidualI, mResidualQ, 0.0f, 0L, 0.0f);
+        };
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer.airspy;
+
+import io.github.dsheirer.benchmark.BenchmarkUtil;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scalar and vector Airspy unpacked sample converter implementations that convert the raw USB transfer
+ * buffer bytes into 12-bit samples.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AirspySampleConverterBenchmark
+{
+    private static final int BUFFER_SIZE = 262144;
+
+    @Param({"SCALAR", "VECTOR_SIMD_PREFERRED"})
+    public Implementation mImplementation;
+
+    private IAirspySampleConverter mConverter;
+    private ByteBuffer mBuffer;
+
+    @Setup
+    public void setup()
+    {
+        mBuffer = ByteBuffer.wrap(BenchmarkUtil.getByteSamples(BUFFER_SIZE));
+
+        if(mImplementation == Implementation.VECTOR_SIMD_PREFERRED)
+        {
+            mConverter = new VectorUnpackedSampleConverter();
+        }
+        else
+        {
+            mConverter = new ScalarUnpackedSampleConverter();
+        }
+    }
+
+    @Benchmark
+    public short[] convert()
+    {
+        return mConverter.convert(mBuffer);
+    }
+}
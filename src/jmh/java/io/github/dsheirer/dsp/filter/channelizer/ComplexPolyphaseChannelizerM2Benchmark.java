@@ -0,0 +1,86 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.benchmark.BenchmarkUtil;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of the polyphase channelizer receive() method for typical tuner sample rates, using the same
+ * taps-per-channel setting as the PolyphaseChannelManager.  Each invocation processes one tuner sample buffer.
+ *
+ * Note: the channelizer is not started, so the IFFT processor dispatcher discards the filtered channel results.  This
+ * benchmark measures the polyphase filter bank that runs on the tuner's buffer thread, optionally assisted by the
+ * channelizer worker pool threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComplexPolyphaseChannelizerM2Benchmark
+{
+    private static final int TAPS_PER_CHANNEL = 9;
+
+    /**
+     * Complex samples per buffer, similar to the buffer sizes produced by the USB tuners.
+     */
+    private static final int BUFFER_SIZE = 65536;
+
+    @Param({"2500000", "10000000"})
+    public double mSampleRate;
+
+    /**
+     * Channelizer worker pool thread count, including the calling thread
+     */
+    @Param({"1", "2", "4"})
+    public int mThreadCount;
+
+    private ComplexPolyphaseChannelizerM2 mChannelizer;
+    private InterleavedComplexSamples mSamples;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        ChannelizerWorkerPool.getInstance().setThreadCount(mThreadCount);
+        mChannelizer = new ComplexPolyphaseChannelizerM2(mSampleRate, TAPS_PER_CHANNEL);
+        mSamples = new InterleavedComplexSamples(BenchmarkUtil.getFloatSamples(BUFFER_SIZE * 2), 0L);
+    }
+
+    @Benchmark
+    public void receive()
+    {
+        mChannelizer.receive(mSamples);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.benchmark.BenchmarkUtil;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scalar and vector polyphase channelizer filter kernels for the channel counts produced by typical
+ * tuner sample rates (2.5 MHz = 100 channels, 10 MHz = 400 channels) with 9 taps per channel.  Each invocation
+ * processes one filter step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolyphaseFilterKernelBenchmark
+{
+    private static final int BLOCK_COUNT = 18;
+
+    @Param({"100", "400"})
+    public int mChannelCount;
+
+    @Param({"SCALAR", "VECTOR_SIMD_64", "VECTOR_SIMD_128", "VECTOR_SIMD_256", "VECTOR_SIMD_512"})
+    public Implementation mImplementation;
+
+    private IPolyphaseFilterKernel mKernel;
+    private float[] mSamples;
+    private float[] mFilter;
+    private float[] mAccumulator;
+
+    @Setup
+    public void setup()
+    {
+        BenchmarkUtil.requireSupported(mImplementation);
+        mSamples = BenchmarkUtil.getFloatSamples(BLOCK_COUNT * mChannelCount);
+        mFilter = BenchmarkUtil.getFloatSamples(BLOCK_COUNT * mChannelCount);
+        mAccumulator = new float[2 * mChannelCount];
+
+        mKernel = switch(mImplementation)
+        {
+            case VECTOR_SIMD_64 -> new VectorPolyphaseFilterKernel64Bit();
+            case VECTOR_SIMD_128 -> new VectorPolyphaseFilterKernel128Bit();
+            case VECTOR_SIMD_256 -> new VectorPolyphaseFilterKernel256Bit();
+            case VECTOR_SIMD_512 -> new VectorPolyphaseFilterKernel512Bit();
+            default -> new ScalarPolyphaseFilterKernel();
+        };
+    }
+
+    @Benchmark
+    public float[] filter()
+    {
+        mKernel.filter(mSamples, (BLOCK_COUNT - 1) * mChannelCount, mFilter, mChannelCount, BLOCK_COUNT,
+            mAccumulator);
+        return mAccumulator;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.filter.dc;
+
+import io.github.dsheirer.benchmark.BenchmarkUtil;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scalar and vector real DC removal filter implementations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DcRemovalFilterBenchmark
+{
+    private static final float GAIN = 0.15f;
+    private static final int BUFFER_SIZE = 8192;
+
+    @Param({"SCALAR", "VECTOR_SIMD_PREFERRED"})
+    public Implementation mImplementation;
+
+    private IDcRemovalFilter mFilter;
+    private float[] mSamples;
+
+    @Setup
+    public void setup()
+    {
+        mSamples = BenchmarkUtil.getFloatSamples(BUFFER_SIZE);
+
+        if(mImplementation == Implementation.VECTOR_SIMD_PREFERRED)
+        {
+            mFilter = new VectorDcRemovalFilter(GAIN);
+        }
+        else
+        {
+            mFilter = new ScalarDcRemovalFilter(GAIN);
+        }
+    }
+
+    @Benchmark
+    public float[] filter()
+    {
+        return mFilter.filter(mSamples);
+    }
+}
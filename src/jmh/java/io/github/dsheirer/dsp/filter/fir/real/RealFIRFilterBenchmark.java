@@ -0,0 +1,82 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.filter.fir.real;
+
+import io.github.dsheirer.benchmark.BenchmarkUtil;
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.window.WindowType;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scalar and vector real FIR filter implementations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RealFIRFilterBenchmark
+{
+    private static final int BUFFER_SIZE = 2048;
+
+    @Param({"SCALAR", "VECTOR_SIMD_PREFERRED", "VECTOR_SIMD_64", "VECTOR_SIMD_128", "VECTOR_SIMD_256", "VECTOR_SIMD_512"})
+    public Implementation mImplementation;
+
+    private IRealFilter mFilter;
+    private float[] mSamples;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        BenchmarkUtil.requireSupported(mImplementation);
+        mSamples = BenchmarkUtil.getFloatSamples(BUFFER_SIZE);
+        float[] coefficients = FilterFactory.getSinc(0.25, 31, WindowType.BLACKMAN);
+
+        mFilter = switch(mImplementation)
+        {
+            case VECTOR_SIMD_PREFERRED -> new VectorRealFIRFilterDefaultBit(coefficients);
+            case VECTOR_SIMD_64 -> new VectorRealFIRFilter64Bit(coefficients);
+            case VECTOR_SIMD_128 -> new VectorRealFIRFilter128Bit(coefficients);
+            case VECTOR_SIMD_256 -> new VectorRealFIRFilter256Bit(coefficients);
+            case VECTOR_SIMD_512 -> new VectorRealFIRFilter512Bit(coefficients);
+            default -> new RealFIRFilter(coefficients);
+        };
+    }
+
+    @Benchmark
+    public float[] filter()
+    {
+        return mFilter.filter(mSamples);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.filter.halfband;
+
+import io.github.dsheirer.benchmark.BenchmarkUtil;
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.decimate.IRealDecimationFilter;
+import io.github.dsheirer.dsp.window.WindowType;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scalar and vector real half-band decimation filter implementations for each of the filter lengths
+ * that have a dedicated calibration type (11, 15, 23, 63 taps) and for the default (any length) implementations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RealHalfBandDecimationFilterBenchmark
+{
+    private static final int BUFFER_SIZE = 2048;
+
+    @Param({"11", "15", "23", "63", "DEFAULT"})
+    public String mFilter;
+
+    @Param({"SCALAR", "VECTOR_SIMD_64", "VECTOR_SIMD_128", "VECTOR_SIMD_256", "VECTOR_SIMD_512"})
+    public Implementation mImplementation;
+
+    private IRealDecimationFilter mDecimationFilter;
+    private float[] mSamples;
+
+    @Setup
+    public void setup()
+    {
+        BenchmarkUtil.requireSupported(mImplementation);
+        mSamples = BenchmarkUtil.getFloatSamples(BUFFER_SIZE);
+
+        boolean isDefault = mFilter.equals("DEFAULT");
+        int length = isDefault ? 63 : Integer.parseInt(mFilter);
+        float[] coefficients = FilterFactory.getHalfBand(length, WindowType.BLACKMAN);
+
+        if(isDefault)
+        {
+            mDecimationFilter = switch(mImplementation)
+            {
+                case VECTOR_SIMD_64 -> new VectorRealHalfBandDecimationFilter64Bit(coefficients);
+                case VECTOR_SIMD_128 -> new VectorRealHalfBandDecimationFilter128Bit(coefficients);
+                case VECTOR_SIMD_256 -> new VectorRealHalfBandDecimationFilter256Bit(coefficients);
+                case VECTOR_SIMD_512 -> new VectorRealHalfBandDecimationFilter512Bit(coefficients);
+                default -> new RealHalfBandDecimationFilter(coefficients);
+            };
+        }
+        else
+        {
+            mDecimationFilter = switch(length)
+            {
+                case 11 -> switch(mImplementation)
+                {
+                    case VECTOR_SIMD_64 -> new VectorRealHalfBandDecimationFilter11Tap64Bit(coefficients);
+                    case VECTOR_SIMD_128 -> new VectorRealHalfBandDecimationFilter11Tap128Bit(coefficients);
+                    case VECTOR_SIMD_256 -> new VectorRealHalfBandDecimationFilter11Tap256Bit(coefficients);
+                    case VECTOR_SIMD_512 -> new VectorRealHalfBandDecimationFilter11Tap512Bit(coefficients);
+                    default -> new RealHalfBandDecimationFilter(coefficients);
+                };
+                case 15 -> switch(mImplementation)
+                {
+                    case VECTOR_SIMD_64 -> new VectorRealHalfBandDecimationFilter15Tap64Bit(coefficients);
+                    case VECTOR_SIMD_128 -> new VectorRealHalfBandDecimationFilter15Tap128Bit(coefficients);
+                    case VECTOR_SIMD_256 -> new VectorRealHalfBandDecimationFilter15Tap256Bit(coefficients);
+                    case VECTOR_SIMD_512 -> new VectorRealHalfBandDecimationFilter15Tap512Bit(coefficients);
+                    default -> new RealHalfBandDecimationFilter(coefficients);
+                };
+                case 23 -> switch(mImplementation)
+                {
+                    case VECTOR_SIMD_64 -> new VectorRealHalfBandDecimationFilter23Tap64Bit(coefficients);
+                    case VECTOR_SIMD_128 -> new VectorRealHalfBandDecimationFilter23Tap128Bit(coefficients);
+                    case VECTOR_SIMD_256 -> new VectorRealHalfBandDecimationFilter23Tap256Bit(coefficients);
+                    case VECTOR_SIMD_512 -> new VectorRealHalfBandDecimationFilter23Tap512Bit(coefficients);
+                    default -> new RealHalfBandDecimationFilter(coefficients);
+                };
+                default -> switch(mImplementation)
+                {
+                    case VECTOR_SIMD_64 -> new VectorRealHalfBandDecimationFilter63Tap64Bit(coefficients);
+                    case VECTOR_SIMD_128 -> new VectorRealHalfBandDecimationFilter63Tap128Bit(coefficients);
+                    case VECTOR_SIMD_256 -> new VectorRealHalfBandDecimationFilter63Tap256Bit(coefficients);
+                    case VECTOR_SIMD_512 -> new VectorRealHalfBandDecimationFilter63Tap512Bit(coefficients);
+                    default -> new RealHalfBandDecimationFilter(coefficients);
+                };
+            };
+        }
+    }
+
+    @Benchmark
+    public float[] decimate()
+    {
+        return mDecimationFilter.decimateReal(mSamples);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.fm;
+
+import io.github.dsheirer.benchmark.BenchmarkUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scalar and vector FM demodulator and squelching FM demodulator implementations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FmDemodulatorBenchmark
+{
+    private static final float POWER_SQUELCH_ALPHA_DECAY = 0.0004f;
+    private static final float POWER_SQUELCH_THRESHOLD_DB = -78.0f;
+    private static final int POWER_SQUELCH_RAMP = 4;
+    private static final int BUFFER_SIZE = 2048;
+
+    @Param({"SCALAR", "VECTOR", "SQUELCHING_SCALAR", "SQUELCHING_VECTOR"})
+    public String mDemodulatorType;
+
+    private IFmDemodulator mDemodulator;
+    private float[] mI;
+    private float[] mQ;
+
+    @Setup
+    public void setup()
+    {
+        mI = BenchmarkUtil.getFloatSamples(BUFFER_SIZE);
+        mQ = BenchmarkUtil.getFloatSamples(BUFFER_SIZE);
+
+        mDemodulator = switch(mDemodulatorType)
+        {
+            case "VECTOR" -> new VectorFMDemodulator();
+            case "SQUELCHING_SCALAR" -> new ScalarSquelchingFMDemodulator(POWER_SQUELCH_ALPHA_DECAY,
+                    POWER_SQUELCH_THRESHOLD_DB, POWER_SQUELCH_RAMP);
+            case "SQUELCHING_VECTOR" -> new VectorSquelchingFMDemodulator(POWER_SQUELCH_ALPHA_DECAY,
+                    POWER_SQUELCH_THRESHOLD_DB, POWER_SQUELCH_RAMP);
+            default -> new ScalarFMDemodulator();
+        };
+    }
+
+    @Benchmark
+    public float[] demodulate()
+    {
+        return mDemodulator.demodulate(mI, mQ);
+    }
+}
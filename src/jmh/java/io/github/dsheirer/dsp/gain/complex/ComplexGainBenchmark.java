@@ -0,0 +1,96 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.gain.complex;
+
+import io.github.dsheirer.benchmark.BenchmarkUtil;
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scalar and vector complex gain and complex gain control (AGC) implementations.  Complex gain is
+ * applied in-place, so each invocation refreshes a working copy of the samples to keep the sample values from
+ * decaying across invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplexGainBenchmark
+{
+    private static final float GAIN = 0.99f;
+    private static final int BUFFER_SIZE = 2048;
+
+    @Param({"SCALAR", "VECTOR_SIMD_PREFERRED"})
+    public Implementation mImplementation;
+
+    private ComplexGain mGain;
+    private IComplexGainControl mGainControl;
+    private float[] mI;
+    private float[] mQ;
+    private float[] mIBuffer = new float[BUFFER_SIZE];
+    private float[] mQBuffer = new float[BUFFER_SIZE];
+
+    @Setup
+    public void setup()
+    {
+        mI = BenchmarkUtil.getFloatSamples(BUFFER_SIZE);
+        mQ = BenchmarkUtil.getFloatSamples(BUFFER_SIZE);
+
+        if(mImplementation == Implementation.VECTOR_SIMD_PREFERRED)
+        {
+            mGain = new VectorComplexGain(GAIN);
+            mGainControl = new VectorComplexGainControl();
+        }
+        else
+        {
+            mGain = new ScalarComplexGain(GAIN);
+            mGainControl = new ComplexGainControl();
+        }
+    }
+
+    @Benchmark
+    public ComplexSamples gain()
+    {
+        System.arraycopy(mI, 0, mIBuffer, 0, BUFFER_SIZE);
+        System.arraycopy(mQ, 0, mQBuffer, 0, BUFFER_SIZE);
+        return mGain.apply(mIBuffer, mQBuffer, 0L);
+    }
+
+    @Benchmark
+    public ComplexSamples gainControl()
+    {
+        return mGainControl.process(mI, mQ, 0L);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.mixer;
+
+import io.github.dsheirer.benchmark.BenchmarkUtil;
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scalar and vector complex mixer implementations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplexMixerBenchmark
+{
+    private static final double FREQUENCY = 2.0;
+    private static final double SAMPLE_RATE = 10.0;
+    private static final int BUFFER_SIZE = 2048;
+
+    @Param({"SCALAR", "VECTOR_SIMD_PREFERRED"})
+    public Implementation mImplementation;
+
+    private ComplexMixer mMixer;
+    private float[] mI;
+    private float[] mQ;
+
+    @Setup
+    public void setup()
+    {
+        mI = BenchmarkUtil.getFloatSamples(BUFFER_SIZE);
+        mQ = BenchmarkUtil.getFloatSamples(BUFFER_SIZE);
+
+        if(mImplementation == Implementation.VECTOR_SIMD_PREFERRED)
+        {
+            mMixer = new VectorComplexMixer(FREQUENCY, SAMPLE_RATE);
+        }
+        else
+        {
+            mMixer = new ScalarComplexMixer(FREQUENCY, SAMPLE_RATE, true);
+        }
+    }
+
+    @Benchmark
+    public ComplexSamples mix()
+    {
+        return mMixer.mix(mI, mQ, 0L);
+    }
+}
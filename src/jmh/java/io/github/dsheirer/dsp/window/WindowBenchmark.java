@@ -0,0 +1,81 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.window;
+
+import io.github.dsheirer.benchmark.BenchmarkUtil;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scalar and vector window implementations.  The window is applied in-place, so each invocation
+ * refreshes a working copy of the samples to keep the sample values from decaying across invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WindowBenchmark
+{
+    private static final int WINDOW_SIZE = 8192;
+
+    @Param({"SCALAR", "VECTOR_SIMD_PREFERRED"})
+    public Implementation mImplementation;
+
+    private Window mWindow;
+    private float[] mSamples;
+    private float[] mBuffer = new float[WINDOW_SIZE];
+
+    @Setup
+    public void setup()
+    {
+        mSamples = BenchmarkUtil.getFloatSamples(WINDOW_SIZE);
+        float[] coefficients = WindowFactory.getBlackman(WINDOW_SIZE);
+
+        if(mImplementation == Implementation.VECTOR_SIMD_PREFERRED)
+        {
+            mWindow = new VectorWindow(coefficients);
+        }
+        else
+        {
+            mWindow = new ScalarWindow(coefficients);
+        }
+    }
+
+    @Benchmark
+    public float[] apply()
+    {
+        System.arraycopy(mSamples, 0, mBuffer, 0, WINDOW_SIZE);
+        return mWindow.apply(mBuffer);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.edac.trellis;
+
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the node and path based viterbi decoder against the table viterbi decoder for a 196-bit P25 TSBK
+ * (1/2 rate) and DMR (3/4 rate) message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViterbiDecoderBenchmark
+{
+    private ViterbiDecoder_1_2_P25 mP25Decoder = new ViterbiDecoder_1_2_P25();
+    private ViterbiDecoder_3_4_DMR mDMRDecoder = new ViterbiDecoder_3_4_DMR();
+    private CorrectedBinaryMessage mMessage;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(196);
+        mMessage = new CorrectedBinaryMessage(196);
+
+        for(int x = 0; x < 196; x++)
+        {
+            if(random.nextBoolean())
+            {
+                mMessage.set(x);
+            }
+        }
+    }
+
+    @Benchmark
+    public Path p25HalfRatePath()
+    {
+        return mP25Decoder.decode(mP25Decoder.getSymbols(mMessage));
+    }
+
+    @Benchmark
+    public CorrectedBinaryMessage p25HalfRateTable()
+    {
+        return mP25Decoder.decode(mMessage);
+    }
+
+    @Benchmark
+    public Path dmrThreeQuarterRatePath()
+    {
+        return mDMRDecoder.decode(mDMRDecoder.getSymbols(ViterbiDecoder_3_4_DMR.deinterleave(mMessage)));
+    }
+
+    @Benchmark
+    public CorrectedBinaryMessage dmrThreeQuarterRateTable()
+    {
+        return mDMRDecoder.decode(mMessage);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.module.decode.p25.phase1;
+
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import org.apache.commons.math3.util.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of the P25 Phase 1 C4FM decode chain (baseband filter, AGC, demodulator, message framer and
+ * message processor) fed from a synthetic one second C4FM signal at the polyphase channel sample rate.
+ *
+ * The synthetic signal is a repeating sequence of frame sync followed by random dibits, frequency modulated at the
+ * standard C4FM symbol deviations.  Each benchmark operation decodes one second of signal, so the throughput score is
+ * the real-time factor for a single channel.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class P25P1DecoderBenchmark
+{
+    private static final double SAMPLE_RATE = 50000.0;
+    private static final double SYMBOL_RATE = 4800.0;
+    private static final int BUFFER_SIZE = 2048;
+    private static final long SYNC_PATTERN = 0x5575F5FF77FFL;
+    private static final int SYNC_DIBITS = 24;
+    private static final int FRAME_DIBITS = 864;
+
+    private List<ComplexSamples> mBuffers = new ArrayList<>();
+    private P25P1DecoderC4FM mDecoder;
+    private Blackhole mBlackhole;
+
+    @Setup
+    public void setup(Blackhole blackhole)
+    {
+        mBlackhole = blackhole;
+        mDecoder = new P25P1DecoderC4FM();
+        mDecoder.setSampleRate(SAMPLE_RATE);
+        mDecoder.setMessageListener(message -> mBlackhole.consume(message));
+
+        float[] i = new float[(int)SAMPLE_RATE];
+        float[] q = new float[(int)SAMPLE_RATE];
+        float[] deviations = getSymbolDeviations((int)FastMath.ceil(i.length * SYMBOL_RATE / SAMPLE_RATE));
+        double phase = 0.0;
+
+        for(int x = 0; x < i.length; x++)
+        {
+            float deviation = deviations[(int)(x * SYMBOL_RATE / SAMPLE_RATE)];
+            phase += 2.0 * FastMath.PI * deviation / SAMPLE_RATE;
+            i[x] = (float)FastMath.cos(phase);
+            q[x] = (float)FastMath.sin(phase);
+        }
+
+        for(int offset = 0; offset < i.length; offset += BUFFER_SIZE)
+        {
+            int length = FastMath.min(BUFFER_SIZE, i.length - offset);
+            float[] iBuffer = new float[length];
+            float[] qBuffer = new float[length];
+            System.arraycopy(i, offset, iBuffer, 0, length);
+            System.arraycopy(q, offset, qBuffer, 0, length);
+            mBuffers.add(new ComplexSamples(iBuffer, qBuffer, 0L));
+        }
+    }
+
+    /**
+     * Creates the C4FM frequency deviation for each symbol of a repeating frame sync plus random dibits sequence.
+     * @param symbolCount to generate
+     * @return frequency deviation in hertz per symbol
+     */
+    private static float[] getSymbolDeviations(int symbolCount)
+    {
+        Random random = new Random(0x25L);
+        float[] deviations = new float[symbolCount];
+
+        for(int x = 0; x < symbolCount; x++)
+        {
+            int frameIndex = x % FRAME_DIBITS;
+            int dibit;
+
+            if(frameIndex < SYNC_DIBITS)
+            {
+                dibit = (int)((SYNC_PATTERN >> (2 * (SYNC_DIBITS - frameIndex - 1))) & 0x3);
+            }
+            else
+            {
+                dibit = random.nextInt(4);
+            }
+
+            //Dibit to C4FM symbol mapping: 01 = +3, 00 = +1, 10 = -1, 11 = -3
+            deviations[x] = switch(dibit)
+            {
+                case 1 -> 1800.0f;
+                case 0 -> 600.0f;
+                case 2 -> -600.0f;
+                default -> -1800.0f;
+            };
+        }
+
+        return deviations;
+    }
+
+    @Benchmark
+    public void decode()
+    {
+        for(ComplexSamples buffer: mBuffers)
+        {
+            mDecoder.receive(buffer);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.sample;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the broadcast path of the locking broadcaster and the copy-on-write broadcaster, with and without
+ * per-listener timing, for the listener counts typical of a processing chain.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcasterBenchmark
+{
+    @Param({"1", "4"})
+    public int mListenerCount;
+
+    private Broadcaster<Object> mBroadcaster;
+    private CopyOnWriteBroadcaster<Object> mCopyOnWriteBroadcaster;
+    private CopyOnWriteBroadcaster<Object> mTimedBroadcaster;
+    private Object mElement = new Object();
+
+    @Setup
+    public void setup(Blackhole blackhole)
+    {
+        mBroadcaster = new Broadcaster<>();
+        mCopyOnWriteBroadcaster = new CopyOnWriteBroadcaster<>();
+        mTimedBroadcaster = new CopyOnWriteBroadcaster<>();
+        mTimedBroadcaster.enableListenerTiming("benchmark", 50, TimeUnit.MILLISECONDS);
+
+        for(int x = 0; x < mListenerCount; x++)
+        {
+            Listener<Object> listener = element -> blackhole.consume(element);
+            mBroadcaster.addListener(listener);
+            mCopyOnWriteBroadcaster.addListener(listener);
+            mTimedBroadcaster.addListener(listener);
+        }
+    }
+
+    @Benchmark
+    public void locking()
+    {
+        mBroadcaster.broadcast(mElement);
+    }
+
+    @Benchmark
+    public void copyOnWrite()
+    {
+        mCopyOnWriteBroadcaster.broadcast(mElement);
+    }
+
+    @Benchmark
+    public void copyOnWriteTimed()
+    {
+        mTimedBroadcaster.broadcast(mElement);
+    }
+}
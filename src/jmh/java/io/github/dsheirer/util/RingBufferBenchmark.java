@@ -0,0 +1,86 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the dispatcher ring buffer against the linked blocking queue that it replaced, transferring a burst of
+ * sample buffers through each queue.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingBufferBenchmark
+{
+    private static final int BURST = 64;
+    private float[] mBuffer = new float[8192];
+    private RingBuffer<float[]> mRingBuffer = new RingBuffer<>(500);
+    private LinkedBlockingQueue<float[]> mLinkedBlockingQueue = new LinkedBlockingQueue<>(500);
+
+    @Benchmark
+    public float[] ringBuffer()
+    {
+        float[] last = null;
+
+        for(int x = 0; x < BURST; x++)
+        {
+            mRingBuffer.offer(mBuffer);
+        }
+
+        for(int x = 0; x < BURST; x++)
+        {
+            last = mRingBuffer.poll();
+        }
+
+        return last;
+    }
+
+    @Benchmark
+    public float[] linkedBlockingQueue()
+    {
+        float[] last = null;
+
+        for(int x = 0; x < BURST; x++)
+        {
+            mLinkedBlockingQueue.offer(mBuffer);
+        }
+
+        for(int x = 0; x < BURST; x++)
+        {
+            last = mLinkedBlockingQueue.poll();
+        }
+
+        return last;
+    }
+}
@@ -30,6 +30,7 @@ import io.github.dsheirer.alias.id.status.UserStatusID;
 import io.github.dsheirer.alias.id.talkgroup.Talkgroup;
 import io.github.dsheirer.alias.id.talkgroup.TalkgroupRange;
 import io.github.dsheirer.alias.id.tone.TonesID;
+import io.github.dsheirer.identifier.Form;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.identifier.esn.ESNIdentifier;
@@ -53,6 +54,7 @@ import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -65,6 +67,7 @@ import java.util.TreeMap;
 public class AliasList
 {
     private final static Logger mLog = LoggerFactory.getLogger(AliasList.class);
+    private static final int LOOKUP_CACHE_SIZE = 4096;
     private Map<Protocol,TalkgroupAliasList> mTalkgroupProtocolMap = new EnumMap<>(Protocol.class);
     private Map<Protocol,RadioAliasList> mRadioProtocolMap = new EnumMap<>(Protocol.class);
     private Map<String,Alias> mESNMap = new HashMap<>();
@@ -74,6 +77,15 @@ public class AliasList
     private boolean mHasAliasActions = false;
     private String mName;
     private ObservableList<Alias> mAliases = FXCollections.observableArrayList(Alias.extractor());
+    private Map<LookupKey,List<Alias>> mLookupCache = new LinkedHashMap<>(LOOKUP_CACHE_SIZE, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LookupKey,List<Alias>> eldest)
+        {
+            return size() > LOOKUP_CACHE_SIZE;
+        }
+    };
+    private long mLookupCacheGeneration;
 
     /**
      * List of aliases where all aliases share the same list name.  Contains
@@ -113,6 +125,8 @@ public class AliasList
         {
             mAliases.add(alias);
         }
+
+        invalidateLookupCache();
     }
 
     /**
@@ -277,6 +291,7 @@ public class AliasList
         mToneSequenceMap.values().removeAll(collection);
 
         validate();
+        invalidateLookupCache();
     }
 
     /**
@@ -358,11 +373,67 @@ public class AliasList
     }
 
     /**
-     * Returns an optional alias that is associated with the identifier
-      * @param identifier to alias
-     * @return list of alias or empty list
+     * Clears the cached alias lookup results after aliases are added or removed.
+     */
+    void invalidateLookupCache()
+    {
+        synchronized(mLookupCache)
+        {
+            mLookupCacheGeneration++;
+            mLookupCache.clear();
+        }
+    }
+
+    /**
+     * Returns an optional alias that is associated with the identifier.  Talkgroup and radio lookup results are cached
+     * since the same identifiers are looked up for every message and audio segment.
+     *
+     * @param identifier to alias
+     * @return unmodifiable list of alias or empty list
      */
     public List<Alias> getAliases(Identifier identifier)
+    {
+        LookupKey key = LookupKey.create(identifier);
+
+        if(key == null)
+        {
+            return lookupAliases(identifier);
+        }
+
+        long generation;
+
+        synchronized(mLookupCache)
+        {
+            List<Alias> cached = mLookupCache.get(key);
+
+            if(cached != null)
+            {
+                return cached;
+            }
+
+            generation = mLookupCacheGeneration;
+        }
+
+        List<Alias> aliases = List.copyOf(lookupAliases(identifier));
+
+        synchronized(mLookupCache)
+        {
+            //Don't cache a result that was looked up while the aliases were changing
+            if(generation == mLookupCacheGeneration)
+            {
+                mLookupCache.put(key, aliases);
+            }
+        }
+
+        return aliases;
+    }
+
+    /**
+     * Looks up the aliases that are associated with the identifier.
+     * @param identifier to alias
+     * @return list of alias or empty list
+     */
+    private List<Alias> lookupAliases(Identifier identifier)
     {
         if(identifier != null)
         {
@@ -585,6 +656,33 @@ public class AliasList
         return channels;
     }
 
+    /**
+     * Alias lookup cache key for talkgroup and radio identifiers.  The identifier role is not part of the key since it
+     * does not affect the lookup.
+     */
+    private record LookupKey(Form form, Protocol protocol, int value)
+    {
+        /**
+         * Creates a key for a cacheable identifier
+         * @return key or null if lookup results for the identifier are not cached
+         */
+        static LookupKey create(Identifier identifier)
+        {
+            if(identifier instanceof TalkgroupIdentifier talkgroup && talkgroup.getForm() == Form.TALKGROUP &&
+                talkgroup.getValue() != null)
+            {
+                return new LookupKey(Form.TALKGROUP, talkgroup.getProtocol(), talkgroup.getValue());
+            }
+            else if(identifier instanceof RadioIdentifier radio && radio.getForm() == Form.RADIO &&
+                radio.getValue() != null)
+            {
+                return new LookupKey(Form.RADIO, radio.getProtocol(), radio.getValue());
+            }
+
+            return null;
+        }
+    }
+
     /**
      * Listing of talkgroups and ranges for a specific protocol
      */
@@ -592,6 +690,7 @@ public class AliasList
     {
         private Map<Integer,Alias> mTalkgroupAliasMap = new TreeMap<>();
         private Map<TalkgroupRange, Alias> mTalkgroupRangeAliasMap = new HashMap<>();
+        private volatile AliasRangeIndex mRangeIndex;
 
         public TalkgroupAliasList()
         {
@@ -607,15 +706,38 @@ public class AliasList
                 return mapValue;
             }
 
-            for(Map.Entry<TalkgroupRange, Alias> entry : mTalkgroupRangeAliasMap.entrySet())
+            return getRangeIndex().get(value);
+        }
+
+        /**
+         * Index of the talkgroup ranges, created on first use after the ranges change.
+         */
+        private AliasRangeIndex getRangeIndex()
+        {
+            AliasRangeIndex index = mRangeIndex;
+
+            if(index == null)
             {
-                if(entry.getKey().contains(value))
+                synchronized(this)
                 {
-                    return entry.getValue();
+                    if(mRangeIndex == null)
+                    {
+                        List<AliasRangeIndex.Range> ranges = new ArrayList<>();
+
+                        for(Map.Entry<TalkgroupRange,Alias> entry: mTalkgroupRangeAliasMap.entrySet())
+                        {
+                            ranges.add(new AliasRangeIndex.Range(entry.getKey().getMinTalkgroup(),
+                                entry.getKey().getMaxTalkgroup(), entry.getValue()));
+                        }
+
+                        mRangeIndex = ranges.isEmpty() ? AliasRangeIndex.EMPTY : new AliasRangeIndex(ranges);
+                    }
+
+                    index = mRangeIndex;
                 }
             }
 
-            return null;
+            return index;
         }
 
         public void add(Talkgroup talkgroup, Alias alias)
@@ -642,7 +764,7 @@ public class AliasList
             mTalkgroupAliasMap.put(talkgroup.getValue(), alias);
         }
 
-        public void add(TalkgroupRange talkgroupRange, Alias alias)
+        public synchronized void add(TalkgroupRange talkgroupRange, Alias alias)
         {
             //Log warning if the new talkgroup range overlaps with any existing ranges
             for(Map.Entry<TalkgroupRange,Alias> entry: mTalkgroupRangeAliasMap.entrySet())
@@ -655,15 +777,20 @@ public class AliasList
             }
 
             mTalkgroupRangeAliasMap.put(talkgroupRange, alias);
+            mRangeIndex = null;
         }
 
         /**
          * Removes the alias from both the talkgroup and the talkgroup range maps.
          */
-        public void remove(Alias alias)
+        public synchronized void remove(Alias alias)
         {
             mTalkgroupAliasMap.values().removeAll(Collections.singleton(alias));
-            mTalkgroupRangeAliasMap.values().removeAll(Collections.singleton(alias));
+
+            if(mTalkgroupRangeAliasMap.values().removeAll(Collections.singleton(alias)))
+            {
+                mRangeIndex = null;
+            }
         }
     }
 
@@ -674,6 +801,7 @@ public class AliasList
     {
         private Map<Integer,Alias> mRadioAliasMap = new TreeMap<>();
         private Map<RadioRange, Alias> mRadioRangeAliasMap = new HashMap<>();
+        private volatile AliasRangeIndex mRangeIndex;
 
         public RadioAliasList()
         {
@@ -689,15 +817,38 @@ public class AliasList
                 return mapValue;
             }
 
-            for(Map.Entry<RadioRange, Alias> entry : mRadioRangeAliasMap.entrySet())
+            return getRangeIndex().get(value);
+        }
+
+        /**
+         * Index of the radio ranges, created on first use after the ranges change.
+         */
+        private AliasRangeIndex getRangeIndex()
+        {
+            AliasRangeIndex index = mRangeIndex;
+
+            if(index == null)
             {
-                if(entry.getKey().contains(value))
+                synchronized(this)
                 {
-                    return entry.getValue();
+                    if(mRangeIndex == null)
+                    {
+                        List<AliasRangeIndex.Range> ranges = new ArrayList<>();
+
+                        for(Map.Entry<RadioRange,Alias> entry: mRadioRangeAliasMap.entrySet())
+                        {
+                            ranges.add(new AliasRangeIndex.Range(entry.getKey().getMinRadio(),
+                                entry.getKey().getMaxRadio(), entry.getValue()));
+                        }
+
+                        mRangeIndex = ranges.isEmpty() ? AliasRangeIndex.EMPTY : new AliasRangeIndex(ranges);
+                    }
+
+                    index = mRangeIndex;
                 }
             }
 
-            return null;
+            return index;
         }
 
         public void add(Radio radio, Alias alias)
@@ -724,7 +875,7 @@ public class AliasList
             mRadioAliasMap.put(radio.getValue(), alias);
         }
 
-        public void add(RadioRange radioRange, Alias alias)
+        public synchronized void add(RadioRange radioRange, Alias alias)
         {
             //Log warning if the new range overlaps with any existing ranges
             for(Map.Entry<RadioRange,Alias> entry: mRadioRangeAliasMap.entrySet())
@@ -737,15 +888,20 @@ public class AliasList
             }
 
             mRadioRangeAliasMap.put(radioRange, alias);
+            mRangeIndex = null;
         }
 
         /**
          * Removes the alias from both the radio and the radio range maps.
          */
-        public void remove(Alias alias)
+        public synchronized void remove(Alias alias)
         {
             mRadioAliasMap.values().removeAll(Collections.singleton(alias));
-            mRadioRangeAliasMap.values().removeAll(Collections.singleton(alias));
+
+            if(mRadioRangeAliasMap.values().removeAll(Collections.singleton(alias)))
+            {
+                mRangeIndex = null;
+            }
         }
     }
 }
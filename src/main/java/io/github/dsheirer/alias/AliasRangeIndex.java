@@ -0,0 +1,226 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.alias;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable index of alias identifier value ranges (ie talkgroup or radio ranges) for fast lookup of the alias that
+ * contains a value.
+ *
+ * Ranges are sorted by minimum value.  When none of the ranges overlap, lookup is a binary search for the nearest
+ * preceding range.  When ranges overlap, the sorted ranges are treated as an implicit balanced interval tree where
+ * each node carries the maximum value of its subtree, and the lookup visits only the subtrees that can contain the
+ * value.  When more than one range contains the value, the narrowest range wins, which makes the result independent
+ * of the order that the aliases were added.
+ */
+public class AliasRangeIndex
+{
+    public static final AliasRangeIndex EMPTY = new AliasRangeIndex(List.of());
+
+    private final int[] mMinimums;
+    private final int[] mMaximums;
+    private final Alias[] mAliases;
+    private final int[] mSubtreeMaximums;
+
+    /**
+     * Constructs an instance
+     * @param ranges to index.  Ranges with a maximum value less than the minimum value are ignored.
+     */
+    public AliasRangeIndex(Collection<Range> ranges)
+    {
+        List<Range> sorted = new ArrayList<>(ranges.size());
+
+        for(Range range: ranges)
+        {
+            if(range.min() <= range.max())
+            {
+                sorted.add(range);
+            }
+        }
+
+        sorted.sort(Comparator.comparingInt(Range::min).thenComparingInt(Range::max));
+
+        int count = sorted.size();
+        mMinimums = new int[count];
+        mMaximums = new int[count];
+        mAliases = new Alias[count];
+        boolean overlapping = false;
+
+        for(int x = 0; x < count; x++)
+        {
+            Range range = sorted.get(x);
+            mMinimums[x] = range.min();
+            mMaximums[x] = range.max();
+            mAliases[x] = range.alias();
+
+            if(x > 0 && mMinimums[x] <= mMaximums[x - 1])
+            {
+                overlapping = true;
+            }
+        }
+
+        //Since ranges are sorted by minimum, a range can only overlap a preceding range that extends beyond it
+        if(overlapping)
+        {
+            mSubtreeMaximums = new int[count];
+            buildSubtreeMaximums(0, count - 1);
+        }
+        else
+        {
+            mSubtreeMaximums = null;
+        }
+    }
+
+    /**
+     * Number of indexed ranges
+     */
+    public int size()
+    {
+        return mAliases.length;
+    }
+
+    /**
+     * Indicates if any of the indexed ranges overlap
+     */
+    public boolean isOverlapping()
+    {
+        return mSubtreeMaximums != null;
+    }
+
+    /**
+     * Alias for the range that contains the value.
+     * @param value to lookup
+     * @return alias for the narrowest range that contains the value, or null
+     */
+    public Alias get(int value)
+    {
+        int index;
+
+        if(mSubtreeMaximums == null)
+        {
+            index = floor(value);
+
+            if(index >= 0 && value > mMaximums[index])
+            {
+                index = -1;
+            }
+        }
+        else
+        {
+            index = search(0, mAliases.length - 1, value, -1);
+        }
+
+        return index >= 0 ? mAliases[index] : null;
+    }
+
+    /**
+     * Index of the last range with a minimum value less than or equal to the value, or -1
+     */
+    private int floor(int value)
+    {
+        int low = 0;
+        int high = mMinimums.length - 1;
+
+        while(low <= high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(mMinimums[mid] <= value)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+
+        return high;
+    }
+
+    /**
+     * Calculates the maximum range value for the implicit subtree rooted at the midpoint of the low and high indices.
+     */
+    private int buildSubtreeMaximums(int low, int high)
+    {
+        if(low > high)
+        {
+            return Integer.MIN_VALUE;
+        }
+
+        int mid = (low + high) >>> 1;
+        int maximum = Math.max(mMaximums[mid], Math.max(buildSubtreeMaximums(low, mid - 1),
+            buildSubtreeMaximums(mid + 1, high)));
+        mSubtreeMaximums[mid] = maximum;
+        return maximum;
+    }
+
+    /**
+     * Searches the implicit subtree rooted at the midpoint of the low and high indices for the narrowest range that
+     * contains the value.
+     * @return index of the best matching range, or the best argument when the subtree has no better match
+     */
+    private int search(int low, int high, int value, int best)
+    {
+        if(low > high)
+        {
+            return best;
+        }
+
+        int mid = (low + high) >>> 1;
+
+        if(mSubtreeMaximums[mid] < value)
+        {
+            return best;
+        }
+
+        best = search(low, mid - 1, value, best);
+
+        //Ranges in the right subtree start at or after this range, so they can only match if this range starts
+        //at or before the value
+        if(mMinimums[mid] <= value)
+        {
+            if(value <= mMaximums[mid] && (best < 0 || getWidth(mid) < getWidth(best)))
+            {
+                best = mid;
+            }
+
+            best = search(mid + 1, high, value, best);
+        }
+
+        return best;
+    }
+
+    private long getWidth(int index)
+    {
+        return (long)mMaximums[index] - mMinimums[index];
+    }
+
+    /**
+     * Inclusive range of values for an alias
+     * @param min value
+     * @param max value
+     * @param alias for the range
+     */
+    public record Range(int min, int max, Alias alias) {}
+}
@@ -59,6 +59,14 @@ public abstract class RecurringAction extends AliasAction
                     ThreadPool.SCHEDULED.schedule(new ResetTask(), mPeriod, TimeUnit.SECONDS);
                     break;
                 case UNTIL_DISMISSED:
+                    if(GraphicsEnvironment.isHeadless())
+                    {
+                        //There is no display for the user to dismiss the alert, so perform it as a delayed reset
+                        performThreadedAction(alias, message);
+                        ThreadPool.SCHEDULED.schedule(new ResetTask(), mPeriod, TimeUnit.SECONDS);
+                        break;
+                    }
+
                     mPerpetualAction = ThreadPool.SCHEDULED.scheduleAtFixedRate(
                         new PerformActionTask(alias, message), 0, mPeriod, TimeUnit.SECONDS);
 
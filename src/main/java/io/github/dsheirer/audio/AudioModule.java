@@ -26,7 +26,6 @@ import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.real.IRealFilter;
-import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.real.IRealBufferListener;
 import org.slf4j.Logger;
@@ -57,12 +56,7 @@ public class AudioModule extends AbstractAudioModule implements ISquelchStateLis
             .build();
         try
         {
-            RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
-
-            if(designer.isValid())
-            {
-                sHighPassFilterCoefficients = designer.getImpulseResponse();
-            }
+            sHighPassFilterCoefficients = FilterFactory.getTaps(specification);
         }
         catch(FilterDesignException fde)
         {
@@ -20,6 +20,7 @@ import io.github.dsheirer.alias.Alias;
 import io.github.dsheirer.alias.AliasList;
 import io.github.dsheirer.alias.id.broadcast.BroadcastChannel;
 import io.github.dsheirer.alias.id.priority.Priority;
+import io.github.dsheirer.audio.convert.EncodedAudioCache;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.identifier.IdentifierUpdateNotification;
@@ -326,6 +327,7 @@ public class AudioSegment implements Listener<IdentifierUpdateNotification>
         mIdentifierCollection.clear();
         mIdentifierUpdateNotificationBroadcaster.clear();
         mLinkedAudioSegment = null;
+        EncodedAudioCache.getInstance().remove(this);
     }
 
     /**
@@ -18,12 +18,12 @@
  */
 package io.github.dsheirer.audio;
 
-import io.github.dsheirer.sample.Broadcaster;
+import io.github.dsheirer.sample.CopyOnWriteBroadcaster;
 import io.github.dsheirer.sample.Listener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class AudioSegmentBroadcaster<T extends AudioSegment> extends Broadcaster<T>
+public class AudioSegmentBroadcaster<T extends AudioSegment> extends CopyOnWriteBroadcaster<T>
 {
     private final static Logger mLog = LoggerFactory.getLogger(AudioSegmentBroadcaster.class);
 
@@ -39,7 +39,7 @@ public class AudioSegmentBroadcaster<T extends AudioSegment> extends Broadcaster
     @Override
     public void broadcast(T audioSegment)
     {
-        for(Listener<T> listener : getListeners())
+        for(Listener<T> listener : getListenerArray())
         {
             audioSegment.incrementConsumerCount();
             listener.receive(audioSegment);
@@ -22,6 +22,7 @@ package io.github.dsheirer.audio;
 import io.github.dsheirer.identifier.Form;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.IdentifierClass;
+import io.github.dsheirer.identifier.IdentifierUpdateNotification;
 import io.github.dsheirer.identifier.Role;
 import io.github.dsheirer.identifier.configuration.SystemConfigurationIdentifier;
 import io.github.dsheirer.identifier.patch.PatchGroupIdentifier;
@@ -30,7 +31,8 @@ import io.github.dsheirer.identifier.talkgroup.TalkgroupIdentifier;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.preference.duplicate.DuplicateCallDetectionPreference;
 import io.github.dsheirer.sample.Listener;
-import io.github.dsheirer.util.ThreadPool;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,10 +40,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.LinkedTransferQueue;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Detects duplicate calls that occur within the same system.  This detector is thread safe for the receive() method.
@@ -88,231 +86,268 @@ public class DuplicateCallDetector implements Listener<AudioSegment>
         }
     }
 
+    /**
+     * Detects duplicate calls within a single system.  Each audio segment's TO and FROM identifiers are indexed by a
+     * normalized call key as the identifiers arrive, so that a duplicate call is detected when the segment claims a
+     * call key that is already held by another active segment, instead of comparing every active segment against
+     * every other segment.
+     *
+     * When two active segments claim the same call key, the segment that arrived at this detector later is flagged as
+     * the duplicate, regardless of which segment claimed the key first, and the earlier segment holds the call key
+     * until it completes.  This ensures that an identifier that arrives late on an earlier call doesn't suppress that
+     * call while it may already be playing or streaming.
+     */
     public class SystemDuplicateCallDetector
     {
-        private LinkedTransferQueue<AudioSegment> mAudioSegmentQueue = new LinkedTransferQueue<>();
-        private List<AudioSegment> mAudioSegments = new ArrayList<>();
-        private AtomicBoolean mMonitoring = new AtomicBoolean();
-        private ScheduledFuture<?> mProcessorFuture;
+        private Map<CallKey,TrackedSegment> mCallKeyMap = new HashMap<>();
+        private long mNextSequence;
 
         public SystemDuplicateCallDetector()
         {
         }
 
+        /**
+         * Adds the audio segment for duplicate call detection.  The segment is checked against the active segments
+         * using the identifiers that it currently holds and then monitored for identifier updates and completion.
+         */
         public void add(AudioSegment audioSegment)
         {
-            //Block on audio segment queue so that we don't interfere with monitoring shutdown
-            synchronized(mAudioSegmentQueue)
+            TrackedSegment trackedSegment = new TrackedSegment(audioSegment);
+            audioSegment.addIdentifierUpdateNotificationListener(trackedSegment);
+            audioSegment.completeProperty().addListener(trackedSegment);
+
+            List<TrackedSegment> duplicates = new ArrayList<>();
+
+            synchronized(this)
             {
-                mAudioSegmentQueue.add(audioSegment);
-                startMonitoring();
+                trackedSegment.mSequence = mNextSequence++;
+
+                for(Identifier identifier: audioSegment.getIdentifierCollection().getIdentifiers(Role.TO))
+                {
+                    claim(trackedSegment, identifier, duplicates);
+                }
+
+                for(Identifier identifier: audioSegment.getIdentifierCollection().getIdentifiers(Role.FROM))
+                {
+                    claim(trackedSegment, identifier, duplicates);
+                }
             }
-        }
 
-        private void startMonitoring()
-        {
-            if(mMonitoring.compareAndSet(false, true))
+            for(TrackedSegment duplicate: duplicates)
             {
-                mProcessorFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(() -> process(),
-                    0, 25, TimeUnit.MILLISECONDS);
+                duplicate.finish(true);
             }
-        }
 
-        private void stopMonitoring()
-        {
-            if(mMonitoring.compareAndSet(true, false))
+            if(!trackedSegment.mDuplicate && audioSegment.completeProperty().get())
             {
-                if(mProcessorFuture != null)
-                {
-                    mProcessorFuture.cancel(true);
-                }
+                trackedSegment.finish(false);
             }
         }
 
         /**
-         * Checks if either the TO or FROM integer identifiers for the audio segments are the same
-         * @param segment1 to compare
-         * @param segment2 to compare
-         * @return true if integer identifiers are the same
+         * Number of call keys held by the active audio segments
          */
-        private boolean isDuplicate(AudioSegment segment1, AudioSegment segment2)
+        public synchronized int getCallKeyCount()
         {
-            if(mDuplicateCallDetectionPreference.isDuplicateCallDetectionByTalkgroupEnabled())
+            return mCallKeyMap.size();
+        }
+
+        /**
+         * Claims the call key for the identifier for the tracked segment.  When another active segment holds the call
+         * key, the segment that arrived later is marked as a duplicate and releases its call keys, and the earlier
+         * segment holds the call key.  Must be invoked while holding the lock on this detector.
+         *
+         * @param trackedSegment claiming the call key
+         * @param identifier for the call key
+         * @param duplicates to receive the segment that is marked as a duplicate, to be finished after releasing the lock
+         */
+        private void claim(TrackedSegment trackedSegment, Identifier identifier, List<TrackedSegment> duplicates)
+        {
+            CallKey callKey = getCallKey(identifier);
+
+            if(callKey == null || trackedSegment.mFinished || trackedSegment.mDuplicate)
             {
-                //Step 1 check for duplicate TO values
-                List<Identifier> to1 = segment1.getIdentifierCollection().getIdentifiers(Role.TO);
-                List<Identifier> to2 = segment2.getIdentifierCollection().getIdentifiers(Role.TO);
+                return;
+            }
+
+            TrackedSegment owner = mCallKeyMap.putIfAbsent(callKey, trackedSegment);
+
+            if(owner == null)
+            {
+                trackedSegment.mCallKeys.add(callKey);
+            }
+            else if(owner != trackedSegment)
+            {
+                TrackedSegment duplicate = owner.mSequence < trackedSegment.mSequence ? trackedSegment : owner;
+                markDuplicate(duplicate);
 
-                if(isDuplicate(to1, to2))
+                if(duplicate == owner)
                 {
-                    return true;
+                    mCallKeyMap.put(callKey, trackedSegment);
+                    trackedSegment.mCallKeys.add(callKey);
                 }
+
+                duplicates.add(duplicate);
             }
+        }
 
-            if(mDuplicateCallDetectionPreference.isDuplicateCallDetectionByRadioEnabled())
-            {
-                //Step 2 check for duplicate FROM values
-                List<Identifier> from1 = segment1.getIdentifierCollection().getIdentifiers(Role.FROM);
-                List<Identifier> from2 = segment2.getIdentifierCollection().getIdentifiers(Role.FROM);
+        /**
+         * Marks the tracked segment as a duplicate and releases its call keys.  Must be invoked while holding the lock
+         * on this detector.
+         */
+        private void markDuplicate(TrackedSegment trackedSegment)
+        {
+            trackedSegment.mDuplicate = true;
 
-                return isDuplicate(from1, from2);
+            for(CallKey callKey: trackedSegment.mCallKeys)
+            {
+                mCallKeyMap.remove(callKey, trackedSegment);
             }
 
-            return false;
+            trackedSegment.mCallKeys.clear();
         }
 
         /**
-         * Checks both lists of identifiers to determine if there are talkgroups or radio identifiers that are
-         * the same in both lists.  Note: talkgroup check compares both talkgroups and patch groups.
+         * Creates a normalized call key for the identifier.  Talkgroup and patch group identifiers share the same
+         * key space so that a patch group matches a talkgroup with the same value.
          *
-         * @param identifiers1
-         * @param identifiers2
-         * @return
+         * @return call key or null if the identifier is not used for duplicate call detection
          */
-        private boolean isDuplicate(List<Identifier> identifiers1, List<Identifier> identifiers2)
+        private CallKey getCallKey(Identifier identifier)
         {
-            for(Identifier identifier1: identifiers1)
+            Role role = identifier.getRole();
+
+            if((role == Role.TO && mDuplicateCallDetectionPreference.isDuplicateCallDetectionByTalkgroupEnabled()) ||
+               (role == Role.FROM && mDuplicateCallDetectionPreference.isDuplicateCallDetectionByRadioEnabled()))
             {
-                if(identifier1 instanceof TalkgroupIdentifier)
+                if(identifier instanceof TalkgroupIdentifier talkgroup)
                 {
-                    int talkgroup1 = ((TalkgroupIdentifier)identifier1).getValue();
-
-                    for(Identifier identifier2: identifiers2)
-                    {
-                        if(identifier2 instanceof TalkgroupIdentifier &&
-                           ((TalkgroupIdentifier)identifier2).getValue() == talkgroup1)
-                        {
-                            return true;
-                        }
-                        else if(identifier2 instanceof PatchGroupIdentifier &&
-                            ((PatchGroupIdentifier)identifier2).getValue().getPatchGroup().getValue() == talkgroup1)
-                        {
-                            return true;
-                        }
-                    }
+                    return new CallKey(role, Form.TALKGROUP, talkgroup.getValue());
                 }
-                else if(identifier1 instanceof PatchGroupIdentifier)
+                else if(identifier instanceof PatchGroupIdentifier patchGroup)
                 {
-                    int talkgroup1 = ((PatchGroupIdentifier)identifier1).getValue().getPatchGroup().getValue();
-
-                    for(Identifier identifier2: identifiers2)
-                    {
-                        if(identifier2 instanceof TalkgroupIdentifier &&
-                            ((TalkgroupIdentifier)identifier2).getValue() == talkgroup1)
-                        {
-                            return true;
-                        }
-                        else if(identifier2 instanceof PatchGroupIdentifier &&
-                            ((PatchGroupIdentifier)identifier2).getValue().getPatchGroup().getValue() == talkgroup1)
-                        {
-                            return true;
-                        }
-                    }
+                    return new CallKey(role, Form.TALKGROUP, patchGroup.getValue().getPatchGroup().getValue());
                 }
-                else if(identifier1 instanceof RadioIdentifier)
+                else if(identifier instanceof RadioIdentifier radio)
                 {
-                    int radio1 = ((RadioIdentifier)identifier1).getValue();
-
-                    for(Identifier identifier2: identifiers2)
-                    {
-                        if(identifier2 instanceof RadioIdentifier && ((RadioIdentifier)identifier2).getValue() == radio1)
-                        {
-                            return true;
-                        }
-                    }
+                    return new CallKey(role, Form.RADIO, radio.getValue());
                 }
             }
 
-            return false;
+            return null;
         }
 
         /**
-         * Processes audio segments to detect duplicates
+         * Audio segment that is monitored for identifier updates and completion, with the call keys that it holds.
          */
-        private void process()
+        private class TrackedSegment implements Listener<IdentifierUpdateNotification>, ChangeListener<Boolean>
         {
-            try
+            private AudioSegment mAudioSegment;
+            private List<CallKey> mCallKeys = new ArrayList<>();
+            private long mSequence;
+            private boolean mDuplicate;
+            private boolean mFinished;
+
+            public TrackedSegment(AudioSegment audioSegment)
             {
-                //Transfer in newly arrived audio segments
-                mAudioSegmentQueue.drainTo(mAudioSegments);
+                mAudioSegment = audioSegment;
+            }
 
-                //Remove any completed audio segments.
-                mAudioSegments.removeIf(audioSegment -> {
-                    boolean complete = audioSegment.completeProperty().get();
+            /**
+             * Checks each identifier added to the audio segment for a duplicate call and releases the call key for
+             * each identifier that is removed from the audio segment.
+             */
+            @Override
+            public void receive(IdentifierUpdateNotification notification)
+            {
+                Identifier identifier = notification.getIdentifier();
 
-                    if(complete)
-                    {
-                        audioSegment.decrementConsumerCount();
-                    }
+                if(identifier == null)
+                {
+                    return;
+                }
 
-                    return complete;
-                });
+                List<TrackedSegment> duplicates = new ArrayList<>();
 
-                //Only check for duplicates if there is more than one call
-                if(mAudioSegments.size() > 1)
+                synchronized(SystemDuplicateCallDetector.this)
                 {
-                    List<AudioSegment> duplicates = new ArrayList<>();
-
-                    int currentIndex = 0;
-                    while(currentIndex < mAudioSegments.size() - 1)
+                    if(notification.isAdd() || notification.isSilentAdd())
                     {
-                        AudioSegment current = mAudioSegments.get(currentIndex);
+                        claim(this, identifier, duplicates);
+                    }
+                    else if(notification.isRemove() || notification.isSilentRemove())
+                    {
+                        CallKey callKey = getCallKey(identifier);
 
-                        if(!current.isDuplicate())
+                        if(callKey != null && mCallKeys.remove(callKey))
                         {
-                            int checkIndex = currentIndex + 1;
-
-                            while(checkIndex < mAudioSegments.size())
-                            {
-                                AudioSegment toCheck = mAudioSegments.get(checkIndex);
-
-                                if(!toCheck.isDuplicate())
-                                {
-                                    if(isDuplicate(current, toCheck))
-                                    {
-                                        toCheck.setDuplicate(true);
-                                        toCheck.decrementConsumerCount();
-                                        duplicates.add(toCheck);
-                                    }
-                                }
-
-                                checkIndex++;
-                            }
+                            mCallKeyMap.remove(callKey, this);
                         }
-
-                        currentIndex++;
                     }
+                }
 
-                    mAudioSegments.removeAll(duplicates);
+                for(TrackedSegment duplicate: duplicates)
+                {
+                    duplicate.finish(true);
                 }
+            }
 
-                //Finally, if the audio segment queue is empty, shutdown montitoring until a new segment arrives
-                if(mAudioSegments.isEmpty())
+            /**
+             * Audio segment complete property listener
+             */
+            @Override
+            public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean complete)
+            {
+                if(complete)
                 {
-                    //Block on the audio segment queue so that we can shutdown before any new segments are added, and
-                    //allow the add(segment) to restart monitoring as soon as needed.
-                    synchronized(mAudioSegmentQueue)
-                    {
-                        if(mAudioSegmentQueue.isEmpty())
-                        {
-                            try
-                            {
-                                stopMonitoring();
-                            }
-                            catch(Exception e)
-                            {
-                                mLog.error("Unexpected error during duplicate audio segment monitoring shutdown", e);
-                                //Do nothing, we got interrupted
-                            }
-                        }
-                    }
+                    finish(false);
                 }
             }
-            catch(Throwable t)
+
+            /**
+             * Releases the call keys held by the audio segment, stops monitoring the audio segment and releases this
+             * detector's consumer reference to the audio segment.
+             *
+             * @param duplicate true to flag the audio segment as a duplicate call
+             */
+            private void finish(boolean duplicate)
             {
-                mLog.error("Unknown error while processing audio segments for duplicate call detection.  Please report " +
-                    "this to the developer.", t);
+                synchronized(SystemDuplicateCallDetector.this)
+                {
+                    if(mFinished)
+                    {
+                        return;
+                    }
+
+                    mFinished = true;
+
+                    for(CallKey callKey: mCallKeys)
+                    {
+                        mCallKeyMap.remove(callKey, this);
+                    }
+
+                    mCallKeys.clear();
+                }
+
+                mAudioSegment.removeIdentifierUpdateNotificationListener(this);
+                mAudioSegment.completeProperty().removeListener(this);
+
+                if(duplicate)
+                {
+                    mAudioSegment.setDuplicate(true);
+                }
+
+                mAudioSegment.decrementConsumerCount();
             }
         }
     }
+
+    /**
+     * Normalized identifier value used to match duplicate calls.
+     *
+     * @param role of the identifier, TO or FROM
+     * @param form TALKGROUP for talkgroup and patch group identifiers or RADIO for radio identifiers
+     * @param value of the identifier
+     */
+    private record CallKey(Role role, Form form, int value) {}
 }
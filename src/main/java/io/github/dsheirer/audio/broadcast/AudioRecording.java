@@ -19,11 +19,11 @@
 package io.github.dsheirer.audio.broadcast;
 
 import io.github.dsheirer.alias.id.broadcast.BroadcastChannel;
+import io.github.dsheirer.audio.convert.EncodedAudio;
 import io.github.dsheirer.identifier.IdentifierCollection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.file.Path;
 import java.util.Collection;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -31,7 +31,7 @@ public class AudioRecording implements Comparable<AudioRecording>
 {
     private final static Logger mLog = LoggerFactory.getLogger(AudioRecording.class);
 
-    private Path mPath;
+    private EncodedAudio mEncodedAudio;
     private long mStartTime;
     private long mRecordingLength;
     private AtomicInteger mPendingReplayCount = new AtomicInteger();
@@ -41,15 +41,16 @@ public class AudioRecording implements Comparable<AudioRecording>
     /**
      * Audio recording that is ready to be streamed
      *
-     * @param path to the audio recording file
+     * @param encodedAudio for the recording.  The recording takes ownership of the caller's reference to the audio,
+     * which is released when the recording is released.
      * @param identifierCollection associated with the recording
      * @param start time of recording in milliseconds since epoch
      * @param recordingLength in milliseconds
      */
-    public AudioRecording(Path path, Collection<BroadcastChannel> broadcastChannels,
+    public AudioRecording(EncodedAudio encodedAudio, Collection<BroadcastChannel> broadcastChannels,
                           IdentifierCollection identifierCollection, long start, long recordingLength)
     {
-        mPath = path;
+        mEncodedAudio = encodedAudio;
         mBroadcastChannels = broadcastChannels;
         mIdentifierCollection = identifierCollection;
         mStartTime = start;
@@ -57,11 +58,19 @@ public class AudioRecording implements Comparable<AudioRecording>
     }
 
     /**
-     * Path to the completed audio recording
+     * Encoded audio for the completed audio recording
      */
-    public Path getPath()
+    public EncodedAudio getEncodedAudio()
     {
-        return mPath;
+        return mEncodedAudio;
+    }
+
+    /**
+     * Releases the encoded audio once the recording has no pending replays.
+     */
+    public void release()
+    {
+        mEncodedAudio.release();
     }
 
     /**
@@ -21,12 +21,10 @@ package io.github.dsheirer.audio.broadcast;
 import io.github.dsheirer.audio.convert.AudioFrames;
 import io.github.dsheirer.audio.convert.ISilenceGenerator;
 import io.github.dsheirer.audio.convert.InputAudioFormat;
-import io.github.dsheirer.audio.convert.MP3FrameTools;
 import io.github.dsheirer.audio.convert.MP3Setting;
 import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.util.ThreadPool;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.Queue;
 import java.util.concurrent.LinkedTransferQueue;
 import java.util.concurrent.ScheduledFuture;
@@ -360,35 +358,35 @@ public abstract class AudioStreamingBroadcaster<T extends BroadcastConfiguration
 
                 try
                 {
-                    if(Files.exists(nextRecording.getPath()))
+                    //The encoded audio frames are shared by all broadcasters - each gets its own frame iterator
+                    AudioFrames audioFrames;
+
+                    switch(mBroadcastFormat)
                     {
-                        byte[] audio = Files.readAllBytes(nextRecording.getPath());
+                        case MP3:
+                            audioFrames = nextRecording.getEncodedAudio().getAudioFrames();
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Unsupported broadcast format [" + mBroadcastFormat + "]");
+                    }
 
-                        if(audio.length > 0)
+                    if(audioFrames.hasNextFrame())
+                    {
+                        mInputFrames = audioFrames;
+                        mInputIdentifierCollection = nextRecording.getIdentifierCollection();
+
+                        if(connected())
                         {
-                            switch(mBroadcastFormat)
-                            {
-                                case MP3:
-                                    mInputFrames = MP3FrameTools.split(audio);
-                                    break;
-                                default:
-                                    throw new IllegalArgumentException("Unsupported broadcast format [" + mBroadcastFormat + "]");
-                            }
-                            mInputIdentifierCollection = nextRecording.getIdentifierCollection();
-
-                            if(connected())
-                            {
-                                broadcastMetadata(nextRecording.getIdentifierCollection());
-                            }
-
-                            metadataUpdateRequired = false;
+                            broadcastMetadata(nextRecording.getIdentifierCollection());
                         }
+
+                        metadataUpdateRequired = false;
                     }
                 }
                 catch(IOException ioe)
                 {
-                    mLog.error("Stream [" + getBroadcastConfiguration().getName() + "] error reading temporary audio " +
-                        "stream recording [" + nextRecording.getPath().toString() + "] - skipping recording - ", ioe);
+                    mLog.error("Stream [" + getBroadcastConfiguration().getName() + "] error reading spilled audio " +
+                        "stream recording - skipping recording - ", ioe);
 
                     mInputFrames = null;
                     mInputIdentifierCollection = null;
@@ -20,18 +20,17 @@
 package io.github.dsheirer.audio.broadcast;
 
 import io.github.dsheirer.audio.AudioSegment;
+import io.github.dsheirer.audio.convert.EncodedAudio;
+import io.github.dsheirer.audio.convert.EncodedAudioCache;
 import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.record.AudioSegmentRecorder;
-import io.github.dsheirer.record.RecordFormat;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.util.ThreadPool;
-import io.github.dsheirer.util.TimeStamp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -40,8 +39,9 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Audio streaming manager monitors audio segments through completion and creates temporary streaming recordings on
- * disk and enqueues the temporary recording for streaming.
+ * Audio streaming manager monitors audio segments through completion, encodes the completed audio segments and
+ * enqueues the encoded audio as a recording for streaming.  The encoded audio is shared with the audio recorder and
+ * with all of the broadcasters via the encoded audio cache, so each audio segment is encoded once.
  */
 public class AudioStreamingManager implements Listener<AudioSegment>
 {
@@ -52,12 +52,11 @@ public class AudioStreamingManager implements Listener<AudioSegment>
     private BroadcastFormat mBroadcastFormat;
     private UserPreferences mUserPreferences;
     private ScheduledFuture<?> mAudioSegmentProcessorFuture;
-    private int mNextRecordingNumber = 1;
 
     /**
      * Constructs an instance
      * @param listener to receive completed audio recordings
-     * @param broadcastFormat for temporary recordings
+     * @param broadcastFormat for streaming recordings
      * @param userPreferences to manage recording directories
      */
     public AudioStreamingManager(Listener<AudioRecording> listener, BroadcastFormat broadcastFormat, UserPreferences userPreferences)
@@ -65,6 +64,10 @@ public class AudioStreamingManager implements Listener<AudioSegment>
         mAudioRecordingListener = listener;
         mBroadcastFormat = broadcastFormat;
         mUserPreferences = userPreferences;
+
+        //Encoded audio spilled under memory pressure is cleaned up with orphaned temporary streaming recordings
+        EncodedAudioCache.getInstance().setSpillDirectory(mUserPreferences.getDirectoryPreference()
+            .getDirectoryStreaming(), BroadcastModel.TEMPORARY_STREAM_FILE_SUFFIX);
     }
 
     /**
@@ -136,9 +139,8 @@ public class AudioStreamingManager implements Listener<AudioSegment>
             {
                 it.remove();
 
-                if(mAudioRecordingListener != null && audioSegment.hasBroadcastChannels())
+                if(mAudioRecordingListener != null && audioSegment.hasBroadcastChannels() && audioSegment.hasAudio())
                 {
-                    Path path = getTemporaryRecordingPath();
                     long length = 0;
 
                     for(float[] audioBuffer: audioSegment.getAudioBuffers())
@@ -150,17 +152,18 @@ public class AudioStreamingManager implements Listener<AudioSegment>
 
                     try
                     {
-                        AudioSegmentRecorder.record(audioSegment, path, RecordFormat.MP3, mUserPreferences);
+                        EncodedAudio encodedAudio = AudioSegmentRecorder.encodeMP3(audioSegment, mUserPreferences);
                         IdentifierCollection identifierCollectionCopy =
                             new IdentifierCollection(audioSegment.getIdentifierCollection().getIdentifiers());
 
-                        AudioRecording audioRecording = new AudioRecording(path, audioSegment.getBroadcastChannels(),
-                            identifierCollectionCopy, audioSegment.getStartTimestamp(), length);
+                        AudioRecording audioRecording = new AudioRecording(encodedAudio,
+                            audioSegment.getBroadcastChannels(), identifierCollectionCopy,
+                            audioSegment.getStartTimestamp(), length);
                         mAudioRecordingListener.receive(audioRecording);
                     }
                     catch(IOException ioe)
                     {
-                        mLog.error("Error recording temporary stream MP3");
+                        mLog.error("Error encoding stream MP3", ioe);
                     }
                 }
 
@@ -169,31 +172,6 @@ public class AudioStreamingManager implements Listener<AudioSegment>
         }
     }
 
-    /**
-     * Creates a temporary streaming recording file path
-     */
-    private Path getTemporaryRecordingPath()
-    {
-        StringBuilder sb = new StringBuilder();
-        sb.append(BroadcastModel.TEMPORARY_STREAM_FILE_SUFFIX);
-
-        //Check for integer overflow and readjust negative value to 0
-        if(mNextRecordingNumber < 0)
-        {
-            mNextRecordingNumber = 1;
-        }
-
-        int recordingNumber = mNextRecordingNumber++;
-
-        sb.append(recordingNumber).append("_");
-        sb.append(TimeStamp.getLongTimeStamp("_"));
-        sb.append(mBroadcastFormat.getFileExtension());
-
-        Path temporaryRecordingPath = mUserPreferences.getDirectoryPreference().getDirectoryStreaming().resolve(sb.toString());
-
-        return temporaryRecordingPath;
-    }
-
     /**
      * Scheduled runnable to process audio segments.
      */
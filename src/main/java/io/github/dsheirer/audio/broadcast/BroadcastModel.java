@@ -665,21 +665,13 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Audio
     }
 
     /**
-     * Cleanup method to remove a temporary recording file from disk.
+     * Cleanup method to release the encoded audio for a recording once all broadcasters have replayed it.
      *
      * @param recording to remove
      */
     private void removeRecording(AudioRecording recording)
     {
-        try
-        {
-            Files.delete(recording.getPath());
-        }
-        catch(IOException ioe)
-        {
-            mLog.error("Error deleting temporary internet recording file: " + recording.getPath().toString() + " - " +
-                ioe.getMessage());
-        }
+        recording.release();
     }
 
 
@@ -41,7 +41,6 @@ import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -297,11 +296,12 @@ public class BroadcastifyCallBroadcaster extends AbstractAudioBroadcaster<Broadc
 
                                     try
                                     {
-                                        filePublisher = HttpRequest.BodyPublishers.ofFile(audioRecording.getPath());
+                                        filePublisher = HttpRequest.BodyPublishers
+                                            .ofByteArray(audioRecording.getEncodedAudio().getBytes());
                                     }
-                                    catch(FileNotFoundException fnfe)
+                                    catch(IOException ioe)
                                     {
-                                        mLog.error("Broadcastify calls API - audio recording file not found - ignoring upload");
+                                        mLog.error("Broadcastify calls API - error reading audio recording - ignoring upload", ioe);
                                     }
 
                                     if(filePublisher != null)
@@ -346,9 +346,8 @@ public class BroadcastifyCallBroadcaster extends AbstractAudioBroadcaster<Broadc
                                     }
                                     else
                                     {
-                                        //Register an error for the file not found exception
-                                        mLog.error("Broadcastify calls API - upload file not found [" +
-                                            audioRecording.getPath().toString() + "]");
+                                        //Register an error for the unreadable audio recording
+                                        mLog.error("Broadcastify calls API - upload audio not available");
                                         incrementErrorAudioCount();
                                         broadcast(new BroadcastEvent(BroadcastifyCallBroadcaster.this,
                                             BroadcastEvent.Event.BROADCASTER_ERROR_COUNT_CHANGE));
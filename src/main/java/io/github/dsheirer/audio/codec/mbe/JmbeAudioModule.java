@@ -27,6 +27,7 @@ import io.github.dsheirer.alias.AliasList;
 import io.github.dsheirer.audio.AbstractAudioModule;
 import io.github.dsheirer.audio.squelch.ISquelchStateListener;
 import io.github.dsheirer.eventbus.MyEventBus;
+import io.github.dsheirer.identifier.IdentifierUpdateNotification;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.IMessageListener;
 import io.github.dsheirer.preference.PreferenceType;
@@ -53,6 +54,8 @@ public abstract class JmbeAudioModule extends AbstractAudioModule implements Lis
     private static List<String> mLibraryLoadStatusLogged = new ArrayList<>();
     private IAudioCodec mAudioCodec;
     private UserPreferences mUserPreferences;
+    private MbeVocoderExecutor.Lane mVocoderLane = MbeVocoderExecutor.getInstance().createLane();
+    private Listener<IdentifierUpdateNotification> mIdentifierUpdateListener = this::queueIdentifierUpdate;
 
     public JmbeAudioModule(UserPreferences userPreferences, AliasList aliasList, int timeslot)
     {
@@ -70,11 +73,66 @@ public abstract class JmbeAudioModule extends AbstractAudioModule implements Lis
         mAudioCodec = null;
     }
 
+    @Override
+    public void stop()
+    {
+        queueCloseAudioSegment();
+    }
+
     protected IAudioCodec getAudioCodec()
     {
         return mAudioCodec;
     }
 
+    /**
+     * Queues a voice frame decoding task on the shared vocoder executor, to run after any previously queued tasks for
+     * this module.  Tasks that produce audio or that change the audio segment or the identifier collection are queued
+     * so that they run in order, off of the decoder message thread.  Tasks should check for a non-null audio codec
+     * since the codec can be removed or replaced before the task runs.
+     */
+    protected void queueAudioTask(Runnable task)
+    {
+        mVocoderLane.execute(task);
+    }
+
+    /**
+     * Queues closing the current audio segment behind any queued voice frames so that their audio is added to the
+     * segment before it is closed.
+     */
+    protected void queueCloseAudioSegment()
+    {
+        mVocoderLane.execute(this::closeAudioSegment);
+    }
+
+    /**
+     * Receives identifier updates from the decoder state(s) and queues them on the vocoder lane.
+     */
+    @Override
+    public Listener<IdentifierUpdateNotification> getIdentifierUpdateListener()
+    {
+        return mIdentifierUpdateListener;
+    }
+
+    /**
+     * Applies the identifier update to the identifier collection and to the current audio segment in order with the
+     * queued voice frames, so that identifiers for the next call don't reach the current segment before the queued
+     * audio is added and the segment is closed.  Updates that are produced by a task in this module's lane, such as
+     * tone identifiers, are applied immediately.
+     */
+    private void queueIdentifierUpdate(IdentifierUpdateNotification notification)
+    {
+        Listener<IdentifierUpdateNotification> listener = super.getIdentifierUpdateListener();
+
+        if(mVocoderLane.isTaskThread())
+        {
+            listener.receive(notification);
+        }
+        else
+        {
+            mVocoderLane.execute(() -> listener.receive(notification));
+        }
+    }
+
     /**
      * Indicates that the JMBE audio library has been loaded and a suitable audio codec is usable (ie non-null)
      */
@@ -0,0 +1,250 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.audio.codec.mbe;
+
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.metrics.IMetricsProvider;
+import io.github.dsheirer.metrics.Metric;
+import io.github.dsheirer.metrics.MetricNames;
+import io.github.dsheirer.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared executor for MBE (IMBE/AMBE) voice frame decoding.  Audio modules submit their voice frame decoding work to
+ * a lane so that audio conversion runs on a bounded thread pool, sized to the processor count, instead of on the
+ * decoder message threads.
+ *
+ * Each audio module has its own lane.  The tasks in a lane run one at a time in submission order, since each audio
+ * module's CODEC carries synthesis state from one voice frame to the next, while tasks from different lanes run in
+ * parallel.  A lane yields its pool thread after a limited number of tasks so that a busy channel can't starve the
+ * other channels.
+ */
+public class MbeVocoderExecutor implements IMetricsProvider
+{
+    private static final Logger mLog = LoggerFactory.getLogger(MbeVocoderExecutor.class);
+    private static final int MAX_TASKS_PER_TURN = 32;
+    private static MbeVocoderExecutor sInstance;
+
+    private final ExecutorService mExecutorService;
+    private final int mThreadCount;
+    private final AtomicInteger mQueueDepth = new AtomicInteger();
+    private final AtomicLong mTaskCount = new AtomicLong();
+    private final AtomicLong mQueueLatencyNanos = new AtomicLong();
+    private final AtomicLong mMaxQueueLatencyNanos = new AtomicLong();
+
+    /**
+     * Constructs an instance.  Use getInstance() to access the shared executor.
+     * @param threadCount for the thread pool
+     */
+    MbeVocoderExecutor(int threadCount)
+    {
+        mThreadCount = Math.max(1, threadCount);
+        mExecutorService = Executors.newFixedThreadPool(mThreadCount, new NamingThreadFactory("sdrtrunk vocoder"));
+    }
+
+    /**
+     * Shared vocoder executor with a thread for each available processor
+     */
+    public static synchronized MbeVocoderExecutor getInstance()
+    {
+        if(sInstance == null)
+        {
+            sInstance = new MbeVocoderExecutor(Runtime.getRuntime().availableProcessors());
+            MetricsRegistry.getInstance().register(sInstance);
+            mLog.info("MBE vocoder executor created with [" + sInstance.mThreadCount + "] threads");
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Creates a new lane for an audio module.
+     */
+    public Lane createLane()
+    {
+        return new Lane();
+    }
+
+    /**
+     * Number of tasks waiting to run across all lanes
+     */
+    public int getQueueDepth()
+    {
+        return mQueueDepth.get();
+    }
+
+    /**
+     * Shuts down the thread pool.  Tasks that are already queued are still run.
+     */
+    void shutdown()
+    {
+        mExecutorService.shutdown();
+    }
+
+    @Override
+    public void collectMetrics(List<Metric> metrics)
+    {
+        metrics.add(Metric.gauge(MetricNames.VOCODER_THREADS, "Threads in the MBE vocoder thread pool",
+            mThreadCount));
+        metrics.add(Metric.gauge(MetricNames.VOCODER_QUEUE_DEPTH, "Voice frame tasks waiting for a vocoder thread",
+            mQueueDepth.get()));
+        metrics.add(Metric.counter(MetricNames.VOCODER_TASKS, "Voice frame tasks run by the vocoder threads",
+            mTaskCount.get()));
+        metrics.add(Metric.counter(MetricNames.VOCODER_QUEUE_LATENCY, "Total time that voice frame tasks waited " +
+            "for a vocoder thread", mQueueLatencyNanos.get() / 1E9));
+        metrics.add(Metric.gauge(MetricNames.VOCODER_QUEUE_LATENCY_MAX, "Longest time that a voice frame task waited " +
+            "for a vocoder thread since the previous metrics collection", mMaxQueueLatencyNanos.getAndSet(0) / 1E9));
+    }
+
+    /**
+     * Serial task queue for a single audio module.  Tasks run in submission order and never concurrently.
+     */
+    public class Lane
+    {
+        private final ArrayDeque<Task> mTasks = new ArrayDeque<>();
+        private boolean mScheduled;
+        private volatile Thread mTaskThread;
+
+        /**
+         * Queues the task to run after all previously queued tasks in this lane.
+         */
+        public void execute(Runnable runnable)
+        {
+            synchronized(mTasks)
+            {
+                mTasks.add(new Task(runnable, System.nanoTime()));
+                mQueueDepth.incrementAndGet();
+
+                if(!mScheduled)
+                {
+                    mScheduled = true;
+                    schedule();
+                }
+            }
+        }
+
+        /**
+         * Indicates if the calling thread is running a task from this lane.
+         */
+        public boolean isTaskThread()
+        {
+            return mTaskThread == Thread.currentThread();
+        }
+
+        /**
+         * Number of tasks waiting to run in this lane
+         */
+        public int size()
+        {
+            synchronized(mTasks)
+            {
+                return mTasks.size();
+            }
+        }
+
+        /**
+         * Submits this lane to the thread pool.  Invoked while holding the task queue lock.
+         */
+        private void schedule()
+        {
+            try
+            {
+                mExecutorService.execute(this::drain);
+            }
+            catch(RejectedExecutionException ree)
+            {
+                mLog.warn("MBE vocoder executor is shut down - discarding [" + mTasks.size() + "] voice tasks");
+                mQueueDepth.addAndGet(-mTasks.size());
+                mTasks.clear();
+                mScheduled = false;
+            }
+        }
+
+        /**
+         * Runs queued tasks on a pool thread, yielding the thread to other lanes after a limited number of tasks.
+         */
+        private void drain()
+        {
+            for(int x = 0; x < MAX_TASKS_PER_TURN; x++)
+            {
+                Task task;
+
+                synchronized(mTasks)
+                {
+                    task = mTasks.poll();
+
+                    if(task == null)
+                    {
+                        mScheduled = false;
+                        return;
+                    }
+                }
+
+                mQueueDepth.decrementAndGet();
+                long latency = System.nanoTime() - task.queued();
+                mQueueLatencyNanos.addAndGet(latency);
+                mMaxQueueLatencyNanos.accumulateAndGet(latency, Math::max);
+                mTaskCount.incrementAndGet();
+
+                mTaskThread = Thread.currentThread();
+
+                try
+                {
+                    task.runnable().run();
+                }
+                catch(Throwable t)
+                {
+                    mLog.error("Error while processing MBE voice frames - continuing", t);
+                }
+                finally
+                {
+                    mTaskThread = null;
+                }
+            }
+
+            synchronized(mTasks)
+            {
+                if(mTasks.isEmpty())
+                {
+                    mScheduled = false;
+                }
+                else
+                {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    /**
+     * Queued task with the time that it was queued
+     */
+    private record Task(Runnable runnable, long queued)
+    {
+    }
+}
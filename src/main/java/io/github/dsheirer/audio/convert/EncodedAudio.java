@@ -0,0 +1,257 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.audio.convert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Encoded (MP3) audio for an audio segment, held once in memory and shared by reference between the audio recorder
+ * and the audio streaming broadcasters.  The audio consists of an optional header (ID3 tag) and the audio frames,
+ * split on frame boundaries.
+ *
+ * Encoded audio is reference counted.  Each holder must invoke release() when it no longer needs the audio.  Once
+ * all holders have released the audio, it is removed from the encoded audio cache.  Under memory pressure, the cache
+ * can spill the audio frames to a temporary file, and the frames are then read back from the file on access.
+ */
+public class EncodedAudio
+{
+    private final static Logger mLog = LoggerFactory.getLogger(EncodedAudio.class);
+
+    private final byte[] mHeader;
+    private final int mDuration;
+    private final long mLength;
+    private final AtomicInteger mReferenceCount = new AtomicInteger(1);
+    private List<byte[]> mFrames;
+    private Path mSpillPath;
+    private boolean mDiscarded;
+    private EncodedAudioCache mCache;
+
+    /**
+     * Constructs an instance with a reference count of one.
+     * @param header bytes to write before the audio frames (e.g. ID3 tag) or an empty array
+     * @param audioFrames encoded audio split on frame boundaries
+     */
+    public EncodedAudio(byte[] header, AudioFrames audioFrames)
+    {
+        mHeader = header;
+        mFrames = List.copyOf(audioFrames.getFrames());
+        mDuration = audioFrames.getDuration();
+
+        long length = header.length;
+
+        for(byte[] frame: mFrames)
+        {
+            length += frame.length;
+        }
+
+        mLength = length;
+    }
+
+    /**
+     * Sets the cache that manages this audio
+     */
+    void setCache(EncodedAudioCache cache)
+    {
+        mCache = cache;
+    }
+
+    /**
+     * Audio duration in milliseconds
+     */
+    public int getDuration()
+    {
+        return mDuration;
+    }
+
+    /**
+     * Length in bytes of the header and audio frames
+     */
+    public long getLength()
+    {
+        return mLength;
+    }
+
+    /**
+     * Indicates if the audio frames have been spilled to a temporary file
+     */
+    public synchronized boolean isSpilled()
+    {
+        return mFrames == null;
+    }
+
+    /**
+     * Audio frames, split on frame boundaries.  Spilled frames are read from the temporary file on each access.
+     * @return unmodifiable list of audio frames
+     * @throws IOException if the spilled audio frames can't be read
+     */
+    public synchronized List<byte[]> getFrames() throws IOException
+    {
+        if(mFrames != null)
+        {
+            return mFrames;
+        }
+
+        if(mSpillPath == null)
+        {
+            throw new IOException("Encoded audio was released");
+        }
+
+        return MP3FrameTools.split(Files.readAllBytes(mSpillPath)).getFrames();
+    }
+
+    /**
+     * Creates a new audio frames iterator over the audio frames, without the header.
+     * @throws IOException if the spilled audio frames can't be read
+     */
+    public MP3AudioFrames getAudioFrames() throws IOException
+    {
+        return new MP3AudioFrames(mDuration, getFrames());
+    }
+
+    /**
+     * Header and audio frames as a single byte array, for example for an upload.
+     * @throws IOException if the spilled audio frames can't be read
+     */
+    public byte[] getBytes() throws IOException
+    {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream((int)mLength);
+        write(stream);
+        return stream.toByteArray();
+    }
+
+    /**
+     * Writes the header and audio frames to the output stream
+     * @throws IOException if there is an error writing to the stream or reading the spilled audio frames
+     */
+    public void write(OutputStream outputStream) throws IOException
+    {
+        outputStream.write(mHeader);
+
+        for(byte[] frame: getFrames())
+        {
+            outputStream.write(frame);
+        }
+    }
+
+    /**
+     * Writes the header and audio frames to a file
+     * @param path for the file
+     * @throws IOException if there is an error writing the file or reading the spilled audio frames
+     */
+    public void write(Path path) throws IOException
+    {
+        try(OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path)))
+        {
+            write(outputStream);
+        }
+    }
+
+    /**
+     * Adds a reference to this audio.  Each reference must be released via release().
+     */
+    public void retain()
+    {
+        mReferenceCount.incrementAndGet();
+    }
+
+    /**
+     * Releases a reference to this audio.  When the final reference is released, the audio is removed from the cache
+     * and any spilled audio frames are deleted.
+     */
+    public void release()
+    {
+        if(mReferenceCount.decrementAndGet() == 0)
+        {
+            if(mCache != null)
+            {
+                mCache.discard(this);
+            }
+
+            discard();
+        }
+    }
+
+    /**
+     * Writes the audio frames to a temporary file in the directory and releases the in-memory audio frames.
+     * @param directory for the temporary file, or null for the default temporary file directory
+     * @param prefix for the temporary file name
+     * @return true if the audio frames were spilled
+     * @throws IOException if the temporary file can't be written
+     */
+    synchronized boolean spill(Path directory, String prefix) throws IOException
+    {
+        if(mDiscarded || mFrames == null)
+        {
+            return false;
+        }
+
+        Path path = directory != null ? Files.createTempFile(directory, prefix, ".mp3") :
+            Files.createTempFile(prefix, ".mp3");
+
+        try(OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path)))
+        {
+            for(byte[] frame: mFrames)
+            {
+                outputStream.write(frame);
+            }
+        }
+        catch(IOException ioe)
+        {
+            Files.deleteIfExists(path);
+            throw ioe;
+        }
+
+        mSpillPath = path;
+        mFrames = null;
+        return true;
+    }
+
+    /**
+     * Releases the audio frames and deletes the spilled audio frames file.
+     */
+    private synchronized void discard()
+    {
+        mDiscarded = true;
+        mFrames = null;
+
+        if(mSpillPath != null)
+        {
+            try
+            {
+                Files.deleteIfExists(mSpillPath);
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error deleting spilled encoded audio file [" + mSpillPath + "]", ioe);
+            }
+
+            mSpillPath = null;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.audio.convert;
+
+import io.github.dsheirer.audio.AudioSegment;
+import io.github.dsheirer.metrics.IMetricsProvider;
+import io.github.dsheirer.metrics.Metric;
+import io.github.dsheirer.metrics.MetricNames;
+import io.github.dsheirer.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of encoded audio, keyed by audio segment, so that a completed audio segment is encoded once and
+ * the encoded audio is shared by reference across the audio recorder and all of the audio streaming broadcasters.
+ *
+ * The cache holds a reference to the encoded audio until the audio segment is disposed, so that each consumer of the
+ * segment receives the same encoded audio, regardless of the order in which the consumers process the segment.
+ * Consumers that hold the encoded audio beyond the life of the audio segment (e.g. streaming queues) retain their own
+ * reference.  When the encoded audio held in memory exceeds the memory limit, the oldest encoded audio is spilled to
+ * temporary files until the total is within the limit.
+ *
+ * Encoded audio is cached without regard to the encoder settings, so a change to the MP3 settings applies to audio
+ * segments that are encoded after the change.
+ */
+public class EncodedAudioCache implements IMetricsProvider
+{
+    private static final Logger mLog = LoggerFactory.getLogger(EncodedAudioCache.class);
+    private static final long DEFAULT_MEMORY_LIMIT = 64 * 1024 * 1024;
+    private static final String DEFAULT_SPILL_PREFIX = "encoded_audio_";
+    private static EncodedAudioCache sInstance;
+
+    private Map<AudioSegment,Slot> mSlots = new HashMap<>();
+    private LinkedHashSet<EncodedAudio> mResident = new LinkedHashSet<>();
+    private long mResidentBytes;
+    private long mMemoryLimit;
+    private Path mSpillDirectory;
+    private String mSpillPrefix = DEFAULT_SPILL_PREFIX;
+    private AtomicLong mHits = new AtomicLong();
+    private AtomicLong mMisses = new AtomicLong();
+    private AtomicLong mSpills = new AtomicLong();
+
+    /**
+     * Constructs an instance.  Use getInstance() to access the shared cache.
+     * @param memoryLimit in bytes for encoded audio held in memory
+     */
+    EncodedAudioCache(long memoryLimit)
+    {
+        mMemoryLimit = memoryLimit;
+    }
+
+    /**
+     * Shared encoded audio cache
+     */
+    public static synchronized EncodedAudioCache getInstance()
+    {
+        if(sInstance == null)
+        {
+            sInstance = new EncodedAudioCache(Math.min(DEFAULT_MEMORY_LIMIT, Runtime.getRuntime().maxMemory() / 16));
+            MetricsRegistry.getInstance().register(sInstance);
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Encodes the audio for an audio segment.
+     */
+    public interface Encoder
+    {
+        /**
+         * Encodes the audio segment.
+         * @return encoded audio with a reference count of one, which is held by the cache
+         * @throws IOException if the audio can't be encoded
+         */
+        EncodedAudio encode() throws IOException;
+    }
+
+    /**
+     * Sets the directory for temporary files when encoded audio is spilled to disk.
+     * @param directory for spill files, or null to use the default temporary file directory
+     * @param prefix for spill file names
+     */
+    public synchronized void setSpillDirectory(Path directory, String prefix)
+    {
+        mSpillDirectory = directory;
+        mSpillPrefix = prefix != null ? prefix : DEFAULT_SPILL_PREFIX;
+    }
+
+    /**
+     * Retrieves the encoded audio for the audio segment, or encodes and caches the audio when the segment has not
+     * been encoded.  Concurrent requests for the same audio segment wait for a single encoding.  The caller must hold
+     * a consumer count on the audio segment while invoking this method.
+     *
+     * @param audioSegment to encode
+     * @param encoder to encode the audio segment when it is not cached
+     * @return encoded audio that is retained for the caller.  The caller must release() the audio when finished.
+     * @throws IOException from the encoder
+     */
+    public EncodedAudio get(AudioSegment audioSegment, Encoder encoder) throws IOException
+    {
+        Slot slot;
+
+        synchronized(this)
+        {
+            slot = mSlots.computeIfAbsent(audioSegment, segment -> new Slot());
+        }
+
+        return slot.get(encoder);
+    }
+
+    /**
+     * Removes the audio segment from the cache and releases the cache's reference to the encoded audio.  Invoked when
+     * the audio segment is disposed.
+     */
+    public void remove(AudioSegment audioSegment)
+    {
+        Slot slot;
+
+        synchronized(this)
+        {
+            slot = mSlots.remove(audioSegment);
+        }
+
+        if(slot != null)
+        {
+            slot.release();
+        }
+    }
+
+    /**
+     * Number of audio segments with cached encoded audio
+     */
+    public synchronized int size()
+    {
+        return mSlots.size();
+    }
+
+    /**
+     * Bytes of encoded audio held in memory
+     */
+    public synchronized long getResidentBytes()
+    {
+        return mResidentBytes;
+    }
+
+    /**
+     * Adds newly encoded audio to the resident set and spills the oldest resident audio when the memory limit is
+     * exceeded.
+     */
+    private void admit(EncodedAudio encodedAudio)
+    {
+        List<EncodedAudio> toSpill = new ArrayList<>();
+        Path directory;
+        String prefix;
+
+        synchronized(this)
+        {
+            encodedAudio.setCache(this);
+            mResident.add(encodedAudio);
+            mResidentBytes += encodedAudio.getLength();
+
+            Iterator<EncodedAudio> it = mResident.iterator();
+
+            while(mResidentBytes > mMemoryLimit && it.hasNext())
+            {
+                EncodedAudio oldest = it.next();
+
+                if(oldest != encodedAudio)
+                {
+                    it.remove();
+                    mResidentBytes -= oldest.getLength();
+                    toSpill.add(oldest);
+                }
+            }
+
+            directory = mSpillDirectory;
+            prefix = mSpillPrefix;
+        }
+
+        for(EncodedAudio audio: toSpill)
+        {
+            try
+            {
+                if(audio.spill(directory, prefix))
+                {
+                    mSpills.incrementAndGet();
+                }
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error spilling encoded audio to disk - audio remains in memory", ioe);
+            }
+        }
+    }
+
+    /**
+     * Removes released encoded audio from the resident set.
+     */
+    synchronized void discard(EncodedAudio encodedAudio)
+    {
+        if(mResident.remove(encodedAudio))
+        {
+            mResidentBytes -= encodedAudio.getLength();
+        }
+    }
+
+    @Override
+    public void collectMetrics(List<Metric> metrics)
+    {
+        long residentBytes;
+
+        synchronized(this)
+        {
+            residentBytes = mResidentBytes;
+        }
+
+        metrics.add(Metric.gauge(MetricNames.ENCODED_AUDIO_CACHE_BYTES, "Bytes of encoded audio held in memory",
+            residentBytes));
+        metrics.add(Metric.counter(MetricNames.ENCODED_AUDIO_CACHE_HITS, "Encoded audio requests served from the " +
+            "encoded audio cache", mHits.get()));
+        metrics.add(Metric.counter(MetricNames.ENCODED_AUDIO_CACHE_MISSES, "Encoded audio requests that required " +
+            "an encoding", mMisses.get()));
+        metrics.add(Metric.counter(MetricNames.ENCODED_AUDIO_CACHE_SPILLS, "Encoded audio spilled to disk under " +
+            "memory pressure", mSpills.get()));
+    }
+
+    /**
+     * Cache slot for an audio segment that serializes the encoding of the segment.
+     */
+    private class Slot
+    {
+        private EncodedAudio mEncodedAudio;
+        private boolean mReleased;
+
+        private synchronized EncodedAudio get(Encoder encoder) throws IOException
+        {
+            if(mEncodedAudio == null)
+            {
+                EncodedAudio encodedAudio = encoder.encode();
+
+                //The audio segment was disposed while encoding, so the caller is the only holder
+                if(mReleased)
+                {
+                    mMisses.incrementAndGet();
+                    return encodedAudio;
+                }
+
+                admit(encodedAudio);
+                mEncodedAudio = encodedAudio;
+                mMisses.incrementAndGet();
+            }
+            else
+            {
+                mHits.incrementAndGet();
+            }
+
+            mEncodedAudio.retain();
+            return mEncodedAudio;
+        }
+
+        private synchronized void release()
+        {
+            mReleased = true;
+
+            if(mEncodedAudio != null)
+            {
+                mEncodedAudio.release();
+                mEncodedAudio = null;
+            }
+        }
+    }
+}
@@ -19,13 +19,35 @@
 package io.github.dsheirer.bits;
 
 import io.github.dsheirer.edac.CRC;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.math3.util.FastMath;
 
+/**
+ * Binary message backed by an array of 64-bit words.
+ *
+ * Bits are packed most significant bit first, so that message bit 0 is the MSB of word 0 and message bit 63 is the
+ * LSB of word 0.  This matches the way that protocol fields are laid out in a message, allowing contiguous fields to
+ * be extracted and loaded with a shift and a mask instead of one bit at a time.
+ *
+ * This class extends BitSet so that it remains usable anywhere a BitSet is expected, however it overrides all of the
+ * BitSet methods and the storage of the parent class is never used.  Methods invoked on a plain java.util.BitSet that
+ * take a binary message argument (e.g. BitSet.or(message)) access the parent storage directly and will see an empty
+ * set, so always invoke the operation on the binary message instead (e.g. message.or(bitSet)).
+ */
 public class BinaryMessage extends BitSet
 {
     private static final long serialVersionUID = 1L;
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+    private static final long WORD_MASK = 0xFFFFFFFFFFFFFFFFL;
+
+    /**
+     * Message bits, packed MSB first.  Bits beyond the logical size of the message are normally zero.
+     */
+    private long[] mWords;
 
     /**
      * Logical (ie constructed) size of this bitset, despite the actual size of
@@ -56,7 +78,8 @@ public class BinaryMessage extends BitSet
      */
     public BinaryMessage(int size)
     {
-        super(size);
+        super(0);
+        mWords = new long[getWordCount(size)];
         mSize = size;
     }
 
@@ -94,8 +117,8 @@ public class BinaryMessage extends BitSet
      */
     private BinaryMessage(BinaryMessage toCopyFrom)
     {
-        this(toCopyFrom.size());
-        this.or(toCopyFrom);
+        super(0);
+        this.mWords = toCopyFrom.mWords.clone();
         this.mPointer = toCopyFrom.pointer();
         this.mCRC = toCopyFrom.mCRC;
         this.mSize = toCopyFrom.mSize;
@@ -123,9 +146,7 @@ public class BinaryMessage extends BitSet
      */
     public BinaryMessage getSubMessage(int start, int end)
     {
-        BitSet subset = this.get(start, end);
-
-        return new BinaryMessage(subset, end - start);
+        return get(start, end);
     }
 
     public CRC getCRC()
@@ -305,7 +326,11 @@ public class BinaryMessage extends BitSet
     @Override
     public BinaryMessage get(int from, int to)
     {
-        return new BinaryMessage(super.get(from, to), (to - from));
+        checkRange(from, to);
+        BinaryMessage message = new BinaryMessage(to - from);
+        message.load(0, this, from, to - from);
+        message.setPointer(to - from - 1);
+        return message;
     }
 
     /**
@@ -340,12 +365,17 @@ public class BinaryMessage extends BitSet
 
         byte[] bytes = new byte[length];
 
-        int pointer = 0;
+        //Whole bytes are copied straight from the words and only a trailing partial byte is padded
+        int wholeBytes = Math.min(Math.min(length, (mSize + 1) / 8), mWords.length * 8);
 
-        for(int x = 0; x < length; x++)
+        for(int x = 0; x < wholeBytes; x++)
+        {
+            bytes[x] = (byte)(mWords[x >> 3] >>> (56 - ((x & 7) << 3)));
+        }
+
+        for(int x = wholeBytes; x < length; x++)
         {
-            bytes[x] = getByte(pointer);
-            pointer += 8;
+            bytes[x] = getByte(x * 8);
         }
 
         return bytes;
@@ -427,19 +457,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive integer value");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return (int)getField(bits, 0);
     }
 
     /**
@@ -459,19 +477,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive integer value");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index + offset))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return (int)getField(bits, offset);
     }
 
     public void setInt(int value, int[] indices)
@@ -507,19 +513,7 @@ public class BinaryMessage extends BitSet
                 + "indexes to form a proper byte");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index))
-            {
-                value++;
-            }
-        }
-
-        return (byte)(value & 0xFF);
+        return (byte)getField(bits, 0);
     }
 
     /**
@@ -539,19 +533,7 @@ public class BinaryMessage extends BitSet
                 + "indexes to form a proper byte");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index + offset))
-            {
-                value++;
-            }
-        }
-
-        return (byte)(value & 0xFF);
+        return (byte)getField(bits, offset);
     }
 
     /**
@@ -563,21 +545,7 @@ public class BinaryMessage extends BitSet
      */
     public byte getByte(int startIndex)
     {
-        int value = 0;
-
-        for(int x = 0; x < 8; x++)
-        {
-            value <<= 1;
-
-            int index = startIndex + x;
-
-            if(index <= size() && get(index))
-            {
-                value++;
-            }
-        }
-
-        return (byte)value;
+        return (byte)getPaddedField(startIndex, 8);
     }
 
     /**
@@ -588,14 +556,7 @@ public class BinaryMessage extends BitSet
      */
     public byte[] getBytes()
     {
-        byte[] bytes = new byte[(int)FastMath.ceil((double)size() / 8.0)];
-
-        for(int x = 0; x < bytes.length; x++)
-        {
-            bytes[x] = getByte(x * 8);
-        }
-
-        return bytes;
+        return toByteArray();
     }
 
     /**
@@ -607,21 +568,7 @@ public class BinaryMessage extends BitSet
      */
     public int getNibble(int startIndex)
     {
-        int value = 0;
-
-        for(int x = 0; x < 4; x++)
-        {
-            value <<= 1;
-
-            int index = startIndex + x;
-
-            if(index <= size() && get(index))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return (int)getPaddedField(startIndex, 4);
     }
 
     /**
@@ -633,22 +580,7 @@ public class BinaryMessage extends BitSet
     public void setByte(int index, byte value)
     {
         Validate.isTrue((index + 8) <= size());
-
-        int mask = 0x80;
-
-        for(int x = 0; x < 8; x++)
-        {
-            if((mask & value) == mask)
-            {
-                set(index + x);
-            }
-            else
-            {
-                clear(index + x);
-            }
-
-            mask = mask >> 1;
-        }
+        load(index, 8, value);
     }
 
     /**
@@ -667,19 +599,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive long value");
         }
 
-        long value = 0;
-
-        for(int index : bits)
-        {
-            value = Long.rotateLeft(value, 1);
-
-            if(get(index))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return getField(bits, 0);
     }
 
     /**
@@ -699,19 +619,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive long value");
         }
 
-        long value = 0;
-
-        for(int index : bits)
-        {
-            value = Long.rotateLeft(value, 1);
-
-            if(get(index + offset))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return getField(bits, offset);
     }
 
     /**
@@ -798,7 +706,11 @@ public class BinaryMessage extends BitSet
 
         int value = 0;
 
-        if(start < end)
+        if(start <= end && end - start < Integer.SIZE)
+        {
+            value = (int)(getWord(start) >>> (BITS_PER_WORD - 1 - end + start));
+        }
+        else if(start < end)
         {
             for(int x = start; x <= end; x++)
             {
@@ -807,7 +719,6 @@ public class BinaryMessage extends BitSet
                 if(get(x))
                 {
                     value++;
-                    ;
                 }
             }
         }
@@ -868,7 +779,11 @@ public class BinaryMessage extends BitSet
 
         long value = 0;
 
-        if(start < end)
+        if(start <= end && end - start < Long.SIZE)
+        {
+            value = getWord(start) >>> (BITS_PER_WORD - 1 - end + start);
+        }
+        else if(start < end)
         {
             for(int x = start; x <= end; x++)
             {
@@ -924,6 +839,12 @@ public class BinaryMessage extends BitSet
      */
     public void load(int offset, int width, long value)
     {
+        if(0 < width && width <= BITS_PER_WORD)
+        {
+            setWord(offset, width, value << (BITS_PER_WORD - width));
+            return;
+        }
+
         for(int x = 0; x < width; x++)
         {
             long mask = Long.rotateLeft(1, width - x - 1);
@@ -950,16 +871,23 @@ public class BinaryMessage extends BitSet
      */
     public void load(int offset, BinaryMessage binaryMessage)
     {
-        for(int x = 0; x < binaryMessage.size(); x++)
+        load(offset, binaryMessage, 0, binaryMessage.size());
+    }
+
+    /**
+     * Loads length bits from the source message, beginning at the source offset, into this message starting at the
+     * offset.  Like load(int, BinaryMessage), this method does not check the length against the size of this message.
+     *
+     * @param offset into this message to load the bits
+     * @param source message to copy bits from
+     * @param sourceOffset of the first bit to copy from the source message
+     * @param length number of bits to copy
+     */
+    public void load(int offset, BinaryMessage source, int sourceOffset, int length)
+    {
+        for(int x = 0; x < length; x += BITS_PER_WORD)
         {
-            if(binaryMessage.get(x))
-            {
-                set(x + offset);
-            }
-            else
-            {
-                clear(x + offset);
-            }
+            setWord(offset + x, Math.min(BITS_PER_WORD, length - x), source.getWord(sourceOffset + x));
         }
     }
 
@@ -1084,9 +1012,18 @@ public class BinaryMessage extends BitSet
      */
     public void rotateLeft(int places, int startIndex, int endIndex)
     {
-        for(int x = 0; x < places; x++)
+        int length = endIndex - startIndex + 1;
+
+        if(places > 0 && length > 1)
         {
-            rotateLeft(startIndex, endIndex);
+            int shift = places % length;
+
+            if(shift > 0)
+            {
+                BinaryMessage range = get(startIndex, endIndex + 1);
+                load(startIndex, range, shift, length - shift);
+                load(endIndex - shift + 1, range, 0, shift);
+            }
         }
     }
 
@@ -1096,82 +1033,780 @@ public class BinaryMessage extends BitSet
      */
     public void rotateLeft(int startIndex, int endIndex)
     {
-        boolean wrapBit = get(startIndex);
+        rotateLeft(1, startIndex, endIndex);
+    }
+
+    /**
+     * Right rotates the bits between start and end indices, number of places.
+     */
+    public void rotateRight(int places, int startIndex, int endIndex)
+    {
+        int length = endIndex - startIndex + 1;
 
-        for(int x = startIndex; x < endIndex; x++)
+        if(places > 0 && length > 1)
         {
-            if(get(x + 1))
+            int shift = places % length;
+
+            if(shift > 0)
             {
-                set(x);
+                rotateLeft(length - shift, startIndex, endIndex);
             }
-            else
+        }
+    }
+
+    /**
+     * Right rotates the bits between start and end and wraps the right-most
+     * bit around to the start.
+     */
+    public void rotateRight(int startIndex, int endIndex)
+    {
+        rotateRight(1, startIndex, endIndex);
+    }
+
+    /**
+     * Performs exclusive or of the value against this bitset starting at the
+     * offset position using width bits from the value.
+     */
+    public void xor(int offset, int width, int value)
+    {
+        if(0 < width && width <= BITS_PER_WORD)
+        {
+            long aligned = (long)value << (BITS_PER_WORD - width);
+            int wordIndex = wordIndex(offset);
+            int bitOffset = offset & (BITS_PER_WORD - 1);
+            ensureCapacity(getWordCount(offset + width));
+            mWords[wordIndex] ^= aligned >>> bitOffset;
+
+            if(bitOffset + width > BITS_PER_WORD)
             {
-                clear(x);
+                mWords[wordIndex + 1] ^= aligned << (BITS_PER_WORD - bitOffset);
             }
         }
+        else if(width > BITS_PER_WORD)
+        {
+            BinaryMessage mask = new BinaryMessage(this.size());
+            mask.load(offset, width, value);
+            this.xor(mask);
+        }
+    }
+
+    /**
+     * Returns the value of the bits at the (possibly non-contiguous) bit positions, with the first position as the
+     * MSB.
+     *
+     * @param bits positions, up to 64
+     * @param offset to apply to each of the bit positions
+     * @return value of the bits
+     */
+    private long getField(int[] bits, int offset)
+    {
+        long value = 0;
 
-        if(wrapBit)
+        for(int bit : bits)
         {
-            set(endIndex);
+            int index = bit + offset;
+
+            if(index < 0)
+            {
+                throw new IndexOutOfBoundsException("bitIndex < 0: " + index);
+            }
+
+            int wordIndex = wordIndex(index);
+            long word = wordIndex < mWords.length ? mWords[wordIndex] : 0;
+            value = (value << 1) | ((word << index) >>> (BITS_PER_WORD - 1));
         }
-        else
+
+        return value;
+    }
+
+    /**
+     * Returns the width-bit field that starts at the index, where any bits beyond (size + 1) are treated as zero.
+     */
+    private long getPaddedField(int index, int width)
+    {
+        long word = getWord(index);
+        int valid = mSize + 1 - index;
+
+        if(valid < width)
         {
-            clear(endIndex);
+            word = valid <= 0 ? 0 : word & (WORD_MASK << (BITS_PER_WORD - valid));
         }
+
+        return word >>> (BITS_PER_WORD - width);
     }
 
     /**
-     * Right rotates the bits between start and end indices, number of places.
+     * Returns the 64 bits that start at the index, left-aligned so that the bit at the index is the MSB of the
+     * returned value.  Bits beyond the end of the backing array are returned as zero.
+     *
+     * @param index of the first bit
+     * @return 64 bits starting at the index
      */
-    public void rotateRight(int places, int startIndex, int endIndex)
+    private long getWord(int index)
     {
-        for(int x = 0; x < places; x++)
+        if(index < 0)
+        {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + index);
+        }
+
+        int wordIndex = wordIndex(index);
+        int bitOffset = index & (BITS_PER_WORD - 1);
+
+        if(wordIndex >= mWords.length)
+        {
+            return 0;
+        }
+
+        long word = mWords[wordIndex] << bitOffset;
+
+        if(bitOffset != 0 && wordIndex + 1 < mWords.length)
         {
-            rotateRight(startIndex, endIndex);
+            word |= mWords[wordIndex + 1] >>> (BITS_PER_WORD - bitOffset);
         }
+
+        return word;
     }
 
     /**
-     * Right rotates the bits between start and end and wraps the right-most
-     * bit around to the start.
+     * Writes the most significant width bits of the left-aligned value into this message starting at the index.
+     *
+     * @param index of the first bit to write
+     * @param width number of bits to write, 1 - 64
+     * @param aligned value with the bits to write left-aligned in the MSB positions
      */
-    public void rotateRight(int startIndex, int endIndex)
+    private void setWord(int index, int width, long aligned)
     {
-        boolean wrapBit = get(endIndex);
+        if(index < 0)
+        {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + index);
+        }
 
-        for(int x = endIndex - 1; x >= startIndex; x--)
+        ensureCapacity(getWordCount(index + width));
+
+        long mask = WORD_MASK << (BITS_PER_WORD - width);
+        aligned &= mask;
+        int wordIndex = wordIndex(index);
+        int bitOffset = index & (BITS_PER_WORD - 1);
+
+        mWords[wordIndex] = (mWords[wordIndex] & ~(mask >>> bitOffset)) | (aligned >>> bitOffset);
+
+        if(bitOffset + width > BITS_PER_WORD)
         {
-            if(get(x))
-            {
-                set(x + 1);
-            }
-            else
-            {
-                clear(x + 1);
-            }
+            int shift = BITS_PER_WORD - bitOffset;
+            mWords[wordIndex + 1] = (mWords[wordIndex + 1] & ~(mask << shift)) | (aligned << shift);
         }
+    }
+
+    /**
+     * Word index for the bit index
+     */
+    private static int wordIndex(int bitIndex)
+    {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    /**
+     * Number of words required to hold the number of bits
+     */
+    private static int getWordCount(int bits)
+    {
+        return bits <= 0 ? 0 : wordIndex(bits - 1) + 1;
+    }
+
+    /**
+     * Single bit mask for the bit index within its word
+     */
+    private static long bitMask(int bitIndex)
+    {
+        return Long.MIN_VALUE >>> bitIndex;
+    }
 
-        if(wrapBit)
+    /**
+     * Grows the backing array, when needed, to hold at least the number of words.
+     */
+    private void ensureCapacity(int wordsRequired)
+    {
+        if(mWords.length < wordsRequired)
         {
-            set(startIndex);
+            mWords = Arrays.copyOf(mWords, Math.max(2 * mWords.length, wordsRequired));
         }
-        else
+    }
+
+    /**
+     * Validates the from (inclusive) and to (exclusive) range indices.
+     */
+    private static void checkRange(int from, int to)
+    {
+        if(from < 0)
+        {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + from);
+        }
+
+        if(to < 0)
         {
-            clear(startIndex);
+            throw new IndexOutOfBoundsException("toIndex < 0: " + to);
+        }
+
+        if(from > to)
+        {
+            throw new IndexOutOfBoundsException("fromIndex: " + from + " > toIndex: " + to);
         }
     }
 
     /**
-     * Performs exclusive or of the value against this bitset starting at the
-     * offset position using width bits from the value.
+     * Returns the words of the bitset in the MSB-first packing used by this class.
      */
-    public void xor(int offset, int width, int value)
+    private static long[] getWords(BitSet bitSet)
+    {
+        if(bitSet instanceof BinaryMessage message)
+        {
+            return message.mWords;
+        }
+
+        long[] words = bitSet.toLongArray();
+
+        for(int x = 0; x < words.length; x++)
+        {
+            words[x] = Long.reverse(words[x]);
+        }
+
+        return words;
+    }
+
+    @Override
+    public boolean get(int index)
     {
-        BinaryMessage mask = new BinaryMessage(this.size());
+        if(index < 0)
+        {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + index);
+        }
 
-        mask.load(offset, width, value);
+        int wordIndex = wordIndex(index);
+        return wordIndex < mWords.length && (mWords[wordIndex] & bitMask(index)) != 0;
+    }
 
-        this.xor(mask);
+    @Override
+    public void set(int index)
+    {
+        if(index < 0)
+        {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + index);
+        }
+
+        int wordIndex = wordIndex(index);
+        ensureCapacity(wordIndex + 1);
+        mWords[wordIndex] |= bitMask(index);
+    }
+
+    @Override
+    public void set(int index, boolean value)
+    {
+        if(value)
+        {
+            set(index);
+        }
+        else
+        {
+            clear(index);
+        }
+    }
+
+    @Override
+    public void clear(int index)
+    {
+        if(index < 0)
+        {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + index);
+        }
+
+        int wordIndex = wordIndex(index);
+
+        if(wordIndex < mWords.length)
+        {
+            mWords[wordIndex] &= ~bitMask(index);
+        }
+    }
+
+    @Override
+    public void flip(int index)
+    {
+        if(index < 0)
+        {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + index);
+        }
+
+        int wordIndex = wordIndex(index);
+        ensureCapacity(wordIndex + 1);
+        mWords[wordIndex] ^= bitMask(index);
+    }
+
+    @Override
+    public void set(int from, int to)
+    {
+        checkRange(from, to);
+
+        if(from == to)
+        {
+            return;
+        }
+
+        ensureCapacity(getWordCount(to));
+
+        int startWord = wordIndex(from);
+        int endWord = wordIndex(to - 1);
+        long firstMask = WORD_MASK >>> from;
+        long lastMask = WORD_MASK << -to;
+
+        if(startWord == endWord)
+        {
+            mWords[startWord] |= (firstMask & lastMask);
+        }
+        else
+        {
+            mWords[startWord] |= firstMask;
+
+            for(int x = startWord + 1; x < endWord; x++)
+            {
+                mWords[x] = WORD_MASK;
+            }
+
+            mWords[endWord] |= lastMask;
+        }
+    }
+
+    @Override
+    public void set(int from, int to, boolean value)
+    {
+        if(value)
+        {
+            set(from, to);
+        }
+        else
+        {
+            clear(from, to);
+        }
+    }
+
+    @Override
+    public void clear(int from, int to)
+    {
+        checkRange(from, to);
+
+        to = Math.min(to, mWords.length * BITS_PER_WORD);
+
+        if(from >= to)
+        {
+            return;
+        }
+
+        int startWord = wordIndex(from);
+        int endWord = wordIndex(to - 1);
+        long firstMask = WORD_MASK >>> from;
+        long lastMask = WORD_MASK << -to;
+
+        if(startWord == endWord)
+        {
+            mWords[startWord] &= ~(firstMask & lastMask);
+        }
+        else
+        {
+            mWords[startWord] &= ~firstMask;
+
+            for(int x = startWord + 1; x < endWord; x++)
+            {
+                mWords[x] = 0;
+            }
+
+            mWords[endWord] &= ~lastMask;
+        }
+    }
+
+    @Override
+    public void flip(int from, int to)
+    {
+        checkRange(from, to);
+
+        if(from == to)
+        {
+            return;
+        }
+
+        ensureCapacity(getWordCount(to));
+
+        int startWord = wordIndex(from);
+        int endWord = wordIndex(to - 1);
+        long firstMask = WORD_MASK >>> from;
+        long lastMask = WORD_MASK << -to;
+
+        if(startWord == endWord)
+        {
+            mWords[startWord] ^= (firstMask & lastMask);
+        }
+        else
+        {
+            mWords[startWord] ^= firstMask;
+
+            for(int x = startWord + 1; x < endWord; x++)
+            {
+                mWords[x] ^= WORD_MASK;
+            }
+
+            mWords[endWord] ^= lastMask;
+        }
+    }
+
+    @Override
+    public int nextSetBit(int fromIndex)
+    {
+        if(fromIndex < 0)
+        {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+
+        int wordIndex = wordIndex(fromIndex);
+
+        if(wordIndex >= mWords.length)
+        {
+            return -1;
+        }
+
+        long word = mWords[wordIndex] & (WORD_MASK >>> fromIndex);
+
+        while(true)
+        {
+            if(word != 0)
+            {
+                return (wordIndex * BITS_PER_WORD) + Long.numberOfLeadingZeros(word);
+            }
+
+            if(++wordIndex == mWords.length)
+            {
+                return -1;
+            }
+
+            word = mWords[wordIndex];
+        }
+    }
+
+    @Override
+    public int nextClearBit(int fromIndex)
+    {
+        if(fromIndex < 0)
+        {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+
+        int wordIndex = wordIndex(fromIndex);
+
+        if(wordIndex >= mWords.length)
+        {
+            return fromIndex;
+        }
+
+        long word = ~mWords[wordIndex] & (WORD_MASK >>> fromIndex);
+
+        while(true)
+        {
+            if(word != 0)
+            {
+                return (wordIndex * BITS_PER_WORD) + Long.numberOfLeadingZeros(word);
+            }
+
+            if(++wordIndex == mWords.length)
+            {
+                return mWords.length * BITS_PER_WORD;
+            }
+
+            word = ~mWords[wordIndex];
+        }
+    }
+
+    @Override
+    public int previousSetBit(int fromIndex)
+    {
+        if(fromIndex < 0)
+        {
+            if(fromIndex == -1)
+            {
+                return -1;
+            }
+
+            throw new IndexOutOfBoundsException("fromIndex < -1: " + fromIndex);
+        }
+
+        int wordIndex = wordIndex(fromIndex);
+
+        if(wordIndex >= mWords.length)
+        {
+            return length() - 1;
+        }
+
+        long word = mWords[wordIndex] & (WORD_MASK << ~fromIndex);
+
+        while(true)
+        {
+            if(word != 0)
+            {
+                return ((wordIndex + 1) * BITS_PER_WORD) - 1 - Long.numberOfTrailingZeros(word);
+            }
+
+            if(wordIndex-- == 0)
+            {
+                return -1;
+            }
+
+            word = mWords[wordIndex];
+        }
+    }
+
+    @Override
+    public int previousClearBit(int fromIndex)
+    {
+        if(fromIndex < 0)
+        {
+            if(fromIndex == -1)
+            {
+                return -1;
+            }
+
+            throw new IndexOutOfBoundsException("fromIndex < -1: " + fromIndex);
+        }
+
+        int wordIndex = wordIndex(fromIndex);
+
+        if(wordIndex >= mWords.length)
+        {
+            return fromIndex;
+        }
+
+        long word = ~mWords[wordIndex] & (WORD_MASK << ~fromIndex);
+
+        while(true)
+        {
+            if(word != 0)
+            {
+                return ((wordIndex + 1) * BITS_PER_WORD) - 1 - Long.numberOfTrailingZeros(word);
+            }
+
+            if(wordIndex-- == 0)
+            {
+                return -1;
+            }
+
+            word = ~mWords[wordIndex];
+        }
+    }
+
+    @Override
+    public int length()
+    {
+        for(int x = mWords.length - 1; x >= 0; x--)
+        {
+            if(mWords[x] != 0)
+            {
+                return ((x + 1) * BITS_PER_WORD) - Long.numberOfTrailingZeros(mWords[x]);
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        for(long word : mWords)
+        {
+            if(word != 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int cardinality()
+    {
+        int count = 0;
+
+        for(long word : mWords)
+        {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    @Override
+    public boolean intersects(BitSet bitSet)
+    {
+        long[] words = getWords(bitSet);
+
+        for(int x = Math.min(mWords.length, words.length) - 1; x >= 0; x--)
+        {
+            if((mWords[x] & words[x]) != 0)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void and(BitSet bitSet)
+    {
+        if(this == bitSet)
+        {
+            return;
+        }
+
+        long[] words = getWords(bitSet);
+
+        for(int x = 0; x < mWords.length; x++)
+        {
+            mWords[x] &= (x < words.length ? words[x] : 0);
+        }
+    }
+
+    @Override
+    public void or(BitSet bitSet)
+    {
+        if(this == bitSet)
+        {
+            return;
+        }
+
+        long[] words = getWords(bitSet);
+        ensureCapacity(words.length);
+
+        for(int x = 0; x < words.length; x++)
+        {
+            mWords[x] |= words[x];
+        }
+    }
+
+    @Override
+    public void xor(BitSet bitSet)
+    {
+        long[] words = getWords(bitSet);
+        ensureCapacity(words.length);
+
+        for(int x = 0; x < words.length; x++)
+        {
+            mWords[x] ^= words[x];
+        }
+    }
+
+    @Override
+    public void andNot(BitSet bitSet)
+    {
+        long[] words = getWords(bitSet);
+
+        for(int x = Math.min(mWords.length, words.length) - 1; x >= 0; x--)
+        {
+            mWords[x] &= ~words[x];
+        }
+    }
+
+    /**
+     * Returns the set bits of this message using the little-endian word packing of BitSet.toLongArray()
+     */
+    @Override
+    public long[] toLongArray()
+    {
+        int length = mWords.length;
+
+        while(length > 0 && mWords[length - 1] == 0)
+        {
+            length--;
+        }
+
+        long[] words = new long[length];
+
+        for(int x = 0; x < length; x++)
+        {
+            words[x] = Long.reverse(mWords[x]);
+        }
+
+        return words;
+    }
+
+    @Override
+    public IntStream stream()
+    {
+        return IntStream.iterate(nextSetBit(0), index -> index >= 0, index -> nextSetBit(index + 1));
+    }
+
+    /**
+     * Hash code of the set bits, consistent with BitSet.hashCode()
+     */
+    @Override
+    public int hashCode()
+    {
+        long hash = 1234;
+
+        for(int x = mWords.length - 1; x >= 0; x--)
+        {
+            hash ^= Long.reverse(mWords[x]) * (x + 1);
+        }
+
+        return (int)((hash >> 32) ^ hash);
+    }
+
+    /**
+     * Compares the set bits of this message to the set bits of the other bitset, consistent with BitSet.equals()
+     */
+    @Override
+    public boolean equals(Object o)
+    {
+        if(this == o)
+        {
+            return true;
+        }
+
+        if(!(o instanceof BitSet bitSet))
+        {
+            return false;
+        }
+
+        long[] words = getWords(bitSet);
+        int common = Math.min(mWords.length, words.length);
+
+        for(int x = 0; x < common; x++)
+        {
+            if(mWords[x] != words[x])
+            {
+                return false;
+            }
+        }
+
+        for(int x = common; x < mWords.length; x++)
+        {
+            if(mWords[x] != 0)
+            {
+                return false;
+            }
+        }
+
+        for(int x = common; x < words.length; x++)
+        {
+            if(words[x] != 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public Object clone()
+    {
+        BinaryMessage clone = (BinaryMessage)super.clone();
+        clone.mWords = mWords.clone();
+        return clone;
     }
 
     public static void main(String[] args)
@@ -90,7 +90,9 @@ public class CorrectedBinaryMessage extends BinaryMessage
      */
     public CorrectedBinaryMessage getSubMessage(int start, int end)
     {
-        BitSet subset = this.get(start, end);
-        return new CorrectedBinaryMessage(subset, end - start);
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(end - start);
+        message.load(0, this, start, end - start);
+        message.setPointer(end - start - 1);
+        return message;
     }
 }
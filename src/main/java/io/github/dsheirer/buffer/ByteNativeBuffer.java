@@ -21,6 +21,7 @@ package io.github.dsheirer.buffer;
 
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 
 /**
@@ -46,6 +47,8 @@ public class ByteNativeBuffer extends AbstractNativeBuffer
     }
 
     private byte[] mSamples;
+    private ByteBuffer mSampleBuffer;
+    private DirectBufferPool.Lease mLease;
 
     /**
      * Constructs an instance
@@ -64,13 +67,127 @@ public class ByteNativeBuffer extends AbstractNativeBuffer
         }
 
         mSamples = samples;
+        mSampleBuffer = ByteBuffer.wrap(samples).asReadOnlyBuffer();
+        mAverageDc = averageDc;
+    }
+
+    /**
+     * Constructs an instance that wraps leased samples without copying them, for example a USB transfer buffer in
+     * native memory.  This instance shares the reference held by the lease creator and the samples are only accessible
+     * until the last reference is released.
+     * @param lease for the samples to process, from position zero to the buffer capacity
+     * @param timestamp of the samples
+     * @param averageDc measured from sample stream
+     * @param samplesPerMillisecond to calculate derivative timestamps for sub-buffers.
+     */
+    public ByteNativeBuffer(DirectBufferPool.Lease lease, long timestamp, float averageDc, float samplesPerMillisecond)
+    {
+        super(timestamp, samplesPerMillisecond);
+
+        ByteBuffer samples = lease.getBuffer();
+
+        if(samples.capacity() % FRAGMENT_SIZE != 0)
+        {
+            throw new IllegalArgumentException("Samples buffer length [" + samples.capacity() + "] must be an even multiple of " + FRAGMENT_SIZE);
+        }
+
+        mLease = lease;
+        mSampleBuffer = samples.asReadOnlyBuffer().clear();
         mAverageDc = averageDc;
     }
 
     @Override
     public int sampleCount()
     {
-        return mSamples.length / 2;
+        return mSampleBuffer.limit() / 2;
+    }
+
+    /**
+     * Raw unsigned 8-bit interleaved I/Q samples as produced by the tuner.
+     */
+    public byte[] getSamples()
+    {
+        if(mSamples != null)
+        {
+            return mSamples;
+        }
+
+        checkNotRecycled();
+        byte[] copy = new byte[mSampleBuffer.limit()];
+        mSampleBuffer.get(0, copy);
+        return copy;
+    }
+
+    /**
+     * Copies the raw samples into the buffer at its current position, without an intermediate copy for buffers that
+     * wrap native memory.
+     * @param buffer to receive the samples
+     */
+    public void putSamples(ByteBuffer buffer)
+    {
+        if(mSamples != null)
+        {
+            buffer.put(mSamples);
+        }
+        else
+        {
+            checkNotRecycled();
+            buffer.put(mSampleBuffer.duplicate());
+        }
+    }
+
+    /**
+     * Returns the sample array that holds the fragment starting at the samples pointer.  Heap buffers return the
+     * sample array, where the fragment starts at the samples pointer.  Buffers that wrap native memory copy the
+     * fragment into the scratch array, where the fragment starts at index zero.
+     */
+    private byte[] getFragment(int samplesPointer, byte[] scratch)
+    {
+        if(mSamples != null)
+        {
+            return mSamples;
+        }
+
+        checkNotRecycled();
+        mSampleBuffer.get(samplesPointer, scratch);
+        return scratch;
+    }
+
+    @Override
+    public void retain(int count)
+    {
+        if(mLease != null)
+        {
+            mLease.retain(count);
+        }
+    }
+
+    @Override
+    public void release()
+    {
+        if(mLease != null)
+        {
+            mLease.release();
+        }
+    }
+
+    /**
+     * Verifies that the leased samples were not returned to the pool by the release of the last reference.
+     */
+    private void checkNotRecycled()
+    {
+        if(mLease.isRecycled())
+        {
+            throw new IllegalStateException("Native buffer samples accessed after the buffer was released");
+        }
+    }
+
+    /**
+     * Average DC offset applied to the samples during conversion.
+     */
+    public float getAverageDc()
+    {
+        return mAverageDc;
     }
 
     @Override
@@ -82,17 +199,24 @@ public class ByteNativeBuffer extends AbstractNativeBuffer
     @Override
     public Iterator<InterleavedComplexSamples> iteratorInterleaved()
     {
-        return new InterleavedComplexSamplesIterator();
+        return new InterleavedComplexSamplesIterator(null);
+    }
+
+    @Override
+    public Iterator<InterleavedComplexSamples> iteratorInterleaved(FloatArrayPool pool)
+    {
+        return new InterleavedComplexSamplesIterator(pool);
     }
 
     private class ComplexSamplesIterator implements Iterator<ComplexSamples>
     {
         private int mSamplesPointer = 0;
+        private byte[] mFragment = mSamples == null ? new byte[FRAGMENT_SIZE * 2] : null;
 
         @Override
         public boolean hasNext()
         {
-            return mSamplesPointer < mSamples.length;
+            return mSamplesPointer < mSampleBuffer.limit();
         }
 
         @Override
@@ -102,15 +226,16 @@ public class ByteNativeBuffer extends AbstractNativeBuffer
 
             float[] i = new float[FRAGMENT_SIZE];
             float[] q = new float[FRAGMENT_SIZE];
-            int samplesOffset = mSamplesPointer;
+            byte[] samples = getFragment(mSamplesPointer, mFragment);
+            int samplesOffset = samples == mFragment ? 0 : mSamplesPointer;
 
             for(int pointer = 0; pointer < i.length; pointer++)
             {
-                i[pointer] = LOOKUP_VALUES[(0xFF & mSamples[samplesOffset++])] - mAverageDc;
-                q[pointer] = LOOKUP_VALUES[(0xFF & mSamples[samplesOffset++])] - mAverageDc;
+                i[pointer] = LOOKUP_VALUES[(0xFF & samples[samplesOffset++])] - mAverageDc;
+                q[pointer] = LOOKUP_VALUES[(0xFF & samples[samplesOffset++])] - mAverageDc;
             }
 
-            mSamplesPointer = samplesOffset;
+            mSamplesPointer += FRAGMENT_SIZE * 2;
             return new ComplexSamples(i, q, timestamp);
         }
     }
@@ -120,12 +245,23 @@ public class ByteNativeBuffer extends AbstractNativeBuffer
      */
     private class InterleavedComplexSamplesIterator implements Iterator<InterleavedComplexSamples>
     {
+        private FloatArrayPool mPool;
         private int mSamplesPointer = 0;
+        private byte[] mFragment = mSamples == null ? new byte[FRAGMENT_SIZE * 2] : null;
+
+        /**
+         * Constructs an instance
+         * @param pool to borrow sample arrays from, or null to allocate new sample arrays
+         */
+        public InterleavedComplexSamplesIterator(FloatArrayPool pool)
+        {
+            mPool = pool;
+        }
 
         @Override
         public boolean hasNext()
         {
-            return mSamplesPointer < mSamples.length;
+            return mSamplesPointer < mSampleBuffer.limit();
         }
 
         @Override
@@ -133,16 +269,17 @@ public class ByteNativeBuffer extends AbstractNativeBuffer
         {
             long timestamp = getFragmentTimestamp(mSamplesPointer);
 
-            float[] converted = new float[FRAGMENT_SIZE * 2];
+            float[] converted = mPool != null ? mPool.borrow(FRAGMENT_SIZE * 2) : new float[FRAGMENT_SIZE * 2];
 
-            int samplesPointer = mSamplesPointer;
+            byte[] samples = getFragment(mSamplesPointer, mFragment);
+            int samplesPointer = samples == mFragment ? 0 : mSamplesPointer;
 
             for(int pointer = 0; pointer < converted.length; pointer++)
             {
-                converted[pointer] = LOOKUP_VALUES[(0xFF & mSamples[samplesPointer++])] - mAverageDc;
+                converted[pointer] = LOOKUP_VALUES[(0xFF & samples[samplesPointer++])] - mAverageDc;
             }
 
-            mSamplesPointer = samplesPointer;
+            mSamplesPointer += FRAGMENT_SIZE * 2;
 
             return new InterleavedComplexSamples(converted, timestamp);
         }
@@ -36,27 +36,47 @@ public class ByteNativeBufferFactory extends AbstractNativeBufferFactory
 
         if(mDcCorrectionManager.shouldCalculateDc())
         {
-            calculateDc(copy);
+            calculateDc(ByteBuffer.wrap(copy));
         }
 
         return new ByteNativeBuffer(copy, timestamp, mDcCorrectionManager.getAverageDc(), getSamplesPerMillisecond());
     }
 
+    @Override
+    public boolean supportsDirectBuffers()
+    {
+        return true;
+    }
+
+    @Override
+    public INativeBuffer getDirectBuffer(DirectBufferPool.Lease lease, long timestamp)
+    {
+        ByteBuffer view = lease.getBuffer().duplicate().clear();
+
+        if(mDcCorrectionManager.shouldCalculateDc())
+        {
+            calculateDc(view);
+        }
+
+        return new ByteNativeBuffer(lease, timestamp, mDcCorrectionManager.getAverageDc(), getSamplesPerMillisecond());
+    }
+
     /**
      * Calculates the average DC in the sample stream so that it can be subtracted from the samples when the
      * native buffer is used.
      * @param samples containing DC offset
      */
-    private void calculateDc(byte[] samples)
+    private void calculateDc(ByteBuffer samples)
     {
         float dcAccumulator = 0;
+        int length = samples.limit();
 
-        for(byte sample: samples)
+        for(int x = 0; x < length; x++)
         {
-            dcAccumulator += (sample & 0xFF);
+            dcAccumulator += (samples.get(x) & 0xFF);
         }
 
-        dcAccumulator /= samples.length;
+        dcAccumulator /= length;
         dcAccumulator -= 127.5f;
         dcAccumulator /= 128.0f;
         mDcCorrectionManager.adjust(dcAccumulator);
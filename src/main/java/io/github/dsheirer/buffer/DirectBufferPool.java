@@ -0,0 +1,154 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.buffer;
+
+import io.github.dsheirer.sample.buffer.ReferenceCountedBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Fixed-size ring of direct (native memory) byte buffers that are lent to native buffers wrapping them without a copy.
+ *
+ * A lent buffer is wrapped in a reference counted lease.  The producer and each consumer of the native buffers that
+ * share the lease hold a reference, and the buffer is returned to the ring when the last reference is released, so the
+ * ring should be large enough to cover the buffers held by consumers.  Producers should fall back to copying when the
+ * ring is empty.
+ */
+public class DirectBufferPool
+{
+    private final ConcurrentLinkedQueue<ByteBuffer> mAvailable = new ConcurrentLinkedQueue<>();
+    private final int mBufferSize;
+    private final int mCapacity;
+
+    /**
+     * Constructs an instance and allocates the direct buffers.
+     * @param bufferSize in bytes for each buffer
+     * @param capacity as the number of buffers in the ring
+     */
+    public DirectBufferPool(int bufferSize, int capacity)
+    {
+        mBufferSize = bufferSize;
+        mCapacity = capacity;
+
+        for(int x = 0; x < capacity; x++)
+        {
+            mAvailable.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+    }
+
+    /**
+     * Size in bytes of each buffer
+     */
+    public int getBufferSize()
+    {
+        return mBufferSize;
+    }
+
+    /**
+     * Number of buffers in the ring
+     */
+    public int getCapacity()
+    {
+        return mCapacity;
+    }
+
+    /**
+     * Number of buffers that are available to take
+     */
+    public int getAvailableCount()
+    {
+        return mAvailable.size();
+    }
+
+    /**
+     * Takes a buffer from the ring.
+     * @return cleared buffer or null if all buffers are in use
+     */
+    public ByteBuffer take()
+    {
+        ByteBuffer buffer = mAvailable.poll();
+
+        if(buffer != null)
+        {
+            buffer.clear();
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to the ring.
+     * @param buffer that was taken from this ring and is no longer referenced by an owner
+     */
+    public void release(ByteBuffer buffer)
+    {
+        mAvailable.add(buffer);
+    }
+
+    /**
+     * Creates a lease for the buffer, holding a single reference for the producer.  The buffer is returned to this ring
+     * when the last reference to the lease is released.
+     * @param buffer that was taken from this ring
+     * @return lease
+     */
+    public Lease lease(ByteBuffer buffer)
+    {
+        return new Lease(this, buffer);
+    }
+
+    /**
+     * Reference counted loan of a buffer from the ring.  The buffer contents must only be accessed while holding a
+     * reference to the lease.
+     */
+    public static class Lease extends ReferenceCountedBuffer
+    {
+        private final DirectBufferPool mPool;
+        private final ByteBuffer mBuffer;
+
+        private Lease(DirectBufferPool pool, ByteBuffer buffer)
+        {
+            mPool = pool;
+            mBuffer = buffer;
+        }
+
+        /**
+         * Leased buffer.  Callers must not keep a reference to the buffer, or to a view of the buffer, after releasing
+         * their reference to this lease.
+         */
+        ByteBuffer getBuffer()
+        {
+            return mBuffer;
+        }
+
+        /**
+         * Indicates if all references were released and the buffer was returned to the ring.
+         */
+        public boolean isRecycled()
+        {
+            return getReferenceCount() <= 0;
+        }
+
+        @Override
+        protected void recycle()
+        {
+            mPool.release(mBuffer);
+        }
+    }
+}
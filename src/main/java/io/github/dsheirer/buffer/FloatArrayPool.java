@@ -0,0 +1,260 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.buffer;
+
+import io.github.dsheirer.util.RingBuffer;
+import java.text.DecimalFormat;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of reusable float arrays for the sample processing pipeline.
+ *
+ * Arrays are pooled in size classes where each class holds arrays of one exact length, since each pipeline stage
+ * produces a steady stream of equal length arrays.  Each size class is a bounded lock-free queue so that any thread
+ * can borrow or release arrays.  When a size class is empty, borrow() allocates a new array (a miss) and when a size
+ * class is full, release() discards the array for garbage collection.  The pool holds a limited number of size classes
+ * and evicts an existing class when a new length is released, for example after a sample rate change.
+ *
+ * Borrowed arrays are not cleared and can contain values from a previous use, so callers must overwrite the full
+ * array.  An array must not be accessed after it is released to the pool.  An array that is never released is simply
+ * garbage collected.
+ *
+ * Each pool tracks hit, miss, release and discard counts and all pools are registered for metrics reporting.
+ */
+public class FloatArrayPool
+{
+    private static final DecimalFormat PERCENT_FORMAT = new DecimalFormat("0.0");
+    private static final int MAXIMUM_SIZE_CLASSES = 4;
+    private static final List<FloatArrayPool> POOLS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Polyphase channelizer filter results that are shared by the polyphase channel output processors.  Sized for
+     * several batches of channelizer results.
+     */
+    public static final FloatArrayPool CHANNELIZER = new FloatArrayPool("Polyphase Channelizer", 4096);
+
+    /**
+     * Complex sample arrays converted from tuner native buffers.
+     */
+    public static final FloatArrayPool TUNER_SAMPLES = new FloatArrayPool("Tuner Samples", 32);
+
+    private Map<Integer,RingBuffer<float[]>> mSizeClasses = new ConcurrentHashMap<>();
+    private LongAdder mHitCount = new LongAdder();
+    private LongAdder mMissCount = new LongAdder();
+    private LongAdder mReleaseCount = new LongAdder();
+    private LongAdder mDiscardCount = new LongAdder();
+    private String mName;
+    private int mArraysPerSizeClass;
+
+    /**
+     * Constructs an instance and registers the pool for metrics reporting.
+     * @param name of the pool
+     * @param arraysPerSizeClass maximum number of arrays retained for each array length
+     */
+    public FloatArrayPool(String name, int arraysPerSizeClass)
+    {
+        mName = name;
+        mArraysPerSizeClass = arraysPerSizeClass;
+        POOLS.add(this);
+    }
+
+    /**
+     * Registered pools
+     */
+    public static List<FloatArrayPool> getPools()
+    {
+        return Collections.unmodifiableList(POOLS);
+    }
+
+    /**
+     * Name of this pool
+     */
+    public String getName()
+    {
+        return mName;
+    }
+
+    /**
+     * Borrows an array from the pool or allocates a new array when the pool is empty.  The array contents are not
+     * cleared.
+     * @param length of the array
+     * @return array
+     */
+    public float[] borrow(int length)
+    {
+        RingBuffer<float[]> sizeClass = mSizeClasses.get(length);
+
+        if(sizeClass != null)
+        {
+            float[] array = sizeClass.poll();
+
+            if(array != null)
+            {
+                mHitCount.increment();
+                return array;
+            }
+        }
+
+        mMissCount.increment();
+        return new float[length];
+    }
+
+    /**
+     * Returns the array to the pool for reuse.  The caller must not access the array after it is released.
+     * @param array to release
+     */
+    public void release(float[] array)
+    {
+        if(array == null)
+        {
+            return;
+        }
+
+        RingBuffer<float[]> sizeClass = mSizeClasses.get(array.length);
+
+        if(sizeClass == null)
+        {
+            sizeClass = getOrCreateSizeClass(array.length);
+        }
+
+        if(sizeClass.offer(array))
+        {
+            mReleaseCount.increment();
+        }
+        else
+        {
+            mDiscardCount.increment();
+        }
+    }
+
+    /**
+     * Releases each of the arrays to the pool.
+     * @param arrays to release
+     */
+    public void release(List<float[]> arrays)
+    {
+        for(float[] array: arrays)
+        {
+            release(array);
+        }
+    }
+
+    /**
+     * Creates the size class for the array length, evicting another size class when the pool has the maximum number
+     * of size classes.
+     */
+    private RingBuffer<float[]> getOrCreateSizeClass(int length)
+    {
+        if(mSizeClasses.size() >= MAXIMUM_SIZE_CLASSES)
+        {
+            Iterator<Integer> iterator = mSizeClasses.keySet().iterator();
+
+            while(mSizeClasses.size() >= MAXIMUM_SIZE_CLASSES && iterator.hasNext())
+            {
+                Integer existing = iterator.next();
+
+                if(existing != length)
+                {
+                    iterator.remove();
+                }
+            }
+        }
+
+        return mSizeClasses.computeIfAbsent(length, key -> new RingBuffer<>(mArraysPerSizeClass));
+    }
+
+    /**
+     * Removes all pooled arrays.
+     */
+    public void clear()
+    {
+        mSizeClasses.clear();
+    }
+
+    /**
+     * Number of borrow requests that were satisfied from the pool
+     */
+    public long getHitCount()
+    {
+        return mHitCount.sum();
+    }
+
+    /**
+     * Number of borrow requests that required a new array allocation
+     */
+    public long getMissCount()
+    {
+        return mMissCount.sum();
+    }
+
+    /**
+     * Number of arrays released back to the pool
+     */
+    public long getReleaseCount()
+    {
+        return mReleaseCount.sum();
+    }
+
+    /**
+     * Number of released arrays that were discarded because the size class was full
+     */
+    public long getDiscardCount()
+    {
+        return mDiscardCount.sum();
+    }
+
+    /**
+     * Ratio of borrow requests satisfied from the pool, 0.0 - 1.0
+     */
+    public double getHitRatio()
+    {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total > 0 ? (double)hits / (double)total : 0.0;
+    }
+
+    /**
+     * Number of arrays currently held by the pool across all size classes
+     */
+    public int getPooledCount()
+    {
+        int count = 0;
+
+        for(RingBuffer<float[]> sizeClass: mSizeClasses.values())
+        {
+            count += sizeClass.size();
+        }
+
+        return count;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Buffer Pool [" + mName + "] hits:" + getHitCount() + " misses:" + getMissCount() +
+            " hit ratio:" + PERCENT_FORMAT.format(getHitRatio() * 100.0) + "% released:" + getReleaseCount() +
+            " discarded:" + getDiscardCount() + " pooled:" + getPooledCount();
+    }
+}
@@ -79,6 +79,14 @@ public class FloatNativeBuffer extends AbstractNativeBuffer
         return mInterleavedComplexSamples.length / 2;
     }
 
+    /**
+     * Interleaved complex samples wrapped by this buffer.
+     */
+    public float[] getSamples()
+    {
+        return mInterleavedComplexSamples;
+    }
+
     private class ComplexSamplesIterator implements  Iterator<ComplexSamples>
     {
         private boolean mEmpty;
@@ -40,6 +40,17 @@ public interface INativeBuffer
      */
     Iterator<InterleavedComplexSamples> iteratorInterleaved();
 
+    /**
+     * Provides an iterator that converts the raw samples to interleaved complex samples format using sample arrays
+     * borrowed from the pool.  The consumer should release each sample array back to the pool once it is no longer
+     * needed.  Implementations that don't support pooling return the non-pooled iterator.
+     * @param pool to borrow sample arrays from
+     */
+    default Iterator<InterleavedComplexSamples> iteratorInterleaved(FloatArrayPool pool)
+    {
+        return iteratorInterleaved();
+    }
+
     /**
      * Total number of complex samples for this buffer
      */
@@ -50,4 +61,22 @@ public interface INativeBuffer
      * @return millis since epoch
      */
     long getTimestamp();
+
+    /**
+     * Adds references for additional consumers of this buffer.  Buffers that wrap pooled native memory are reference
+     * counted so that the memory can be reused once every consumer has released the buffer.  Heap buffers are not
+     * reference counted and ignore this method.
+     * @param count of references to add
+     */
+    default void retain(int count)
+    {
+    }
+
+    /**
+     * Releases one reference to this buffer.  Each consumer that receives a buffer from a tuner releases the buffer
+     * once it has finished reading the samples and must not access the buffer afterward.
+     */
+    default void release()
+    {
+    }
 }
@@ -38,6 +38,36 @@ public interface INativeBufferFactory
      */
     INativeBuffer getBuffer(ByteBuffer samples, long timestamp);
 
+    /**
+     * Indicates if this factory can create native buffers that wrap leased samples without copying them.
+     * @see #getDirectBuffer(DirectBufferPool.Lease, long)
+     */
+    default boolean supportsDirectBuffers()
+    {
+        return false;
+    }
+
+    /**
+     * Create a native buffer implementation that wraps the leased samples without copying them.  The returned native
+     * buffer takes over the caller's reference to the lease, which is released with the native buffer.  Factories
+     * that don't support direct buffers return a copy and release the lease.
+     *
+     * @param lease for the samples buffer, typically in native memory
+     * @param timestamp of the samples
+     * @return instance
+     */
+    default INativeBuffer getDirectBuffer(DirectBufferPool.Lease lease, long timestamp)
+    {
+        try
+        {
+            return getBuffer(lease.getBuffer().duplicate().clear(), timestamp);
+        }
+        finally
+        {
+            lease.release();
+        }
+    }
+
     /**
      * Sets the samples per millisecond rate based on the current sample rate.
      *
@@ -0,0 +1,37 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.buffer;
+
+import io.github.dsheirer.sample.Broadcaster;
+import io.github.dsheirer.sample.Listener;
+
+/**
+ * Broadcasts native buffers to multiple listeners, retaining a buffer reference for each listener.  Each listener
+ * releases its reference when it has finished with the buffer.  The caller keeps its own reference across the
+ * broadcast and releases it afterward.
+ */
+public class NativeBufferBroadcaster extends Broadcaster<INativeBuffer>
+{
+    @Override
+    protected void deliver(Listener<INativeBuffer> listener, INativeBuffer nativeBuffer)
+    {
+        nativeBuffer.retain(1);
+        listener.receive(nativeBuffer);
+    }
+}
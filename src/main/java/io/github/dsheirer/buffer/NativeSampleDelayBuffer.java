@@ -18,7 +18,6 @@
  */
 package io.github.dsheirer.buffer;
 
-import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,12 +41,16 @@ import java.util.concurrent.LinkedTransferQueue;
  * delayed buffers.  Any listeners that are added to this class are expected to implement a non-blocking receive method
  * so as not to delay the stream of sample buffers.  Channel listeners are expected to implement buffer queue processing
  * on another thread.
+ *
+ * Each buffer in the delay queue holds the buffer reference that was passed to this instance and the reference is
+ * released when the buffer is evicted from the queue.  Listeners receive their own reference to each buffer, whether
+ * broadcast or pre-loaded, and release it when finished.
  */
 public class NativeSampleDelayBuffer implements Listener<INativeBuffer>
 {
     private final static Logger mLog = LoggerFactory.getLogger(NativeSampleDelayBuffer.class);
 
-    private Broadcaster<INativeBuffer> mBroadcaster = new Broadcaster<>();
+    private NativeBufferBroadcaster mBroadcaster = new NativeBufferBroadcaster();
     private LinkedTransferQueue<ActionRequest> mActionQueue = new LinkedTransferQueue<>();
     private INativeBuffer[] mDelayBuffer;
     private int mDelayBufferPointer = 0;
@@ -68,7 +71,7 @@ public class NativeSampleDelayBuffer implements Listener<INativeBuffer>
     /**
      * Prepares this instance for disposal by releasing all stored sample buffers.
      */
-    public void dispose()
+    public synchronized void dispose()
     {
         clearBuffer();
         mBroadcaster.clear();
@@ -87,7 +90,11 @@ public class NativeSampleDelayBuffer implements Listener<INativeBuffer>
     {
         for(int x = 0; x < mDelayBuffer.length; x++)
         {
-            mDelayBuffer[x] = null;
+            if(mDelayBuffer[x] != null)
+            {
+                mDelayBuffer[x].release();
+                mDelayBuffer[x] = null;
+            }
         }
 
         mDelayBufferPointer = 0;
@@ -118,7 +125,12 @@ public class NativeSampleDelayBuffer implements Listener<INativeBuffer>
 
         mBroadcaster.receive(samples);
 
-        //Store the new buffer in the delay queue and increment the pointer
+        //Release the oldest buffer and store the new buffer in the delay queue and increment the pointer
+        if(mDelayBuffer[mDelayBufferPointer] != null)
+        {
+            mDelayBuffer[mDelayBufferPointer].release();
+        }
+
         mDelayBuffer[mDelayBufferPointer++] = samples;
 
         //Wrap the delay buffer pointer as needed
@@ -150,6 +162,7 @@ public class NativeSampleDelayBuffer implements Listener<INativeBuffer>
             if(toEvaluate != null &&
                 ((toEvaluate.getTimestamp() + mBufferDuration) >= listenerToAdd.getTimestamp()))
             {
+                toEvaluate.retain(1);
                 listenerToAdd.getListener().receive(toEvaluate);
             }
 
@@ -21,6 +21,7 @@ package io.github.dsheirer.buffer;
 
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 
 /**
@@ -46,6 +47,8 @@ public class SignedByteNativeBuffer extends AbstractNativeBuffer
     }
 
     private byte[] mSamples;
+    private ByteBuffer mSampleBuffer;
+    private DirectBufferPool.Lease mLease;
     private float mIAverageDc;
     private float mQAverageDc;
 
@@ -68,6 +71,34 @@ public class SignedByteNativeBuffer extends AbstractNativeBuffer
         }
 
         mSamples = samples;
+        mSampleBuffer = ByteBuffer.wrap(samples).asReadOnlyBuffer();
+        mIAverageDc = iAverageDc;
+        mQAverageDc = qAverageDc;
+    }
+
+    /**
+     * Constructs an instance that wraps leased samples without copying them, for example a USB transfer buffer in
+     * native memory.  This instance shares the reference held by the lease creator and the samples are only accessible
+     * until the last reference is released.
+     * @param lease for the samples to process, from position zero to the buffer capacity
+     * @param timestamp of the samples
+     * @param iAverageDc of the sample stream
+     * @param qAverageDc of the sample stream
+     * @param samplesPerMillisecond to calculate sub-buffer timestamps
+     */
+    public SignedByteNativeBuffer(DirectBufferPool.Lease lease, long timestamp, float iAverageDc, float qAverageDc, float samplesPerMillisecond)
+    {
+        super(timestamp, samplesPerMillisecond);
+
+        ByteBuffer samples = lease.getBuffer();
+
+        if(samples.capacity() % FRAGMENT_SIZE != 0)
+        {
+            throw new IllegalArgumentException("Samples buffer length [" + samples.capacity() + "] must be an even multiple of " + FRAGMENT_SIZE);
+        }
+
+        mLease = lease;
+        mSampleBuffer = samples.asReadOnlyBuffer().clear();
         mIAverageDc = iAverageDc;
         mQAverageDc = qAverageDc;
     }
@@ -75,7 +106,103 @@ public class SignedByteNativeBuffer extends AbstractNativeBuffer
     @Override
     public int sampleCount()
     {
-        return mSamples.length / 2;
+        return mSampleBuffer.limit() / 2;
+    }
+
+    /**
+     * Raw signed 8-bit interleaved I/Q samples as produced by the tuner.
+     */
+    public byte[] getSamples()
+    {
+        if(mSamples != null)
+        {
+            return mSamples;
+        }
+
+        checkNotRecycled();
+        byte[] copy = new byte[mSampleBuffer.limit()];
+        mSampleBuffer.get(0, copy);
+        return copy;
+    }
+
+    /**
+     * Copies the raw samples into the buffer at its current position, without an intermediate copy for buffers that
+     * wrap native memory.
+     * @param buffer to receive the samples
+     */
+    public void putSamples(ByteBuffer buffer)
+    {
+        if(mSamples != null)
+        {
+            buffer.put(mSamples);
+        }
+        else
+        {
+            checkNotRecycled();
+            buffer.put(mSampleBuffer.duplicate());
+        }
+    }
+
+    /**
+     * Returns the sample array that holds the fragment starting at the samples pointer.  Heap buffers return the
+     * sample array, where the fragment starts at the samples pointer.  Buffers that wrap native memory copy the
+     * fragment into the scratch array, where the fragment starts at index zero.
+     */
+    private byte[] getFragment(int samplesPointer, byte[] scratch)
+    {
+        if(mSamples != null)
+        {
+            return mSamples;
+        }
+
+        checkNotRecycled();
+        mSampleBuffer.get(samplesPointer, scratch);
+        return scratch;
+    }
+
+    @Override
+    public void retain(int count)
+    {
+        if(mLease != null)
+        {
+            mLease.retain(count);
+        }
+    }
+
+    @Override
+    public void release()
+    {
+        if(mLease != null)
+        {
+            mLease.release();
+        }
+    }
+
+    /**
+     * Verifies that the leased samples were not returned to the pool by the release of the last reference.
+     */
+    private void checkNotRecycled()
+    {
+        if(mLease.isRecycled())
+        {
+            throw new IllegalStateException("Native buffer samples accessed after the buffer was released");
+        }
+    }
+
+    /**
+     * Average DC offset of the I samples.
+     */
+    public float getIAverageDc()
+    {
+        return mIAverageDc;
+    }
+
+    /**
+     * Average DC offset of the Q samples.
+     */
+    public float getQAverageDc()
+    {
+        return mQAverageDc;
     }
 
     @Override
@@ -87,7 +214,13 @@ public class SignedByteNativeBuffer extends AbstractNativeBuffer
     @Override
     public Iterator<InterleavedComplexSamples> iteratorInterleaved()
     {
-        return new InterleavedComplexSamplesIterator();
+        return new InterleavedComplexSamplesIterator(null);
+    }
+
+    @Override
+    public Iterator<InterleavedComplexSamples> iteratorInterleaved(FloatArrayPool pool)
+    {
+        return new InterleavedComplexSamplesIterator(pool);
     }
 
     /**
@@ -96,11 +229,12 @@ public class SignedByteNativeBuffer extends AbstractNativeBuffer
     private class ComplexSamplesIterator implements Iterator<ComplexSamples>
     {
         private int mSamplesPointer = 0;
+        private byte[] mFragment = mSamples == null ? new byte[FRAGMENT_SIZE * 2] : null;
 
         @Override
         public boolean hasNext()
         {
-            return mSamplesPointer < mSamples.length;
+            return mSamplesPointer < mSampleBuffer.limit();
         }
 
         @Override
@@ -110,15 +244,16 @@ public class SignedByteNativeBuffer extends AbstractNativeBuffer
 
             float[] i = new float[FRAGMENT_SIZE];
             float[] q = new float[FRAGMENT_SIZE];
-            int samplesOffset = mSamplesPointer;
+            byte[] samples = getFragment(mSamplesPointer, mFragment);
+            int samplesOffset = samples == mFragment ? 0 : mSamplesPointer;
 
             for(int pointer = 0; pointer < i.length; pointer++)
             {
-                i[pointer] = LOOKUP_VALUES[(0xFF & mSamples[samplesOffset++])] - mIAverageDc;
-                q[pointer] = LOOKUP_VALUES[(0xFF & mSamples[samplesOffset++])] - mQAverageDc;
+                i[pointer] = LOOKUP_VALUES[(0xFF & samples[samplesOffset++])] - mIAverageDc;
+                q[pointer] = LOOKUP_VALUES[(0xFF & samples[samplesOffset++])] - mQAverageDc;
             }
 
-            mSamplesPointer = samplesOffset;
+            mSamplesPointer += FRAGMENT_SIZE * 2;
             return new ComplexSamples(i, q, timestamp);
         }
     }
@@ -128,12 +263,23 @@ public class SignedByteNativeBuffer extends AbstractNativeBuffer
      */
     private class InterleavedComplexSamplesIterator implements Iterator<InterleavedComplexSamples>
     {
+        private FloatArrayPool mPool;
         private int mSamplesPointer = 0;
+        private byte[] mFragment = mSamples == null ? new byte[FRAGMENT_SIZE * 2] : null;
+
+        /**
+         * Constructs an instance
+         * @param pool to borrow sample arrays from, or null to allocate new sample arrays
+         */
+        public InterleavedComplexSamplesIterator(FloatArrayPool pool)
+        {
+            mPool = pool;
+        }
 
         @Override
         public boolean hasNext()
         {
-            return mSamplesPointer < mSamples.length;
+            return mSamplesPointer < mSampleBuffer.limit();
         }
 
         @Override
@@ -141,17 +287,18 @@ public class SignedByteNativeBuffer extends AbstractNativeBuffer
         {
             long timestamp = getFragmentTimestamp(mSamplesPointer);
 
-            float[] converted = new float[FRAGMENT_SIZE * 2];
+            float[] converted = mPool != null ? mPool.borrow(FRAGMENT_SIZE * 2) : new float[FRAGMENT_SIZE * 2];
 
-            int samplesOffset = mSamplesPointer;
+            byte[] samples = getFragment(mSamplesPointer, mFragment);
+            int samplesOffset = samples == mFragment ? 0 : mSamplesPointer;
 
             for(int pointer = 0; pointer < converted.length; pointer += 2)
             {
-                converted[pointer] = LOOKUP_VALUES[(0xFF & mSamples[samplesOffset++])] - mIAverageDc;
-                converted[pointer + 1] = LOOKUP_VALUES[(0xFF & mSamples[samplesOffset++])] - mQAverageDc;
+                converted[pointer] = LOOKUP_VALUES[(0xFF & samples[samplesOffset++])] - mIAverageDc;
+                converted[pointer + 1] = LOOKUP_VALUES[(0xFF & samples[samplesOffset++])] - mQAverageDc;
             }
 
-            mSamplesPointer = samplesOffset;
+            mSamplesPointer += FRAGMENT_SIZE * 2;
 
             return new InterleavedComplexSamples(converted, timestamp);
         }
@@ -75,12 +75,31 @@ public class SignedByteNativeBufferFactory extends AbstractNativeBufferFactory
 
         if(shouldCalculateDc())
         {
-            calculateDc(copy);
+            calculateDc(ByteBuffer.wrap(copy));
         }
 
         return new SignedByteNativeBuffer(copy, timestamp, mIAverageDc, mQAverageDc, getSamplesPerMillisecond());
     }
 
+    @Override
+    public boolean supportsDirectBuffers()
+    {
+        return true;
+    }
+
+    @Override
+    public INativeBuffer getDirectBuffer(DirectBufferPool.Lease lease, long timestamp)
+    {
+        ByteBuffer view = lease.getBuffer().duplicate().clear();
+
+        if(shouldCalculateDc())
+        {
+            calculateDc(view);
+        }
+
+        return new SignedByteNativeBuffer(lease, timestamp, mIAverageDc, mQAverageDc, getSamplesPerMillisecond());
+    }
+
     /**
      * Indicates if a DC offset calculation for a buffer should be performed.
      */
@@ -108,23 +127,24 @@ public class SignedByteNativeBufferFactory extends AbstractNativeBufferFactory
      * native buffer is used.
      * @param samples containing DC offset
      */
-    private void calculateDc(byte[] samples)
+    private void calculateDc(ByteBuffer samples)
     {
         float iDcAccumulator = 0;
         float qDcAccumulator = 0;
+        int length = samples.limit();
 
-        for(int x = 0; x < samples.length; x += 2)
+        for(int x = 0; x < length; x += 2)
         {
-            iDcAccumulator += samples[x];
-            qDcAccumulator += samples[x + 1];
+            iDcAccumulator += samples.get(x);
+            qDcAccumulator += samples.get(x + 1);
         }
 
-        iDcAccumulator /= (samples.length / 2);
+        iDcAccumulator /= (length / 2);
         iDcAccumulator /= 128.0f;
         iDcAccumulator -= mIAverageDc;
         mIAverageDc += (iDcAccumulator * DC_FILTER_GAIN);
 
-        qDcAccumulator /= (samples.length / 2);
+        qDcAccumulator /= (length / 2);
         qDcAccumulator /= 128.0f;
         qDcAccumulator -= mQAverageDc;
         mQAverageDc += (qDcAccumulator * DC_FILTER_GAIN);
@@ -0,0 +1,163 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.buffer;
+
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.Iterator;
+
+/**
+ * Native buffer that provides a view over little-endian, signed 16-bit interleaved I/Q samples held in a byte buffer,
+ * for example a slice of a memory-mapped wave recording.  Samples are converted to float on demand as the buffer
+ * is iterated, so the underlying bytes are never copied.
+ */
+public class SignedShortNativeBuffer extends AbstractNativeBuffer
+{
+    private static final int FRAGMENT_SIZE = 2048;
+    private static final float SCALE = 1.0f / Short.MAX_VALUE;
+
+    private ShortBuffer mSamples;
+
+    /**
+     * Constructs an instance
+     * @param samples buffer positioned at the first sample with the limit set after the last sample.  The buffer is
+     * viewed, not copied, and must not be modified while this native buffer is in use.
+     * @param timestamp of the first sample
+     * @param samplesPerMillisecond to calculate sub-buffer timestamps
+     */
+    public SignedShortNativeBuffer(ByteBuffer samples, long timestamp, float samplesPerMillisecond)
+    {
+        super(timestamp, samplesPerMillisecond);
+
+        if(samples.remaining() % 4 != 0)
+        {
+            throw new IllegalArgumentException("Samples buffer length [" + samples.remaining() +
+                "] must be a multiple of the 4-byte I/Q sample frame size");
+        }
+
+        mSamples = samples.slice().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+    }
+
+    @Override
+    public int sampleCount()
+    {
+        return mSamples.limit() / 2;
+    }
+
+    @Override
+    public Iterator<ComplexSamples> iterator()
+    {
+        return new ComplexSamplesIterator();
+    }
+
+    @Override
+    public Iterator<InterleavedComplexSamples> iteratorInterleaved()
+    {
+        return new InterleavedComplexSamplesIterator(null);
+    }
+
+    @Override
+    public Iterator<InterleavedComplexSamples> iteratorInterleaved(FloatArrayPool pool)
+    {
+        return new InterleavedComplexSamplesIterator(pool);
+    }
+
+    /**
+     * Iterator of complex samples over the sample buffer
+     */
+    private class ComplexSamplesIterator implements Iterator<ComplexSamples>
+    {
+        private int mSamplesPointer = 0;
+
+        @Override
+        public boolean hasNext()
+        {
+            return mSamplesPointer < mSamples.limit();
+        }
+
+        @Override
+        public ComplexSamples next()
+        {
+            long timestamp = getFragmentTimestamp(mSamplesPointer);
+            int length = Math.min(FRAGMENT_SIZE, (mSamples.limit() - mSamplesPointer) / 2);
+
+            float[] i = new float[length];
+            float[] q = new float[length];
+            int samplesOffset = mSamplesPointer;
+
+            for(int pointer = 0; pointer < length; pointer++)
+            {
+                i[pointer] = mSamples.get(samplesOffset++) * SCALE;
+                q[pointer] = mSamples.get(samplesOffset++) * SCALE;
+            }
+
+            mSamplesPointer = samplesOffset;
+            return new ComplexSamples(i, q, timestamp);
+        }
+    }
+
+    /**
+     * Iterator of interleaved complex samples over the sample buffer.
+     */
+    private class InterleavedComplexSamplesIterator implements Iterator<InterleavedComplexSamples>
+    {
+        private FloatArrayPool mPool;
+        private int mSamplesPointer = 0;
+
+        /**
+         * Constructs an instance
+         * @param pool to borrow sample arrays from, or null to allocate new sample arrays
+         */
+        public InterleavedComplexSamplesIterator(FloatArrayPool pool)
+        {
+            mPool = pool;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return mSamplesPointer < mSamples.limit();
+        }
+
+        @Override
+        public InterleavedComplexSamples next()
+        {
+            long timestamp = getFragmentTimestamp(mSamplesPointer);
+            int length = Math.min(FRAGMENT_SIZE * 2, mSamples.limit() - mSamplesPointer);
+
+            //Only full length fragments are borrowed so that the pool holds a single array size
+            float[] converted = mPool != null && length == FRAGMENT_SIZE * 2 ? mPool.borrow(length) :
+                new float[length];
+
+            int samplesOffset = mSamplesPointer;
+
+            for(int pointer = 0; pointer < length; pointer++)
+            {
+                converted[pointer] = mSamples.get(samplesOffset++) * SCALE;
+            }
+
+            mSamplesPointer = samplesOffset;
+
+            return new InterleavedComplexSamples(converted, timestamp);
+        }
+    }
+}
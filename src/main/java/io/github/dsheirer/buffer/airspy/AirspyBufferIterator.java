@@ -19,6 +19,7 @@
 
 package io.github.dsheirer.buffer.airspy;
 
+import io.github.dsheirer.buffer.FloatArrayPool;
 import io.github.dsheirer.dsp.filter.hilbert.HilbertTransform;
 import java.util.Iterator;
 
@@ -44,6 +45,7 @@ public abstract class AirspyBufferIterator<T> implements Iterator<T>
     protected float mAverageDc;
     private long mTimestamp;
     private float mSamplesPerMillisecond;
+    private FloatArrayPool mSampleArrayPool;
 
     /**
      * Constructs an instance
@@ -100,6 +102,26 @@ public abstract class AirspyBufferIterator<T> implements Iterator<T>
         return mTimestamp + (long)(samplesPointer / 2 / mSamplesPerMillisecond);
     }
 
+    /**
+     * Sets the pool to borrow output sample arrays from.  Sample arrays are newly allocated when the pool is null.
+     * @param pool to borrow from, or null.
+     */
+    public void setSampleArrayPool(FloatArrayPool pool)
+    {
+        mSampleArrayPool = pool;
+    }
+
+    /**
+     * Creates an output sample array, borrowing it from the sample array pool when a pool is set.  Borrowed arrays
+     * are not cleared, so implementations must overwrite every element.
+     * @param length of the array
+     * @return sample array
+     */
+    protected float[] createSampleArray(int length)
+    {
+        return mSampleArrayPool != null ? mSampleArrayPool.borrow(length) : new float[length];
+    }
+
     @Override
     public boolean hasNext()
     {
@@ -61,7 +61,7 @@ public class AirspyInterleavedBufferIteratorScalar extends AirspyBufferIterator<
 
         mSamplesPointer = offset;
 
-        float[] samples = new float[FRAGMENT_SIZE * 2];
+        float[] samples = createSampleArray(FRAGMENT_SIZE * 2);
 
         float accumulator;
 
@@ -84,7 +84,7 @@ public class AirspyInterleavedBufferIteratorVector64Bits extends AirspyBufferIte
 
         mSamplesPointer = offset;
 
-        float[] samples = new float[FRAGMENT_SIZE * 2];
+        float[] samples = createSampleArray(FRAGMENT_SIZE * 2);
         FloatVector accumulator;
         FloatVector f1 = FloatVector.fromArray(VECTOR_SPECIES, COEFFICIENTS, 0);
         FloatVector f2 = FloatVector.fromArray(VECTOR_SPECIES, COEFFICIENTS, 2);
@@ -20,6 +20,7 @@
 package io.github.dsheirer.buffer.airspy;
 
 import io.github.dsheirer.buffer.AbstractNativeBuffer;
+import io.github.dsheirer.buffer.FloatArrayPool;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
 import io.github.dsheirer.vector.calibrate.Implementation;
@@ -75,6 +76,38 @@ public class AirspyNativeBuffer extends AbstractNativeBuffer
         return mSamples.length / 2;
     }
 
+    /**
+     * Raw (unpacked) 12-bit samples as produced by the tuner.
+     */
+    public short[] getSamples()
+    {
+        return mSamples;
+    }
+
+    /**
+     * Residual I samples carried over from the previous buffer.
+     */
+    public short[] getResidualI()
+    {
+        return mResidualI;
+    }
+
+    /**
+     * Residual Q samples carried over from the previous buffer.
+     */
+    public short[] getResidualQ()
+    {
+        return mResidualQ;
+    }
+
+    /**
+     * Average DC offset applied to the samples during conversion.
+     */
+    public float getAverageDc()
+    {
+        return mAverageDc;
+    }
+
     @Override
     public Iterator<ComplexSamples> iterator()
     {
@@ -90,6 +123,22 @@ public class AirspyNativeBuffer extends AbstractNativeBuffer
 
     @Override
     public Iterator<InterleavedComplexSamples> iteratorInterleaved()
+    {
+        return createInterleavedIterator();
+    }
+
+    @Override
+    public Iterator<InterleavedComplexSamples> iteratorInterleaved(FloatArrayPool pool)
+    {
+        AirspyBufferIterator<InterleavedComplexSamples> iterator = createInterleavedIterator();
+        iterator.setSampleArrayPool(pool);
+        return iterator;
+    }
+
+    /**
+     * Creates an interleaved samples iterator for the calibrated optimal implementation.
+     */
+    private AirspyBufferIterator<InterleavedComplexSamples> createInterleavedIterator()
     {
         return switch(mInterleavedImplementation)
         {
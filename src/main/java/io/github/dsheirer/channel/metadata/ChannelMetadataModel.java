@@ -29,10 +29,12 @@ import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.decoder.DecoderLogicalChannelNameIdentifier;
 import io.github.dsheirer.preference.PreferenceType;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.SwingBatchUpdater;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.table.AbstractTableModel;
+import java.awt.Component;
 import java.awt.EventQueue;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -59,6 +61,7 @@ public class ChannelMetadataModel extends AbstractTableModel implements IChannel
     private List<ChannelMetadata> mChannelMetadata = new ArrayList();
     private Map<ChannelMetadata,Channel> mMetadataChannelMap = new HashMap();
     private Listener<ChannelAndMetadata> mChannelAddListener;
+    private SwingBatchUpdater<ChannelMetadata> mUpdater = new SwingBatchUpdater<>(this::process, 1000);
 
     public ChannelMetadataModel()
     {
@@ -84,9 +87,19 @@ public class ChannelMetadataModel extends AbstractTableModel implements IChannel
         }
     }
 
+    /**
+     * Pauses table updates while the component is hidden or minimized.
+     * @param component that displays this model
+     */
+    public void pauseWhenHidden(Component component)
+    {
+        mUpdater.pauseWhenHidden(component);
+    }
+
     public void dispose()
     {
         MyEventBus.getGlobalEventBus().unregister(this);
+        mUpdater.dispose();
     }
 
     /**
@@ -274,47 +287,40 @@ public class ChannelMetadataModel extends AbstractTableModel implements IChannel
         return null;
     }
 
+    /**
+     * Queues the updated channel metadata so that its table row is refreshed with the next batch of updates.
+     */
     @Override
     public void updated(ChannelMetadata channelMetadata, ChannelMetadataField channelMetadataField)
     {
-        final int rowIndex = mChannelMetadata.indexOf(channelMetadata);
+        mUpdater.add(channelMetadata);
+    }
 
-        if(rowIndex >= 0)
+    /**
+     * Refreshes the table rows for a batch of updated channel metadata.  Invoked on the Swing event dispatch thread.
+     * @param channelMetadatas that were updated since the previous batch
+     * @param overflow indicates that updates were discarded so all rows should be refreshed
+     */
+    private void process(List<ChannelMetadata> channelMetadatas, boolean overflow)
+    {
+        if(overflow)
         {
-            //Execute on the swing thread to avoid threading issues
-            EventQueue.invokeLater(new Runnable()
+            if(!mChannelMetadata.isEmpty())
             {
-                @Override
-                public void run()
-                {
-                    switch(channelMetadataField)
-                    {
-                        case CONFIGURATION_CHANNEL:
-                            fireTableCellUpdated(rowIndex, COLUMN_CONFIGURATION_CHANNEL);
-                            break;
-                        case CONFIGURATION_FREQUENCY:
-                            fireTableCellUpdated(rowIndex, COLUMN_CONFIGURATION_FREQUENCY);
-                            break;
-                        case DECODER_CHANNEL_NAME:
-                            fireTableCellUpdated(rowIndex, COLUMN_DECODER_LOGICAL_CHANNEL_NAME);
-                            break;
-                        case DECODER_TYPE:
-                            fireTableCellUpdated(rowIndex, COLUMN_DECODER_TYPE);
-                            break;
-                        case DECODER_STATE:
-                            fireTableCellUpdated(rowIndex, COLUMN_DECODER_STATE);
-                            break;
-                        case USER_FROM:
-                            fireTableCellUpdated(rowIndex, COLUMN_USER_FROM);
-                            fireTableCellUpdated(rowIndex, COLUMN_USER_FROM_ALIAS);
-                            break;
-                        case USER_TO:
-                            fireTableCellUpdated(rowIndex, COLUMN_USER_TO);
-                            fireTableCellUpdated(rowIndex, COLUMN_USER_TO_ALIAS);
-                            break;
-                    }
-                }
-            });
+                fireTableRowsUpdated(0, mChannelMetadata.size() - 1);
+            }
+
+            return;
+        }
+
+        for(ChannelMetadata channelMetadata: channelMetadatas)
+        {
+            int rowIndex = mChannelMetadata.indexOf(channelMetadata);
+
+            if(rowIndex >= 0)
+            {
+                fireTableRowsUpdated(rowIndex, rowIndex);
+            }
         }
     }
 }
@@ -98,6 +98,7 @@ public class ChannelMetadataPanel extends JPanel implements ListSelectionListene
 
         mTable = new JTable(mChannelProcessingManager.getChannelMetadataModel());
         mChannelProcessingManager.getChannelMetadataModel().setChannelAddListener(new ChannelAddListener());
+        mChannelProcessingManager.getChannelMetadataModel().pauseWhenHidden(mTable);
 
         DefaultTableCellRenderer renderer = (DefaultTableCellRenderer)mTable.getDefaultRenderer(String.class);
         renderer.setHorizontalAlignment(SwingConstants.CENTER);
@@ -23,6 +23,7 @@ import io.github.dsheirer.controller.channel.Channel;
 import io.github.dsheirer.identifier.IdentifierUpdateNotification;
 import io.github.dsheirer.identifier.decoder.ChannelStateIdentifier;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.SampleClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -98,11 +99,11 @@ public class StateMachine
      */
     public void checkState()
     {
-        if(mActiveStates.contains(mState) && mFadeTimeout <= System.currentTimeMillis())
+        if(mActiveStates.contains(mState) && mFadeTimeout <= SampleClock.currentTimeMillis())
         {
             setState(State.FADE);
         }
-        else if(mState == State.FADE && mEndTimeout <= System.currentTimeMillis())
+        else if(mState == State.FADE && mEndTimeout <= SampleClock.currentTimeMillis())
         {
             setState(State.TEARDOWN);
         }
@@ -209,7 +210,7 @@ public class StateMachine
      */
     private void updateFadeTimeout()
     {
-        mFadeTimeout = System.currentTimeMillis() + mFadeTimeoutBufferMilliseconds;
+        mFadeTimeout = SampleClock.currentTimeMillis() + mFadeTimeoutBufferMilliseconds;
     }
 
     /**
@@ -244,7 +245,7 @@ public class StateMachine
      */
     private void updateEndTimeout()
     {
-        mEndTimeout = System.currentTimeMillis() + mEndTimeoutBufferMilliseconds;
+        mEndTimeout = SampleClock.currentTimeMillis() + mEndTimeoutBufferMilliseconds;
     }
 
     /**
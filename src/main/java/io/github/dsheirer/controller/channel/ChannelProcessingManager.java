@@ -389,8 +389,7 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
 
         if(source == null)
         {
-            //This has to be done on the FX event thread when the playlist editor is constructed
-            Platform.runLater(() -> channel.setProcessing(false));
+            updateChannel(() -> channel.setProcessing(false));
 
             mChannelEventBroadcaster.broadcast(new ChannelEvent(channel,
                 ChannelEvent.Event.NOTIFICATION_PROCESSING_START_REJECTED, TUNER_UNAVAILABLE_DESCRIPTION));
@@ -398,6 +397,11 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
             throw new ChannelException("No Tuner Available");
         }
 
+        if(source instanceof TunerChannelSource tunerChannelSource)
+        {
+            tunerChannelSource.setStartTimestamp(request.getStartTimestamp());
+        }
+
         ProcessingChain processingChain = new ProcessingChain(channel, mAliasModel);
 
         //Certain decoders aggregate the decode events in the parent channel that also includes any events produced
@@ -515,15 +519,7 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
         {
             processingChain.start();
 
-            if(GraphicsEnvironment.isHeadless())
-            {
-                channel.setProcessing(true);
-            }
-            else
-            {
-                //This has to be done on the FX event thread when the playlist editor is constructed
-                Platform.runLater(() -> channel.setProcessing(true));
-            }
+            updateChannel(() -> channel.setProcessing(true));
 
             mChannelEventBroadcaster.broadcast(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_PROCESSING_START));
         }
@@ -613,15 +609,7 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
 
         if(processingChain != null)
         {
-            if(GraphicsEnvironment.isHeadless())
-            {
-                channel.setProcessing(false);
-            }
-            else
-            {
-                //This has to be done on the FX event thread when the playlist editor is constructed
-                Platform.runLater(() -> channel.setProcessing(false));
-            }
+            updateChannel(() -> channel.setProcessing(false));
 
             //Since the processing chain's source will block on stop(), throw it to the thread pool to run
             ThreadPool.CACHED.submit(() -> {
@@ -678,6 +666,22 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
         }
     }
 
+    /**
+     * Applies a channel processing state update.  This has to be done on the FX event thread when the playlist editor
+     * is constructed, and is applied directly when running headless where the JavaFX toolkit is never started.
+     */
+    private static void updateChannel(Runnable update)
+    {
+        if(GraphicsEnvironment.isHeadless())
+        {
+            update.run();
+        }
+        else
+        {
+            Platform.runLater(update);
+        }
+    }
+
     /**
      * Process a request to convert a currently processing standard channel type to a traffic channel type.
      * @param request from the currently processing channel's processing chain event bus
@@ -695,7 +699,7 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
             processingChain.removeTrafficChannelManager();
 
             //Update processing flag for each configuration.
-            Platform.runLater(() -> {
+            updateChannel(() -> {
                 request.getCurrentChannel().setProcessing(false);
                 request.getTrafficChannel().setProcessing(true);
             });
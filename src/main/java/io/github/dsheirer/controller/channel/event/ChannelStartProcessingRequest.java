@@ -42,6 +42,7 @@ public class ChannelStartProcessingRequest extends ModuleEventBusMessage
     private DecodeEventHistory mParentDecodeEventHistory;
     private DecodeEventHistory mChildDecodeEventHistory;
     private boolean mPersistentAttempt;
+    private long mStartTimestamp = System.currentTimeMillis();
 
     /**
      * Constructs an instance
@@ -109,6 +110,28 @@ public class ChannelStartProcessingRequest extends ModuleEventBusMessage
         return mPersistentAttempt;
     }
 
+    /**
+     * Sets the timestamp of the earliest samples that the channel should process, for example the timestamp of the
+     * channel grant.  Tuner channel sources that retain a sample history will pre-load the channel with samples from
+     * this timestamp forward.  Defaults to the time that this request was created.
+     * @param startTimestamp in milliseconds
+     */
+    public void setStartTimestamp(long startTimestamp)
+    {
+        if(startTimestamp > 0)
+        {
+            mStartTimestamp = startTimestamp;
+        }
+    }
+
+    /**
+     * Timestamp of the earliest samples that the channel should process.
+     */
+    public long getStartTimestamp()
+    {
+        return mStartTimestamp;
+    }
+
     /**
      * Channel to start processing
      * @return channel to start
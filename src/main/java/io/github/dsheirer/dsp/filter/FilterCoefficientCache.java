@@ -0,0 +1,382 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter;
+
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.metrics.IMetricsProvider;
+import io.github.dsheirer.metrics.Metric;
+import io.github.dsheirer.metrics.MetricNames;
+import io.github.dsheirer.metrics.MetricsRegistry;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of designed filter coefficients, keyed by a canonical description of the filter design
+ * parameters.  Each filter is designed once per process, even when several channels request the same filter at the
+ * same time, and the designed coefficients are persisted to a cache file so that they are available without design
+ * effort when the application is restarted.
+ *
+ * Persistence is enabled by load(path), which reads the cache file and afterwards rewrites the file shortly after new
+ * filters are designed.  The file format version must be incremented whenever a change to a filter designer produces
+ * different coefficients for the same design parameters, so that stale coefficients are discarded.
+ *
+ * Callers receive a copy of the cached coefficients and are free to modify the returned array.
+ */
+public class FilterCoefficientCache implements IMetricsProvider
+{
+    private static final Logger mLog = LoggerFactory.getLogger(FilterCoefficientCache.class);
+    /**
+     * Cache file name, in the application root directory
+     */
+    public static final String CACHE_FILE_NAME = "filter_coefficients.cache";
+    private static final int MAGIC = 0x53444643; //SDFC
+    private static final int VERSION = 1;
+    private static final long SAVE_DELAY_SECONDS = 5;
+    private static FilterCoefficientCache sInstance;
+
+    private Map<String,CacheEntry> mEntries = new ConcurrentHashMap<>();
+    private AtomicLong mHits = new AtomicLong();
+    private AtomicLong mMisses = new AtomicLong();
+    private Path mPath;
+    private ScheduledFuture<?> mSaveFuture;
+
+    /**
+     * Constructs an instance.  Use getInstance() to access the shared cache.
+     */
+    FilterCoefficientCache()
+    {
+    }
+
+    /**
+     * Shared filter coefficient cache
+     */
+    public static synchronized FilterCoefficientCache getInstance()
+    {
+        if(sInstance == null)
+        {
+            sInstance = new FilterCoefficientCache();
+            MetricsRegistry.getInstance().register(sInstance);
+            Runtime.getRuntime().addShutdownHook(new Thread(sInstance::savePending, "sdrtrunk filter cache shutdown"));
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Designs filter coefficients.
+     */
+    public interface Designer
+    {
+        /**
+         * Designs the filter.
+         * @return coefficients or null if the filter can't be designed from the parameters
+         * @throws FilterDesignException if the filter can't be designed
+         */
+        float[] design() throws FilterDesignException;
+    }
+
+    /**
+     * Retrieves the cached filter coefficients for the key, or designs and caches the filter when the key is not
+     * cached.  Concurrent requests for the same key wait for a single design.  Designs that fail or return null are
+     * not cached.
+     *
+     * @param key that uniquely describes the filter design parameters
+     * @param designer to design the filter when it is not cached
+     * @return copy of the filter coefficients or null if the designer can't design the filter
+     * @throws FilterDesignException from the designer
+     */
+    public float[] get(String key, Designer designer) throws FilterDesignException
+    {
+        CacheEntry entry = mEntries.computeIfAbsent(key, CacheEntry::new);
+        float[] coefficients = entry.get(designer);
+        return coefficients != null ? coefficients.clone() : null;
+    }
+
+    /**
+     * Indicates if coefficients are cached for the key
+     */
+    public boolean contains(String key)
+    {
+        CacheEntry entry = mEntries.get(key);
+        return entry != null && entry.mCoefficients != null;
+    }
+
+    /**
+     * Number of cached filters
+     */
+    public int size()
+    {
+        int size = 0;
+
+        for(CacheEntry entry: mEntries.values())
+        {
+            if(entry.mCoefficients != null)
+            {
+                size++;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Loads the cached filters from the cache file and enables persistence of newly designed filters to the file.
+     * A missing, corrupt or outdated cache file is ignored and replaced when the next filter is designed.
+     *
+     * @param path to the cache file
+     */
+    public void load(Path path)
+    {
+        synchronized(this)
+        {
+            mPath = path;
+        }
+
+        if(!Files.exists(path))
+        {
+            return;
+        }
+
+        int loaded = 0;
+
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path))))
+        {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION)
+            {
+                mLog.info("Ignoring filter coefficient cache file with unsupported format [" + path + "]");
+                return;
+            }
+
+            int count = in.readInt();
+
+            for(int x = 0; x < count; x++)
+            {
+                String key = in.readUTF();
+                float[] coefficients = new float[in.readInt()];
+
+                for(int y = 0; y < coefficients.length; y++)
+                {
+                    coefficients[y] = in.readFloat();
+                }
+
+                CacheEntry entry = mEntries.computeIfAbsent(key, CacheEntry::new);
+
+                synchronized(entry)
+                {
+                    if(entry.mCoefficients == null)
+                    {
+                        entry.mCoefficients = coefficients;
+                        loaded++;
+                    }
+                }
+            }
+        }
+        catch(EOFException eofe)
+        {
+            mLog.warn("Filter coefficient cache file is truncated [" + path + "] - loaded " + loaded + " filters");
+        }
+        catch(IOException | RuntimeException e)
+        {
+            mLog.warn("Error reading filter coefficient cache file [" + path + "]", e);
+        }
+
+        mLog.info("Loaded [" + loaded + "] designed filters from the filter coefficient cache");
+    }
+
+    /**
+     * Loads the cache file on a background thread so that startup isn't delayed.  Filters requested before the file
+     * is loaded are designed as usual.
+     *
+     * @param path to the cache file
+     */
+    public void loadAsync(Path path)
+    {
+        ThreadPool.CACHED.submit(() -> load(path));
+    }
+
+    /**
+     * Writes the cached filters to the cache file, replacing the file contents.
+     */
+    public void save()
+    {
+        Path path;
+
+        synchronized(this)
+        {
+            path = mPath;
+            mSaveFuture = null;
+        }
+
+        if(path == null)
+        {
+            return;
+        }
+
+        List<Map.Entry<String,float[]>> filters = new ArrayList<>();
+
+        for(CacheEntry entry: mEntries.values())
+        {
+            float[] coefficients = entry.mCoefficients;
+
+            if(coefficients != null)
+            {
+                filters.add(Map.entry(entry.mKey, coefficients));
+            }
+        }
+
+        try
+        {
+            if(path.getParent() != null)
+            {
+                Files.createDirectories(path.getParent());
+            }
+
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(filters.size());
+
+                for(Map.Entry<String,float[]> filter: filters)
+                {
+                    out.writeUTF(filter.getKey());
+                    out.writeInt(filter.getValue().length);
+
+                    for(float coefficient: filter.getValue())
+                    {
+                        out.writeFloat(coefficient);
+                    }
+                }
+            }
+
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch(IOException ioe)
+        {
+            mLog.warn("Error writing filter coefficient cache file [" + path + "]", ioe);
+        }
+    }
+
+    /**
+     * Writes the cache file immediately when a scheduled save is pending.
+     */
+    private void savePending()
+    {
+        synchronized(this)
+        {
+            if(mSaveFuture == null)
+            {
+                return;
+            }
+
+            mSaveFuture.cancel(false);
+        }
+
+        save();
+    }
+
+    /**
+     * Schedules the cache file to be rewritten, so that several filters designed at the same time, for example when
+     * a trunking system starts several traffic channels, are saved with a single write.
+     */
+    private synchronized void scheduleSave()
+    {
+        if(mPath != null && mSaveFuture == null)
+        {
+            mSaveFuture = ThreadPool.SCHEDULED.schedule(this::save, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void collectMetrics(List<Metric> metrics)
+    {
+        metrics.add(Metric.gauge(MetricNames.FILTER_CACHE_ENTRIES, "Designed filters in the filter coefficient cache",
+            size()));
+        metrics.add(Metric.counter(MetricNames.FILTER_CACHE_HITS, "Filter requests served from the filter " +
+            "coefficient cache", mHits.get()));
+        metrics.add(Metric.counter(MetricNames.FILTER_CACHE_MISSES, "Filter requests that required a filter design",
+            mMisses.get()));
+    }
+
+    /**
+     * Cached filter coefficients for a single key.  The first request designs the filter while holding the entry
+     * lock so that concurrent requests for the same key wait for that design.
+     */
+    private class CacheEntry
+    {
+        private final String mKey;
+        private volatile float[] mCoefficients;
+
+        private CacheEntry(String key)
+        {
+            mKey = key;
+        }
+
+        private float[] get(Designer designer) throws FilterDesignException
+        {
+            float[] coefficients = mCoefficients;
+
+            if(coefficients != null)
+            {
+                mHits.incrementAndGet();
+                return coefficients;
+            }
+
+            synchronized(this)
+            {
+                if(mCoefficients != null)
+                {
+                    mHits.incrementAndGet();
+                    return mCoefficients;
+                }
+
+                mMisses.incrementAndGet();
+                coefficients = designer.design();
+
+                if(coefficients != null)
+                {
+                    mCoefficients = coefficients.clone();
+                    scheduleSave();
+                }
+            }
+
+            return coefficients;
+        }
+    }
+}
@@ -278,6 +278,24 @@ public class FilterFactory
      */
     public static float[] getLowPass(double sampleRate, int passFrequency, int stopFrequency, int attenuation,
                                      WindowType windowType, boolean forceOddLength)
+    {
+        String key = "lowpass:" + sampleRate + ":" + passFrequency + ":" + stopFrequency + ":" + attenuation + ":" +
+            windowType + ":" + forceOddLength;
+
+        try
+        {
+            return FilterCoefficientCache.getInstance().get(key, () -> designLowPass(sampleRate, passFrequency,
+                stopFrequency, attenuation, windowType, forceOddLength));
+        }
+        catch(FilterDesignException fde)
+        {
+            //Not thrown by the windowed sinc low pass design
+            throw new IllegalStateException(fde);
+        }
+    }
+
+    private static float[] designLowPass(double sampleRate, int passFrequency, int stopFrequency, int attenuation,
+                                         WindowType windowType, boolean forceOddLength)
     {
         if(stopFrequency < passFrequency || stopFrequency > (sampleRate / 2))
         {
@@ -703,6 +721,18 @@ public class FilterFactory
      * @throws FilterDesignException if the filter cannot be designed
      */
     public static float[] getTaps(FIRFilterSpecification specification) throws FilterDesignException
+    {
+        //Specification subclasses can hold design state that isn't described by the specification key
+        if(specification.getClass() == FIRFilterSpecification.class)
+        {
+            return FilterCoefficientCache.getInstance().get("remez:" + specification.getKey(),
+                () -> designTaps(specification));
+        }
+
+        return designTaps(specification);
+    }
+
+    private static float[] designTaps(FIRFilterSpecification specification) throws FilterDesignException
     {
         RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
 
@@ -788,6 +818,15 @@ public class FilterFactory
      */
     public static float[] getSincM2Synthesizer(double channelSampleRate, double channelBandwidth, int channels,
                                                int tapsPerChannel) throws FilterDesignException
+    {
+        String key = "synthesizer:" + channelSampleRate + ":" + channelBandwidth + ":" + channels + ":" +
+            tapsPerChannel;
+        return FilterCoefficientCache.getInstance().get(key, () -> designSincM2Synthesizer(channelSampleRate,
+            channelBandwidth, channels, tapsPerChannel));
+    }
+
+    private static float[] designSincM2Synthesizer(double channelSampleRate, double channelBandwidth, int channels,
+                                                   int tapsPerChannel) throws FilterDesignException
     {
         int filterLength = (channels * tapsPerChannel) - 1;
 
@@ -841,6 +880,14 @@ public class FilterFactory
      */
     public static float[] getSincM2Channelizer(double channelBandwidth, int channels, int tapsPerChannel,
                                                boolean logResults) throws FilterDesignException
+    {
+        String key = "channelizer:" + channelBandwidth + ":" + channels + ":" + tapsPerChannel;
+        return FilterCoefficientCache.getInstance().get(key, () -> designSincM2Channelizer(channelBandwidth, channels,
+            tapsPerChannel, logResults));
+    }
+
+    private static float[] designSincM2Channelizer(double channelBandwidth, int channels, int tapsPerChannel,
+                                                   boolean logResults) throws FilterDesignException
     {
         int currentTapsPerChannel = tapsPerChannel;
         int filterLength = (channels * currentTapsPerChannel) - 1;
@@ -20,11 +20,14 @@ package io.github.dsheirer.dsp.filter.channelizer;
 
 import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.buffer.ReferenceCountedFloatArrays;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
 import io.github.dsheirer.source.ISourceEventListener;
 import io.github.dsheirer.source.SourceEvent;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +36,9 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<In
     private final static Logger mLog = LoggerFactory.getLogger(AbstractComplexPolyphaseChannelizer.class);
     private Broadcaster<SourceEvent> mSourceChangeBroadcaster = new Broadcaster();
     private List<PolyphaseChannelSource> mChannels = new CopyOnWriteArrayList<>();
+    private List<PendingChannel> mPendingChannels = new ArrayList<>();
+    private ChannelResultsHistory mHistory = new ChannelResultsHistory(0);
+    private AtomicBoolean mHistoryClearRequested = new AtomicBoolean();
     private double mSampleRate;
     private int mChannelCount;
     private int mSubChannelCount;
@@ -98,15 +104,26 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<In
     }
 
     /**
-     * Dispatches the processed channel samples to any registered polyphase channel outputs.
+     * Dispatches the processed channel samples to any registered polyphase channel outputs.  One reference to the
+     * batch is retained for each channel and each channel releases its reference once it has processed the batch.
+     * The caller keeps its own reference and releases it after the batch is dispatched to all channels.
      *
-     * @param channelResultsList a list of arrays of I/Q samples per channel
+     * @param channelResults batch of arrays of I/Q samples per channel
      */
-    protected void dispatch(List<float[]> channelResultsList)
+    protected void dispatch(ReferenceCountedFloatArrays channelResults)
     {
+        if(mHistoryClearRequested.getAndSet(false))
+        {
+            mHistory.clear();
+        }
+
+        addPendingChannels();
+        mHistory.add(channelResults, mCurrentSamplesTimestamp);
+
         for(PolyphaseChannelSource channel : mChannels)
         {
-            channel.receiveChannelResults(channelResultsList, mCurrentSamplesTimestamp);
+            channelResults.retain(1);
+            channel.receiveChannelResults(channelResults, mCurrentSamplesTimestamp);
         }
     }
 
@@ -124,6 +141,43 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<In
         }
     }
 
+    /**
+     * Adds the polyphase channel source to receive processed output channel samples, pre-loaded with the channel
+     * results history from the start timestamp forward.  The channel is added on the dispatch thread ahead of the
+     * next batch of channel results so that the pre-loaded and live batches are contiguous.
+     *
+     * @param polyphaseChannelSource to add
+     * @param startTimestamp of the oldest channel results to pre-load from the history
+     */
+    public void addChannel(PolyphaseChannelSource polyphaseChannelSource, long startTimestamp)
+    {
+        if(polyphaseChannelSource != null && !mChannels.contains(polyphaseChannelSource))
+        {
+            synchronized(mPendingChannels)
+            {
+                mPendingChannels.add(new PendingChannel(polyphaseChannelSource, startTimestamp));
+            }
+        }
+    }
+
+    /**
+     * Pre-loads each pending channel from the channel results history and adds the channel to receive live channel
+     * results.  Invoked on the dispatch thread.
+     */
+    private void addPendingChannels()
+    {
+        synchronized(mPendingChannels)
+        {
+            for(PendingChannel pendingChannel: mPendingChannels)
+            {
+                mHistory.replay(pendingChannel.channel()::receiveChannelResults, pendingChannel.startTimestamp());
+                addChannel(pendingChannel.channel());
+            }
+
+            mPendingChannels.clear();
+        }
+    }
+
     /**
      * Removes the polyphase channel source from receiving output channel samples.
      *
@@ -131,6 +185,11 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<In
      */
     public void removeChannel(PolyphaseChannelSource polyphaseChannelSource)
     {
+        synchronized(mPendingChannels)
+        {
+            mPendingChannels.removeIf(pendingChannel -> pendingChannel.channel() == polyphaseChannelSource);
+        }
+
         if(polyphaseChannelSource != null && mChannels.contains(polyphaseChannelSource))
         {
             mChannels.remove(polyphaseChannelSource);
@@ -139,11 +198,41 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<In
     }
 
     /**
-     * Number of polyphase channels registered to receive sample streams
+     * Number of polyphase channels registered, or pending registration, to receive sample streams
      */
     public int getRegisteredChannelCount()
     {
-        return mChannels.size();
+        synchronized(mPendingChannels)
+        {
+            return mChannels.size() + mPendingChannels.size();
+        }
+    }
+
+    /**
+     * Sets the maximum size of the channel results history used to pre-load newly added channels.  Invoke before the
+     * channelizer is started.
+     * @param maximumBytes of channel results to retain, or 0 to disable the history
+     */
+    public void setHistorySize(long maximumBytes)
+    {
+        mHistory.setMaximumBytes(maximumBytes);
+    }
+
+    /**
+     * Requests that the channel results history be cleared before the next batch of channel results is dispatched,
+     * for example when the tuner center frequency changes.
+     */
+    public void clearHistory()
+    {
+        mHistoryClearRequested.set(true);
+    }
+
+    /**
+     * Releases the channel results history.  Invoke only once the channelizer has stopped dispatching results.
+     */
+    protected void releaseHistory()
+    {
+        mHistory.clear();
     }
 
     @Override
@@ -151,4 +240,9 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<In
     {
         return mSourceChangeBroadcaster;
     }
+
+    /**
+     * Channel waiting to be pre-loaded and added on the dispatch thread.
+     */
+    private record PendingChannel(PolyphaseChannelSource channel, long startTimestamp) {}
 }
@@ -0,0 +1,165 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.sample.buffer.ReferenceCountedFloatArrays;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Bounded, time-indexed history of polyphase channelizer result batches.  Retains a reference to each of the most
+ * recent batches, up to the configured memory limit, so that a newly started channel can be pre-loaded with the
+ * channelizer output from a requested timestamp (e.g. a traffic channel grant) forward.  The pre-loaded batches are
+ * queued to the channel ahead of the live batches and the channel processes them as fast as it can until it catches
+ * up to the live sample stream.
+ *
+ * Batches are released to the channelizer array pool as they age out of the history.
+ *
+ * This class is not thread safe and is intended to be accessed on the channelizer dispatch thread.
+ */
+public class ChannelResultsHistory
+{
+    private Deque<Entry> mEntries = new ArrayDeque<>();
+    private long mMaximumBytes;
+    private long mBytes;
+
+    /**
+     * Constructs an instance
+     * @param maximumBytes of channelizer results to retain, or 0 to disable the history
+     */
+    public ChannelResultsHistory(long maximumBytes)
+    {
+        setMaximumBytes(maximumBytes);
+    }
+
+    /**
+     * Sets the maximum size of the history and releases the oldest batches as needed to meet the new limit.
+     * @param maximumBytes of channelizer results to retain, or 0 to disable the history
+     */
+    public void setMaximumBytes(long maximumBytes)
+    {
+        mMaximumBytes = Math.max(0, maximumBytes);
+        trim();
+    }
+
+    /**
+     * Maximum size of the history in bytes
+     */
+    public long getMaximumBytes()
+    {
+        return mMaximumBytes;
+    }
+
+    /**
+     * Current size of the retained batches in bytes
+     */
+    public long getBytes()
+    {
+        return mBytes;
+    }
+
+    /**
+     * Number of retained batches
+     */
+    public int size()
+    {
+        return mEntries.size();
+    }
+
+    /**
+     * Adds the batch to the history, retaining a reference to the batch until it ages out of the history.
+     * @param batch of channelizer results
+     * @param timestamp of the batch
+     */
+    public void add(ReferenceCountedFloatArrays batch, long timestamp)
+    {
+        if(mMaximumBytes <= 0)
+        {
+            return;
+        }
+
+        long bytes = 0;
+
+        for(float[] array: batch.getArrays())
+        {
+            bytes += (long)array.length * Float.BYTES;
+        }
+
+        batch.retain(1);
+        mEntries.addLast(new Entry(batch, timestamp, bytes));
+        mBytes += bytes;
+        trim();
+    }
+
+    /**
+     * Pre-loads the channel with each retained batch that has a timestamp on or after the requested timestamp,
+     * oldest first.  A reference is retained for the channel for each batch, as for a live dispatch.
+     * @param channel results receiver (e.g. PolyphaseChannelSource::receiveChannelResults) to pre-load
+     * @param timestamp of the oldest requested samples
+     * @return number of batches sent to the channel
+     */
+    public int replay(ObjLongConsumer<ReferenceCountedFloatArrays> channel, long timestamp)
+    {
+        int count = 0;
+
+        for(Entry entry: mEntries)
+        {
+            if(entry.timestamp() >= timestamp)
+            {
+                entry.batch().retain(1);
+                channel.accept(entry.batch(), entry.timestamp());
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Releases all retained batches.
+     */
+    public void clear()
+    {
+        while(!mEntries.isEmpty())
+        {
+            mEntries.removeFirst().batch().release();
+        }
+
+        mBytes = 0;
+    }
+
+    /**
+     * Releases the oldest batches until the history is within the maximum size.
+     */
+    private void trim()
+    {
+        while(!mEntries.isEmpty() && mBytes > mMaximumBytes)
+        {
+            Entry oldest = mEntries.removeFirst();
+            mBytes -= oldest.bytes();
+            oldest.batch().release();
+        }
+    }
+
+    /**
+     * Retained batch with the batch timestamp and size.
+     */
+    private record Entry(ReferenceCountedFloatArrays batch, long timestamp, long bytes) {}
+}
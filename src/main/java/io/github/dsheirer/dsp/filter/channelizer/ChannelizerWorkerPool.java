@@ -0,0 +1,121 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Application-wide worker pool shared by the polyphase channelizers for parallel filter bank processing.
+ *
+ * The thread count includes the calling (tuner buffer) thread, which always processes a share of the work itself, so
+ * a thread count of 1 (default) runs the filter bank entirely on the calling thread and no worker threads are created.
+ */
+public class ChannelizerWorkerPool
+{
+    private final static Logger mLog = LoggerFactory.getLogger(ChannelizerWorkerPool.class);
+    private static final ChannelizerWorkerPool INSTANCE = new ChannelizerWorkerPool();
+    private final AtomicInteger mThreadNumber = new AtomicInteger(1);
+    private volatile ExecutorService mExecutorService;
+    private volatile int mThreadCount = 1;
+
+    /**
+     * Private constructor.  Use getInstance().
+     */
+    private ChannelizerWorkerPool()
+    {
+    }
+
+    /**
+     * Shared instance
+     */
+    public static ChannelizerWorkerPool getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Maximum thread count that can be used on this host
+     */
+    public static int getMaximumThreadCount()
+    {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Number of threads, including the calling thread, that each channelizer uses to process a sample buffer.
+     */
+    public int getThreadCount()
+    {
+        return mThreadCount;
+    }
+
+    /**
+     * Sets the number of threads, including the calling thread, used by each channelizer to process a sample buffer.
+     * The count is constrained to the range 1 to the number of available processors.  Channelizers that are currently
+     * processing a buffer complete that buffer using the previous pool.
+     *
+     * @param threadCount to use
+     */
+    public synchronized void setThreadCount(int threadCount)
+    {
+        threadCount = Math.max(1, Math.min(threadCount, getMaximumThreadCount()));
+
+        if(threadCount == mThreadCount)
+        {
+            return;
+        }
+
+        ExecutorService previous = mExecutorService;
+
+        if(threadCount > 1)
+        {
+            mExecutorService = Executors.newFixedThreadPool(threadCount - 1, runnable -> {
+                Thread thread = new Thread(runnable, "sdrtrunk channelizer worker " + mThreadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MAX_PRIORITY);
+                return thread;
+            });
+        }
+        else
+        {
+            mExecutorService = null;
+        }
+
+        mThreadCount = threadCount;
+
+        if(previous != null)
+        {
+            previous.shutdown();
+        }
+
+        mLog.info("Polyphase channelizer filter bank thread count [" + threadCount + "]");
+    }
+
+    /**
+     * Executor service for worker threads, or null when the thread count is 1.
+     */
+    ExecutorService getExecutorService()
+    {
+        return mExecutorService;
+    }
+}
@@ -18,14 +18,20 @@
  */
 package io.github.dsheirer.dsp.filter.channelizer;
 
+import io.github.dsheirer.buffer.FloatArrayPool;
 import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.buffer.ReferenceCountedFloatArrays;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import io.github.dsheirer.util.BatchMode;
 import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.WaitStrategy;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import org.apache.commons.math3.util.FastMath;
 import org.jtransforms.fft.FloatFFT_1D;
 import org.slf4j.Logger;
@@ -39,15 +45,19 @@ import org.slf4j.LoggerFactory;
  * Processing for Communications Systems, p230-233.
  *
  * Samples are loaded into this filter one block at a time (1/2 channel count) and a filtered output is calculated
- * to produce an overall 2x oversampled channel sample rate.  Each sample block load is preceded by a serpentine
- * shift of the existing sample blocks.  We use the java System.arrayCopy() method which is able to leverage
- * native processor intrinsics for efficiency.
+ * to produce an overall 2x oversampled channel sample rate.  Instead of a serpentine shift of the sample blocks for
+ * each new block, incoming samples are appended to a sample history and each filter step reads its blocks from the
+ * history in newest-to-oldest order.  This makes each filter step independent of the others, so the steps for a
+ * sample buffer can be divided into contiguous ranges and processed in parallel by the ChannelizerWorkerPool threads.
+ * The results are dispatched in order and are identical regardless of the thread count.
  *
  * The prototype filter for the channelizer is rearranged to align with the structure of the sample buffer.
  *
  * Instead of using an array of channel filters as described in the Harris text, this filter and the sample buffer
  * are arranged as a contiguous array to maximize Java's ability to leverage native processor Single Instruction
- * Multiple Data (SIMD) intrinsics (since Java 8).  The filter process is broken into four steps:
+ * Multiple Data (SIMD) intrinsics (since Java 8).  The multiply and accumulate steps are performed by the optimal
+ * scalar or Vector API filter kernel for this computer as determined by the calibration manager.  The filter process
+ * is broken into four steps:
  *
  *   -Multiply the inline array of samples and filter coefficients
  *   -Accumulate the results for each sub-channel
@@ -69,18 +79,24 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      */
     private static final int PROCESSED_CHANNEL_RESULTS_THRESHOLD = 1024;
 
+    /**
+     * Minimum number of filter steps assigned to each thread when processing a sample buffer in parallel
+     */
+    private static final int MINIMUM_STEPS_PER_THREAD = 64;
+
     //Sized at 152 buffers a second where max = 5 seconds
     private IFFTProcessorDispatcher mIFFTProcessorDispatcher = new IFFTProcessorDispatcher(5 * 152);
     private FloatFFT_1D mFFT;
-    private float[] mInlineSamples;
+    private float[] mSampleHistory;
+    private int mSampleHistoryLength;
     private float[] mInlineFilter;
+    private IPolyphaseFilterKernel mFilterKernel = PolyphaseFilterKernelFactory.getKernel();
     private boolean mTopBlockIndicator = true;
     private int[] mTopBlockMap;
     private int[] mMiddleBlockMap;
-    private int mSampleBufferPointer;
     private int mSamplesPerBlock;
     private int mTapsPerChannel;
-    private List<float[]> mProcessedChannelResultsList = new ArrayList<>();
+    private List<float[]> mProcessedChannelResultsList = new ArrayList<>(PROCESSED_CHANNEL_RESULTS_THRESHOLD);
 
     /**
      * Creates a NMDPFB channelizer instance.
@@ -140,6 +156,7 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
     public void stop()
     {
         mIFFTProcessorDispatcher.stop();
+        releaseHistory();
     }
 
     /**
@@ -196,43 +213,58 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
 
         float[] samples = complexSamples.samples();
 
-        int samplesPointer = 0;
-        int samplesToCopy;
-
-        while(samplesPointer < samples.length)
+        if(mSampleHistory.length < mSampleHistoryLength + samples.length)
         {
-            if(mSampleBufferPointer < mSamplesPerBlock)
-            {
-                samplesToCopy = mSamplesPerBlock - mSampleBufferPointer;
+            float[] history = new float[mSampleHistoryLength + samples.length];
+            System.arraycopy(mSampleHistory, 0, history, 0, mSampleHistoryLength);
+            mSampleHistory = history;
+        }
 
-                int samplesDiff = samples.length - samplesPointer;
-                if(samplesDiff < samplesToCopy)
-                {
-                    samplesToCopy = samplesDiff;
-                }
+        System.arraycopy(samples, 0, mSampleHistory, mSampleHistoryLength, samples.length);
+        mSampleHistoryLength += samples.length;
 
-                System.arraycopy(samples, samplesPointer, mInlineSamples, mSampleBufferPointer, samplesToCopy);
+        //Each filter step needs the newest block plus the (2 x taps - 1) preceding blocks from the history
+        int historyBlocks = getHistoryBlockCount();
+        int steps = (mSampleHistoryLength / mSamplesPerBlock) - historyBlocks;
 
-                mSampleBufferPointer += samplesToCopy;
-                samplesPointer += samplesToCopy;
-            }
+        if(steps <= 0)
+        {
+            return;
+        }
 
-            if(mSampleBufferPointer >= mSamplesPerBlock)
-            {
-                //Filter buffered samples and produce a single sample across each of the polyphase channels
-                mProcessedChannelResultsList.add(process());
+        float[][] results = new float[steps][];
+        process(results);
 
-                if(mProcessedChannelResultsList.size() >= PROCESSED_CHANNEL_RESULTS_THRESHOLD)
-                {
-                    mIFFTProcessorDispatcher.receive(new ArrayList<>(mProcessedChannelResultsList));
-                    mProcessedChannelResultsList.clear();
-                }
+        for(float[] processed: results)
+        {
+            mProcessedChannelResultsList.add(processed);
 
-                //Right-shift the samples in the buffer over to make room for a new block of samples
-                System.arraycopy(mInlineSamples, 0, mInlineSamples, mSamplesPerBlock, (mInlineSamples.length - mSamplesPerBlock));
-                mSampleBufferPointer = 0;
+            if(mProcessedChannelResultsList.size() >= PROCESSED_CHANNEL_RESULTS_THRESHOLD)
+            {
+                //Hand off the list to the reference counted batch and start a new list
+                mIFFTProcessorDispatcher.receive(new ReferenceCountedFloatArrays(mProcessedChannelResultsList,
+                    FloatArrayPool.CHANNELIZER));
+                mProcessedChannelResultsList = new ArrayList<>(PROCESSED_CHANNEL_RESULTS_THRESHOLD);
             }
         }
+
+        if(steps % 2 != 0)
+        {
+            mTopBlockIndicator = !mTopBlockIndicator;
+        }
+
+        //Retain the history blocks and any partial block for the next buffer
+        int consumed = steps * mSamplesPerBlock;
+        mSampleHistoryLength -= consumed;
+        System.arraycopy(mSampleHistory, consumed, mSampleHistory, 0, mSampleHistoryLength);
+    }
+
+    /**
+     * Number of sample blocks preceding the newest block that are used in each filter step.
+     */
+    private int getHistoryBlockCount()
+    {
+        return (2 * mTapsPerChannel) - 1;
     }
 
     /**
@@ -332,55 +364,94 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
 
 
     /**
-     * Processes the sample buffer for each new block of sample data that is loaded and distributes the results to any
-     * registered channel listeners.
+     * Processes each of the available filter steps from the sample history, dividing the steps across the
+     * channelizer worker pool threads when there is enough work to share.
+     *
+     * @param results array to receive the processed output for each filter step, in order
      */
-    private float[] process()
+    private void process(float[][] results)
     {
-        int bufferLength = getSubChannelCount() * mTapsPerChannel;
-        float[] inlineInterimOutput = new float[bufferLength];
+        int steps = results.length;
+        int threads = Math.min(ChannelizerWorkerPool.getInstance().getThreadCount(), steps / MINIMUM_STEPS_PER_THREAD);
+        ExecutorService executorService = ChannelizerWorkerPool.getInstance().getExecutorService();
 
-        //Multiply each of the samples by the corresponding filter tap
-        for(int x = 0; x < mInlineSamples.length; x++)
+        if(threads <= 1 || executorService == null)
         {
-            inlineInterimOutput[x] = mInlineSamples[x] * mInlineFilter[x];
+            process(0, steps, results);
+            return;
         }
 
-        float[] filterAccumulator = new float[getSubChannelCount()];
-
-        int tapOffset = 0;
+        int stepsPerThread = steps / threads;
+        List<Future<?>> futures = new ArrayList<>();
 
-        //Accumulate the sample/filter product results into each of the I/Q sub-channels
-        for(int tap = 0; tap < mTapsPerChannel; tap++)
+        //Submit all but the first range to the workers and process the first range on this thread
+        for(int thread = 1; thread < threads; thread++)
         {
-            tapOffset = tap * getSubChannelCount();
+            int start = thread * stepsPerThread;
+            int end = (thread == threads - 1) ? steps : start + stepsPerThread;
 
-            for(int channel = 0; channel < getSubChannelCount(); channel++)
+            try
+            {
+                futures.add(executorService.submit(() -> process(start, end, results)));
+            }
+            catch(RejectedExecutionException ree)
             {
-                filterAccumulator[channel] += inlineInterimOutput[tapOffset + channel];
+                //Pool was resized while we were submitting - process the range on this thread
+                process(start, end, results);
             }
         }
 
-        float[] processed = new float[getSubChannelCount()];
+        process(0, stepsPerThread, results);
 
-        if(mTopBlockIndicator)
+        for(Future<?> future: futures)
         {
-            for(int x = 0; x < getSubChannelCount(); x++)
+            try
             {
-                processed[x] = filterAccumulator[mTopBlockMap[x]];
+                future.get();
             }
-        }
-        else
-        {
-            for(int x = 0; x < getSubChannelCount(); x++)
+            catch(Exception e)
             {
-                processed[x] = filterAccumulator[mMiddleBlockMap[x]];
+                throw new IllegalStateException("Error processing polyphase channelizer filter steps", e);
             }
         }
+    }
 
-        mTopBlockIndicator = !mTopBlockIndicator;
+    /**
+     * Processes a range of filter steps from the sample history.  Each step multiplies the newest sample block and
+     * its preceding history blocks (newest to oldest) by the aligned filter, accumulates the products for each of the
+     * I/Q sub-channels using the calibrated filter kernel, and rearranges the sub-channel results into top or middle
+     * block order for the IFFT.
+     *
+     * @param start step (inclusive)
+     * @param end step (exclusive)
+     * @param results array to receive the processed output for each filter step
+     */
+    private void process(int start, int end, float[][] results)
+    {
+        int subChannelCount = getSubChannelCount();
+        int blockSize = mSamplesPerBlock;
+        int blockCount = 2 * mTapsPerChannel;
+        float[] filterAccumulator = new float[subChannelCount];
+
+        for(int step = start; step < end; step++)
+        {
+            //Offset of the newest block for this step
+            int newestBlockOffset = (step + getHistoryBlockCount()) * blockSize;
+            mFilterKernel.filter(mSampleHistory, newestBlockOffset, mInlineFilter, blockSize, blockCount,
+                filterAccumulator);
 
-        return processed;
+            boolean topBlock = mTopBlockIndicator ^ (step % 2 != 0);
+            int[] map = topBlock ? mTopBlockMap : mMiddleBlockMap;
+            //Each pooled array is fully overwritten and is returned to the pool when all channels release the batch
+            float[] processed = FloatArrayPool.CHANNELIZER.borrow(subChannelCount);
+
+            for(int x = 0; x < subChannelCount; x++)
+            {
+                processed[x] = filterAccumulator[map[x]];
+            }
+
+            results[step] = processed;
+        }
     }
 
     /**
@@ -397,7 +468,18 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
         mTopBlockMap = getTopBlockMap(channelCount);
         mMiddleBlockMap = getMiddleBlockMap(channelCount);
         mInlineFilter = getAlignedFilter(coefficients, channelCount, mTapsPerChannel);
-        mInlineSamples = new float[bufferLength];
+
+        //Preload the history with zero-valued blocks
+        mSampleHistoryLength = getHistoryBlockCount() * mSamplesPerBlock;
+        mSampleHistory = new float[bufferLength];
+    }
+
+    /**
+     * Indicates if the IFFT processor has no channel results queued or in process.
+     */
+    public boolean isIdle()
+    {
+        return mIFFTProcessorDispatcher.isIdle();
     }
 
     /**
@@ -405,28 +487,28 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      * as required to align the phase of each polyphase channel, and then dispatch the results to any registered
      * sample consumer channels.
      */
-    public class IFFTProcessorDispatcher extends Dispatcher<List<float[]>>
+    public class IFFTProcessorDispatcher extends Dispatcher<ReferenceCountedFloatArrays>
     {
         public IFFTProcessorDispatcher(int maximumSize)
         {
-            super(maximumSize, "sdrtrunk polyphase ifft processor", Collections.emptyList());
+            super(maximumSize, "sdrtrunk polyphase ifft processor", ReferenceCountedFloatArrays.empty(),
+                WaitStrategy.PARK, BatchMode.getSampleOverflowPolicy());
 
             //We create a listener interface to receive the batched channel results arrays from the scheduled thread pool
             //dispatcher thread that is part of this continuous buffer processor.  We perform an IFFT on each
             //channel results array contained in each results buffer and then dispatch the buffer
-            //so that it can be distributed to each channel listener.
-            setListener(list -> {
-                List<float[]> processedChannelResults = new ArrayList<>();
-
-                for(float[] channelResults: list)
+            //so that it can be distributed to each channel listener.  The dispatcher releases each batch once it is
+            //dispatched, or when it is dropped on overflow or discarded on stop.
+            setListener(batch -> {
+                for(float[] channelResults: batch.getArrays())
                 {
                     //Rotate each of the channels to the correct phase using the IFFT
                     mFFT.complexInverse(channelResults, true);
-                    processedChannelResults.add(channelResults);
                 }
 
-                dispatch(processedChannelResults);
+                dispatch(batch);
             });
+            setReleaseListener(ReferenceCountedFloatArrays::release);
         }
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import org.apache.commons.math3.util.FastMath;
+import org.jtransforms.fft.FloatFFT_1D;
+
+/**
+ * Channel filter for the overlap-save fast convolution channelizer.  Selects the (FFT size / decimation) bins
+ * surrounding the channel center bin from each block spectrum, multiplies the bins by the channel filter frequency
+ * response and performs an inverse FFT of the selected bins to produce the channel samples, frequency translated to
+ * baseband and decimated.
+ *
+ * The leading samples of each inverse FFT are corrupted by the circular convolution and are discarded, leaving
+ * (block size / decimation) valid samples per block.  Each block is rotated according to its block index so that the
+ * channel sample phase is continuous from block to block.
+ *
+ * The channel is translated in whole FFT bins, leaving a residual offset of up to half of a bin width that can be
+ * removed with a mixer at the channel sample rate.
+ */
+public class FastConvolutionChannelFilter
+{
+    private FloatFFT_1D mInverseFFT;
+    private float[] mResponse;
+    private float[] mWork;
+    private int mFftSize;
+    private int mBlockSize;
+    private int mDecimation;
+    private int mChannelFftSize;
+    private int mDiscard;
+    private volatile int mCenterBin;
+
+    /**
+     * Constructs an instance
+     * @param fftSize of the channelizer forward FFT
+     * @param blockSize of new samples in each channelizer block
+     * @param decimation rate, a power of two that evenly divides the block overlap (FFT size - block size)
+     * @param taps of the low pass channel filter, at the channelizer sample rate, with a length no longer than the
+     * block overlap plus one.
+     */
+    public FastConvolutionChannelFilter(int fftSize, int blockSize, int decimation, float[] taps)
+    {
+        int overlap = fftSize - blockSize;
+
+        if(decimation < 1 || Integer.bitCount(decimation) != 1 || overlap % decimation != 0)
+        {
+            throw new IllegalArgumentException("Decimation [" + decimation + "] must be a power of two that evenly " +
+                "divides the block overlap [" + overlap + "]");
+        }
+
+        if(taps.length > overlap + 1)
+        {
+            throw new IllegalArgumentException("Filter length [" + taps.length + "] exceeds the maximum supported " +
+                "length [" + (overlap + 1) + "]");
+        }
+
+        mFftSize = fftSize;
+        mBlockSize = blockSize;
+        mDecimation = decimation;
+        mChannelFftSize = fftSize / decimation;
+        mDiscard = overlap / decimation;
+        mInverseFFT = new FloatFFT_1D(mChannelFftSize);
+        mWork = new float[mChannelFftSize * 2];
+
+        //Full frequency response of the filter at the channelizer FFT size
+        float[] response = new float[fftSize * 2];
+
+        for(int x = 0; x < taps.length; x++)
+        {
+            response[x * 2] = taps[x];
+        }
+
+        new FloatFFT_1D(fftSize).complexForward(response);
+
+        //Retain the response for the selected bins, in inverse FFT bin order.  The response is scaled by the
+        //decimation rate so that the scaled inverse FFT of the selected bins matches the full size inverse FFT.
+        mResponse = new float[mChannelFftSize * 2];
+        int half = mChannelFftSize / 2;
+
+        for(int bin = -half; bin < half; bin++)
+        {
+            int source = Math.floorMod(bin, fftSize) * 2;
+            int destination = Math.floorMod(bin, mChannelFftSize) * 2;
+            mResponse[destination] = response[source] / decimation;
+            mResponse[destination + 1] = response[source + 1] / decimation;
+        }
+    }
+
+    /**
+     * Decimation rate
+     */
+    public int getDecimation()
+    {
+        return mDecimation;
+    }
+
+    /**
+     * Number of channel samples produced for each block
+     */
+    public int getOutputLength()
+    {
+        return mBlockSize / mDecimation;
+    }
+
+    /**
+     * Channelizer FFT bin that is translated to baseband
+     */
+    public int getCenterBin()
+    {
+        return mCenterBin;
+    }
+
+    /**
+     * Sets the channelizer FFT bin to translate to baseband.  Negative bins are below the tuner center frequency.
+     * @param centerBin index
+     */
+    public void setCenterBin(int centerBin)
+    {
+        mCenterBin = Math.floorMod(centerBin, mFftSize);
+    }
+
+    /**
+     * Filters the block spectrum to produce the channel samples for the block.
+     * @param bins interleaved complex spectrum of the block, from the channelizer
+     * @param blockIndex of the block in the sample stream
+     * @param timestamp for the channel samples
+     * @return decimated channel samples
+     */
+    public ComplexSamples filter(float[] bins, long blockIndex, long timestamp)
+    {
+        int centerBin = mCenterBin;
+        int half = mChannelFftSize / 2;
+
+        for(int bin = -half; bin < half; bin++)
+        {
+            int source = ((centerBin + bin + mFftSize) % mFftSize) * 2;
+            int destination = ((bin + mChannelFftSize) % mChannelFftSize) * 2;
+
+            float inphase = bins[source];
+            float quadrature = bins[source + 1];
+            float responseInphase = mResponse[destination];
+            float responseQuadrature = mResponse[destination + 1];
+
+            mWork[destination] = (inphase * responseInphase) - (quadrature * responseQuadrature);
+            mWork[destination + 1] = (inphase * responseQuadrature) + (quadrature * responseInphase);
+        }
+
+        mInverseFFT.complexInverse(mWork, true);
+
+        //Rotate the block by the phase of the center bin at the first sample of the block, relative to the stream
+        long phaseIndex = Math.floorMod((long)centerBin * mBlockSize, mFftSize);
+        phaseIndex = (phaseIndex * Math.floorMod(blockIndex, mFftSize)) % mFftSize;
+        double angle = -2.0 * FastMath.PI * phaseIndex / mFftSize;
+        float cos = (float)FastMath.cos(angle);
+        float sin = (float)FastMath.sin(angle);
+
+        int length = getOutputLength();
+        float[] i = new float[length];
+        float[] q = new float[length];
+
+        for(int x = 0; x < length; x++)
+        {
+            int index = (mDiscard + x) * 2;
+            i[x] = (mWork[index] * cos) - (mWork[index + 1] * sin);
+            q[x] = (mWork[index] * sin) + (mWork[index + 1] * cos);
+        }
+
+        return new ComplexSamples(i, q, timestamp);
+    }
+}
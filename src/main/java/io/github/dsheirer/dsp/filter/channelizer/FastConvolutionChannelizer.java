@@ -0,0 +1,290 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.buffer.FloatArrayPool;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.buffer.ReferenceCountedBuffer;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.jtransforms.fft.FloatFFT_1D;
+
+/**
+ * Overlap-save fast convolution channelizer.  Computes a single forward FFT over each block of the tuner sample
+ * stream and shares the resulting spectrum with all channels.  Each channel then selects the FFT bins surrounding its
+ * own center frequency, applies its filter response and performs a small inverse FFT to produce the frequency
+ * translated and decimated channel samples (see FastConvolutionChannelFilter).
+ *
+ * Blocks overlap by one quarter of the FFT size, so each block produces three quarters of the FFT size in new
+ * samples and channel filters can be up to (FFT size / 4 + 1) taps long.
+ *
+ * This class is not thread safe.  Sample buffers must be received on a single thread.
+ */
+public class FastConvolutionChannelizer
+{
+    public static final int MINIMUM_FFT_SIZE = 1024;
+    public static final int MAXIMUM_FFT_SIZE = 65536;
+
+    /**
+     * Target FFT bin width in hertz.  The bin width limits how far a channel center frequency can fall from the
+     * center of an FFT bin and sets the frequency span of the channel filter transition band.
+     */
+    private static final double TARGET_BIN_WIDTH = 500.0;
+    private static final FloatArrayPool SPECTRUM_POOL = new FloatArrayPool("Fast Convolution Spectrum", 256);
+
+    private List<Listener<Spectrum>> mListeners = new CopyOnWriteArrayList<>();
+    private FloatFFT_1D mFFT;
+    private float[] mHistory;
+    private double mSampleRate;
+    private int mFftSize;
+    private int mBlockSize;
+    private int mHistoryCount;
+    private long mBlockIndex;
+
+    /**
+     * Constructs an instance
+     * @param sampleRate of the incoming complex sample stream
+     */
+    public FastConvolutionChannelizer(double sampleRate)
+    {
+        if(sampleRate <= 0)
+        {
+            throw new IllegalArgumentException("Sample rate must be a positive value");
+        }
+
+        mSampleRate = sampleRate;
+        mFftSize = getFftSize(sampleRate);
+        mBlockSize = mFftSize / 4 * 3;
+        mFFT = new FloatFFT_1D(mFftSize);
+        mHistory = new float[mFftSize * 2];
+    }
+
+    /**
+     * Calculates the power of two FFT size that provides the target bin width for the sample rate.
+     * @param sampleRate in hertz
+     * @return FFT size
+     */
+    public static int getFftSize(double sampleRate)
+    {
+        int size = MINIMUM_FFT_SIZE;
+
+        while(size < MAXIMUM_FFT_SIZE && sampleRate / size > TARGET_BIN_WIDTH)
+        {
+            size *= 2;
+        }
+
+        return size;
+    }
+
+    /**
+     * Sample rate of the incoming complex sample stream
+     */
+    public double getSampleRate()
+    {
+        return mSampleRate;
+    }
+
+    /**
+     * Size of the forward FFT
+     */
+    public int getFftSize()
+    {
+        return mFftSize;
+    }
+
+    /**
+     * Number of new input samples in each block, which is the FFT size less the overlap with the previous block.
+     */
+    public int getBlockSize()
+    {
+        return mBlockSize;
+    }
+
+    /**
+     * Maximum channel filter length supported by the block overlap.
+     */
+    public int getMaximumFilterLength()
+    {
+        return mFftSize - mBlockSize + 1;
+    }
+
+    /**
+     * Maximum channel decimation rate.  The decimation rate must evenly divide the block overlap.
+     */
+    public int getMaximumDecimation()
+    {
+        return mFftSize - mBlockSize;
+    }
+
+    /**
+     * Adds a listener to receive each block spectrum.  The listener must release the spectrum once it is processed.
+     */
+    public void addListener(Listener<Spectrum> listener)
+    {
+        mListeners.add(listener);
+    }
+
+    /**
+     * Removes the spectrum listener
+     */
+    public void removeListener(Listener<Spectrum> listener)
+    {
+        mListeners.remove(listener);
+    }
+
+    /**
+     * Number of registered spectrum listeners
+     */
+    public int getListenerCount()
+    {
+        return mListeners.size();
+    }
+
+    /**
+     * Clears the sample history so that the next block starts with the next received sample.  Use this when the
+     * tuner center frequency changes so that samples from the previous frequency are not channelized.
+     */
+    public void clear()
+    {
+        mHistoryCount = 0;
+    }
+
+    /**
+     * Receives the complex samples and dispatches a spectrum to the listeners for each completed block.  Samples are
+     * copied into the sample history, so the caller retains ownership of the sample array.
+     * @param samples to channelize
+     */
+    public void receive(InterleavedComplexSamples samples)
+    {
+        float[] input = samples.samples();
+        int offset = 0;
+
+        while(offset < input.length)
+        {
+            int length = Math.min(input.length - offset, mHistory.length - (mHistoryCount * 2));
+            System.arraycopy(input, offset, mHistory, mHistoryCount * 2, length);
+            offset += length;
+            mHistoryCount += length / 2;
+
+            if(mHistoryCount == mFftSize)
+            {
+                process(samples.timestamp());
+
+                //Retain the block overlap as the start of the next block
+                int overlap = mFftSize - mBlockSize;
+                System.arraycopy(mHistory, mBlockSize * 2, mHistory, 0, overlap * 2);
+                mHistoryCount = overlap;
+            }
+        }
+    }
+
+    /**
+     * Transforms the current block and dispatches the spectrum to the listeners.  The block index is advanced even
+     * when there are no listeners so that channels added later remain phase aligned with the block sequence.
+     */
+    @SuppressWarnings("unchecked")
+    private void process(long timestamp)
+    {
+        long blockIndex = mBlockIndex++;
+
+        //Snapshot the listeners once so that the reference count matches the listeners that receive the spectrum
+        //when channels are added or removed while this block is dispatched
+        Listener<Spectrum>[] listeners = mListeners.toArray(new Listener[0]);
+
+        if(listeners.length == 0)
+        {
+            return;
+        }
+
+        float[] bins = SPECTRUM_POOL.borrow(mHistory.length);
+        System.arraycopy(mHistory, 0, bins, 0, mHistory.length);
+        mFFT.complexForward(bins);
+
+        Spectrum spectrum = new Spectrum(bins, blockIndex, timestamp, SPECTRUM_POOL);
+        spectrum.retain(listeners.length);
+
+        for(Listener<Spectrum> listener: listeners)
+        {
+            listener.receive(spectrum);
+        }
+
+        spectrum.release();
+    }
+
+    /**
+     * Reference counted forward FFT of a single overlap-save block, shared by all channels.  Each channel must
+     * release the spectrum once it has been processed.
+     */
+    public static class Spectrum extends ReferenceCountedBuffer
+    {
+        private float[] mBins;
+        private long mBlockIndex;
+        private long mTimestamp;
+        private FloatArrayPool mPool;
+
+        /**
+         * Constructs an instance
+         * @param bins interleaved complex FFT bins
+         * @param blockIndex sequence number of the block
+         * @param timestamp of the samples in the block
+         * @param pool to receive the bins array once released, or null
+         */
+        public Spectrum(float[] bins, long blockIndex, long timestamp, FloatArrayPool pool)
+        {
+            mBins = bins;
+            mBlockIndex = blockIndex;
+            mTimestamp = timestamp;
+            mPool = pool;
+        }
+
+        /**
+         * Interleaved complex FFT bins.  Consumers must not modify the bins or retain the array after release.
+         */
+        public float[] getBins()
+        {
+            return mBins;
+        }
+
+        /**
+         * Sequence number of this block in the sample stream
+         */
+        public long getBlockIndex()
+        {
+            return mBlockIndex;
+        }
+
+        /**
+         * Timestamp of the samples in this block
+         */
+        public long getTimestamp()
+        {
+            return mTimestamp;
+        }
+
+        @Override
+        protected void recycle()
+        {
+            if(mPool != null)
+            {
+                mPool.release(mBins);
+            }
+        }
+    }
+}
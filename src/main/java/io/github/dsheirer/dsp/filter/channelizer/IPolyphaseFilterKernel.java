@@ -0,0 +1,44 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+/**
+ * Polyphase channelizer filter kernel that performs the multiply-accumulate of a single filter step.  Each step
+ * multiplies the newest sample block and its preceding history blocks (newest to oldest) by the aligned filter and
+ * accumulates the products from even blocks into the first half of the accumulator and the products from odd blocks
+ * into the second half of the accumulator.
+ *
+ * Implementations are stateless and can be shared across the channelizer worker pool threads.
+ */
+public interface IPolyphaseFilterKernel
+{
+    /**
+     * Performs the multiply-accumulate for one filter step.
+     *
+     * @param samples history array containing the sample blocks
+     * @param newestBlockOffset offset of the newest sample block in the samples array
+     * @param filter aligned filter with one block of coefficients per sample block
+     * @param blockSize number of samples in each block
+     * @param blockCount number of sample blocks to process (must be even)
+     * @param accumulator array sized to 2 x block size to receive the sub-channel results.  Existing contents are
+     * overwritten.
+     */
+    void filter(float[] samples, int newestBlockOffset, float[] filter, int blockSize, int blockCount,
+                float[] accumulator);
+}
@@ -18,6 +18,7 @@
  */
 package io.github.dsheirer.dsp.filter.channelizer;
 
+import io.github.dsheirer.buffer.FloatArrayPool;
 import io.github.dsheirer.buffer.INativeBuffer;
 import io.github.dsheirer.buffer.INativeBufferProvider;
 import io.github.dsheirer.buffer.NativeBufferPoisonPill;
@@ -34,7 +35,9 @@ import io.github.dsheirer.source.SourceException;
 import io.github.dsheirer.source.tuner.TunerController;
 import io.github.dsheirer.source.tuner.channel.TunerChannel;
 import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
+import io.github.dsheirer.util.BatchMode;
 import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.WaitStrategy;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -72,6 +75,7 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
     private static final double MINIMUM_CHANNEL_BANDWIDTH = 25000.0;
     private static final double CHANNEL_OVERSAMPLING = 2.0;
     private static final int POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL = 9;
+    private static volatile int sPreRollHistoryMegabytes = 0;
 
     private Broadcaster<SourceEvent> mSourceEventBroadcaster = new Broadcaster<>();
     private INativeBufferProvider mNativeBufferProvider;
@@ -81,7 +85,7 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
     private ComplexPolyphaseChannelizerM2 mPolyphaseChannelizer;
     private ChannelSourceEventListener mChannelSourceEventListener = new ChannelSourceEventListener();
     private NativeBufferReceiver mNativeBufferReceiver = new NativeBufferReceiver();
-    private Dispatcher mBufferDispatcher;
+    private Dispatcher<INativeBuffer> mBufferDispatcher;
     private Map<Integer,float[]> mOutputProcessorFilters = new HashMap<>();
     private boolean mRunning = true;
 
@@ -111,9 +115,10 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         }
 
         mChannelCalculator = new ChannelCalculator(sampleRate, channelCount, frequency, CHANNEL_OVERSAMPLING);
-        mBufferDispatcher = new Dispatcher(500, "sdrtrunk polyphase buffer processor",
-                new NativeBufferPoisonPill());
+        mBufferDispatcher = new Dispatcher<>(500, "sdrtrunk polyphase buffer processor",
+                new NativeBufferPoisonPill(), WaitStrategy.PARK, BatchMode.getSampleOverflowPolicy());
         mBufferDispatcher.setListener(mNativeBufferReceiver);
+        mBufferDispatcher.setReleaseListener(INativeBuffer::release);
     }
 
     /**
@@ -126,6 +131,19 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         this(tunerController, tunerController.getFrequency(), tunerController.getSampleRate());
     }
 
+    /**
+     * Sets the size of the channelizer output history, per tuner, that is used to pre-load newly started channels
+     * with the channel samples from the channel's requested start timestamp (e.g. a traffic channel grant) forward,
+     * so that the channel doesn't miss the start of the transmission.  Applies to channelizers when they are next
+     * created.
+     *
+     * @param megabytes of channelizer output to retain, or 0 to disable the history
+     */
+    public static void setPreRollHistorySize(int megabytes)
+    {
+        sPreRollHistoryMegabytes = Math.max(0, megabytes);
+    }
+
     /**
      * Provides a description of the state of this manager.
      */
@@ -166,6 +184,36 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         }
     }
 
+    /**
+     * Indicates if there are no sample buffers queued or in process in the buffer processor, the channelizer or any
+     * of the channel sources.  Stages are checked from upstream to downstream so that a buffer moving between stages
+     * during the check is not missed.
+     */
+    public boolean isIdle()
+    {
+        if(!mBufferDispatcher.isIdle())
+        {
+            return false;
+        }
+
+        ComplexPolyphaseChannelizerM2 channelizer = mPolyphaseChannelizer;
+
+        if(channelizer != null && !channelizer.isIdle())
+        {
+            return false;
+        }
+
+        for(PolyphaseChannelSource channelSource: mChannelSources)
+        {
+            if(!channelSource.isIdle())
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     /**
      * Signals to all provisioned tuner channel sources that the source complex buffer provider has an error and can
      * no longer provide channels, so that the tuner channel source can notify the consumer of the error state.
@@ -227,15 +275,16 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
      * sample buffers when this is the first channel.
      *
      * @param channelSource to start
+     * @param startTimestamp of the oldest samples to pre-load from the channelizer output history
      */
-    private void startChannelSource(PolyphaseChannelSource channelSource)
+    private void startChannelSource(PolyphaseChannelSource channelSource, long startTimestamp)
     {
         synchronized(mBufferDispatcher)
         {
             //Note: the polyphase channel source has already been added to the mChannelSources in getChannel() method
             checkChannelizerConfiguration();
 
-            mPolyphaseChannelizer.addChannel(channelSource);
+            mPolyphaseChannelizer.addChannel(channelSource, startTimestamp);
             mSourceEventBroadcaster.broadcast(SourceEvent.channelCountChange(getTunerChannelCount()));
 
             //If this is the first channel, register to start the sample buffers flowing
@@ -295,6 +344,12 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         {
             case NOTIFICATION_FREQUENCY_CHANGE:
                 mNativeBufferReceiver.receive(sourceEvent);
+
+                //Channelizer output history is centered on the previous frequency
+                if(mPolyphaseChannelizer != null)
+                {
+                    mPolyphaseChannelizer.clearHistory();
+                }
                 break;
             case NOTIFICATION_SAMPLE_RATE_CHANGE:
                 //Update channel calculator immediately so that channels can be allocated
@@ -341,6 +396,7 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
             {
                 mPolyphaseChannelizer = new ComplexPolyphaseChannelizerM2(tunerSampleRate,
                     POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL);
+                mPolyphaseChannelizer.setHistorySize(sPreRollHistoryMegabytes * 1024L * 1024L);
             }
             catch(IllegalArgumentException iae)
             {
@@ -431,7 +487,9 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
                 case REQUEST_START_SAMPLE_STREAM:
                     if(sourceEvent.hasSource() && sourceEvent.getSource() instanceof PolyphaseChannelSource)
                     {
-                        startChannelSource((PolyphaseChannelSource)sourceEvent.getSource());
+                        long startTimestamp = sourceEvent.getValue() != null ? sourceEvent.getValue().longValue() :
+                            System.currentTimeMillis();
+                        startChannelSource((PolyphaseChannelSource)sourceEvent.getSource(), startTimestamp);
                     }
                     else
                     {
@@ -533,18 +591,27 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
 
             if(mPolyphaseChannelizer != null)
             {
-                Iterator<InterleavedComplexSamples> iterator = nativeBuffer.iteratorInterleaved();
+                //The channelizer copies each sample array into its sample history, so we can return each pooled
+                //sample array to the pool once the channelizer has received it
+                Iterator<InterleavedComplexSamples> iterator =
+                    nativeBuffer.iteratorInterleaved(FloatArrayPool.TUNER_SAMPLES);
 
                 while(iterator.hasNext())
                 {
+                    InterleavedComplexSamples samples = iterator.next();
+
                     try
                     {
-                        mPolyphaseChannelizer.receive(iterator.next());
+                        mPolyphaseChannelizer.receive(samples);
                     }
                     catch(Throwable throwable)
                     {
                         mLog.error("Error", throwable);
                     }
+                    finally
+                    {
+                        FloatArrayPool.TUNER_SAMPLES.release(samples.samples());
+                    }
                 }
             }
         }
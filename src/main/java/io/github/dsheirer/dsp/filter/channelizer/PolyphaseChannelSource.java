@@ -22,14 +22,21 @@ import io.github.dsheirer.dsp.filter.channelizer.output.IPolyphaseChannelOutputP
 import io.github.dsheirer.dsp.filter.channelizer.output.OneChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.channelizer.output.TwoChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.metrics.IMetricsProvider;
+import io.github.dsheirer.metrics.Metric;
+import io.github.dsheirer.metrics.MetricNames;
+import io.github.dsheirer.metrics.MetricsRegistry;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.buffer.ReferenceCountedFloatArrays;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.tuner.channel.StreamProcessorWithHeartbeat;
 import io.github.dsheirer.source.tuner.channel.TunerChannel;
 import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
+import io.github.dsheirer.util.SampleClock;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,7 +46,7 @@ import org.slf4j.LoggerFactory;
  * provides tuner channel source functionality.  Supports dynamic swapout of the underlying channel output processor
  * as the upstream polyphase channelizer reconfigures during tuned center frequency changes.
  */
-public class PolyphaseChannelSource extends TunerChannelSource implements Listener<ComplexSamples>
+public class PolyphaseChannelSource extends TunerChannelSource implements Listener<ComplexSamples>, IMetricsProvider
 {
     private Logger mLog = LoggerFactory.getLogger(PolyphaseChannelSource.class);
     private IPolyphaseChannelOutputProcessor mPolyphaseChannelOutputProcessor;
@@ -51,6 +58,7 @@ public class PolyphaseChannelSource extends TunerChannelSource implements Listen
     private List<Integer> mOutputProcessorIndexes = new ArrayList<>();
     private double mTunerSampleRate;
     private double mTunerCenterFrequency;
+    private LongAdder mSampleCount = new LongAdder();
 
 
     /**
@@ -112,6 +120,7 @@ public class PolyphaseChannelSource extends TunerChannelSource implements Listen
         super.start();
 
         mStreamHeartbeatProcessor.start();
+        MetricsRegistry.getInstance().register(this);
 
         if(mPolyphaseChannelOutputProcessor != null)
         {
@@ -123,6 +132,7 @@ public class PolyphaseChannelSource extends TunerChannelSource implements Listen
     public void stop()
     {
         super.stop();
+        MetricsRegistry.getInstance().unregister(this);
 
         if(mPolyphaseChannelOutputProcessor != null)
         {
@@ -132,6 +142,13 @@ public class PolyphaseChannelSource extends TunerChannelSource implements Listen
         mStreamHeartbeatProcessor.stop();
     }
 
+    @Override
+    public boolean isIdle()
+    {
+        IPolyphaseChannelOutputProcessor outputProcessor = mPolyphaseChannelOutputProcessor;
+        return outputProcessor == null || outputProcessor.isIdle();
+    }
+
     /**
      * Registers the listener to receive complex sample buffers from this channel source
      */
@@ -145,6 +162,8 @@ public class PolyphaseChannelSource extends TunerChannelSource implements Listen
     @Override
     public void receive(ComplexSamples complexSamples)
     {
+        mSampleCount.add(complexSamples.i().length);
+        SampleClock.setSampleTime(complexSamples.timestamp());
         mStreamHeartbeatProcessor.receive(complexSamples);
     }
 
@@ -260,7 +279,7 @@ public class PolyphaseChannelSource extends TunerChannelSource implements Listen
      * @param channelResultsList containing a list of polyphase channelizer output arrays.
      * @param currentSamplesTimestamp for the samples
      */
-    public void receiveChannelResults(List<float[]> channelResultsList, long currentSamplesTimestamp)
+    public void receiveChannelResults(ReferenceCountedFloatArrays channelResults, long currentSamplesTimestamp)
     {
         mOutputProcessorLock.lock();
 
@@ -268,7 +287,11 @@ public class PolyphaseChannelSource extends TunerChannelSource implements Listen
         {
             if(mPolyphaseChannelOutputProcessor != null)
             {
-                mPolyphaseChannelOutputProcessor.receiveChannelResults(channelResultsList, currentSamplesTimestamp);
+                mPolyphaseChannelOutputProcessor.receiveChannelResults(channelResults, currentSamplesTimestamp);
+            }
+            else
+            {
+                channelResults.release();
             }
         }
         finally
@@ -336,6 +359,16 @@ public class PolyphaseChannelSource extends TunerChannelSource implements Listen
         return mIndexCenterFrequency - getTunerChannel().getFrequency();
     }
 
+    @Override
+    public void collectMetrics(List<Metric> metrics)
+    {
+        String channel = String.valueOf(getTunerChannel().getFrequency());
+        metrics.add(Metric.gauge(MetricNames.CHANNEL_SAMPLE_RATE, "Configured channel sample rate", getSampleRate(),
+            MetricNames.LABEL_CHANNEL, channel));
+        metrics.add(Metric.counter(MetricNames.CHANNEL_SAMPLES, "Complex samples produced by the channel",
+            mSampleCount.sum(), MetricNames.LABEL_CHANNEL, channel));
+    }
+
     @Override
     public String toString()
     {
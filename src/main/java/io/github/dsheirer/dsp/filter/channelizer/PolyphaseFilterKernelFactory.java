@@ -0,0 +1,55 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.vector.calibrate.CalibrationManager;
+import io.github.dsheirer.vector.calibrate.CalibrationType;
+import io.github.dsheirer.vector.calibrate.Implementation;
+
+/**
+ * Factory for constructing the optimal polyphase channelizer filter kernel.
+ */
+public class PolyphaseFilterKernelFactory
+{
+    /**
+     * Creates the optimal polyphase channelizer filter kernel for this computer
+     * @return optimal implementation.
+     */
+    public static IPolyphaseFilterKernel getKernel()
+    {
+        Implementation implementation = CalibrationManager.getInstance()
+            .getImplementation(CalibrationType.FILTER_POLYPHASE_CHANNELIZER);
+
+        switch(implementation)
+        {
+            case VECTOR_SIMD_64:
+                return new VectorPolyphaseFilterKernel64Bit();
+            case VECTOR_SIMD_128:
+                return new VectorPolyphaseFilterKernel128Bit();
+            case VECTOR_SIMD_256:
+                return new VectorPolyphaseFilterKernel256Bit();
+            case VECTOR_SIMD_512:
+                return new VectorPolyphaseFilterKernel512Bit();
+            case SCALAR:
+            case UNCALIBRATED:
+            default:
+                return new ScalarPolyphaseFilterKernel();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import java.util.Arrays;
+
+/**
+ * Scalar implementation of the polyphase channelizer filter kernel.
+ */
+public class ScalarPolyphaseFilterKernel implements IPolyphaseFilterKernel
+{
+    @Override
+    public void filter(float[] samples, int newestBlockOffset, float[] filter, int blockSize, int blockCount,
+                       float[] accumulator)
+    {
+        Arrays.fill(accumulator, 0, 2 * blockSize, 0.0f);
+
+        //Even blocks feed the first half of the sub-channels and odd blocks feed the second half, so each
+        //sub-channel accumulates its products in tap order.
+        for(int block = 0; block < blockCount; block++)
+        {
+            int sampleOffset = newestBlockOffset - (block * blockSize);
+            int filterOffset = block * blockSize;
+            int accumulatorOffset = (block & 1) * blockSize;
+
+            for(int x = 0; x < blockSize; x++)
+            {
+                accumulator[accumulatorOffset + x] += samples[sampleOffset + x] * filter[filterOffset + x];
+            }
+        }
+    }
+}
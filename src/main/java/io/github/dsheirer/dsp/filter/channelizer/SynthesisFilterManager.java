@@ -21,17 +21,14 @@ package io.github.dsheirer.dsp.filter.channelizer;
 
 import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
- * Creates and caches channel output processor synthesis filters.
+ * Creates channel output processor synthesis filters.  Designed filters are cached process-wide by the filter
+ * coefficient cache.
  */
 public class SynthesisFilterManager
 {
     private static final int POLYPHASE_SYNTHESIZER_TAPS_PER_CHANNEL = 9;
-    private static final String SEPARATOR = "-";
-    private Map<String,float[]> mFilterMap = new HashMap<>();
 
     /**
      * Design or retrieve a previously cached output processor synthesis filter.
@@ -43,16 +40,7 @@ public class SynthesisFilterManager
      */
     public float[] getFilter(double sampleRate, double channelBandwidth, int channelCount) throws FilterDesignException
     {
-        String key = sampleRate + SEPARATOR + channelBandwidth + SEPARATOR + channelCount;
-
-        if(mFilterMap.containsKey(key))
-        {
-            return mFilterMap.get(key);
-        }
-
-        float[] taps = FilterFactory.getSincM2Synthesizer(sampleRate, channelBandwidth, channelCount,
+        return FilterFactory.getSincM2Synthesizer(sampleRate, channelBandwidth, channelCount,
                 POLYPHASE_SYNTHESIZER_TAPS_PER_CHANNEL);
-        mFilterMap.put(key, taps);
-        return taps;
     }
 }
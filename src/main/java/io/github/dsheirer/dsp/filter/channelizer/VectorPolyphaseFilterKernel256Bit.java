@@ -0,0 +1,92 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.vector.VectorUtilities;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Polyphase channelizer filter kernel that uses the Java Vector API for SIMD available in JDK 17+.
+ *
+ * This kernel uses SIMD 256-bit/8-lane instructions.  Each group of lanes accumulates the even and odd blocks in
+ * registers across all of the blocks before storing the results.  Products are added to the accumulators in tap order
+ * using separate multiply and add operations so that the results are identical to the scalar kernel.  Any samples
+ * beyond the final full group of lanes are processed with scalar operations.
+ */
+public class VectorPolyphaseFilterKernel256Bit implements IPolyphaseFilterKernel
+{
+    private static final VectorSpecies<Float> VECTOR_SPECIES = FloatVector.SPECIES_256;
+
+    /**
+     * Constructs an instance
+     */
+    public VectorPolyphaseFilterKernel256Bit()
+    {
+        VectorUtilities.checkSpecies(VECTOR_SPECIES);
+    }
+
+    @Override
+    public void filter(float[] samples, int newestBlockOffset, float[] filter, int blockSize, int blockCount,
+                       float[] accumulator)
+    {
+        int bound = VECTOR_SPECIES.loopBound(blockSize);
+        int x = 0;
+
+        FloatVector even, odd;
+
+        for(; x < bound; x += VECTOR_SPECIES.length())
+        {
+            even = FloatVector.zero(VECTOR_SPECIES);
+            odd = FloatVector.zero(VECTOR_SPECIES);
+
+            for(int block = 0; block < blockCount; block += 2)
+            {
+                int sampleOffset = newestBlockOffset - (block * blockSize) + x;
+                int filterOffset = (block * blockSize) + x;
+
+                even = even.add(FloatVector.fromArray(VECTOR_SPECIES, samples, sampleOffset)
+                    .mul(FloatVector.fromArray(VECTOR_SPECIES, filter, filterOffset)));
+                odd = odd.add(FloatVector.fromArray(VECTOR_SPECIES, samples, sampleOffset - blockSize)
+                    .mul(FloatVector.fromArray(VECTOR_SPECIES, filter, filterOffset + blockSize)));
+            }
+
+            even.intoArray(accumulator, x);
+            odd.intoArray(accumulator, x + blockSize);
+        }
+
+        for(; x < blockSize; x++)
+        {
+            float evenScalar = 0.0f;
+            float oddScalar = 0.0f;
+
+            for(int block = 0; block < blockCount; block += 2)
+            {
+                int sampleOffset = newestBlockOffset - (block * blockSize) + x;
+                int filterOffset = (block * blockSize) + x;
+
+                evenScalar += samples[sampleOffset] * filter[filterOffset];
+                oddScalar += samples[sampleOffset - blockSize] * filter[filterOffset + blockSize];
+            }
+
+            accumulator[x] = evenScalar;
+            accumulator[x + blockSize] = oddScalar;
+        }
+    }
+}
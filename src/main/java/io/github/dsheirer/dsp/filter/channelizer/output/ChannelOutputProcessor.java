@@ -19,9 +19,11 @@
 package io.github.dsheirer.dsp.filter.channelizer.output;
 
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.buffer.ReferenceCountedFloatArrays;
 import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.util.BatchMode;
 import io.github.dsheirer.util.Dispatcher;
-import java.util.Collections;
+import io.github.dsheirer.util.WaitStrategy;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,8 +31,10 @@ import org.slf4j.LoggerFactory;
 public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputProcessor
 {
     private final static Logger mLog = LoggerFactory.getLogger(ChannelOutputProcessor.class);
+    //Each queued element is a batch of channelizer results, so a few hundred batches is several seconds of samples
+    private static final int CHANNEL_RESULTS_QUEUE_CAPACITY = 512;
 
-    private Dispatcher<List<float[]>> mChannelResultsDispatcher;
+    private Dispatcher<ReferenceCountedFloatArrays> mChannelResultsDispatcher;
     protected Listener<ComplexSamples> mComplexSamplesListener;
     private int mInputChannelCount;
     private long mCurrentSampleTimestamp = System.currentTimeMillis();
@@ -46,8 +50,10 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
     public ChannelOutputProcessor(int inputChannelCount, double sampleRate)
     {
         mInputChannelCount = inputChannelCount;
-        mChannelResultsDispatcher = new Dispatcher<>((int)sampleRate, "sdrtrunk polyphase channel", Collections.emptyList());
-        mChannelResultsDispatcher.setListener(floats -> process(floats));
+        mChannelResultsDispatcher = new Dispatcher<>(CHANNEL_RESULTS_QUEUE_CAPACITY, "sdrtrunk polyphase channel",
+            ReferenceCountedFloatArrays.empty(), WaitStrategy.PARK, BatchMode.getSampleOverflowPolicy());
+        mChannelResultsDispatcher.setListener(channelResults -> process(channelResults.getArrays()));
+        mChannelResultsDispatcher.setReleaseListener(ReferenceCountedFloatArrays::release);
     }
 
     /**
@@ -71,6 +77,12 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
         mChannelResultsDispatcher.stop();
     }
 
+    @Override
+    public boolean isIdle()
+    {
+        return mChannelResultsDispatcher.isIdle();
+    }
+
     /**
      * Registers the listener to receive the assembled complex sample buffers from this processor.
      */
@@ -91,9 +103,9 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
     }
 
     @Override
-    public void receiveChannelResults(List<float[]> channelResultsList, long timestamp)
+    public void receiveChannelResults(ReferenceCountedFloatArrays channelResults, long timestamp)
     {
-        mChannelResultsDispatcher.receive(channelResultsList);
+        mChannelResultsDispatcher.receive(channelResults);
         mCurrentSampleTimestamp = timestamp;
     }
 
@@ -19,6 +19,7 @@
 package io.github.dsheirer.dsp.filter.channelizer.output;
 
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.buffer.ReferenceCountedFloatArrays;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import java.util.List;
 
@@ -39,11 +40,17 @@ public interface IPolyphaseChannelOutputProcessor
      */
     void stop();
     /**
-     * Receive and enqueue output results from the polyphase analysis channelizer
+     * Indicates if there are no channel results queued or in process.
+     */
+    boolean isIdle();
+
+    /**
+     * Receive and enqueue output results from the polyphase analysis channelizer.  The processor owns one reference
+     * to the batch and releases it once the batch is processed.
      * @param channelResults to enqueue
      * @param timestamp for the first channel results buffer
      */
-    void receiveChannelResults(List<float[]> channelResults, long timestamp);
+    void receiveChannelResults(ReferenceCountedFloatArrays channelResults, long timestamp);
 
     /**
      * Listener to receive assembled complex samples buffers
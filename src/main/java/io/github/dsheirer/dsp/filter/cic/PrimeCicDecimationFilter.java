@@ -22,7 +22,6 @@ import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.real.IRealFilter;
-import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
 import io.github.dsheirer.dsp.oscillator.IRealOscillator;
 import io.github.dsheirer.dsp.oscillator.OscillatorFactory;
 import org.apache.commons.math3.primes.Primes;
@@ -435,10 +434,14 @@ public class PrimeCicDecimationFilter
                 .stopBandRipple(0.01)
                 .build();
 
-            RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
+            float[] taps = FilterFactory.getTaps(specification);
 
-            //This will throw an exception if the filter cannot be designed
-            return designer.getImpulseResponse();
+            if(taps == null)
+            {
+                throw new FilterDesignException("Couldn't design low pass filter: " + specification);
+            }
+
+            return taps;
         }
     }
 
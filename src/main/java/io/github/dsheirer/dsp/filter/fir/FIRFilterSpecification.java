@@ -61,6 +61,24 @@ public class FIRFilterSpecification
         return sb.toString();
     }
 
+    /**
+     * Canonical description of the filter design parameters, used to identify previously designed filters.  Two
+     * specifications with the same key produce the same filter.
+     */
+    public String getKey()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getClass().getSimpleName()).append(":").append(mRemezFilterType.name());
+        sb.append(":").append(mOrder).append(":").append(mGridDensity);
+
+        for(FrequencyBand band : mFrequencyBands)
+        {
+            sb.append(":").append(band.getKey());
+        }
+
+        return sb.toString();
+    }
+
     public void addFrequencyBand(FrequencyBand band)
     {
         mFrequencyBands.add(band);
@@ -1044,6 +1062,14 @@ public class FIRFilterSpecification
             mGridSize = FastMath.max(1, (int)FastMath.ceil((double)totalGridSize * (getBandWidth() / totalBandwidth)));
         }
 
+        /**
+         * Canonical description of the band parameters.
+         */
+        public String getKey()
+        {
+            return mStart + "," + mEnd + "," + mAmplitude + "," + mRippleDB + "," + mWeight;
+        }
+
         public String toString()
         {
             StringBuilder sb = new StringBuilder();
@@ -24,7 +24,6 @@ import io.github.dsheirer.dsp.filter.dc.IIRSinglePoleDCRemovalFilter;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.real.IRealFilter;
-import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
 import io.github.dsheirer.dsp.symbol.ISyncDetectListener;
 import io.github.dsheirer.sample.Listener;
 import org.slf4j.Logger;
@@ -74,12 +73,7 @@ public class LTRDecoder implements Listener<float[]>, ISyncDetectListener, ISync
 
         try
         {
-            RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
-
-            if(designer.isValid())
-            {
-                sLowPassFilterCoefficients = designer.getImpulseResponse();
-            }
+            sLowPassFilterCoefficients = FilterFactory.getTaps(specification);
         }
         catch(FilterDesignException fde)
         {
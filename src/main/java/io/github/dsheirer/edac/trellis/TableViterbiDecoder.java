@@ -0,0 +1,273 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.edac.trellis;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+
+/**
+ * Table-driven Viterbi decoder engine for 4-bit output trellis coded modulation (TCM) encoded messages.
+ *
+ * This decoder produces the same output as the node and path based ViterbiDecoder, including the selection of the
+ * surviving path when two candidate paths have the same error value.  Instead of creating node and path objects for
+ * each transmitted symbol, it uses a precomputed branch metric (Hamming distance) table indexed by transmitted
+ * symbol, previous state and input value, primitive path metric arrays and a traceback array of the surviving
+ * predecessor state for each state at each time instant.
+ *
+ * Working arrays are reused across decode calls via a per-thread workspace, so the only allocation per decode is
+ * the decoded output message.  Instances are thread-safe and can be shared as static decoder instances.
+ */
+public class TableViterbiDecoder
+{
+    private static final int OUTPUT_BIT_LENGTH = 4;
+    private static final int SYMBOL_COUNT = 16;
+
+    /**
+     * Path metric for a state that is not (yet) reachable.  Sized so that adding any branch metric can't overflow.
+     */
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+
+    private final int mInputBitLength;
+    private final int mStateCount;
+    private final int[] mBranchMetrics;
+    private final ThreadLocal<Workspace> mWorkspace;
+
+    /**
+     * Constructs an instance
+     *
+     * @param inputBitLength for coding (e.g. 3/4 rate input bit length is 3)
+     * @param transitionMatrix of expected 4-bit output value indexed by [previous state][input value] where the
+     * state is the input value of the previous time instant.
+     */
+    public TableViterbiDecoder(int inputBitLength, int[][] transitionMatrix)
+    {
+        mInputBitLength = inputBitLength;
+        mStateCount = 1 << inputBitLength;
+
+        if(transitionMatrix.length != mStateCount)
+        {
+            throw new IllegalArgumentException("Transition matrix must have [" + mStateCount + "] states");
+        }
+
+        //Branch metric: [transmitted symbol][previous state][input] -> Hamming distance to expected output value
+        mBranchMetrics = new int[SYMBOL_COUNT * mStateCount * mStateCount];
+
+        for(int symbol = 0; symbol < SYMBOL_COUNT; symbol++)
+        {
+            for(int state = 0; state < mStateCount; state++)
+            {
+                for(int input = 0; input < mStateCount; input++)
+                {
+                    mBranchMetrics[getBranchIndex(symbol, state, input)] =
+                        Integer.bitCount(transitionMatrix[state][input] ^ symbol);
+                }
+            }
+        }
+
+        mWorkspace = ThreadLocal.withInitial(() -> new Workspace(mStateCount));
+    }
+
+    /**
+     * Index into the branch metrics table.
+     */
+    private int getBranchIndex(int symbol, int state, int input)
+    {
+        return (symbol * mStateCount + state) * mStateCount + input;
+    }
+
+    /**
+     * Decodes the TCM encoded message where each consecutive 4-bit value is a transmitted symbol.
+     *
+     * @param encodedMessage to decode that has already been deinterleaved.
+     * @return decoded message with the corrected bit count set to the error value of the most likely path.
+     */
+    public CorrectedBinaryMessage decode(BinaryMessage encodedMessage)
+    {
+        return decode(encodedMessage, null);
+    }
+
+    /**
+     * Decodes the TCM encoded message where each 4-bit transmitted symbol is read from the (interleaved) message
+     * bit positions specified in the bit index map.
+     *
+     * @param encodedMessage to decode
+     * @param bitIndexMap where each entry is the encoded message bit index for the corresponding deinterleaved bit
+     * position, or null if the message is not interleaved.
+     * @return decoded message with the corrected bit count set to the error value of the most likely path.
+     */
+    public CorrectedBinaryMessage decode(BinaryMessage encodedMessage, int[] bitIndexMap)
+    {
+        int length = (bitIndexMap != null ? bitIndexMap.length : encodedMessage.size());
+
+        if(length % OUTPUT_BIT_LENGTH != 0)
+        {
+            throw new IllegalArgumentException("Encoded message must contain an integral number of 4-bit symbols -" +
+                " message size: " + length);
+        }
+
+        int symbolCount = length / OUTPUT_BIT_LENGTH;
+
+        if(symbolCount == 0)
+        {
+            throw new IllegalArgumentException("Encoded message must contain at least one 4-bit symbol");
+        }
+
+        Workspace workspace = mWorkspace.get();
+        workspace.ensureCapacity(symbolCount);
+
+        int[] symbols = workspace.mSymbols;
+
+        for(int x = 0; x < symbolCount; x++)
+        {
+            int offset = x * OUTPUT_BIT_LENGTH;
+            int symbol = 0;
+
+            for(int bit = 0; bit < OUTPUT_BIT_LENGTH; bit++)
+            {
+                symbol <<= 1;
+
+                if(encodedMessage.get(bitIndexMap != null ? bitIndexMap[offset + bit] : offset + bit))
+                {
+                    symbol++;
+                }
+            }
+
+            symbols[x] = symbol;
+        }
+
+        //Add/compare/select across all but the last transmitted symbol.  Starting state is zero.
+        int[] metrics = workspace.mMetrics;
+        int[] nextMetrics = workspace.mNextMetrics;
+        byte[] traceback = workspace.mTraceback;
+
+        for(int state = 0; state < mStateCount; state++)
+        {
+            metrics[state] = UNREACHABLE;
+        }
+
+        metrics[0] = 0;
+
+        int steps = symbolCount - 1;
+
+        for(int step = 0; step < steps; step++)
+        {
+            int symbolOffset = symbols[step] * mStateCount;
+            int tracebackOffset = step * mStateCount;
+
+            for(int input = 0; input < mStateCount; input++)
+            {
+                int best = UNREACHABLE;
+                int bestState = 0;
+
+                //Strictly less-than ensures the lowest previous state wins a tie, same as the path based decoder
+                for(int state = 0; state < mStateCount; state++)
+                {
+                    int candidate = metrics[state] + mBranchMetrics[(symbolOffset + state) * mStateCount + input];
+
+                    if(candidate < best)
+                    {
+                        best = candidate;
+                        bestState = state;
+                    }
+                }
+
+                nextMetrics[input] = best;
+                traceback[tracebackOffset + input] = (byte)bestState;
+            }
+
+            int[] temp = metrics;
+            metrics = nextMetrics;
+            nextMetrics = temp;
+        }
+
+        //Flush each surviving state with a zero input value and the final transmitted symbol
+        int flushOffset = symbols[symbolCount - 1] * mStateCount;
+        int bestError = UNREACHABLE;
+        int bestState = 0;
+
+        for(int state = 0; state < mStateCount; state++)
+        {
+            if(metrics[state] < UNREACHABLE)
+            {
+                int candidate = metrics[state] + mBranchMetrics[(flushOffset + state) * mStateCount];
+
+                if(candidate < bestError)
+                {
+                    bestError = candidate;
+                    bestState = state;
+                }
+            }
+        }
+
+        //Traceback from the best surviving state to recover the input value at each time instant
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(steps * mInputBitLength);
+        int state = bestState;
+
+        for(int step = steps - 1; step >= 0; step--)
+        {
+            int messageOffset = step * mInputBitLength;
+
+            for(int bit = 0; bit < mInputBitLength; bit++)
+            {
+                if((state & (1 << (mInputBitLength - bit - 1))) != 0)
+                {
+                    message.set(messageOffset + bit);
+                }
+            }
+
+            state = traceback[step * mStateCount + state];
+        }
+
+        message.setCorrectedBitCount(bestError);
+
+        return message;
+    }
+
+    /**
+     * Per-thread reusable working arrays.
+     */
+    private static class Workspace
+    {
+        private final int mStateCount;
+        private int[] mSymbols = new int[0];
+        private byte[] mTraceback = new byte[0];
+        private final int[] mMetrics;
+        private final int[] mNextMetrics;
+
+        public Workspace(int stateCount)
+        {
+            mStateCount = stateCount;
+            mMetrics = new int[stateCount];
+            mNextMetrics = new int[stateCount];
+        }
+
+        /**
+         * Resizes the symbol and traceback arrays when a longer message is decoded than previously seen.
+         */
+        public void ensureCapacity(int symbolCount)
+        {
+            if(mSymbols.length < symbolCount)
+            {
+                mSymbols = new int[symbolCount];
+                mTraceback = new byte[symbolCount * mStateCount];
+            }
+        }
+    }
+}
@@ -28,6 +28,8 @@ import java.util.List;
  */
 public class ViterbiDecoder_1_2_P25 extends ViterbiDecoder
 {
+    private final TableViterbiDecoder mTableViterbiDecoder = new TableViterbiDecoder(2, P25_1_2_Node.TRANSITION_MATRIX);
+
     public ViterbiDecoder_1_2_P25()
     {
         super(2,4);
@@ -37,16 +39,15 @@ public class ViterbiDecoder_1_2_P25 extends ViterbiDecoder
      * Decodes a 1/2 rate trellis coded modulation (TCM) encoded P25 binary message containing 196 bits that have
      * already been deinterleaved.
      *
+     * Note: uses the allocation-free table viterbi decoder which produces the same output as the node and path
+     * based decode(int[]) method.
+     *
      * @param encodedMessage to decode that has already been deinterleaved.
      * @return decoded message
      */
     public CorrectedBinaryMessage decode(BinaryMessage encodedMessage)
     {
-        int[] symbols = getSymbols(encodedMessage);
-
-        Path mostLikelyPath = decode(symbols);
-
-        return getMessage(mostLikelyPath);
+        return mTableViterbiDecoder.decode(encodedMessage);
     }
 
     /**
@@ -55,7 +56,7 @@ public class ViterbiDecoder_1_2_P25 extends ViterbiDecoder
      * @param path to extract a message from
      * @return corrected binary message.
      */
-    private CorrectedBinaryMessage getMessage(Path path)
+    CorrectedBinaryMessage getMessage(Path path)
     {
         List<Node> mNodes = path.getNodes();
 
@@ -45,6 +45,21 @@ public class ViterbiDecoder_3_4_DMR extends ViterbiDecoder
         78, 79, 92, 93, 94, 95, 108, 109, 110, 111, 124, 125, 126, 127, 140, 141, 142, 143, 156, 157, 158, 159, 172,
         173, 174, 175, 188, 189, 190, 191};
 
+    /**
+     * Inverse of the deinterleave indexes, mapping each deinterleaved bit position to the transmitted bit position
+     */
+    private static final int[] INTERLEAVE_INDEXES = new int[DEINTERLEAVE_INDEXES.length];
+
+    static
+    {
+        for(int x = 0; x < DEINTERLEAVE_INDEXES.length; x++)
+        {
+            INTERLEAVE_INDEXES[DEINTERLEAVE_INDEXES[x]] = x;
+        }
+    }
+
+    private final TableViterbiDecoder mTableViterbiDecoder = new TableViterbiDecoder(3, DMR_3_4_Node.DMR_TRANSITION_MATRIX);
+
     /**
      * Viterbi decoder for Digital Mobile Radio (DMR) 3/4 rate Trellis Coded Modulation (TCM) encoded messages.
      */
@@ -73,7 +88,7 @@ public class ViterbiDecoder_3_4_DMR extends ViterbiDecoder
      * @param interleaved
      * @return
      */
-    private static CorrectedBinaryMessage deinterleave(CorrectedBinaryMessage interleaved)
+    static CorrectedBinaryMessage deinterleave(CorrectedBinaryMessage interleaved)
     {
         CorrectedBinaryMessage deinterleaved = new CorrectedBinaryMessage(196);
 
@@ -90,18 +105,17 @@ public class ViterbiDecoder_3_4_DMR extends ViterbiDecoder
 
 
     /**
-     * Decodes a 3/4 rate trellis coded modulation (TCM) encoded DMR binary message containing 196 bits that have
-     * already been deinterleaved.
+     * Decodes a 3/4 rate trellis coded modulation (TCM) encoded DMR binary message containing 196 bits.
+     *
+     * Note: uses the allocation-free table viterbi decoder, reading the transmitted symbols directly from the
+     * interleaved message, which produces the same output as the node and path based decode(int[]) method.
      *
-     * @param encodedMessage to decode that has already been deinterleaved.
+     * @param encodedMessage to decode that is still interleaved.
      * @return decoded message
      */
     public CorrectedBinaryMessage decode(CorrectedBinaryMessage encodedMessage)
     {
-        CorrectedBinaryMessage deinterleaved = deinterleave(encodedMessage);
-        int[] symbols = getSymbols(deinterleaved);
-        Path mostLikelyPath = decode(symbols);
-        return getMessage(mostLikelyPath);
+        return mTableViterbiDecoder.decode(encodedMessage, INTERLEAVE_INDEXES);
     }
 
     /**
@@ -110,7 +124,7 @@ public class ViterbiDecoder_3_4_DMR extends ViterbiDecoder
      * @param path to extract a message from
      * @return corrected binary message.
      */
-    private static CorrectedBinaryMessage getMessage(Path path)
+    static CorrectedBinaryMessage getMessage(Path path)
     {
         List<Node> mNodes = path.getNodes();
 
@@ -25,6 +25,8 @@ import java.util.List;
 
 public class ViterbiDecoder_3_4_P25 extends ViterbiDecoder
 {
+    private final TableViterbiDecoder mTableViterbiDecoder = new TableViterbiDecoder(3, P25_3_4_Node.TRANSITION_MATRIX);
+
     /**
      * Viterbi decoder for P25 3/4 rate Trellis Coded Modulation (TCM) encoded messages.
      */
@@ -37,16 +39,15 @@ public class ViterbiDecoder_3_4_P25 extends ViterbiDecoder
      * Decodes a 3/4 rate trellis coded modulation (TCM) encoded P25 binary message containing 196 bits that have
      * already been deinterleaved.
      *
+     * Note: uses the allocation-free table viterbi decoder which produces the same output as the node and path
+     * based decode(int[]) method.
+     *
      * @param encodedMessage to decode that has already been deinterleaved.
      * @return decoded message
      */
     public CorrectedBinaryMessage decode(BinaryMessage encodedMessage)
     {
-        int[] symbols = getSymbols(encodedMessage);
-
-        Path mostLikelyPath = decode(symbols);
-
-        return getMessage(mostLikelyPath);
+        return mTableViterbiDecoder.decode(encodedMessage);
     }
 
     /**
@@ -55,7 +56,7 @@ public class ViterbiDecoder_3_4_P25 extends ViterbiDecoder
      * @param path to extract a message from
      * @return corrected binary message.
      */
-    private static CorrectedBinaryMessage getMessage(Path path)
+    static CorrectedBinaryMessage getMessage(Path path)
     {
         List<Node> mNodes = path.getNodes();
 
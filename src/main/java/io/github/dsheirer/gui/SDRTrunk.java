@@ -31,8 +31,10 @@ import io.github.dsheirer.controller.channel.Channel;
 import io.github.dsheirer.controller.channel.ChannelAutoStartFrame;
 import io.github.dsheirer.controller.channel.ChannelException;
 import io.github.dsheirer.controller.channel.ChannelSelectionManager;
+import io.github.dsheirer.dsp.filter.FilterCoefficientCache;
 import io.github.dsheirer.eventbus.MyEventBus;
 import io.github.dsheirer.gui.icon.ViewIconManagerRequest;
+import io.github.dsheirer.gui.metrics.MetricsViewer;
 import io.github.dsheirer.gui.playlist.ViewPlaylistRequest;
 import io.github.dsheirer.gui.preference.CalibrateRequest;
 import io.github.dsheirer.gui.preference.PreferenceEditorType;
@@ -41,6 +43,7 @@ import io.github.dsheirer.gui.preference.calibration.CalibrationDialog;
 import io.github.dsheirer.icon.IconModel;
 import io.github.dsheirer.log.ApplicationLog;
 import io.github.dsheirer.map.MapService;
+import io.github.dsheirer.metrics.MetricsManager;
 import io.github.dsheirer.module.log.EventLogManager;
 import io.github.dsheirer.playlist.PlaylistManager;
 import io.github.dsheirer.preference.UserPreferences;
@@ -126,6 +129,7 @@ public class SDRTrunk implements Listener<TunerEvent>
     private UserPreferences mUserPreferences = new UserPreferences();
     private TunerManager mTunerManager;
     private ApplicationLog mApplicationLog;
+    private MetricsManager mMetricsManager;
 
     private String mTitle;
 
@@ -139,6 +143,9 @@ public class SDRTrunk implements Listener<TunerEvent>
         mApplicationLog = new ApplicationLog(mUserPreferences);
         mApplicationLog.start();
 
+        mMetricsManager = new MetricsManager(mUserPreferences);
+        mMetricsManager.start();
+
         String operatingSystem = System.getProperty("os.name", "generic").toLowerCase(Locale.ENGLISH);
 
         if(operatingSystem.contains("mac") || operatingSystem.contains("nux"))
@@ -170,6 +177,10 @@ public class SDRTrunk implements Listener<TunerEvent>
         //Log current properties setting
         SystemProperties.getInstance().logCurrentSettings();
 
+        //Load previously designed filters so that channel startup doesn't wait on filter designs
+        FilterCoefficientCache.getInstance().loadAsync(mUserPreferences.getDirectoryPreference()
+            .getDirectoryApplicationRoot().resolve(FilterCoefficientCache.CACHE_FILE_NAME));
+
         //Register FontAwesome so we can use the fonts in Swing windows
         IconFontSwing.register(FontAwesome.getIconFont());
 
@@ -209,7 +220,7 @@ public class SDRTrunk implements Listener<TunerEvent>
         mPlaylistManager.getChannelProcessingManager().addAudioSegmentListener(mAudioRecordingManager);
         mPlaylistManager.getChannelProcessingManager().addAudioSegmentListener(mAudioStreamingManager);
 
-        MapService mapService = new MapService(mIconModel);
+        MapService mapService = new MapService(mIconModel, mUserPreferences);
         mPlaylistManager.getChannelProcessingManager().addDecodeEventListener(mapService);
 
         if(!GraphicsEnvironment.isHeadless())
@@ -445,6 +456,11 @@ public class SDRTrunk implements Listener<TunerEvent>
         });
         viewMenu.add(logFilesMenu);
 
+        JMenuItem metricsItem = new JMenuItem("Pipeline Metrics");
+        metricsItem.addActionListener(e -> new MetricsViewer(mUserPreferences.getMetricsPreference(), mMainGui)
+            .setVisible(true));
+        viewMenu.add(metricsItem);
+
         viewMenu.add(new JSeparator());
         viewMenu.add(new TunersMenu());
         viewMenu.add(new JSeparator());
@@ -509,6 +525,7 @@ public class SDRTrunk implements Listener<TunerEvent>
         mSpectralPanel.clearTuner();
         mLog.info("Stopping tuners ...");
         mTunerManager.stop();
+        mMetricsManager.stop();
         mLog.info("Shutdown complete.");
         mApplicationLog.stop();
     }
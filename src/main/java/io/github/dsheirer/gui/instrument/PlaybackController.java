@@ -24,6 +24,7 @@ import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.source.IControllableFileSource;
 import io.github.dsheirer.source.IFrameLocationListener;
+import io.github.dsheirer.source.nativebuffer.NativeBufferFileSource;
 import io.github.dsheirer.source.wave.ComplexWaveSource;
 import io.github.dsheirer.source.wave.RealWaveSource;
 import javafx.event.ActionEvent;
@@ -122,6 +123,32 @@ public class PlaybackController extends HBox implements IFrameLocationListener
 
                 enableControls();
             }
+            else if(NativeBufferFileSource.supports(file))
+            {
+                try
+                {
+                    mControllableFileSource = new NativeBufferFileSource(file);
+                    mControllableFileSource.setListener(this);
+                    ((NativeBufferFileSource)mControllableFileSource).setListener(mNativeBufferBroadcaster);
+                    mControllableFileSource.open();
+
+                    if(mSampleRateListener != null)
+                    {
+                        mSampleRateListener.setSampleRate(mControllableFileSource.getSampleRate());
+                    }
+                }
+                catch(UnsupportedAudioFileException | IOException e)
+                {
+                    mLog.error("Error opening file [" + file.getAbsolutePath() + "]", e);
+
+                    Alert alert = new Alert(Alert.AlertType.ERROR, "There was an error opening the file",
+                        ButtonType.OK);
+                    alert.show();
+                    return;
+                }
+
+                enableControls();
+            }
             else if(RealWaveSource.supports(file))
             {
                 try
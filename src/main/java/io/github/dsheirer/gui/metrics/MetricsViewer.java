@@ -0,0 +1,190 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.gui.metrics;
+
+import io.github.dsheirer.metrics.Metric;
+import io.github.dsheirer.metrics.MetricRateCalculator;
+import io.github.dsheirer.metrics.MetricType;
+import io.github.dsheirer.metrics.MetricsHttpServer;
+import io.github.dsheirer.metrics.MetricsRegistry;
+import io.github.dsheirer.preference.metrics.MetricsPreference;
+import java.awt.Component;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.swing.JCheckBox;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import net.miginfocom.swing.MigLayout;
+
+/**
+ * Displays the runtime pipeline metrics (dispatcher queues and drops, channel sample rates, module processing time,
+ * decoder message and CRC failure rates and buffer pools) and refreshes them every two seconds.
+ */
+public class MetricsViewer extends JFrame
+{
+    private static final long serialVersionUID = 1L;
+    private static final int REFRESH_INTERVAL_MS = 2000;
+
+    private MetricsTableModel mTableModel = new MetricsTableModel();
+    private MetricRateCalculator mRateCalculator = new MetricRateCalculator();
+    private JTextField mFilterField = new JTextField();
+    private Timer mRefreshTimer;
+
+    /**
+     * Constructs an instance
+     * @param metricsPreference to enable or disable the metrics log and HTTP endpoint
+     * @param displayOver component for positioning the viewer
+     */
+    public MetricsViewer(MetricsPreference metricsPreference, Component displayOver)
+    {
+        setTitle("Pipeline Metrics");
+        setSize(900, 600);
+        setLocationRelativeTo(displayOver);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setLayout(new MigLayout("", "[][grow,fill][][]", "[][grow,fill]"));
+
+        add(new JLabel("Filter:"));
+        mFilterField.addActionListener(e -> refresh());
+        add(mFilterField);
+
+        JCheckBox logCheckBox = new JCheckBox("Log Summary", metricsPreference.isLogEnabled());
+        logCheckBox.setToolTipText("Write a metrics summary to the application log every " +
+            metricsPreference.getLogIntervalSeconds() + " seconds");
+        logCheckBox.addActionListener(e -> metricsPreference.setLogEnabled(logCheckBox.isSelected()));
+        add(logCheckBox);
+
+        JCheckBox httpCheckBox = new JCheckBox("HTTP Endpoint", metricsPreference.isHttpEnabled());
+        httpCheckBox.setToolTipText("Serve Prometheus text format metrics at http://localhost:" +
+            metricsPreference.getHttpPort() + MetricsHttpServer.METRICS_PATH);
+        httpCheckBox.addActionListener(e -> metricsPreference.setHttpEnabled(httpCheckBox.isSelected()));
+        add(httpCheckBox, "wrap");
+
+        JTable table = new JTable(mTableModel);
+        table.setAutoCreateRowSorter(true);
+        table.getColumnModel().getColumn(0).setPreferredWidth(250);
+        table.getColumnModel().getColumn(1).setPreferredWidth(350);
+        add(new JScrollPane(table), "span");
+
+        mRefreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> refresh());
+        mRefreshTimer.setInitialDelay(0);
+
+        addWindowListener(new WindowAdapter()
+        {
+            @Override
+            public void windowOpened(WindowEvent e)
+            {
+                mRefreshTimer.start();
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e)
+            {
+                mRefreshTimer.stop();
+            }
+        });
+    }
+
+    /**
+     * Collects the current metrics and updates the table
+     */
+    private void refresh()
+    {
+        List<Metric> metrics = MetricsRegistry.getInstance().collect();
+        mRateCalculator.update(metrics, System.currentTimeMillis());
+
+        String filter = mFilterField.getText().trim().toLowerCase(Locale.ENGLISH);
+        List<Row> rows = new ArrayList<>();
+
+        for(Metric metric: metrics)
+        {
+            if(filter.isEmpty() || metric.name().contains(filter) ||
+                metric.getLabelsDescription().toLowerCase(Locale.ENGLISH).contains(filter))
+            {
+                rows.add(new Row(metric, mRateCalculator.getRate(metric)));
+            }
+        }
+
+        mTableModel.setRows(rows);
+    }
+
+    /**
+     * Table row
+     */
+    private record Row(Metric metric, Double rate) {}
+
+    /**
+     * Table model for the metrics
+     */
+    private static class MetricsTableModel extends AbstractTableModel
+    {
+        private static final long serialVersionUID = 1L;
+        private static final String[] COLUMNS = {"Metric", "Labels", "Value", "Rate/Second"};
+        private static final DecimalFormat VALUE_FORMAT = new DecimalFormat("#,##0.###");
+        private List<Row> mRows = new ArrayList<>();
+
+        public void setRows(List<Row> rows)
+        {
+            mRows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount()
+        {
+            return mRows.size();
+        }
+
+        @Override
+        public int getColumnCount()
+        {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column)
+        {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex)
+        {
+            Row row = mRows.get(rowIndex);
+
+            return switch(columnIndex)
+            {
+                case 0 -> row.metric().name();
+                case 1 -> row.metric().getLabelsDescription();
+                case 2 -> VALUE_FORMAT.format(row.metric().value());
+                case 3 -> row.metric().type() == MetricType.COUNTER && row.rate() != null ?
+                    VALUE_FORMAT.format(row.rate()) : "";
+                default -> null;
+            };
+        }
+    }
+}
@@ -23,6 +23,9 @@ import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.SpinnerValueFactory;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 
@@ -38,6 +41,8 @@ public class DecodeEventViewPreferenceEditor extends HBox
     private GridPane mEditorPane;
     private ChoiceBox<DisplayableTimestamp> mTimestampFormatChoiceBox;
     private Label mTimestampFormatLabel;
+    private Spinner<Integer> mMapEntityRetentionSpinner;
+    private Spinner<Integer> mMapEntityMaximumSpinner;
 
     public DecodeEventViewPreferenceEditor(UserPreferences userPreferences)
     {
@@ -55,6 +60,18 @@ public class DecodeEventViewPreferenceEditor extends HBox
             GridPane.setHalignment(getTimestampFormatLabel(), HPos.LEFT);
             mEditorPane.add(getTimestampFormatLabel(), 0, 0);
             mEditorPane.add(getTimestampFormatChoiceBox(), 1, 0);
+
+            Label retentionLabel = new Label("Map Entity Retention (Minutes)");
+            GridPane.setMargin(retentionLabel, new Insets(10, 10, 0, 0));
+            GridPane.setMargin(getMapEntityRetentionSpinner(), new Insets(10, 0, 0, 0));
+            mEditorPane.add(retentionLabel, 0, 1);
+            mEditorPane.add(getMapEntityRetentionSpinner(), 1, 1);
+
+            Label maximumLabel = new Label("Map Entity Limit");
+            GridPane.setMargin(maximumLabel, new Insets(10, 10, 0, 0));
+            GridPane.setMargin(getMapEntityMaximumSpinner(), new Insets(10, 0, 0, 0));
+            mEditorPane.add(maximumLabel, 0, 2);
+            mEditorPane.add(getMapEntityMaximumSpinner(), 1, 2);
         }
 
         return mEditorPane;
@@ -101,6 +118,42 @@ public class DecodeEventViewPreferenceEditor extends HBox
         return mTimestampFormatChoiceBox;
     }
 
+    private Spinner<Integer> getMapEntityRetentionSpinner()
+    {
+        if(mMapEntityRetentionSpinner == null)
+        {
+            mMapEntityRetentionSpinner = new Spinner<>();
+            mMapEntityRetentionSpinner.setTooltip(new Tooltip("Radios and vehicles are removed from the map when " +
+                "they have not reported a location for this many minutes"));
+            mMapEntityRetentionSpinner.getStyleClass().add(Spinner.STYLE_CLASS_SPLIT_ARROWS_HORIZONTAL);
+            SpinnerValueFactory<Integer> svf = new SpinnerValueFactory.IntegerSpinnerValueFactory(5, 10080,
+                mDecodeEventPreference.getMapEntityRetention(), 15);
+            mMapEntityRetentionSpinner.setValueFactory(svf);
+            mMapEntityRetentionSpinner.getValueFactory().valueProperty()
+                .addListener((observable, oldValue, newValue) -> mDecodeEventPreference.setMapEntityRetention(newValue));
+        }
+
+        return mMapEntityRetentionSpinner;
+    }
+
+    private Spinner<Integer> getMapEntityMaximumSpinner()
+    {
+        if(mMapEntityMaximumSpinner == null)
+        {
+            mMapEntityMaximumSpinner = new Spinner<>();
+            mMapEntityMaximumSpinner.setTooltip(new Tooltip("Maximum number of radios and vehicles plotted on the " +
+                "map.  The least recently updated are removed when the limit is reached."));
+            mMapEntityMaximumSpinner.getStyleClass().add(Spinner.STYLE_CLASS_SPLIT_ARROWS_HORIZONTAL);
+            SpinnerValueFactory<Integer> svf = new SpinnerValueFactory.IntegerSpinnerValueFactory(100, 100000,
+                mDecodeEventPreference.getMapEntityMaximum(), 100);
+            mMapEntityMaximumSpinner.setValueFactory(svf);
+            mMapEntityMaximumSpinner.getValueFactory().valueProperty()
+                .addListener((observable, oldValue, newValue) -> mDecodeEventPreference.setMapEntityMaximum(newValue));
+        }
+
+        return mMapEntityMaximumSpinner;
+    }
+
     public class DisplayableTimestamp
     {
         private TimestampFormat mTimestampFormat;
@@ -23,6 +23,7 @@ import io.github.dsheirer.gui.preference.calibration.VectorCalibrationPreference
 import io.github.dsheirer.gui.preference.decoder.JmbeLibraryPreferenceEditor;
 import io.github.dsheirer.gui.preference.directory.DirectoryPreferenceEditor;
 import io.github.dsheirer.gui.preference.duplicate.DuplicateCallPreferenceEditor;
+import io.github.dsheirer.gui.preference.eventlog.EventLogPreferenceEditor;
 import io.github.dsheirer.gui.preference.mp3.MP3PreferenceEditor;
 import io.github.dsheirer.gui.preference.playback.PlaybackPreferenceEditor;
 import io.github.dsheirer.gui.preference.record.RecordPreferenceEditor;
@@ -51,6 +52,8 @@ public class PreferenceEditorFactory
                 return new DecodeEventViewPreferenceEditor(userPreferences);
             case DIRECTORY:
                 return new DirectoryPreferenceEditor(userPreferences);
+            case EVENT_LOG:
+                return new EventLogPreferenceEditor(userPreferences);
             case JMBE_LIBRARY:
                 return new JmbeLibraryPreferenceEditor(userPreferences);
             case SOURCE_TUNER_CHANNELIZER:
@@ -192,6 +192,7 @@ public class UserPreferencesEditor extends BorderPane
 
             TreeItem<String> storageItem = new TreeItem<>("File Storage");
             storageItem.getChildren().add(new TreeItem(PreferenceEditorType.DIRECTORY));
+            storageItem.getChildren().add(new TreeItem(PreferenceEditorType.EVENT_LOG));
             treeRoot.getChildren().add(storageItem);
             storageItem.setExpanded(true);
 
@@ -0,0 +1,170 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.gui.preference.eventlog;
+
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.preference.eventlog.EventLogPreference;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.SpinnerValueFactory;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import org.controlsfx.control.ToggleSwitch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Preference settings for call event and decoded message log files
+ */
+public class EventLogPreferenceEditor extends HBox
+{
+    private final static Logger mLog = LoggerFactory.getLogger(EventLogPreferenceEditor.class);
+    private EventLogPreference mEventLogPreference;
+    private GridPane mEditorPane;
+    private Spinner<Integer> mFlushIntervalSpinner;
+    private Spinner<Integer> mFlushSizeSpinner;
+    private Spinner<Integer> mRotationSizeSpinner;
+    private ToggleSwitch mRotationDailyToggleSwitch;
+    private ToggleSwitch mCompressedToggleSwitch;
+
+    public EventLogPreferenceEditor(UserPreferences userPreferences)
+    {
+        mEventLogPreference = userPreferences.getEventLogPreference();
+        HBox.setHgrow(getEditorPane(), Priority.ALWAYS);
+        getChildren().add(getEditorPane());
+    }
+
+    private GridPane getEditorPane()
+    {
+        if(mEditorPane == null)
+        {
+            mEditorPane = new GridPane();
+            mEditorPane.setPadding(new Insets(10, 10, 10, 10));
+            mEditorPane.setHgap(10);
+            mEditorPane.setVgap(10);
+
+            mEditorPane.add(new Label("Flush Interval (Milliseconds):"), 0, 0);
+            mEditorPane.add(getFlushIntervalSpinner(), 1, 0);
+
+            mEditorPane.add(new Label("Flush Size (Entries):"), 0, 1);
+            mEditorPane.add(getFlushSizeSpinner(), 1, 1);
+
+            mEditorPane.add(new Label("Start New Log File At Size (MB, 0 = Off):"), 0, 2);
+            mEditorPane.add(getRotationSizeSpinner(), 1, 2);
+
+            mEditorPane.add(new Label("Start New Log File Each Day:"), 0, 3);
+            mEditorPane.add(getRotationDailyToggleSwitch(), 1, 3);
+
+            mEditorPane.add(new Label("Compress Log Files (gzip):"), 0, 4);
+            mEditorPane.add(getCompressedToggleSwitch(), 1, 4);
+
+            Label noteLabel = new Label("Note: file size, daily and compression changes apply to log files that are " +
+                "opened after the change.");
+            noteLabel.setWrapText(true);
+            mEditorPane.add(noteLabel, 0, 5, 2, 1);
+        }
+
+        return mEditorPane;
+    }
+
+    private Spinner<Integer> getFlushIntervalSpinner()
+    {
+        if(mFlushIntervalSpinner == null)
+        {
+            mFlushIntervalSpinner = new Spinner<>();
+            mFlushIntervalSpinner.setTooltip(new Tooltip("Maximum time that a log entry is held before it is " +
+                "written to the log file"));
+            mFlushIntervalSpinner.getStyleClass().add(Spinner.STYLE_CLASS_SPLIT_ARROWS_HORIZONTAL);
+            SpinnerValueFactory<Integer> svf = new SpinnerValueFactory.IntegerSpinnerValueFactory(10, 60000,
+                mEventLogPreference.getFlushIntervalMs(), 100);
+            mFlushIntervalSpinner.setValueFactory(svf);
+            mFlushIntervalSpinner.getValueFactory().valueProperty()
+                .addListener((observable, oldValue, newValue) -> mEventLogPreference.setFlushIntervalMs(newValue));
+        }
+
+        return mFlushIntervalSpinner;
+    }
+
+    private Spinner<Integer> getFlushSizeSpinner()
+    {
+        if(mFlushSizeSpinner == null)
+        {
+            mFlushSizeSpinner = new Spinner<>();
+            mFlushSizeSpinner.setTooltip(new Tooltip("Number of pending log entries that causes the log files to " +
+                "be written before the flush interval elapses"));
+            mFlushSizeSpinner.getStyleClass().add(Spinner.STYLE_CLASS_SPLIT_ARROWS_HORIZONTAL);
+            SpinnerValueFactory<Integer> svf = new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 65536,
+                mEventLogPreference.getFlushSize(), 64);
+            mFlushSizeSpinner.setValueFactory(svf);
+            mFlushSizeSpinner.getValueFactory().valueProperty()
+                .addListener((observable, oldValue, newValue) -> mEventLogPreference.setFlushSize(newValue));
+        }
+
+        return mFlushSizeSpinner;
+    }
+
+    private Spinner<Integer> getRotationSizeSpinner()
+    {
+        if(mRotationSizeSpinner == null)
+        {
+            mRotationSizeSpinner = new Spinner<>();
+            mRotationSizeSpinner.setTooltip(new Tooltip("Log file size that causes the log to continue in a new " +
+                "file.  Set to 0 to disable."));
+            mRotationSizeSpinner.getStyleClass().add(Spinner.STYLE_CLASS_SPLIT_ARROWS_HORIZONTAL);
+            SpinnerValueFactory<Integer> svf = new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 10240,
+                mEventLogPreference.getRotationSizeMb(), 10);
+            mRotationSizeSpinner.setValueFactory(svf);
+            mRotationSizeSpinner.getValueFactory().valueProperty()
+                .addListener((observable, oldValue, newValue) -> mEventLogPreference.setRotationSizeMb(newValue));
+        }
+
+        return mRotationSizeSpinner;
+    }
+
+    private ToggleSwitch getRotationDailyToggleSwitch()
+    {
+        if(mRotationDailyToggleSwitch == null)
+        {
+            mRotationDailyToggleSwitch = new ToggleSwitch();
+            mRotationDailyToggleSwitch.setSelected(mEventLogPreference.isRotationDaily());
+            mRotationDailyToggleSwitch.selectedProperty()
+                .addListener((observable, oldValue, newValue) -> mEventLogPreference.setRotationDaily(newValue));
+        }
+
+        return mRotationDailyToggleSwitch;
+    }
+
+    private ToggleSwitch getCompressedToggleSwitch()
+    {
+        if(mCompressedToggleSwitch == null)
+        {
+            mCompressedToggleSwitch = new ToggleSwitch();
+            mCompressedToggleSwitch.setSelected(mEventLogPreference.isCompressed());
+            mCompressedToggleSwitch.selectedProperty()
+                .addListener((observable, oldValue, newValue) -> mEventLogPreference.setCompressed(newValue));
+        }
+
+        return mCompressedToggleSwitch;
+    }
+}
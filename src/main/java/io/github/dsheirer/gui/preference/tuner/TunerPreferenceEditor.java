@@ -22,6 +22,7 @@
 
 package io.github.dsheirer.gui.preference.tuner;
 
+import io.github.dsheirer.dsp.filter.channelizer.ChannelizerWorkerPool;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.preference.source.ChannelizerType;
 import io.github.dsheirer.preference.source.TunerPreference;
@@ -33,6 +34,9 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Separator;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.SpinnerValueFactory;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 
@@ -46,6 +50,9 @@ public class TunerPreferenceEditor extends HBox
         "channelizer is more efficient when decoding 3 or more channels.";
     private static final String HELP_TEXT_HETERODYNE = "Processes each channel on-demand.  This " +
         "channelizer may work better for computers with constrained resources when processing a small number of channels.";
+    private static final String HELP_TEXT_FAST_CONVOLUTION = "Shares one FFT of the tuner samples across all " +
+        "channels and processes each channel at its exact frequency.  This channelizer may work better when channels " +
+        "don't align with the polyphase channel spacing.";
 
     private TunerPreference mTunerPreference;
     private GridPane mEditorPane;
@@ -55,6 +62,14 @@ public class TunerPreferenceEditor extends HBox
     private Label mHelpTextPolyphaseLabel;
     private Label mHeterodyneLabel;
     private Label mHelpTextHeterodyneLabel;
+    private Label mFastConvolutionLabel;
+    private Label mHelpTextFastConvolutionLabel;
+    private Label mChannelizerThreadCountLabel;
+    private Spinner<Integer> mChannelizerThreadCountSpinner;
+    private Label mZeroCopyBufferCountLabel;
+    private Spinner<Integer> mZeroCopyBufferCountSpinner;
+    private Label mPreRollHistorySizeLabel;
+    private Spinner<Integer> mPreRollHistorySizeSpinner;
 
     public TunerPreferenceEditor(UserPreferences userPreferences)
     {
@@ -73,12 +88,24 @@ public class TunerPreferenceEditor extends HBox
             GridPane.setHalignment(getChannelizerLabel(), HPos.LEFT);
             mEditorPane.add(getChannelizerLabel(), 0, 0);
             mEditorPane.add(getChannelizerTypeChoiceBox(), 1, 0);
-            mEditorPane.add(new Separator(Orientation.HORIZONTAL), 0, 1, 2, 1);
-            mEditorPane.add(getPolyphaseLabel(), 0, 2, 2, 1);
-            mEditorPane.add(getHelpTextPolyphaseLabel(), 0, 3, 2, 3);
-            mEditorPane.add(new Label(" "), 0, 6);
-            mEditorPane.add(getHeterodyneLabel(), 0, 7, 2, 1);
-            mEditorPane.add(getHelpTextHeterodyneLabel(), 0, 8, 2, 3);
+            GridPane.setHalignment(getChannelizerThreadCountLabel(), HPos.LEFT);
+            mEditorPane.add(getChannelizerThreadCountLabel(), 0, 1);
+            mEditorPane.add(getChannelizerThreadCountSpinner(), 1, 1);
+            GridPane.setHalignment(getZeroCopyBufferCountLabel(), HPos.LEFT);
+            mEditorPane.add(getZeroCopyBufferCountLabel(), 0, 2);
+            mEditorPane.add(getZeroCopyBufferCountSpinner(), 1, 2);
+            GridPane.setHalignment(getPreRollHistorySizeLabel(), HPos.LEFT);
+            mEditorPane.add(getPreRollHistorySizeLabel(), 0, 3);
+            mEditorPane.add(getPreRollHistorySizeSpinner(), 1, 3);
+            mEditorPane.add(new Separator(Orientation.HORIZONTAL), 0, 4, 2, 1);
+            mEditorPane.add(getPolyphaseLabel(), 0, 5, 2, 1);
+            mEditorPane.add(getHelpTextPolyphaseLabel(), 0, 6, 2, 3);
+            mEditorPane.add(new Label(" "), 0, 9);
+            mEditorPane.add(getHeterodyneLabel(), 0, 10, 2, 1);
+            mEditorPane.add(getHelpTextHeterodyneLabel(), 0, 11, 2, 3);
+            mEditorPane.add(new Label(" "), 0, 14);
+            mEditorPane.add(getFastConvolutionLabel(), 0, 15, 2, 1);
+            mEditorPane.add(getHelpTextFastConvolutionLabel(), 0, 16, 2, 3);
         }
 
         return mEditorPane;
@@ -120,6 +147,92 @@ public class TunerPreferenceEditor extends HBox
         return mChannelizerTypeChoiceBox;
     }
 
+    private Label getChannelizerThreadCountLabel()
+    {
+        if(mChannelizerThreadCountLabel == null)
+        {
+            mChannelizerThreadCountLabel = new Label("Polyphase Channelizer Threads");
+        }
+
+        return mChannelizerThreadCountLabel;
+    }
+
+    private Spinner<Integer> getChannelizerThreadCountSpinner()
+    {
+        if(mChannelizerThreadCountSpinner == null)
+        {
+            mChannelizerThreadCountSpinner = new Spinner<>();
+            mChannelizerThreadCountSpinner.setTooltip(new Tooltip("Number of CPU threads used by each polyphase " +
+                "channelizer.  Increase for wideband tuners with many channels."));
+            mChannelizerThreadCountSpinner.getStyleClass().add(Spinner.STYLE_CLASS_SPLIT_ARROWS_HORIZONTAL);
+            SpinnerValueFactory<Integer> svf = new SpinnerValueFactory.IntegerSpinnerValueFactory(1,
+                ChannelizerWorkerPool.getMaximumThreadCount(), mTunerPreference.getChannelizerThreadCount());
+            mChannelizerThreadCountSpinner.setValueFactory(svf);
+            mChannelizerThreadCountSpinner.getValueFactory().valueProperty()
+                .addListener((observable, oldValue, newValue) -> mTunerPreference.setChannelizerThreadCount(newValue));
+        }
+
+        return mChannelizerThreadCountSpinner;
+    }
+
+    private Label getZeroCopyBufferCountLabel()
+    {
+        if(mZeroCopyBufferCountLabel == null)
+        {
+            mZeroCopyBufferCountLabel = new Label("Zero-Copy USB Transfer Buffers");
+        }
+
+        return mZeroCopyBufferCountLabel;
+    }
+
+    private Spinner<Integer> getZeroCopyBufferCountSpinner()
+    {
+        if(mZeroCopyBufferCountSpinner == null)
+        {
+            mZeroCopyBufferCountSpinner = new Spinner<>();
+            mZeroCopyBufferCountSpinner.setTooltip(new Tooltip("Number of USB transfer buffers that RTL-SDR and " +
+                "HackRF tuners hand directly to the sample processing chain instead of copying.  Set to 0 to " +
+                "disable.  Takes effect when a tuner is next started."));
+            mZeroCopyBufferCountSpinner.getStyleClass().add(Spinner.STYLE_CLASS_SPLIT_ARROWS_HORIZONTAL);
+            SpinnerValueFactory<Integer> svf = new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 256,
+                mTunerPreference.getZeroCopyBufferCount(), 8);
+            mZeroCopyBufferCountSpinner.setValueFactory(svf);
+            mZeroCopyBufferCountSpinner.getValueFactory().valueProperty()
+                .addListener((observable, oldValue, newValue) -> mTunerPreference.setZeroCopyBufferCount(newValue));
+        }
+
+        return mZeroCopyBufferCountSpinner;
+    }
+
+    private Label getPreRollHistorySizeLabel()
+    {
+        if(mPreRollHistorySizeLabel == null)
+        {
+            mPreRollHistorySizeLabel = new Label("Polyphase Pre-Roll History (MB)");
+        }
+
+        return mPreRollHistorySizeLabel;
+    }
+
+    private Spinner<Integer> getPreRollHistorySizeSpinner()
+    {
+        if(mPreRollHistorySizeSpinner == null)
+        {
+            mPreRollHistorySizeSpinner = new Spinner<>();
+            mPreRollHistorySizeSpinner.setTooltip(new Tooltip("Memory used by each tuner to retain recent polyphase " +
+                "channelizer output so that traffic channels start from the channel grant instead of missing the " +
+                "start of the call.  Set to 0 to disable.  Takes effect when a tuner is next started."));
+            mPreRollHistorySizeSpinner.getStyleClass().add(Spinner.STYLE_CLASS_SPLIT_ARROWS_HORIZONTAL);
+            SpinnerValueFactory<Integer> svf = new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 512,
+                mTunerPreference.getPreRollHistorySize(), 8);
+            mPreRollHistorySizeSpinner.setValueFactory(svf);
+            mPreRollHistorySizeSpinner.getValueFactory().valueProperty()
+                .addListener((observable, oldValue, newValue) -> mTunerPreference.setPreRollHistorySize(newValue));
+        }
+
+        return mPreRollHistorySizeSpinner;
+    }
+
     private Label getPolyphaseLabel()
     {
         if(mPolyphaseLabel == null)
@@ -161,4 +274,25 @@ public class TunerPreferenceEditor extends HBox
 
         return mHelpTextHeterodyneLabel;
     }
+
+    private Label getFastConvolutionLabel()
+    {
+        if(mFastConvolutionLabel == null)
+        {
+            mFastConvolutionLabel = new Label("Fast Convolution");
+        }
+
+        return mFastConvolutionLabel;
+    }
+
+    private Label getHelpTextFastConvolutionLabel()
+    {
+        if(mHelpTextFastConvolutionLabel == null)
+        {
+            mHelpTextFastConvolutionLabel = new Label(HELP_TEXT_FAST_CONVOLUTION);
+            mHelpTextFastConvolutionLabel.setWrapText(true);
+        }
+
+        return mHelpTextFastConvolutionLabel;
+    }
 }
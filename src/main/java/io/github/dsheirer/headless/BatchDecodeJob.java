@@ -0,0 +1,253 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.headless;
+
+import io.github.dsheirer.alias.AliasModel;
+import io.github.dsheirer.controller.channel.Channel;
+import io.github.dsheirer.controller.channel.ChannelException;
+import io.github.dsheirer.controller.channel.ChannelProcessingManager;
+import io.github.dsheirer.controller.channel.map.ChannelMapModel;
+import io.github.dsheirer.eventbus.MyEventBus;
+import io.github.dsheirer.module.log.EventLogManager;
+import io.github.dsheirer.module.log.EventLogType;
+import io.github.dsheirer.module.log.config.EventLogConfiguration;
+import io.github.dsheirer.playlist.PlaylistManager;
+import io.github.dsheirer.playlist.PlaylistV2;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.source.SourceException;
+import io.github.dsheirer.source.tuner.manager.ChannelSourceManager;
+import io.github.dsheirer.source.tuner.manager.DiscoveredRecordingTuner;
+import io.github.dsheirer.source.tuner.manager.TunerManager;
+import io.github.dsheirer.source.tuner.recording.RecordingTuner;
+import io.github.dsheirer.source.tuner.recording.RecordingTunerConfiguration;
+import io.github.dsheirer.source.tuner.recording.RecordingTunerController;
+import io.github.dsheirer.util.SampleClock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decodes a single baseband recording in batch mode.
+ *
+ * Each job reads its own copy of the playlist and uses its own tuner manager containing only the recording tuner for
+ * this recording, so that the playlist channels (and any traffic channels they spawn) are sourced from this recording
+ * and jobs for several recordings can run in parallel without sharing channel state.  Channels are started before
+ * playback begins, playback runs unthrottled with back-pressure from the channel sources, and the job waits for the
+ * sample stream to drain through the decoders before stopping the channels and closing the event logs.
+ */
+public class BatchDecodeJob implements Callable<Boolean>
+{
+    private final static Logger mLog = LoggerFactory.getLogger(BatchDecodeJob.class);
+    private static final long PLAYBACK_POLL_INTERVAL_MS = 100;
+    private static final long IDLE_POLL_INTERVAL_MS = 20;
+    private static final int IDLE_CONFIRMATION_COUNT = 5;
+
+    private BatchRecording mRecording;
+    private long mStartOffset;
+    private Path mPlaylistPath;
+    private Path mOutputDirectory;
+    private Collection<String> mChannelNames;
+    private UserPreferences mUserPreferences;
+
+    /**
+     * Constructs an instance
+     * @param recording to decode
+     * @param startOffset in milliseconds from the start of the recording to begin decoding
+     * @param playlistPath for the channel and alias configurations
+     * @param outputDirectory parent directory for the event logs.  Logs are written to a sub-directory named for the
+     * recording.
+     * @param channelNames of the playlist channels to decode, or empty to decode every playlist channel that the
+     * recording can source.
+     * @param userPreferences for decoder and channelizer settings
+     */
+    public BatchDecodeJob(BatchRecording recording, long startOffset, Path playlistPath, Path outputDirectory,
+                          Collection<String> channelNames, UserPreferences userPreferences)
+    {
+        mRecording = recording;
+        mStartOffset = startOffset;
+        mPlaylistPath = playlistPath;
+        mOutputDirectory = outputDirectory;
+        mChannelNames = channelNames;
+        mUserPreferences = userPreferences;
+    }
+
+    /**
+     * Decodes the recording.
+     * @return true if at least one channel was decoded from the recording
+     */
+    @Override
+    public Boolean call() throws Exception
+    {
+        String name = mRecording.getName();
+        Path logDirectory = mOutputDirectory.resolve(name);
+        Files.createDirectories(logDirectory);
+
+        PlaylistV2 playlist = PlaylistManager.read(mPlaylistPath);
+        AliasModel aliasModel = new AliasModel();
+        aliasModel.addAliases(playlist.getAliases());
+        ChannelMapModel channelMapModel = new ChannelMapModel();
+        channelMapModel.addChannelMaps(playlist.getChannelMaps());
+
+        RecordingTunerConfiguration configuration = new RecordingTunerConfiguration("Batch " + name);
+        configuration.setPath(mRecording.path().toString());
+        configuration.setFrequency(mRecording.frequency());
+        DiscoveredRecordingTuner discoveredTuner = new DiscoveredRecordingTuner(mUserPreferences, configuration);
+        discoveredTuner.setEnabled(true);
+
+        if(!discoveredTuner.hasTuner() || discoveredTuner.hasErrorMessage())
+        {
+            mLog.error("Unable to load recording [" + mRecording.path() + "] - " + discoveredTuner.getErrorMessage());
+            discoveredTuner.setEnabled(false);
+            return false;
+        }
+
+        TunerManager tunerManager = new TunerManager(mUserPreferences);
+        tunerManager.getDiscoveredTunerModel().addDiscoveredTuner(discoveredTuner);
+
+        EventLogManager eventLogManager = new EventLogManager(aliasModel, mUserPreferences, logDirectory);
+        ChannelProcessingManager channelProcessingManager = new ChannelProcessingManager(channelMapModel,
+            eventLogManager, tunerManager, aliasModel, mUserPreferences);
+
+        //Receives channel stop requests from the channel source manager when the tuner shuts down
+        MyEventBus.getGlobalEventBus().register(channelProcessingManager);
+
+        try
+        {
+            int started = startChannels(playlist, channelProcessingManager);
+
+            if(started == 0)
+            {
+                mLog.warn("Recording [" + name + "] - no playlist channels can be sourced from this recording at " +
+                    "frequency [" + mRecording.frequency() + "]");
+                return false;
+            }
+
+            RecordingTuner tuner = (RecordingTuner)discoveredTuner.getTuner();
+            RecordingTunerController controller = tuner.getTunerController();
+            long start = System.currentTimeMillis();
+
+            if(mStartOffset > 0)
+            {
+                controller.seek(mStartOffset);
+                mLog.info("Recording [" + name + "] - starting at offset [" +
+                    TimeUnit.MILLISECONDS.toSeconds(mStartOffset) + "] seconds");
+            }
+
+            controller.startBatchPlayback(mRecording.startTimestamp());
+
+            while(!controller.isBatchPlaybackComplete())
+            {
+                Thread.sleep(PLAYBACK_POLL_INTERVAL_MS);
+            }
+
+            awaitIdle(tuner.getChannelSourceManager());
+
+            //Calls that are still active at the end of the recording are closed when the channels are stopped on this
+            //thread, so align this thread's clock with the end of the recording
+            SampleClock.setSampleTime(controller.getBatchPlaybackTimestamp());
+
+            long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+            mLog.info("Recording [" + name + "] - decoded " + started + " channel(s) in " +
+                TimeUnit.MILLISECONDS.toSeconds(elapsed) + " seconds - event logs [" + logDirectory + "]");
+            return true;
+        }
+        catch(SourceException se)
+        {
+            mLog.error("Recording [" + name + "] - error starting playback", se);
+            return false;
+        }
+        finally
+        {
+            channelProcessingManager.shutdown();
+            MyEventBus.getGlobalEventBus().unregister(channelProcessingManager);
+            eventLogManager.dispose();
+            discoveredTuner.setEnabled(false);
+            SampleClock.clear();
+        }
+    }
+
+    /**
+     * Starts each of the requested playlist channels that can be sourced from the recording.
+     * @return number of channels started
+     */
+    private int startChannels(PlaylistV2 playlist, ChannelProcessingManager channelProcessingManager)
+    {
+        int started = 0;
+
+        for(Channel channel: playlist.getChannels())
+        {
+            if(channel.isStandardChannel() && (mChannelNames.isEmpty() || mChannelNames.contains(channel.getName())))
+            {
+                enableEventLogging(channel.getEventLogConfiguration());
+
+                try
+                {
+                    channelProcessingManager.start(channel);
+                    mLog.info("Recording [" + mRecording.getName() + "] - decoding channel [" + channel.getName() + "]");
+                    started++;
+                }
+                catch(ChannelException ce)
+                {
+                    if(!mChannelNames.isEmpty())
+                    {
+                        mLog.warn("Recording [" + mRecording.getName() + "] - unable to source channel [" +
+                            channel.getName() + "] - " + ce.getMessage());
+                    }
+                }
+            }
+        }
+
+        return started;
+    }
+
+    /**
+     * Ensures the channel, and any traffic channels that inherit its configuration, log call events and decoded
+     * messages, since the event logs are the output of a batch run.
+     */
+    private static void enableEventLogging(EventLogConfiguration configuration)
+    {
+        for(EventLogType type: new EventLogType[]{EventLogType.CALL_EVENT, EventLogType.DECODED_MESSAGE,
+            EventLogType.TRAFFIC_CALL_EVENT, EventLogType.TRAFFIC_DECODED_MESSAGE})
+        {
+            if(!configuration.getLoggers().contains(type))
+            {
+                configuration.addLogger(type);
+            }
+        }
+    }
+
+    /**
+     * Waits until the channel source manager reports that the sample stream has fully drained through the channel
+     * sources, confirmed over several consecutive checks since a buffer may be in transit between stages.
+     */
+    private static void awaitIdle(ChannelSourceManager channelSourceManager) throws InterruptedException
+    {
+        int idleCount = 0;
+
+        while(idleCount < IDLE_CONFIRMATION_COUNT)
+        {
+            Thread.sleep(IDLE_POLL_INTERVAL_MS);
+            idleCount = (channelSourceManager == null || channelSourceManager.isIdle()) ? idleCount + 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.headless;
+
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.dsp.filter.FilterCoefficientCache;
+import io.github.dsheirer.log.ApplicationLog;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.util.BatchMode;
+import io.github.dsheirer.vector.calibrate.CalibrationException;
+import io.github.dsheirer.vector.calibrate.CalibrationManager;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Offline batch decoder for baseband I/Q recordings.
+ *
+ * Decodes each recording faster than real time through the same tuner, polyphase channelizer and processing chain
+ * path used for live decoding, with batch mode enabled so that sample buffers are never discarded and decoder timers
+ * follow the recording time line.  Several recordings can be decoded in parallel.  Call event and decoded message
+ * logs for each recording are written to a sub-directory of the output directory named for the recording.
+ *
+ * Usage: BatchDecoder [options] recording[@frequency] ...
+ *
+ *   --playlist file    playlist with the channel configurations (default: playlist from the user preferences)
+ *   --output dir       output directory for the event logs (default: [event log directory]/batch)
+ *   --threads n        number of recordings to decode in parallel (default: 1)
+ *   --channel name     playlist channel to decode (repeatable, default: every channel the recording can source)
+ *   --calibrate        run the vector (SIMD) calibrations first if this computer is not yet calibrated
+ *   --start time       start decoding at an offset in seconds from the start of each recording, or at a
+ *                      yyyyMMdd_HHmmss date and time within each recording (default: start of the recording)
+ *
+ * The recording frequency can be omitted for tuner recordings named [name]_[frequency]_baseband_[date]_[time].wav.
+ */
+public class BatchDecoder
+{
+    private final static Logger mLog = LoggerFactory.getLogger(BatchDecoder.class);
+    private static final String ARGUMENT_PLAYLIST = "--playlist";
+    private static final String ARGUMENT_OUTPUT = "--output";
+    private static final String ARGUMENT_THREADS = "--threads";
+    private static final String ARGUMENT_CHANNEL = "--channel";
+    private static final String ARGUMENT_CALIBRATE = "--calibrate";
+    private static final String ARGUMENT_START = "--start";
+
+    private UserPreferences mUserPreferences = new UserPreferences();
+    private List<BatchRecording> mRecordings = new ArrayList<>();
+    private Set<String> mChannelNames = new HashSet<>();
+    private Path mPlaylist;
+    private Path mOutputDirectory;
+    private int mThreads = 1;
+    private boolean mCalibrate = false;
+    private long mStartOffset = 0;
+    private long mStartTimestamp = 0;
+
+    /**
+     * Constructs an instance from the command line arguments.
+     * @param args command line arguments
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    public BatchDecoder(String[] args)
+    {
+        for(int x = 0; x < args.length; x++)
+        {
+            switch(args[x])
+            {
+                case ARGUMENT_PLAYLIST -> mPlaylist = Path.of(getValue(args, ++x));
+                case ARGUMENT_OUTPUT -> mOutputDirectory = Path.of(getValue(args, ++x));
+                case ARGUMENT_CHANNEL -> mChannelNames.add(getValue(args, ++x));
+                case ARGUMENT_CALIBRATE -> mCalibrate = true;
+                case ARGUMENT_START -> parseStart(getValue(args, ++x));
+                case ARGUMENT_THREADS ->
+                {
+                    try
+                    {
+                        mThreads = Math.max(1, Integer.parseInt(getValue(args, ++x)));
+                    }
+                    catch(NumberFormatException nfe)
+                    {
+                        throw new IllegalArgumentException("Invalid thread count [" + args[x] + "]");
+                    }
+                }
+                default -> mRecordings.add(BatchRecording.parse(args[x]));
+            }
+        }
+
+        if(mRecordings.isEmpty())
+        {
+            throw new IllegalArgumentException("No recordings specified");
+        }
+
+        if(mPlaylist == null)
+        {
+            mPlaylist = mUserPreferences.getPlaylistPreference().getPlaylist();
+        }
+
+        if(!Files.isRegularFile(mPlaylist))
+        {
+            throw new IllegalArgumentException("Playlist not found [" + mPlaylist + "]");
+        }
+
+        if(mOutputDirectory == null)
+        {
+            mOutputDirectory = mUserPreferences.getDirectoryPreference().getDirectoryEventLog().resolve("batch");
+        }
+    }
+
+    /**
+     * Parses the start option as either an offset in seconds or a yyyyMMdd_HHmmss timestamp.
+     */
+    private void parseStart(String value)
+    {
+        try
+        {
+            if(value.matches("\\d{8}_\\d{6}"))
+            {
+                mStartTimestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").parse(value).getTime();
+            }
+            else
+            {
+                mStartOffset = (long)(Double.parseDouble(value) * 1000);
+            }
+        }
+        catch(NumberFormatException | ParseException e)
+        {
+            throw new IllegalArgumentException("Invalid start time [" + value + "]");
+        }
+    }
+
+    /**
+     * Playback start offset in milliseconds for the recording, from the start option.
+     */
+    private long getStartOffset(BatchRecording recording)
+    {
+        if(mStartTimestamp > 0)
+        {
+            return Math.max(0, mStartTimestamp - recording.startTimestamp());
+        }
+
+        return Math.max(0, mStartOffset);
+    }
+
+    /**
+     * Value for the option at the specified index.
+     */
+    private static String getValue(String[] args, int index)
+    {
+        if(index >= args.length)
+        {
+            throw new IllegalArgumentException("Missing value for option [" + args[index - 1] + "]");
+        }
+
+        return args[index];
+    }
+
+    /**
+     * Decodes each of the recordings, using up to the configured number of threads.
+     * @return number of recordings that were successfully decoded
+     */
+    public int run() throws InterruptedException
+    {
+        FilterCoefficientCache.getInstance().load(mUserPreferences.getDirectoryPreference()
+            .getDirectoryApplicationRoot().resolve(FilterCoefficientCache.CACHE_FILE_NAME));
+
+        CalibrationManager calibrationManager = CalibrationManager.getInstance(mUserPreferences);
+
+        if(mCalibrate && !calibrationManager.isCalibrated())
+        {
+            try
+            {
+                calibrationManager.calibrate();
+            }
+            catch(CalibrationException ce)
+            {
+                mLog.error("Error during vector calibration - using scalar implementations", ce);
+            }
+        }
+
+        mLog.info("Batch decoding " + mRecordings.size() + " recording(s) with playlist [" + mPlaylist +
+            "] using " + mThreads + " thread(s) - output [" + mOutputDirectory + "]");
+
+        ExecutorService executor = Executors.newFixedThreadPool(mThreads, new NamingThreadFactory("sdrtrunk batch"));
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for(BatchRecording recording: mRecordings)
+        {
+            results.add(executor.submit(new BatchDecodeJob(recording, getStartOffset(recording), mPlaylist,
+                mOutputDirectory, mChannelNames, mUserPreferences)));
+        }
+
+        executor.shutdown();
+
+        int decoded = 0;
+
+        for(int x = 0; x < results.size(); x++)
+        {
+            try
+            {
+                if(results.get(x).get())
+                {
+                    decoded++;
+                }
+            }
+            catch(ExecutionException ee)
+            {
+                mLog.error("Error decoding recording [" + mRecordings.get(x).path() + "]", ee.getCause());
+            }
+        }
+
+        mLog.info("Batch decoding complete - " + decoded + " of " + mRecordings.size() + " recording(s) decoded");
+        return decoded;
+    }
+
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+
+        //Must be enabled before any tuner or channel classes construct their sample buffer dispatchers
+        BatchMode.enable();
+
+        BatchDecoder decoder;
+
+        try
+        {
+            decoder = new BatchDecoder(args);
+        }
+        catch(IllegalArgumentException iae)
+        {
+            System.err.println(iae.getMessage());
+            System.err.println("Usage: BatchDecoder [--playlist file] [--output dir] [--threads n] " +
+                "[--channel name]... [--calibrate] [--start seconds|yyyyMMdd_HHmmss] recording[@frequency]...");
+            System.exit(2);
+            return;
+        }
+
+        ApplicationLog applicationLog = new ApplicationLog(decoder.mUserPreferences);
+        applicationLog.start();
+
+        int exitCode = 1;
+
+        try
+        {
+            exitCode = decoder.run() == decoder.mRecordings.size() ? 0 : 1;
+        }
+        catch(InterruptedException ie)
+        {
+            mLog.info("Batch decoding interrupted");
+        }
+        finally
+        {
+            applicationLog.stop();
+        }
+
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.headless;
+
+import io.github.dsheirer.record.nativebuffer.NativeBufferReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Baseband I/Q recording to decode in batch mode.
+ *
+ * @param path to the complex (2-channel, 16-bit) wave recording or native buffer recording
+ * @param frequency center frequency of the recording in hertz
+ * @param startTimestamp in milliseconds of the first sample in the recording
+ */
+public record BatchRecording(Path path, long frequency, long startTimestamp)
+{
+    /**
+     * Tuner recording file name pattern: [name]_[frequency]_baseband_[yyyyMMdd]_[HHmmss].[wav|nbb]
+     */
+    private static final Pattern TUNER_RECORDING_PATTERN =
+        Pattern.compile(".*_(\\d+)_baseband_(\\d{8}_\\d{6})\\.(wav|nbb)");
+    private static final String FREQUENCY_SEPARATOR = "@";
+
+    /**
+     * Parses a batch recording command line argument in the form file[@frequency].  When the frequency is omitted, it
+     * is read from a native buffer recording header or parsed from a tuner recording file name.  The recording start
+     * time is read from a native buffer recording header or parsed from a tuner recording file name, or otherwise
+     * defaults to the file's last modified time.
+     *
+     * @param argument to parse
+     * @return recording
+     * @throws IllegalArgumentException if the file doesn't exist or the frequency can't be determined
+     */
+    public static BatchRecording parse(String argument)
+    {
+        String file = argument;
+        long frequency = 0;
+
+        int separator = argument.lastIndexOf(FREQUENCY_SEPARATOR);
+
+        if(separator > 0)
+        {
+            file = argument.substring(0, separator);
+
+            try
+            {
+                frequency = Long.parseLong(argument.substring(separator + 1));
+            }
+            catch(NumberFormatException nfe)
+            {
+                throw new IllegalArgumentException("Invalid recording frequency [" + argument + "]");
+            }
+        }
+
+        Path path = Path.of(file);
+
+        if(!Files.isRegularFile(path))
+        {
+            throw new IllegalArgumentException("Recording file not found [" + file + "]");
+        }
+
+        long startTimestamp = 0;
+        Matcher matcher = TUNER_RECORDING_PATTERN.matcher(path.getFileName().toString());
+
+        if(matcher.matches())
+        {
+            if(frequency == 0)
+            {
+                frequency = Long.parseLong(matcher.group(1));
+            }
+
+            try
+            {
+                startTimestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").parse(matcher.group(2)).getTime();
+            }
+            catch(ParseException pe)
+            {
+                //Fall through to the file modified time below
+            }
+        }
+
+        //Native buffer recordings carry the tuner frequency and first buffer timestamp in the file header
+        if(NativeBufferReader.supports(path))
+        {
+            try(NativeBufferReader reader = new NativeBufferReader(path))
+            {
+                if(frequency == 0)
+                {
+                    frequency = reader.getHeader().frequency();
+                }
+
+                if(reader.getHeader().timestamp() > 0)
+                {
+                    startTimestamp = reader.getHeader().timestamp();
+                }
+            }
+            catch(IOException ioe)
+            {
+                //Fall through to the file name values
+            }
+        }
+
+        if(frequency <= 0)
+        {
+            throw new IllegalArgumentException("Recording frequency must be specified as file@frequency for [" +
+                file + "]");
+        }
+
+        if(startTimestamp == 0)
+        {
+            try
+            {
+                startTimestamp = Files.getLastModifiedTime(path).toMillis();
+            }
+            catch(IOException ioe)
+            {
+                startTimestamp = System.currentTimeMillis();
+            }
+        }
+
+        return new BatchRecording(path, frequency, startTimestamp);
+    }
+
+    /**
+     * Recording file name without the extension, for naming output files and directories.
+     */
+    public String getName()
+    {
+        String name = path.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        return extension > 0 ? name.substring(0, extension) : name;
+    }
+}
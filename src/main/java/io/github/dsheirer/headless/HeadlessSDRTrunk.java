@@ -0,0 +1,306 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.headless;
+
+import io.github.dsheirer.alias.AliasModel;
+import io.github.dsheirer.audio.DuplicateCallDetector;
+import io.github.dsheirer.audio.broadcast.AudioStreamingManager;
+import io.github.dsheirer.audio.broadcast.BroadcastFormat;
+import io.github.dsheirer.controller.channel.Channel;
+import io.github.dsheirer.controller.channel.ChannelException;
+import io.github.dsheirer.controller.channel.ChannelProcessingManager;
+import io.github.dsheirer.dsp.filter.FilterCoefficientCache;
+import io.github.dsheirer.icon.IconModel;
+import io.github.dsheirer.log.ApplicationLog;
+import io.github.dsheirer.metrics.MetricsManager;
+import io.github.dsheirer.module.log.EventLogManager;
+import io.github.dsheirer.playlist.PlaylistManager;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.record.AudioRecordingManager;
+import io.github.dsheirer.source.tuner.manager.TunerManager;
+import io.github.dsheirer.util.ThreadPool;
+import io.github.dsheirer.vector.calibrate.CalibrationException;
+import io.github.dsheirer.vector.calibrate.CalibrationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Headless server launcher for rack deployments that only need decoding, recording and streaming.
+ *
+ * Loads the playlist, starts the tuner manager, auto-starts the playlist channels and runs the audio recording,
+ * audio streaming and duplicate call detection modules.  None of the Swing main window, JavaFX windows, spectral
+ * display or tuner spectral display manager are constructed, so no display FFT processing is performed and the
+ * AWT/JavaFX toolkits are never started.
+ *
+ * Usage: HeadlessSDRTrunk [--calibrate] [playlist file]
+ *
+ *   --calibrate      run the vector (SIMD) calibrations before starting if this computer is not yet calibrated.
+ *   playlist file    optional playlist to load instead of the playlist from the user preferences.
+ *
+ * The application runs until the JVM is terminated (e.g. SIGTERM or CTRL-C) and then stops all channels and tuners.
+ */
+public class HeadlessSDRTrunk
+{
+    private final static Logger mLog = LoggerFactory.getLogger(HeadlessSDRTrunk.class);
+    private static final String ARGUMENT_CALIBRATE = "--calibrate";
+
+    private UserPreferences mUserPreferences = new UserPreferences();
+    private ApplicationLog mApplicationLog;
+    private MetricsManager mMetricsManager;
+    private TunerManager mTunerManager;
+    private PlaylistManager mPlaylistManager;
+    private AudioRecordingManager mAudioRecordingManager;
+    private AudioStreamingManager mAudioStreamingManager;
+    private CountDownLatch mShutdownLatch = new CountDownLatch(1);
+
+    /**
+     * Constructs an instance
+     */
+    public HeadlessSDRTrunk()
+    {
+    }
+
+    /**
+     * Starts the tuners, loads the playlist and auto-starts the playlist channels.
+     *
+     * @param calibrate to run the vector calibrations when this computer is not calibrated
+     * @param playlist optional playlist path to load, or null to use the playlist from the user preferences
+     * @throws IOException if the specified playlist cannot be loaded
+     */
+    public void start(boolean calibrate, Path playlist) throws IOException
+    {
+        mApplicationLog = new ApplicationLog(mUserPreferences);
+        mApplicationLog.start();
+
+        mMetricsManager = new MetricsManager(mUserPreferences);
+        mMetricsManager.start();
+
+        mLog.info("Starting headless server mode");
+        ThreadPool.logSettings();
+
+        Path root = mUserPreferences.getDirectoryPreference().getDirectoryApplicationRoot();
+        loadProperties(root);
+        SystemProperties.getInstance().logCurrentSettings();
+
+        //Load previously designed filters so that channel startup doesn't wait on filter designs
+        FilterCoefficientCache.getInstance().loadAsync(root.resolve(FilterCoefficientCache.CACHE_FILE_NAME));
+
+        CalibrationManager calibrationManager = CalibrationManager.getInstance(mUserPreferences);
+
+        if(!calibrationManager.isCalibrated())
+        {
+            if(calibrate)
+            {
+                try
+                {
+                    calibrationManager.calibrate();
+                }
+                catch(CalibrationException ce)
+                {
+                    mLog.error("Error during vector calibration - using scalar implementations", ce);
+                }
+            }
+            else
+            {
+                mLog.warn("Vector calibration has not been run on this computer - using scalar implementations.  " +
+                    "Start with the " + ARGUMENT_CALIBRATE + " option to calibrate.");
+            }
+        }
+
+        mTunerManager = new TunerManager(mUserPreferences);
+        mTunerManager.start();
+
+        AliasModel aliasModel = new AliasModel();
+        EventLogManager eventLogManager = new EventLogManager(aliasModel, mUserPreferences);
+        mPlaylistManager = new PlaylistManager(mUserPreferences, mTunerManager, aliasModel, eventLogManager,
+            new IconModel());
+
+        mAudioRecordingManager = new AudioRecordingManager(mUserPreferences);
+        mAudioRecordingManager.start();
+
+        mAudioStreamingManager = new AudioStreamingManager(mPlaylistManager.getBroadcastModel(), BroadcastFormat.MP3,
+            mUserPreferences);
+        mAudioStreamingManager.start();
+
+        ChannelProcessingManager channelProcessingManager = mPlaylistManager.getChannelProcessingManager();
+        channelProcessingManager.addAudioSegmentListener(new DuplicateCallDetector(mUserPreferences));
+        channelProcessingManager.addAudioSegmentListener(mAudioRecordingManager);
+        channelProcessingManager.addAudioSegmentListener(mAudioStreamingManager);
+
+        if(playlist != null)
+        {
+            mLog.info("Loading playlist [" + playlist.toAbsolutePath() + "]");
+            mPlaylistManager.setPlaylist(playlist);
+        }
+        else
+        {
+            mPlaylistManager.init();
+        }
+
+        autoStartChannels();
+    }
+
+    /**
+     * Starts each of the channels that are designated for auto-start, in auto-start order.
+     */
+    private void autoStartChannels()
+    {
+        List<Channel> channels = mPlaylistManager.getChannelModel().getAutoStartChannels();
+
+        if(channels.isEmpty())
+        {
+            mLog.warn("Playlist does not contain any auto-start channels - no channels will be processed");
+        }
+
+        for(Channel channel: channels)
+        {
+            try
+            {
+                mLog.info("Auto-starting channel " + channel.getName());
+                mPlaylistManager.getChannelProcessingManager().start(channel);
+            }
+            catch(ChannelException ce)
+            {
+                mLog.error("Channel: " + channel.getName() + " auto-start failed: " + ce.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops all channels, recording, streaming and tuners.
+     */
+    public void stop()
+    {
+        mLog.info("Application shutdown started ...");
+
+        if(mPlaylistManager != null)
+        {
+            mLog.info("Stopping channels ...");
+            mPlaylistManager.getChannelProcessingManager().shutdown();
+        }
+
+        if(mAudioRecordingManager != null)
+        {
+            mAudioRecordingManager.stop();
+        }
+
+        if(mAudioStreamingManager != null)
+        {
+            mAudioStreamingManager.stop();
+        }
+
+        if(mTunerManager != null)
+        {
+            mLog.info("Stopping tuners ...");
+            mTunerManager.stop();
+        }
+
+        if(mMetricsManager != null)
+        {
+            mMetricsManager.stop();
+        }
+
+        mLog.info("Shutdown complete.");
+
+        if(mApplicationLog != null)
+        {
+            mApplicationLog.stop();
+        }
+
+        mShutdownLatch.countDown();
+    }
+
+    /**
+     * Blocks the calling thread until stop() completes.
+     */
+    public void awaitShutdown() throws InterruptedException
+    {
+        mShutdownLatch.await();
+    }
+
+    /**
+     * Loads the SDRTrunk.properties file from the application root directory, creating it if necessary.
+     */
+    private void loadProperties(Path root)
+    {
+        Path propertiesPath = root.resolve("SDRTrunk.properties");
+
+        try
+        {
+            if(!Files.exists(propertiesPath))
+            {
+                mLog.info("Creating application properties file [" + propertiesPath.toAbsolutePath() + "]");
+                Files.createFile(propertiesPath);
+            }
+
+            SystemProperties.getInstance().load(propertiesPath);
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Couldn't find or create application properties file [" + propertiesPath.toAbsolutePath() +
+                "]", ioe);
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        //Set before any AWT class is loaded so that shared models (e.g. tuner and channel models) never start a display
+        System.setProperty("java.awt.headless", "true");
+
+        boolean calibrate = false;
+        Path playlist = null;
+
+        for(String arg: args)
+        {
+            if(arg.equals(ARGUMENT_CALIBRATE))
+            {
+                calibrate = true;
+            }
+            else
+            {
+                playlist = Path.of(arg);
+            }
+        }
+
+        HeadlessSDRTrunk server = new HeadlessSDRTrunk();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "sdrtrunk headless shutdown"));
+
+        try
+        {
+            server.start(calibrate, playlist);
+            server.awaitShutdown();
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Unable to start headless server", ioe);
+            System.exit(1);
+        }
+        catch(InterruptedException ie)
+        {
+            mLog.info("Headless server interrupted");
+        }
+    }
+}
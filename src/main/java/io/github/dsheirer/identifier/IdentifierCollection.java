@@ -20,25 +20,32 @@
 package io.github.dsheirer.identifier;
 
 import io.github.dsheirer.identifier.configuration.AliasListConfigurationIdentifier;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
 
 /**
  * (Immutable) Collection of identifiers with convenient accessor methods
  *
+ * Identifiers are indexed by identifier class, form and role in an immutable snapshot that is shared by all readers,
+ * so lookups don't scan the full collection and the by-class, by-form and by-role lists are not allocated per call.
+ * The snapshot is created on first access after the collection changes.
+ *
  * @see MutableIdentifierCollection for the mutable version of this class
  */
 public class IdentifierCollection
 {
-    private final static Logger mLog = LoggerFactory.getLogger(IdentifierCollection.class);
-    protected List<Identifier> mIdentifiers = new CopyOnWriteArrayList<>();
-    protected AliasListConfigurationIdentifier mAliasListConfigurationIdentifier;
+    /**
+     * Backing list of identifiers.  Subclasses must hold the lock on this collection while changing the list and must
+     * invoke invalidate() after each change.
+     */
+    protected List<Identifier> mIdentifiers = new ArrayList<>();
+    protected volatile AliasListConfigurationIdentifier mAliasListConfigurationIdentifier;
+    private volatile Snapshot mSnapshot;
     private int mTimeslot = 0;
 
     /**
@@ -108,12 +115,43 @@ public class IdentifierCollection
         return mAliasListConfigurationIdentifier != null;
     }
 
+    /**
+     * Discards the current snapshot after the backing list of identifiers changes.
+     */
+    protected void invalidate()
+    {
+        mSnapshot = null;
+    }
+
+    /**
+     * Current immutable snapshot of the identifiers, created if the collection changed since the last snapshot.
+     */
+    private Snapshot getSnapshot()
+    {
+        Snapshot snapshot = mSnapshot;
+
+        if(snapshot == null)
+        {
+            synchronized(this)
+            {
+                if(mSnapshot == null)
+                {
+                    mSnapshot = new Snapshot(mIdentifiers);
+                }
+
+                snapshot = mSnapshot;
+            }
+        }
+
+        return snapshot;
+    }
+
     /**
      * Immutable list of identifiers contained in this collection
      */
     public List<Identifier> getIdentifiers()
     {
-        return Collections.unmodifiableList(mIdentifiers);
+        return getSnapshot().mIdentifiers;
     }
 
     /**
@@ -121,89 +159,40 @@ public class IdentifierCollection
      */
     public boolean isEmpty()
     {
-        return mIdentifiers.isEmpty();
+        return getSnapshot().mIdentifiers.isEmpty();
     }
 
     /**
      * Get a list of identifiers by identifier class from this collection.
      *
      * @param identifierClass to match
-     * @return list of zero or more identifiers
+     * @return immutable list of zero or more identifiers
      */
     public List<Identifier> getIdentifiers(IdentifierClass identifierClass)
     {
-        List<Identifier> identifiers = new ArrayList<>();
-
-        for(Identifier identifier : mIdentifiers)
-        {
-            if(identifier.getIdentifierClass() == identifierClass)
-            {
-                identifiers.add(identifier);
-            }
-        }
-
-        return identifiers;
+        return getSnapshot().mClassMap.getOrDefault(identifierClass, Collections.emptyList());
     }
 
     /**
      * Get a list of identifiers by form from this collection.
      *
      * @param form to match
-     * @return list of zero or more identifiers
+     * @return immutable list of zero or more identifiers
      */
     public List<Identifier> getIdentifiers(Form form)
     {
-        List<Identifier> identifiers = new ArrayList<>();
-
-        for(Identifier identifier : mIdentifiers)
-        {
-            if(identifier.getForm() == form)
-            {
-                identifiers.add(identifier);
-            }
-        }
-
-        return identifiers;
+        return getSnapshot().mFormMap.getOrDefault(form, Collections.emptyList());
     }
 
     /**
      * Get a list of identifiers by role from this collection.
      *
      * @param role to match
-     * @return list of zero or more identifiers
+     * @return immutable list of zero or more identifiers
      */
     public List<Identifier> getIdentifiers(Role role)
     {
-        List<Identifier> identifiers = new ArrayList<>();
-
-        for(Identifier identifier : mIdentifiers)
-        {
-            try
-            {
-                if(identifier.getRole() == role)
-                {
-                    identifiers.add(identifier);
-                }
-            }
-            catch(NullPointerException npe)
-            {
-                StringBuilder sb = new StringBuilder();
-                for(Identifier i : mIdentifiers)
-                {
-                    if(i == null)
-                    {
-                        sb.append("Identifier: (null)").append("\n");
-                    }
-                    else
-                    {
-                        sb.append("Identifier: ").append(i).append(" Class:").append(i.getClass()).append("\n");
-                    }
-                }
-                mLog.warn("An identifier in a collection is somehow null ...\n" + sb);
-            }
-        }
-
-        return identifiers;
+        return getSnapshot().mRoleMap.getOrDefault(role, Collections.emptyList());
     }
 
     /**
@@ -215,12 +204,17 @@ public class IdentifierCollection
      */
     public List<Identifier> getIdentifiers(IdentifierClass identifierClass, Role role)
     {
-        List<Identifier> identifiers = new ArrayList<>();
+        List<Identifier> identifiers = Collections.emptyList();
 
-        for(Identifier identifier : mIdentifiers)
+        for(Identifier identifier : getIdentifiers(identifierClass))
         {
-            if(identifier.getIdentifierClass() == identifierClass && identifier.getRole() == role)
+            if(identifier.getRole() == role)
             {
+                if(identifiers.isEmpty())
+                {
+                    identifiers = new ArrayList<>();
+                }
+
                 identifiers.add(identifier);
             }
         }
@@ -237,12 +231,17 @@ public class IdentifierCollection
      */
     public List<Identifier> getIdentifiers(IdentifierClass identifierClass, Form form)
     {
-        List<Identifier> identifiers = new ArrayList<>();
+        List<Identifier> identifiers = Collections.emptyList();
 
-        for(Identifier identifier : mIdentifiers)
+        for(Identifier identifier : getIdentifiers(identifierClass))
         {
-            if(identifier.getIdentifierClass() == identifierClass && identifier.getForm() == form)
+            if(identifier.getForm() == form)
             {
+                if(identifiers.isEmpty())
+                {
+                    identifiers = new ArrayList<>();
+                }
+
                 identifiers.add(identifier);
             }
         }
@@ -260,17 +259,7 @@ public class IdentifierCollection
      */
     public Identifier getIdentifier(IdentifierClass identifierClass, Form form, Role role)
     {
-        for(Identifier identifier : mIdentifiers)
-        {
-            if(identifier.getIdentifierClass() == identifierClass &&
-                identifier.getForm() == form &&
-                identifier.getRole() == role)
-            {
-                return identifier;
-            }
-        }
-
-        return null;
+        return getSnapshot().getIdentifier(identifierClass, form, role);
     }
 
     /**
@@ -278,19 +267,7 @@ public class IdentifierCollection
      */
     public Identifier getFromIdentifier()
     {
-        Identifier from = getIdentifier(IdentifierClass.USER, Form.RADIO, Role.FROM);
-
-        if(from == null)
-        {
-            List<Identifier> fromIdentifiers = getIdentifiers(Role.FROM);
-
-            if(!fromIdentifiers.isEmpty())
-            {
-                from = fromIdentifiers.get(0);
-            }
-        }
-
-        return from;
+        return getSnapshot().mFromIdentifier;
     }
 
     /**
@@ -298,23 +275,7 @@ public class IdentifierCollection
      */
     public Identifier getToIdentifier()
     {
-        Identifier to = getIdentifier(IdentifierClass.USER, Form.PATCH_GROUP, Role.TO);
-
-        if(to == null)
-        {
-            to = getIdentifier(IdentifierClass.USER, Form.TALKGROUP, Role.TO);
-        }
-
-        if(to == null)
-        {
-            List<Identifier> toIdentifiers = getIdentifiers(Role.TO);
-            if(!toIdentifiers.isEmpty())
-            {
-                to = toIdentifiers.get(0);
-            }
-        }
-
-        return to;
+        return getSnapshot().mToIdentifier;
     }
 
     @Override
@@ -332,4 +293,69 @@ public class IdentifierCollection
         }
         return sb.toString();
     }
+
+    /**
+     * Immutable view of the identifiers indexed by identifier class, form and role.
+     */
+    private static class Snapshot
+    {
+        private final List<Identifier> mIdentifiers;
+        private final Map<IdentifierClass,List<Identifier>> mClassMap = new EnumMap<>(IdentifierClass.class);
+        private final Map<Form,List<Identifier>> mFormMap = new EnumMap<>(Form.class);
+        private final Map<Role,List<Identifier>> mRoleMap = new EnumMap<>(Role.class);
+        private final Identifier mFromIdentifier;
+        private final Identifier mToIdentifier;
+
+        private Snapshot(List<Identifier> identifiers)
+        {
+            mIdentifiers = List.copyOf(identifiers);
+
+            for(Identifier identifier: mIdentifiers)
+            {
+                mClassMap.computeIfAbsent(identifier.getIdentifierClass(), key -> new ArrayList<>()).add(identifier);
+                mFormMap.computeIfAbsent(identifier.getForm(), key -> new ArrayList<>()).add(identifier);
+                mRoleMap.computeIfAbsent(identifier.getRole(), key -> new ArrayList<>()).add(identifier);
+            }
+
+            mClassMap.replaceAll((key, list) -> Collections.unmodifiableList(list));
+            mFormMap.replaceAll((key, list) -> Collections.unmodifiableList(list));
+            mRoleMap.replaceAll((key, list) -> Collections.unmodifiableList(list));
+
+            Identifier from = getIdentifier(IdentifierClass.USER, Form.RADIO, Role.FROM);
+            mFromIdentifier = from != null ? from : getFirst(Role.FROM);
+
+            Identifier to = getIdentifier(IdentifierClass.USER, Form.PATCH_GROUP, Role.TO);
+
+            if(to == null)
+            {
+                to = getIdentifier(IdentifierClass.USER, Form.TALKGROUP, Role.TO);
+            }
+
+            mToIdentifier = to != null ? to : getFirst(Role.TO);
+        }
+
+        private Identifier getIdentifier(IdentifierClass identifierClass, Form form, Role role)
+        {
+            List<Identifier> identifiers = mFormMap.get(form);
+
+            if(identifiers != null)
+            {
+                for(Identifier identifier : identifiers)
+                {
+                    if(identifier.getIdentifierClass() == identifierClass && identifier.getRole() == role)
+                    {
+                        return identifier;
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        private Identifier getFirst(Role role)
+        {
+            List<Identifier> identifiers = mRoleMap.get(role);
+            return identifiers != null ? identifiers.get(0) : null;
+        }
+    }
 }
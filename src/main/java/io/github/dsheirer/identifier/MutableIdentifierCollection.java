@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -58,11 +59,7 @@ public class MutableIdentifierCollection extends IdentifierCollection implements
     public MutableIdentifierCollection(Collection<Identifier> identifiers, int timeslot)
     {
         super(timeslot);
-
-        for(Identifier identifier: identifiers)
-        {
-            update(identifier);
-        }
+        update(identifiers);
     }
 
     /**
@@ -118,53 +115,40 @@ public class MutableIdentifierCollection extends IdentifierCollection implements
     }
 
     /**
-     * Adds the identifier to this collection if not already contained in this collection.
-     *
-     * @param identifier to add
+     * Removes the identifier from this collection
      */
-    private void add(Identifier identifier)
+    public void remove(Identifier identifier)
     {
-        if(identifier.isValid() && !mIdentifiers.contains(identifier))
+        if(removeIdentifier(identifier))
         {
-            mIdentifiers.add(identifier);
-            notifyAdd(identifier);
-        }
-
-        //Retain a reference to the alias list identifier separately so that it can be accessed quickly.
-        if(identifier instanceof AliasListConfigurationIdentifier)
-        {
-            mAliasListConfigurationIdentifier = (AliasListConfigurationIdentifier)identifier;
+            notifyRemove(identifier);
         }
     }
 
     /**
-     * Adds the identifier to this collection if not already contained in this collection.  Does NOT broadcast an
-     * update notification.
-     *
-     * @param identifier to add
+     * Removes the identifier from this collection and does NOT broadcast an update notification
      */
-    private void silentAdd(Identifier identifier)
+    public void silentRemove(Identifier identifier)
     {
-        if(identifier.isValid() && !mIdentifiers.contains(identifier))
-        {
-            mIdentifiers.add(identifier);
-        }
-
-        //Retain a reference to the alias list identifier separately so that it can be accessed quickly.
-        if(identifier instanceof AliasListConfigurationIdentifier)
-        {
-            mAliasListConfigurationIdentifier = (AliasListConfigurationIdentifier)identifier;
-        }
+        removeIdentifier(identifier);
     }
 
     /**
      * Removes the identifier from this collection
+     * @return true if the identifier was removed
      */
-    public void remove(Identifier identifier)
+    private boolean removeIdentifier(Identifier identifier)
     {
-        if(mIdentifiers.remove(identifier))
+        boolean removed;
+
+        synchronized(this)
         {
-            notifyRemove(identifier);
+            removed = mIdentifiers.remove(identifier);
+
+            if(removed)
+            {
+                invalidate();
+            }
         }
 
         //Remove the reference to the alias list identifier.
@@ -172,19 +156,22 @@ public class MutableIdentifierCollection extends IdentifierCollection implements
         {
             mAliasListConfigurationIdentifier = null;
         }
+
+        return removed;
     }
 
     /**
-     * Removes the identifier from this collection and does NOT broadcast an update notification
+     * Adds the identifier only if the value is different from the existing identifiers(s).  If
+     * there are multiple matching identifiers, then they are all removed and replaced by this
+     * single identifier.
+     *
+     * @param identifier
      */
-    public void silentRemove(Identifier identifier)
+    public void update(Identifier identifier)
     {
-        mIdentifiers.remove(identifier);
-
-        //Remove the reference to the alias list identifier.
-        if(identifier instanceof AliasListConfigurationIdentifier)
+        if(identifier != null)
         {
-            mAliasListConfigurationIdentifier = null;
+            update(Collections.singletonList(identifier));
         }
     }
 
@@ -195,65 +182,123 @@ public class MutableIdentifierCollection extends IdentifierCollection implements
      *
      * @param identifier
      */
-    public void update(Identifier identifier)
+    public void silentUpdate(Identifier identifier)
     {
         if(identifier != null)
         {
-            Identifier existing = getIdentifier(identifier.getIdentifierClass(),
-                identifier.getForm(), identifier.getRole());
-
-            if(existing != null)
+            synchronized(this)
             {
-                if(!existing.equals(identifier))
+                if(updateIdentifier(identifier, null))
                 {
-                    remove(existing);
-                    add(identifier);
+                    invalidate();
                 }
             }
-            else
-            {
-                add(identifier);
-            }
         }
     }
 
     /**
-     * Adds the identifier only if the value is different from the existing identifiers(s).  If
-     * there are multiple matching identifiers, then they are all removed and replaced by this
-     * single identifier.
-     *
-     * @param identifier
+     * Updates all identifiers
      */
-    public void silentUpdate(Identifier identifier)
+    public void update(Collection<Identifier> identifiers)
     {
-        if(identifier != null)
+        Listener<IdentifierUpdateNotification> listener = mListener;
+        List<IdentifierUpdateNotification> notifications = listener != null ? new ArrayList<>() : null;
+
+        synchronized(this)
         {
-            Identifier existing = getIdentifier(identifier.getIdentifierClass(), identifier.getForm(), identifier.getRole());
+            boolean changed = false;
 
-            if(existing != null)
+            for(Identifier identifier : identifiers)
             {
-                if(!existing.equals(identifier))
+                if(identifier != null)
                 {
-                    silentRemove(existing);
-                    silentAdd(identifier);
+                    changed |= updateIdentifier(identifier, notifications);
                 }
             }
-            else
+
+            //Invalidate once per batch so that the snapshot is rebuilt at most once for all of the changes
+            if(changed)
             {
-                silentAdd(identifier);
+                invalidate();
+            }
+        }
+
+        if(notifications != null)
+        {
+            for(IdentifierUpdateNotification notification: notifications)
+            {
+                listener.receive(notification);
             }
         }
     }
 
     /**
-     * Updates all identifiers
+     * Replaces the existing identifier that has the same identifier class, form and role as the identifier, or adds
+     * the identifier when there is no matching identifier.  The existing identifier is located in the backing list
+     * instead of the snapshot so that a batch of changes doesn't rebuild the snapshot for each change.  Caller must
+     * hold the lock on this collection and must invoke invalidate() when this method returns true.
+     *
+     * @param identifier to add
+     * @param notifications to receive the remove and add notifications for the changes, or null
+     * @return true if this collection changed
      */
-    public void update(Collection<Identifier> identifiers)
+    private boolean updateIdentifier(Identifier identifier, List<IdentifierUpdateNotification> notifications)
     {
-        for(Identifier identifier : identifiers)
+        Identifier existing = null;
+
+        for(Identifier candidate: mIdentifiers)
         {
-            update(identifier);
+            if(candidate.getIdentifierClass() == identifier.getIdentifierClass() &&
+                candidate.getForm() == identifier.getForm() && candidate.getRole() == identifier.getRole())
+            {
+                existing = candidate;
+                break;
+            }
         }
+
+        boolean changed = false;
+
+        if(existing != null)
+        {
+            if(existing.equals(identifier))
+            {
+                return false;
+            }
+
+            mIdentifiers.remove(existing);
+            changed = true;
+
+            if(existing instanceof AliasListConfigurationIdentifier)
+            {
+                mAliasListConfigurationIdentifier = null;
+            }
+
+            if(notifications != null)
+            {
+                notifications.add(new IdentifierUpdateNotification(existing,
+                    IdentifierUpdateNotification.Operation.REMOVE, getTimeslot()));
+            }
+        }
+
+        if(identifier.isValid() && !mIdentifiers.contains(identifier))
+        {
+            mIdentifiers.add(identifier);
+            changed = true;
+
+            if(notifications != null)
+            {
+                notifications.add(new IdentifierUpdateNotification(identifier,
+                    IdentifierUpdateNotification.Operation.ADD, getTimeslot()));
+            }
+        }
+
+        //Retain a reference to the alias list identifier separately so that it can be accessed quickly.
+        if(identifier instanceof AliasListConfigurationIdentifier)
+        {
+            mAliasListConfigurationIdentifier = (AliasListConfigurationIdentifier)identifier;
+        }
+
+        return changed;
     }
 
     /**
@@ -274,14 +319,9 @@ public class MutableIdentifierCollection extends IdentifierCollection implements
      */
     public void remove(IdentifierClass identifierClass)
     {
-        List<Identifier> identifiers = new ArrayList<>(mIdentifiers);
-
-        for(Identifier identifier: identifiers)
+        for(Identifier identifier: getIdentifiers(identifierClass))
         {
-            if(identifier.getIdentifierClass() == identifierClass)
-            {
-                remove(identifier);
-            }
+            remove(identifier);
         }
     }
 
@@ -290,14 +330,9 @@ public class MutableIdentifierCollection extends IdentifierCollection implements
      */
     public void remove(Form form)
     {
-        List<Identifier> identifiers = new ArrayList<>(mIdentifiers);
-
-        for(Identifier identifier: identifiers)
+        for(Identifier identifier: getIdentifiers(form))
         {
-            if(identifier.getForm() == form)
-            {
-                remove(identifier);
-            }
+            remove(identifier);
         }
     }
 
@@ -306,14 +341,9 @@ public class MutableIdentifierCollection extends IdentifierCollection implements
      */
     public void remove(Role role)
     {
-        List<Identifier> identifiers = new ArrayList<>(mIdentifiers);
-
-        for(Identifier identifier: identifiers)
+        for(Identifier identifier: getIdentifiers(role))
         {
-            if(identifier.getRole() == role)
-            {
-                remove(identifier);
-            }
+            remove(identifier);
         }
     }
 
@@ -322,13 +352,9 @@ public class MutableIdentifierCollection extends IdentifierCollection implements
      */
     public void remove(IdentifierClass identifierClass, Form form, Role role)
     {
-        List<Identifier> identifiers = new ArrayList<>(mIdentifiers);
-
-        for(Identifier identifier: identifiers)
+        for(Identifier identifier: getIdentifiers(form))
         {
-            if(identifier.getIdentifierClass() == identifierClass &&
-                identifier.getForm() == form &&
-                identifier.getRole() == role)
+            if(identifier.getIdentifierClass() == identifierClass && identifier.getRole() == role)
             {
                 remove(identifier);
             }
@@ -340,9 +366,7 @@ public class MutableIdentifierCollection extends IdentifierCollection implements
      */
     public void remove(IdentifierClass identifierClass, Role role)
     {
-        List<Identifier> identifiers = new ArrayList<>(mIdentifiers);
-
-        for(Identifier identifier: identifiers)
+        for(Identifier identifier: getIdentifiers(identifierClass))
         {
             if(identifier.getIdentifierClass() == identifierClass && identifier.getRole() == role)
             {
@@ -47,7 +47,7 @@ public class MapPanel extends JPanel implements IPlottableUpdateListener
     {
         mSettingsManager = settingsManager;
         mMapService = mapService;
-        mMapPainter = new PlottableEntityPainter(aliasModel, iconModel);
+        mMapPainter = new PlottableEntityPainter(aliasModel, iconModel, mapService.getEntityStore());
 
         init();
     }
@@ -122,14 +122,12 @@ public class MapPanel extends JPanel implements IPlottableUpdateListener
     @Override
     public void addPlottableEntity(PlottableEntityHistory entity)
     {
-        mMapPainter.addEntity(entity);
         entitiesUpdated();
     }
 
     @Override
     public void removePlottableEntity(PlottableEntityHistory entity)
     {
-        mMapPainter.removeEntity(entity);
         entitiesUpdated();
     }
 }
@@ -19,54 +19,88 @@
  */
 package io.github.dsheirer.map;
 
+import com.google.common.eventbus.Subscribe;
+import io.github.dsheirer.eventbus.MyEventBus;
 import io.github.dsheirer.icon.IconModel;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.event.IDecodeEvent;
 import io.github.dsheirer.module.decode.event.PlottableDecodeEvent;
+import io.github.dsheirer.preference.PreferenceType;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.preference.event.DecodeEventPreference;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Collects plottable decode events into entity location histories for display on the map.  Entities are held in a
+ * spatially indexed store that removes entities that have not been updated within the user's retention period and
+ * limits the number of entities to the user's preferred maximum.
+ */
 public class MapService implements Listener<IDecodeEvent>
 {
     private final static Logger mLog = LoggerFactory.getLogger(MapService.class);
+    private static final long EXPIRY_INTERVAL_SECONDS = 30;
 
-    private int mMaxHistory = 2;
-    private List<IPlottableUpdateListener> mListeners = new ArrayList<IPlottableUpdateListener>();
-    private Map<Identifier,PlottableEntityHistory> mEntityHistories = new HashMap<>();
+    private List<IPlottableUpdateListener> mListeners = new CopyOnWriteArrayList<>();
+    private PlottableEntityStore mEntityStore;
+    private DecodeEventPreference mDecodeEventPreference;
     private IconModel mIconModel;
 
-    public MapService(IconModel resourceManager)
+    public MapService(IconModel resourceManager, UserPreferences userPreferences)
     {
         mIconModel = resourceManager;
+        mDecodeEventPreference = userPreferences.getDecodeEventPreference();
+        mEntityStore = new PlottableEntityStore(getRetention(), mDecodeEventPreference.getMapEntityMaximum(),
+            this::entityRemoved);
+        MyEventBus.getGlobalEventBus().register(this);
+        ThreadPool.SCHEDULED.scheduleAtFixedRate(() -> mEntityStore.expire(System.currentTimeMillis()),
+            EXPIRY_INTERVAL_SECONDS, EXPIRY_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Receives preference update notifications via the event bus
+     * @param preferenceType that was updated
+     */
+    @Subscribe
+    public void preferenceUpdated(PreferenceType preferenceType)
+    {
+        if(preferenceType == PreferenceType.DECODE_EVENT)
+        {
+            mEntityStore.setRetention(getRetention());
+            mEntityStore.setMaximumEntities(mDecodeEventPreference.getMapEntityMaximum());
+        }
+    }
+
+    private long getRetention()
+    {
+        return TimeUnit.MINUTES.toMillis(mDecodeEventPreference.getMapEntityRetention());
+    }
+
+    /**
+     * Spatially indexed store of the plottable entities
+     */
+    public PlottableEntityStore getEntityStore()
+    {
+        return mEntityStore;
     }
 
     @Override
     public void receive(IDecodeEvent decodeEvent)
     {
-        if(decodeEvent instanceof PlottableDecodeEvent)
+        if(decodeEvent instanceof PlottableDecodeEvent plottableDecodeEvent)
         {
-            PlottableDecodeEvent plottableDecodeEvent = (PlottableDecodeEvent)decodeEvent;
             Identifier from = plottableDecodeEvent.getIdentifierCollection().getFromIdentifier();
 
             if(from != null)
             {
-                PlottableEntityHistory entityHistory = mEntityHistories.get(from);
-
-                if(entityHistory == null)
-                {
-                    entityHistory = new PlottableEntityHistory(from, plottableDecodeEvent);
-                    mEntityHistories.put(from, entityHistory);
-                }
-                else
-                {
-                    entityHistory.add(plottableDecodeEvent);
-                }
+                PlottableEntityHistory entityHistory = mEntityStore.add(from, plottableDecodeEvent,
+                    System.currentTimeMillis());
 
                 for(IPlottableUpdateListener listener : mListeners)
                 {
@@ -80,6 +114,17 @@ public class MapService implements Listener<IDecodeEvent>
         }
     }
 
+    /**
+     * Notifies listeners that the entity was expired or evicted from the entity store
+     */
+    private void entityRemoved(PlottableEntityHistory entityHistory)
+    {
+        for(IPlottableUpdateListener listener : mListeners)
+        {
+            listener.removePlottableEntity(entityHistory);
+        }
+    }
+
     public void addListener(IPlottableUpdateListener listener)
     {
         mListeners.add(listener);
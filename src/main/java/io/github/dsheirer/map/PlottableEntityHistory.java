@@ -26,17 +26,18 @@ import io.github.dsheirer.module.decode.event.PlottableDecodeEvent;
 import org.jdesktop.swingx.mapviewer.GeoPosition;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
- * Plottable entity history with location history.
+ * Plottable entity history with location history.  The location history is limited to the most recent locations.
  */
 public class PlottableEntityHistory
 {
+    public static final int MAX_LOCATION_HISTORY = 500;
     private List<GeoPosition> mLocationHistory = new ArrayList<>();
     private PlottableDecodeEvent mCurrentEvent;
     private Identifier mIdentifier;
+    private long mLastUpdated;
 
     /**
      * Constructs a plottable entity history
@@ -48,11 +49,35 @@ public class PlottableEntityHistory
     }
 
     /**
-     * Location history for this entity
+     * Copy of the location history for this entity, oldest first
      */
-    public List<GeoPosition> getLocationHistory()
+    public synchronized List<GeoPosition> getLocationHistory()
     {
-        return Collections.unmodifiableList(mLocationHistory);
+        return new ArrayList<>(mLocationHistory);
+    }
+
+    /**
+     * Most recent location for this entity
+     */
+    public synchronized GeoPosition getLocation()
+    {
+        return mLocationHistory.isEmpty() ? null : mLocationHistory.get(mLocationHistory.size() - 1);
+    }
+
+    /**
+     * Time in milliseconds that this entity was last updated
+     */
+    public long getLastUpdated()
+    {
+        return mLastUpdated;
+    }
+
+    /**
+     * Sets the time that this entity was last updated
+     */
+    public void setLastUpdated(long timestamp)
+    {
+        mLastUpdated = timestamp;
     }
 
     /**
@@ -66,17 +91,27 @@ public class PlottableEntityHistory
     /**
      * Identifier collection from the latest event for this plottable
      */
-    public IdentifierCollection getIdentifierCollection()
+    public synchronized IdentifierCollection getIdentifierCollection()
     {
         return mCurrentEvent.getIdentifierCollection();
     }
 
     /**
-     * Updates the entity history with a location from the latest decode event
+     * Updates the entity history with a location from the latest decode event.  When the location history is full, the
+     * oldest quarter of the history is discarded.
+     * @return true if locations were discarded from the history
      */
-    public void add(PlottableDecodeEvent event)
+    public synchronized boolean add(PlottableDecodeEvent event)
     {
         mCurrentEvent = event;
         mLocationHistory.add(event.getLocation());
+
+        if(mLocationHistory.size() > MAX_LOCATION_HISTORY)
+        {
+            mLocationHistory.subList(0, MAX_LOCATION_HISTORY / 4).clear();
+            return true;
+        }
+
+        return false;
     }
 }
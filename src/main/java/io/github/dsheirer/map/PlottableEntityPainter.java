@@ -23,44 +23,68 @@ package io.github.dsheirer.map;
 import io.github.dsheirer.alias.AliasModel;
 import io.github.dsheirer.icon.IconModel;
 import org.jdesktop.swingx.JXMapViewer;
+import org.jdesktop.swingx.mapviewer.GeoPosition;
+import org.jdesktop.swingx.mapviewer.TileFactory;
 import org.jdesktop.swingx.painter.AbstractPainter;
 
+import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.awt.geom.Point2D;
+import java.util.List;
 
+/**
+ * Paints the plottable entities whose location histories pass through the visible map area.
+ */
 public class PlottableEntityPainter extends AbstractPainter<JXMapViewer>
 {
+    /**
+     * Pixel margin added around the viewport so that icons and labels for entities just outside of the viewport are
+     * painted when they overlap the viewport.
+     */
+    private static final int VIEWPORT_MARGIN = 100;
     private PlottableEntityRenderer mRenderer;
-    private Set<PlottableEntityHistory> mEntities = new HashSet<>();
+    private PlottableEntityStore mEntityStore;
 
-    public PlottableEntityPainter(AliasModel aliasModel, IconModel iconModel)
+    public PlottableEntityPainter(AliasModel aliasModel, IconModel iconModel, PlottableEntityStore entityStore)
     {
         mRenderer = new PlottableEntityRenderer(aliasModel, iconModel);
+        mEntityStore = entityStore;
         setAntialiasing(true);
         setCacheable(false);
     }
 
-    public void addEntity(PlottableEntityHistory entity)
+    /**
+     * Entities within the viewport of the map
+     */
+    private List<PlottableEntityHistory> getEntities(JXMapViewer map, Rectangle viewportBounds)
     {
-        mEntities.add(entity);
-    }
+        TileFactory tileFactory = map.getTileFactory();
+        int zoom = map.getZoom();
+        Dimension mapSize = tileFactory.getMapSize(zoom);
+        double worldWidth = mapSize.getWidth() * tileFactory.getTileSize(zoom);
 
-    public void removeEntity(PlottableEntityHistory entity)
-    {
-        mEntities.remove(entity);
-    }
+        if(viewportBounds.getWidth() + 2 * VIEWPORT_MARGIN >= worldWidth)
+        {
+            return mEntityStore.getEntities();
+        }
 
-    public void clearEntities()
-    {
-        mEntities.clear();
+        GeoPosition northWest = tileFactory.pixelToGeo(new Point2D.Double(viewportBounds.getMinX() - VIEWPORT_MARGIN,
+            viewportBounds.getMinY() - VIEWPORT_MARGIN), zoom);
+        GeoPosition southEast = tileFactory.pixelToGeo(new Point2D.Double(viewportBounds.getMaxX() + VIEWPORT_MARGIN,
+            viewportBounds.getMaxY() + VIEWPORT_MARGIN), zoom);
+
+        return mEntityStore.getEntities(southEast.getLatitude(), northWest.getLatitude(),
+            normalize(northWest.getLongitude()), normalize(southEast.getLongitude()));
     }
 
-    private Set<PlottableEntityHistory> getEntities()
+    /**
+     * Normalizes the longitude of a horizontally wrapped map to the range -180 to 180 degrees.
+     */
+    private static double normalize(double longitude)
     {
-        return Collections.unmodifiableSet(mEntities);
+        double normalized = (longitude + 180.0) % 360.0;
+        return (normalized < 0 ? normalized + 360.0 : normalized) - 180.0;
     }
 
     @Override
@@ -70,9 +94,7 @@ public class PlottableEntityPainter extends AbstractPainter<JXMapViewer>
 
         g.translate(-viewportBounds.getX(), -viewportBounds.getY());
 
-        Set<PlottableEntityHistory> entities = getEntities();
-
-        for(PlottableEntityHistory entity : entities)
+        for(PlottableEntityHistory entity : getEntities(map, viewportBounds))
         {
             mRenderer.paintPlottableEntity(g, map, entity, true);
         }
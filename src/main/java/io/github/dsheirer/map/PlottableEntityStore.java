@@ -0,0 +1,331 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.map;
+
+import io.github.dsheirer.identifier.Identifier;
+import io.github.dsheirer.module.decode.event.PlottableDecodeEvent;
+import io.github.dsheirer.sample.Listener;
+import org.jdesktop.swingx.mapviewer.GeoPosition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Thread-safe store of plottable entities with a spatial grid index, so that the map painters only visit the entities
+ * whose locations fall within the visible map area.
+ *
+ * Each entity is indexed in every grid cell that its location history passes through, so that routes are painted
+ * when any part of the route is visible.  Entities are held in least recently updated order and are removed when they
+ * have not been updated within the retention period or when the maximum entity count is exceeded.
+ */
+public class PlottableEntityStore
+{
+    public static final double CELL_SIZE_DEGREES = 0.25;
+    private static final int LONGITUDE_CELLS = (int)Math.ceil(360.0 / CELL_SIZE_DEGREES) + 1;
+
+    private Map<Identifier,PlottableEntityHistory> mEntities = new LinkedHashMap<>();
+    private Map<Long,Set<PlottableEntityHistory>> mCells = new HashMap<>();
+    private Map<PlottableEntityHistory,Set<Long>> mEntityCells = new HashMap<>();
+    private Listener<PlottableEntityHistory> mRemovalListener;
+    private long mRetentionMilliseconds;
+    private int mMaximumEntities;
+
+    /**
+     * Constructs an instance
+     * @param retentionMilliseconds to retain an entity after its most recent update
+     * @param maximumEntities to retain
+     * @param removalListener to be notified of each entity that is expired or evicted from this store
+     */
+    public PlottableEntityStore(long retentionMilliseconds, int maximumEntities,
+                                Listener<PlottableEntityHistory> removalListener)
+    {
+        mRetentionMilliseconds = retentionMilliseconds;
+        mMaximumEntities = Math.max(1, maximumEntities);
+        mRemovalListener = removalListener;
+    }
+
+    /**
+     * Adds the location from the decode event to the history for the identifier, creating the entity as needed.
+     * @param identifier of the entity
+     * @param event with location
+     * @param timestamp of the update, used for expiring the entity
+     * @return entity history
+     */
+    public synchronized PlottableEntityHistory add(Identifier identifier, PlottableDecodeEvent event, long timestamp)
+    {
+        PlottableEntityHistory entity = mEntities.remove(identifier);
+
+        if(entity == null)
+        {
+            entity = new PlottableEntityHistory(identifier, event);
+            mEntityCells.put(entity, new HashSet<>());
+            index(entity, entity.getLocation());
+        }
+        else if(entity.add(event))
+        {
+            reindex(entity);
+        }
+        else
+        {
+            index(entity, event.getLocation());
+        }
+
+        entity.setLastUpdated(timestamp);
+
+        //Re-inserting moves the entity to the most recently updated end of the map
+        mEntities.put(identifier, entity);
+
+        while(mEntities.size() > mMaximumEntities)
+        {
+            remove(mEntities.values().iterator().next());
+        }
+
+        return entity;
+    }
+
+    /**
+     * Removes entities that have not been updated within the retention period.
+     * @param timestamp current time in milliseconds
+     */
+    public synchronized void expire(long timestamp)
+    {
+        long threshold = timestamp - mRetentionMilliseconds;
+
+        while(!mEntities.isEmpty())
+        {
+            PlottableEntityHistory oldest = mEntities.values().iterator().next();
+
+            if(oldest.getLastUpdated() >= threshold)
+            {
+                return;
+            }
+
+            remove(oldest);
+        }
+    }
+
+    /**
+     * Sets the retention period for entities.  Takes effect on the next expiry.
+     */
+    public synchronized void setRetention(long retentionMilliseconds)
+    {
+        mRetentionMilliseconds = retentionMilliseconds;
+    }
+
+    /**
+     * Sets the maximum number of entities and evicts the least recently updated entities in excess of the maximum.
+     */
+    public synchronized void setMaximumEntities(int maximumEntities)
+    {
+        mMaximumEntities = Math.max(1, maximumEntities);
+
+        while(mEntities.size() > mMaximumEntities)
+        {
+            remove(mEntities.values().iterator().next());
+        }
+    }
+
+    /**
+     * Number of entities in this store
+     */
+    public synchronized int size()
+    {
+        return mEntities.size();
+    }
+
+    /**
+     * All entities in this store, least recently updated first.
+     */
+    public synchronized List<PlottableEntityHistory> getEntities()
+    {
+        return new ArrayList<>(mEntities.values());
+    }
+
+    /**
+     * Entities with a location history that passes through the geographic area.  The area may span the 180 degree
+     * meridian, indicated by a minimum longitude that is greater than the maximum longitude.
+     *
+     * @param minLatitude southern edge of the area
+     * @param maxLatitude northern edge of the area
+     * @param minLongitude western edge of the area
+     * @param maxLongitude eastern edge of the area
+     * @return entities within the area
+     */
+    public synchronized List<PlottableEntityHistory> getEntities(double minLatitude, double maxLatitude,
+                                                                 double minLongitude, double maxLongitude)
+    {
+        int minLatitudeCell = getLatitudeCell(minLatitude);
+        int maxLatitudeCell = getLatitudeCell(maxLatitude);
+        int minLongitudeCell = getLongitudeCell(minLongitude);
+        int maxLongitudeCell = getLongitudeCell(maxLongitude);
+        boolean wrapped = minLongitudeCell > maxLongitudeCell;
+        long longitudeCellCount = wrapped ? LONGITUDE_CELLS - minLongitudeCell + maxLongitudeCell + 1 :
+            maxLongitudeCell - minLongitudeCell + 1;
+        long cellCount = (maxLatitudeCell - minLatitudeCell + 1) * longitudeCellCount;
+
+        Set<PlottableEntityHistory> entities = new LinkedHashSet<>();
+
+        if(cellCount > mCells.size())
+        {
+            //Large areas: visit the populated cells instead of every cell in the area
+            for(Map.Entry<Long,Set<PlottableEntityHistory>> entry: mCells.entrySet())
+            {
+                int latitudeCell = (int)(entry.getKey() / LONGITUDE_CELLS);
+                int longitudeCell = (int)(entry.getKey() % LONGITUDE_CELLS);
+                boolean longitudeContained = wrapped ?
+                    (longitudeCell >= minLongitudeCell || longitudeCell <= maxLongitudeCell) :
+                    (longitudeCell >= minLongitudeCell && longitudeCell <= maxLongitudeCell);
+
+                if(latitudeCell >= minLatitudeCell && latitudeCell <= maxLatitudeCell && longitudeContained)
+                {
+                    entities.addAll(entry.getValue());
+                }
+            }
+        }
+        else
+        {
+            for(int latitudeCell = minLatitudeCell; latitudeCell <= maxLatitudeCell; latitudeCell++)
+            {
+                for(int x = 0; x < longitudeCellCount; x++)
+                {
+                    int longitudeCell = (minLongitudeCell + x) % LONGITUDE_CELLS;
+                    Set<PlottableEntityHistory> cell = mCells.get(getCell(latitudeCell, longitudeCell));
+
+                    if(cell != null)
+                    {
+                        entities.addAll(cell);
+                    }
+                }
+            }
+        }
+
+        return new ArrayList<>(entities);
+    }
+
+    /**
+     * Removes all entities
+     */
+    public synchronized void clear()
+    {
+        for(PlottableEntityHistory entity: getEntities())
+        {
+            remove(entity);
+        }
+    }
+
+    /**
+     * Removes the entity from the store and the spatial index and notifies the removal listener.
+     */
+    private void remove(PlottableEntityHistory entity)
+    {
+        mEntities.remove(entity.getIdentifier());
+        unindex(entity);
+        mEntityCells.remove(entity);
+
+        if(mRemovalListener != null)
+        {
+            mRemovalListener.receive(entity);
+        }
+    }
+
+    /**
+     * Adds the entity to the grid cell that contains the location.
+     */
+    private void index(PlottableEntityHistory entity, GeoPosition location)
+    {
+        if(isValid(location))
+        {
+            long cell = getCell(getLatitudeCell(location.getLatitude()), getLongitudeCell(location.getLongitude()));
+
+            if(mEntityCells.get(entity).add(cell))
+            {
+                mCells.computeIfAbsent(cell, key -> new HashSet<>()).add(entity);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the grid cells for the entity after locations were discarded from its history.
+     */
+    private void reindex(PlottableEntityHistory entity)
+    {
+        unindex(entity);
+
+        for(GeoPosition location: entity.getLocationHistory())
+        {
+            index(entity, location);
+        }
+    }
+
+    private void unindex(PlottableEntityHistory entity)
+    {
+        Set<Long> cells = mEntityCells.get(entity);
+
+        if(cells != null)
+        {
+            Iterator<Long> it = cells.iterator();
+
+            while(it.hasNext())
+            {
+                Long cell = it.next();
+                Set<PlottableEntityHistory> entities = mCells.get(cell);
+
+                if(entities != null)
+                {
+                    entities.remove(entity);
+
+                    if(entities.isEmpty())
+                    {
+                        mCells.remove(cell);
+                    }
+                }
+
+                it.remove();
+            }
+        }
+    }
+
+    private static boolean isValid(GeoPosition location)
+    {
+        return location != null && Math.abs(location.getLatitude()) <= 90.0 &&
+            Math.abs(location.getLongitude()) <= 180.0;
+    }
+
+    private static int getLatitudeCell(double latitude)
+    {
+        return (int)Math.floor((Math.max(-90.0, Math.min(90.0, latitude)) + 90.0) / CELL_SIZE_DEGREES);
+    }
+
+    private static int getLongitudeCell(double longitude)
+    {
+        return (int)Math.floor((Math.max(-180.0, Math.min(180.0, longitude)) + 180.0) / CELL_SIZE_DEGREES);
+    }
+
+    private static long getCell(int latitudeCell, int longitudeCell)
+    {
+        return (long)latitudeCell * LONGITUDE_CELLS + longitudeCell;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.metrics;
+
+import java.util.List;
+
+/**
+ * Source of runtime metrics that can be registered with the metrics registry.
+ */
+public interface IMetricsProvider
+{
+    /**
+     * Adds the current value of each of the provider's metrics to the list.  This method is invoked by the metrics
+     * collection thread, so implementations must only read state that is safe to access from another thread.
+     *
+     * @param metrics to add to
+     */
+    void collectMetrics(List<Metric> metrics);
+}
@@ -0,0 +1,114 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Single metric sample.
+ *
+ * @param name of the metric, using the Prometheus naming convention (e.g. sdrtrunk_dispatcher_dropped_total)
+ * @param type of metric
+ * @param help text describing the metric
+ * @param labels identifying the metric source, sorted by label name
+ * @param value of the metric
+ */
+public record Metric(String name, MetricType type, String help, SortedMap<String,String> labels, double value)
+{
+    /**
+     * Creates a counter metric
+     * @param name of the metric
+     * @param help text
+     * @param value of the counter
+     * @param labels as alternating label name and label value arguments
+     */
+    public static Metric counter(String name, String help, double value, String... labels)
+    {
+        return new Metric(name, MetricType.COUNTER, help, toLabels(labels), value);
+    }
+
+    /**
+     * Creates a gauge metric
+     * @param name of the metric
+     * @param help text
+     * @param value of the gauge
+     * @param labels as alternating label name and label value arguments
+     */
+    public static Metric gauge(String name, String help, double value, String... labels)
+    {
+        return new Metric(name, MetricType.GAUGE, help, toLabels(labels), value);
+    }
+
+    /**
+     * Unique key for this metric composed of the name and the labels, used to match samples of the same metric
+     * across successive collections.
+     */
+    public String getKey()
+    {
+        return labels.isEmpty() ? name : name + labels;
+    }
+
+    /**
+     * Labels formatted as a comma separated list of name=value pairs
+     */
+    public String getLabelsDescription()
+    {
+        StringBuilder sb = new StringBuilder();
+
+        for(Map.Entry<String,String> entry: labels.entrySet())
+        {
+            if(sb.length() > 0)
+            {
+                sb.append(",");
+            }
+
+            sb.append(entry.getKey()).append("=").append(entry.getValue());
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Converts the alternating label name and value arguments to a sorted map
+     */
+    private static SortedMap<String,String> toLabels(String... labels)
+    {
+        if(labels.length == 0)
+        {
+            return Collections.emptySortedMap();
+        }
+
+        if(labels.length % 2 != 0)
+        {
+            throw new IllegalArgumentException("Labels must be provided as label name and value pairs");
+        }
+
+        SortedMap<String,String> map = new TreeMap<>();
+
+        for(int x = 0; x < labels.length; x += 2)
+        {
+            map.put(labels[x], labels[x + 1] != null ? labels[x + 1] : "");
+        }
+
+        return Collections.unmodifiableSortedMap(map);
+    }
+}
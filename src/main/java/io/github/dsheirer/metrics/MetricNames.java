@@ -0,0 +1,71 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.metrics;
+
+/**
+ * Names of the sample pipeline metrics that are summarized by the metrics log and viewer.
+ */
+public final class MetricNames
+{
+    public static final String DISPATCHER_QUEUE_DEPTH = "sdrtrunk_dispatcher_queue_depth";
+    public static final String DISPATCHER_QUEUE_CAPACITY = "sdrtrunk_dispatcher_queue_capacity";
+    public static final String DISPATCHER_QUEUE_HIGH_WATER_MARK = "sdrtrunk_dispatcher_queue_high_water_mark";
+    public static final String DISPATCHER_DROPPED = "sdrtrunk_dispatcher_dropped_total";
+    public static final String CHANNEL_SAMPLE_RATE = "sdrtrunk_channel_sample_rate_hertz";
+    public static final String CHANNEL_SAMPLES = "sdrtrunk_channel_samples_total";
+    public static final String MODULE_PROCESSING_TIME = "sdrtrunk_module_processing_seconds_total";
+    public static final String DECODER_MESSAGES = "sdrtrunk_decoder_messages_total";
+    public static final String DECODER_CRC_FAILURES = "sdrtrunk_decoder_crc_failures_total";
+    public static final String JVM_MEMORY_USED = "sdrtrunk_jvm_memory_used_bytes";
+    public static final String JVM_MEMORY_MAX = "sdrtrunk_jvm_memory_max_bytes";
+    public static final String BUFFER_POOL_HITS = "sdrtrunk_buffer_pool_hits_total";
+    public static final String BUFFER_POOL_MISSES = "sdrtrunk_buffer_pool_misses_total";
+    public static final String BUFFER_POOL_DISCARDS = "sdrtrunk_buffer_pool_discards_total";
+    public static final String BUFFER_POOL_ARRAYS = "sdrtrunk_buffer_pool_arrays";
+    public static final String EVENT_LOG_QUEUE_DEPTH = "sdrtrunk_event_log_queue_depth";
+    public static final String EVENT_LOG_QUEUE_CAPACITY = "sdrtrunk_event_log_queue_capacity";
+    public static final String EVENT_LOG_ENTRIES = "sdrtrunk_event_log_entries_total";
+    public static final String EVENT_LOG_FLUSHES = "sdrtrunk_event_log_flushes_total";
+    public static final String EVENT_LOG_FILES_CREATED = "sdrtrunk_event_log_files_created_total";
+    public static final String EVENT_LOG_ERRORS = "sdrtrunk_event_log_errors_total";
+    public static final String EVENT_LOG_OPEN_FILES = "sdrtrunk_event_log_open_files";
+    public static final String FILTER_CACHE_ENTRIES = "sdrtrunk_filter_cache_entries";
+    public static final String FILTER_CACHE_HITS = "sdrtrunk_filter_cache_hits_total";
+    public static final String FILTER_CACHE_MISSES = "sdrtrunk_filter_cache_misses_total";
+    public static final String ENCODED_AUDIO_CACHE_BYTES = "sdrtrunk_encoded_audio_cache_bytes";
+    public static final String ENCODED_AUDIO_CACHE_HITS = "sdrtrunk_encoded_audio_cache_hits_total";
+    public static final String ENCODED_AUDIO_CACHE_MISSES = "sdrtrunk_encoded_audio_cache_misses_total";
+    public static final String ENCODED_AUDIO_CACHE_SPILLS = "sdrtrunk_encoded_audio_cache_spills_total";
+    public static final String VOCODER_THREADS = "sdrtrunk_vocoder_threads";
+    public static final String VOCODER_QUEUE_DEPTH = "sdrtrunk_vocoder_queue_depth";
+    public static final String VOCODER_TASKS = "sdrtrunk_vocoder_tasks_total";
+    public static final String VOCODER_QUEUE_LATENCY = "sdrtrunk_vocoder_queue_latency_seconds_total";
+    public static final String VOCODER_QUEUE_LATENCY_MAX = "sdrtrunk_vocoder_queue_latency_max_seconds";
+
+    public static final String LABEL_CHANNEL = "channel";
+    public static final String LABEL_DISPATCHER = "dispatcher";
+    public static final String LABEL_ID = "id";
+    public static final String LABEL_MODULE = "module";
+    public static final String LABEL_POOL = "pool";
+    public static final String LABEL_PROTOCOL = "protocol";
+
+    private MetricNames()
+    {
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.metrics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calculates per-second rates for counter metrics from successive metric collections.
+ *
+ * Note: this class is not thread safe.  Each consumer of the metrics (e.g. log, viewer) uses its own instance.
+ */
+public class MetricRateCalculator
+{
+    private Map<String,Double> mPreviousValues = new HashMap<>();
+    private Map<String,Double> mRates = new HashMap<>();
+    private long mPreviousTimestamp;
+
+    /**
+     * Updates the rates from the collected metrics.  Counters that are seen for the first time, or that are reset
+     * (e.g. a restarted channel), have no rate until the next update.
+     * @param metrics collected at the timestamp
+     * @param timestamp of the collection in milliseconds
+     */
+    public void update(List<Metric> metrics, long timestamp)
+    {
+        double elapsedSeconds = (timestamp - mPreviousTimestamp) / 1000.0;
+        Map<String,Double> values = new HashMap<>();
+        mRates.clear();
+
+        for(Metric metric: metrics)
+        {
+            if(metric.type() == MetricType.COUNTER)
+            {
+                String key = metric.getKey();
+                values.put(key, metric.value());
+                Double previous = mPreviousValues.get(key);
+
+                if(previous != null && elapsedSeconds > 0 && metric.value() >= previous)
+                {
+                    mRates.put(key, (metric.value() - previous) / elapsedSeconds);
+                }
+            }
+        }
+
+        mPreviousValues = values;
+        mPreviousTimestamp = timestamp;
+    }
+
+    /**
+     * Per-second rate for the counter metric from the most recent update.
+     * @param metric to lookup
+     * @return rate or null if a rate is not available
+     */
+    public Double getRate(Metric metric)
+    {
+        return mRates.get(metric.getKey());
+    }
+}
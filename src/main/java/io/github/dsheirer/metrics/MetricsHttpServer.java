@@ -0,0 +1,124 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.dsheirer.util.ThreadPool;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local HTTP endpoint that serves the metrics registry in the Prometheus text format at /metrics.  The server is bound
+ * to the loopback interface only.
+ */
+public class MetricsHttpServer
+{
+    private final static Logger mLog = LoggerFactory.getLogger(MetricsHttpServer.class);
+    public static final String METRICS_PATH = "/metrics";
+    private HttpServer mHttpServer;
+    private int mPort;
+
+    /**
+     * Constructs an instance
+     * @param port to listen on, or 0 to use any free port
+     */
+    public MetricsHttpServer(int port)
+    {
+        mPort = port;
+    }
+
+    /**
+     * Starts the server
+     * @throws IOException if the port can't be bound
+     */
+    public void start() throws IOException
+    {
+        if(mHttpServer == null)
+        {
+            mHttpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), mPort), 0);
+            mHttpServer.createContext(METRICS_PATH, this::handle);
+            mHttpServer.setExecutor(ThreadPool.CACHED);
+            mHttpServer.start();
+            mLog.info("Metrics available at http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" +
+                getPort() + METRICS_PATH);
+        }
+    }
+
+    /**
+     * Stops the server
+     */
+    public void stop()
+    {
+        if(mHttpServer != null)
+        {
+            mHttpServer.stop(0);
+            mHttpServer = null;
+        }
+    }
+
+    /**
+     * Port the server is listening on, or the configured port if the server is not started.
+     */
+    public int getPort()
+    {
+        return mHttpServer != null ? mHttpServer.getAddress().getPort() : mPort;
+    }
+
+    /**
+     * Handles a metrics request
+     */
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            if(!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod()))
+            {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = PrometheusFormatter.format(MetricsRegistry.getInstance().collect())
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", PrometheusFormatter.CONTENT_TYPE);
+
+            if("HEAD".equals(exchange.getRequestMethod()))
+            {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, body.length);
+
+            try(OutputStream outputStream = exchange.getResponseBody())
+            {
+                outputStream.write(body);
+            }
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.metrics;
+
+import com.google.common.eventbus.Subscribe;
+import io.github.dsheirer.eventbus.MyEventBus;
+import io.github.dsheirer.preference.PreferenceType;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.preference.metrics.MetricsPreference;
+import io.github.dsheirer.util.ThreadPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Manages the periodic metrics log summary and the local metrics HTTP endpoint according to the user's metrics
+ * preferences.  Restarts either one when the preferences change.
+ */
+public class MetricsManager
+{
+    private final static Logger mLog = LoggerFactory.getLogger(MetricsManager.class);
+    private UserPreferences mUserPreferences;
+    private MetricsSummary mMetricsSummary = new MetricsSummary();
+    private ScheduledFuture<?> mLogFuture;
+    private int mLogIntervalSeconds;
+    private MetricsHttpServer mHttpServer;
+
+    /**
+     * Constructs an instance.  Note: use start() to start the metrics log and endpoint.
+     * @param userPreferences for the metrics preferences
+     */
+    public MetricsManager(UserPreferences userPreferences)
+    {
+        mUserPreferences = userPreferences;
+    }
+
+    /**
+     * Starts the metrics log and metrics endpoint, if enabled.
+     */
+    public void start()
+    {
+        MyEventBus.getGlobalEventBus().register(this);
+        update();
+    }
+
+    /**
+     * Stops the metrics log and metrics endpoint.
+     */
+    public synchronized void stop()
+    {
+        MyEventBus.getGlobalEventBus().unregister(this);
+        stopLog();
+        stopHttpServer();
+    }
+
+    @Subscribe
+    public void preferenceUpdated(PreferenceType preferenceType)
+    {
+        if(preferenceType == PreferenceType.METRICS)
+        {
+            update();
+        }
+    }
+
+    /**
+     * Applies the current metrics preferences.
+     */
+    private synchronized void update()
+    {
+        MetricsPreference preference = mUserPreferences.getMetricsPreference();
+
+        if(preference.isLogEnabled())
+        {
+            if(mLogFuture == null || mLogIntervalSeconds != preference.getLogIntervalSeconds())
+            {
+                stopLog();
+                mLogIntervalSeconds = preference.getLogIntervalSeconds();
+                mLogFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(this::log, mLogIntervalSeconds,
+                    mLogIntervalSeconds, TimeUnit.SECONDS);
+            }
+        }
+        else
+        {
+            stopLog();
+        }
+
+        if(preference.isHttpEnabled())
+        {
+            if(mHttpServer == null || mHttpServer.getPort() != preference.getHttpPort())
+            {
+                stopHttpServer();
+                mHttpServer = new MetricsHttpServer(preference.getHttpPort());
+
+                try
+                {
+                    mHttpServer.start();
+                }
+                catch(Exception e)
+                {
+                    mLog.error("Unable to start metrics endpoint on port [" + preference.getHttpPort() + "]", e);
+                    mHttpServer = null;
+                }
+            }
+        }
+        else
+        {
+            stopHttpServer();
+        }
+    }
+
+    /**
+     * Logs a summary of the current metrics
+     */
+    private void log()
+    {
+        try
+        {
+            mLog.info(mMetricsSummary.summarize(MetricsRegistry.getInstance().collect(), System.currentTimeMillis()));
+        }
+        catch(Throwable t)
+        {
+            mLog.error("Error logging metrics summary", t);
+        }
+    }
+
+    private void stopLog()
+    {
+        if(mLogFuture != null)
+        {
+            mLogFuture.cancel(false);
+            mLogFuture = null;
+        }
+    }
+
+    private void stopHttpServer()
+    {
+        if(mHttpServer != null)
+        {
+            mHttpServer.stop();
+            mHttpServer = null;
+        }
+    }
+}
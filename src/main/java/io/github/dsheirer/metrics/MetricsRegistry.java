@@ -0,0 +1,156 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.metrics;
+
+import io.github.dsheirer.buffer.FloatArrayPool;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of runtime metrics providers for the sample processing pipeline (dispatchers, channel sources, processing
+ * chains, decoders and buffer pools).
+ *
+ * Providers are held by weak reference so that a provider that is discarded without being unregistered is still
+ * garbage collected.  Metrics are collected on demand by the metrics logger, the metrics HTTP endpoint and the metrics
+ * viewer, so the pipeline threads only maintain their own counters and never block on metrics collection.
+ */
+public class MetricsRegistry
+{
+    private final static Logger mLog = LoggerFactory.getLogger(MetricsRegistry.class);
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    private static final Comparator<Metric> METRIC_ORDER = Comparator.comparing(Metric::name)
+        .thenComparing(Metric::getLabelsDescription);
+    private final Set<IMetricsProvider> mProviders = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * Use getInstance() to access the registry.
+     */
+    private MetricsRegistry()
+    {
+    }
+
+    /**
+     * Singleton registry instance
+     */
+    public static MetricsRegistry getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the provider.  Registering a provider more than once has no effect.
+     */
+    public void register(IMetricsProvider provider)
+    {
+        if(provider != null)
+        {
+            synchronized(mProviders)
+            {
+                mProviders.add(provider);
+            }
+        }
+    }
+
+    /**
+     * Unregisters the provider.
+     */
+    public void unregister(IMetricsProvider provider)
+    {
+        if(provider != null)
+        {
+            synchronized(mProviders)
+            {
+                mProviders.remove(provider);
+            }
+        }
+    }
+
+    /**
+     * Number of currently registered providers
+     */
+    public int getProviderCount()
+    {
+        synchronized(mProviders)
+        {
+            return mProviders.size();
+        }
+    }
+
+    /**
+     * Collects the current metrics from each of the registered providers and the application-wide metrics.
+     * @return metrics sorted by name and labels
+     */
+    public List<Metric> collect()
+    {
+        List<IMetricsProvider> providers;
+
+        synchronized(mProviders)
+        {
+            providers = new ArrayList<>(mProviders);
+        }
+
+        List<Metric> metrics = new ArrayList<>();
+        collectApplicationMetrics(metrics);
+
+        for(IMetricsProvider provider: providers)
+        {
+            try
+            {
+                provider.collectMetrics(metrics);
+            }
+            catch(Exception e)
+            {
+                mLog.error("Error collecting metrics from provider [" + provider.getClass().getName() + "]", e);
+            }
+        }
+
+        metrics.sort(METRIC_ORDER);
+        return metrics;
+    }
+
+    /**
+     * Collects the JVM memory and the sample buffer pool metrics.
+     */
+    private static void collectApplicationMetrics(List<Metric> metrics)
+    {
+        Runtime runtime = Runtime.getRuntime();
+        metrics.add(Metric.gauge(MetricNames.JVM_MEMORY_USED, "JVM heap memory in use",
+            runtime.totalMemory() - runtime.freeMemory()));
+        metrics.add(Metric.gauge(MetricNames.JVM_MEMORY_MAX, "JVM maximum heap memory", runtime.maxMemory()));
+
+        for(FloatArrayPool pool: FloatArrayPool.getPools())
+        {
+            String name = pool.getName();
+            metrics.add(Metric.counter(MetricNames.BUFFER_POOL_HITS, "Buffer pool borrow requests satisfied " +
+                "from the pool", pool.getHitCount(), MetricNames.LABEL_POOL, name));
+            metrics.add(Metric.counter(MetricNames.BUFFER_POOL_MISSES, "Buffer pool borrow requests that " +
+                "allocated a new array", pool.getMissCount(), MetricNames.LABEL_POOL, name));
+            metrics.add(Metric.counter(MetricNames.BUFFER_POOL_DISCARDS, "Released arrays discarded because " +
+                "the pool was full", pool.getDiscardCount(), MetricNames.LABEL_POOL, name));
+            metrics.add(Metric.gauge(MetricNames.BUFFER_POOL_ARRAYS, "Arrays currently held by the buffer pool",
+                pool.getPooledCount(), MetricNames.LABEL_POOL, name));
+        }
+    }
+}
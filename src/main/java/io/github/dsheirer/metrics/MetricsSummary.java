@@ -0,0 +1,184 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.metrics;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a single line summary of the sample pipeline metrics for the application log.  Dispatchers that dropped
+ * elements during the interval are listed by name so that the location of sample loss can be identified.
+ */
+public class MetricsSummary
+{
+    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.0");
+    private MetricRateCalculator mRateCalculator = new MetricRateCalculator();
+
+    /**
+     * Creates a summary of the metrics and updates the counter rates for the next summary.
+     * @param metrics collected at the timestamp
+     * @param timestamp of the collection
+     * @return summary
+     */
+    public String summarize(List<Metric> metrics, long timestamp)
+    {
+        mRateCalculator.update(metrics, timestamp);
+
+        int dispatcherCount = 0;
+        double droppedRate = 0.0;
+        List<String> dropping = new ArrayList<>();
+        Map<String,Double> capacities = new HashMap<>();
+        String fullestQueue = null;
+        double fullestQueueRatio = 0.0;
+        int channelCount = 0;
+        double sampleRate = 0.0;
+        double messageRate = 0.0;
+        double crcFailureRate = 0.0;
+        double eventLogQueueDepth = 0.0;
+        StringBuilder pools = new StringBuilder();
+
+        for(Metric metric: metrics)
+        {
+            if(metric.name().equals(MetricNames.DISPATCHER_QUEUE_CAPACITY))
+            {
+                capacities.put(getDispatcherKey(metric), metric.value());
+            }
+        }
+
+        for(Metric metric: metrics)
+        {
+            switch(metric.name())
+            {
+                case MetricNames.DISPATCHER_DROPPED:
+                    dispatcherCount++;
+                    double rate = getRate(metric);
+
+                    if(rate > 0)
+                    {
+                        droppedRate += rate;
+                        dropping.add(metric.labels().get(MetricNames.LABEL_DISPATCHER) + " " +
+                            DECIMAL_FORMAT.format(rate) + "/s");
+                    }
+                    break;
+                case MetricNames.DISPATCHER_QUEUE_HIGH_WATER_MARK:
+                    Double capacity = capacities.get(getDispatcherKey(metric));
+
+                    if(capacity != null && capacity > 0 && metric.value() / capacity > fullestQueueRatio)
+                    {
+                        fullestQueueRatio = metric.value() / capacity;
+                        fullestQueue = metric.labels().get(MetricNames.LABEL_DISPATCHER);
+                    }
+                    break;
+                case MetricNames.CHANNEL_SAMPLES:
+                    channelCount++;
+                    sampleRate += getRate(metric);
+                    break;
+                case MetricNames.DECODER_MESSAGES:
+                    messageRate += getRate(metric);
+                    break;
+                case MetricNames.DECODER_CRC_FAILURES:
+                    crcFailureRate += getRate(metric);
+                    break;
+                case MetricNames.EVENT_LOG_QUEUE_DEPTH:
+                    eventLogQueueDepth = metric.value();
+                    break;
+                case MetricNames.BUFFER_POOL_HITS:
+                    double hits = metric.value();
+                    double misses = getValue(metrics, MetricNames.BUFFER_POOL_MISSES, metric);
+
+                    if(hits + misses > 0)
+                    {
+                        pools.append(" ").append(metric.labels().get(MetricNames.LABEL_POOL)).append(":")
+                            .append(DECIMAL_FORMAT.format(hits / (hits + misses) * 100.0)).append("%");
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Metrics - dispatchers:").append(dispatcherCount);
+        sb.append(" dropped:").append(DECIMAL_FORMAT.format(droppedRate)).append("/s");
+
+        if(fullestQueue != null)
+        {
+            sb.append(" fullest queue:").append(fullestQueue).append(" ")
+                .append(DECIMAL_FORMAT.format(fullestQueueRatio * 100.0)).append("%");
+        }
+
+        sb.append(" | channels:").append(channelCount);
+        sb.append(" samples:").append(DECIMAL_FORMAT.format(sampleRate / 1000.0)).append("k/s");
+        sb.append(" | messages:").append(DECIMAL_FORMAT.format(messageRate)).append("/s");
+        sb.append(" crc failures:").append(DECIMAL_FORMAT.format(crcFailureRate)).append("/s");
+
+        if(eventLogQueueDepth > 0)
+        {
+            sb.append(" | event log queue:").append((long)eventLogQueueDepth);
+        }
+
+        if(pools.length() > 0)
+        {
+            sb.append(" | pool hit ratio").append(pools);
+        }
+
+        if(!dropping.isEmpty())
+        {
+            sb.append(" | dropping:").append(dropping);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Rate for the counter, or zero if there is no rate available.
+     */
+    private double getRate(Metric metric)
+    {
+        Double rate = mRateCalculator.getRate(metric);
+        return rate != null ? rate : 0.0;
+    }
+
+    /**
+     * Value of the named metric that has the same labels as the reference metric.
+     */
+    private static double getValue(List<Metric> metrics, String name, Metric reference)
+    {
+        for(Metric metric: metrics)
+        {
+            if(metric.name().equals(name) && metric.labels().equals(reference.labels()))
+            {
+                return metric.value();
+            }
+        }
+
+        return 0.0;
+    }
+
+    /**
+     * Identifies a dispatcher by its labels
+     */
+    private static String getDispatcherKey(Metric metric)
+    {
+        return metric.getLabelsDescription();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formats metrics using the Prometheus text exposition format (version 0.0.4).
+ */
+public class PrometheusFormatter
+{
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private PrometheusFormatter()
+    {
+    }
+
+    /**
+     * Formats the metrics.  The metrics must be sorted by name so that each metric family is contiguous.
+     * @param metrics to format
+     * @return formatted text
+     */
+    public static String format(List<Metric> metrics)
+    {
+        StringBuilder sb = new StringBuilder();
+        String currentName = null;
+
+        for(Metric metric: metrics)
+        {
+            if(!metric.name().equals(currentName))
+            {
+                currentName = metric.name();
+
+                if(metric.help() != null)
+                {
+                    sb.append("# HELP ").append(currentName).append(" ").append(escapeHelp(metric.help())).append("\n");
+                }
+
+                sb.append("# TYPE ").append(currentName).append(" ").append(metric.type().getPrometheusType())
+                    .append("\n");
+            }
+
+            sb.append(currentName);
+
+            if(!metric.labels().isEmpty())
+            {
+                sb.append("{");
+                boolean first = true;
+
+                for(Map.Entry<String,String> label: metric.labels().entrySet())
+                {
+                    if(!first)
+                    {
+                        sb.append(",");
+                    }
+
+                    sb.append(label.getKey()).append("=\"").append(escapeLabelValue(label.getValue())).append("\"");
+                    first = false;
+                }
+
+                sb.append("}");
+            }
+
+            sb.append(" ").append(formatValue(metric.value())).append("\n");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Formats the value, using integer notation for whole numbers.
+     */
+    public static String formatValue(double value)
+    {
+        if(Double.isNaN(value))
+        {
+            return "NaN";
+        }
+        else if(Double.isInfinite(value))
+        {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        else if(value == Math.rint(value) && Math.abs(value) < 1e15)
+        {
+            return Long.toString((long)value);
+        }
+
+        return Double.toString(value);
+    }
+
+    private static String escapeHelp(String help)
+    {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String escapeLabelValue(String value)
+    {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
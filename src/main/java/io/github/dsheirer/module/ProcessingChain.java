@@ -47,15 +47,21 @@ import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.IMessageListener;
 import io.github.dsheirer.message.IMessageProvider;
 import io.github.dsheirer.message.MessageHistory;
+import io.github.dsheirer.metrics.IMetricsProvider;
+import io.github.dsheirer.metrics.Metric;
+import io.github.dsheirer.metrics.MetricNames;
+import io.github.dsheirer.metrics.MetricsRegistry;
 import io.github.dsheirer.module.decode.event.DecodeEventHistory;
 import io.github.dsheirer.module.decode.event.IDecodeEvent;
 import io.github.dsheirer.module.decode.event.IDecodeEventListener;
 import io.github.dsheirer.module.decode.event.IDecodeEventProvider;
 import io.github.dsheirer.module.decode.traffic.TrafficChannelManager;
 import io.github.dsheirer.module.log.EventLogger;
+import io.github.dsheirer.protocol.Protocol;
 import io.github.dsheirer.record.binary.BinaryRecorder;
 import io.github.dsheirer.record.wave.ComplexSamplesWaveRecorder;
 import io.github.dsheirer.sample.Broadcaster;
+import io.github.dsheirer.sample.CopyOnWriteBroadcaster;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.IByteBufferListener;
 import io.github.dsheirer.sample.buffer.IByteBufferProvider;
@@ -76,8 +82,13 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -99,23 +110,32 @@ import org.slf4j.LoggerFactory;
  *
  * Optional: if you want to reuse the processing chain with a new sample source,
  * invoke the following method sequence:  stop(), setSource(), start()
+ *
+ * While processing, the chain reports the sample processing time of each module and the message and CRC failure
+ * counts of each decoded protocol to the metrics registry.
  */
-public class ProcessingChain implements Listener<ChannelEvent>
+public class ProcessingChain implements Listener<ChannelEvent>, IMetricsProvider
 {
     private final static Logger mLog = LoggerFactory.getLogger(ProcessingChain.class);
 
-    private Broadcaster<float[]> mDemodulatedAudioBufferBroadcaster = new Broadcaster();
-    private Broadcaster<ComplexSamples> mBasebandComplexSamplesBroadcaster = new Broadcaster<>();
-    private Broadcaster<ByteBuffer> mDemodulatedBitstreamBufferBroadcaster = new Broadcaster();
-    private Broadcaster<AudioSegment> mAudioSegmentBroadcaster = new AudioSegmentBroadcaster<>();
-    private Broadcaster<IDecodeEvent> mDecodeEventBroadcaster = new Broadcaster<>();
+    /**
+     * Listeners that take longer than this to process a sample buffer are logged by the buffer broadcasters.
+     */
+    private static final long SLOW_BUFFER_LISTENER_THRESHOLD_MS = 50;
+
+    private CopyOnWriteBroadcaster<float[]> mDemodulatedAudioBufferBroadcaster = new CopyOnWriteBroadcaster<>();
+    private CopyOnWriteBroadcaster<ComplexSamples> mBasebandComplexSamplesBroadcaster = new CopyOnWriteBroadcaster<>();
+    private CopyOnWriteBroadcaster<ByteBuffer> mDemodulatedBitstreamBufferBroadcaster = new CopyOnWriteBroadcaster<>();
+    private CopyOnWriteBroadcaster<AudioSegment> mAudioSegmentBroadcaster = new AudioSegmentBroadcaster<>();
+    private CopyOnWriteBroadcaster<IDecodeEvent> mDecodeEventBroadcaster = new CopyOnWriteBroadcaster<>();
     private Broadcaster<ChannelEvent> mChannelEventBroadcaster = new Broadcaster<>();
-    private Broadcaster<DecoderStateEvent> mDecoderStateEventBroadcaster = new Broadcaster<>();
+    private CopyOnWriteBroadcaster<DecoderStateEvent> mDecoderStateEventBroadcaster = new CopyOnWriteBroadcaster<>();
     private Broadcaster<Heartbeat> mHeartbeatBroadcaster = new Broadcaster<>();
-    private Broadcaster<IdentifierUpdateNotification> mIdentifierUpdateNotificationBroadcaster = new Broadcaster<>();
+    private CopyOnWriteBroadcaster<IdentifierUpdateNotification> mIdentifierUpdateNotificationBroadcaster =
+        new CopyOnWriteBroadcaster<>();
     private Broadcaster<SourceEvent> mSourceEventBroadcaster = new Broadcaster<>();
-    private Broadcaster<IMessage> mMessageBroadcaster = new Broadcaster<>();
-    private Broadcaster<SquelchStateEvent> mSquelchStateEventBroadcaster = new Broadcaster<>();
+    private CopyOnWriteBroadcaster<IMessage> mMessageBroadcaster = new CopyOnWriteBroadcaster<>();
+    private CopyOnWriteBroadcaster<SquelchStateEvent> mSquelchStateEventBroadcaster = new CopyOnWriteBroadcaster<>();
     private AtomicBoolean mRunning = new AtomicBoolean();
     private DecodeEventHistory mDecodeEventHistory = new DecodeEventHistory(500);
     private MessageHistory mMessageHistory = new MessageHistory(500);
@@ -125,6 +145,8 @@ public class ProcessingChain implements Listener<ChannelEvent>
     //Lock to protect access to the modules list.
     private ReentrantLock mModuleLock = new ReentrantLock();
     private List<Module> mModules = new ArrayList<>();
+    private MessageCounter mMessageCounter = new MessageCounter();
+    private String mChannelName;
 
 
     /**
@@ -149,6 +171,20 @@ public class ProcessingChain implements Listener<ChannelEvent>
         addModule(mChannelState);
         addModule(mDecodeEventHistory);
         addModule(mMessageHistory);
+
+        mChannelName = channel.getName();
+        mMessageBroadcaster.addListener(mMessageCounter);
+
+        //Log any recorder, streaming or decoder module that is slow to process sample buffers
+        String name = mChannelName;
+        mBasebandComplexSamplesBroadcaster.enableListenerTiming(name + " baseband",
+            SLOW_BUFFER_LISTENER_THRESHOLD_MS, TimeUnit.MILLISECONDS);
+        mDemodulatedAudioBufferBroadcaster.enableListenerTiming(name + " demodulated audio",
+            SLOW_BUFFER_LISTENER_THRESHOLD_MS, TimeUnit.MILLISECONDS);
+        mDemodulatedBitstreamBufferBroadcaster.enableListenerTiming(name + " bitstream",
+            SLOW_BUFFER_LISTENER_THRESHOLD_MS, TimeUnit.MILLISECONDS);
+        mAudioSegmentBroadcaster.enableListenerTiming(name + " audio segment",
+            SLOW_BUFFER_LISTENER_THRESHOLD_MS, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -714,6 +750,8 @@ public class ProcessingChain implements Listener<ChannelEvent>
                             + "sample type - cannot start processing chain");
                 }
 
+                MetricsRegistry.getInstance().register(this);
+
                 mModuleLock.lock();
 
                 try
@@ -750,6 +788,8 @@ public class ProcessingChain implements Listener<ChannelEvent>
     {
         if(mRunning.compareAndSet(true, false))
         {
+            MetricsRegistry.getInstance().unregister(this);
+
             if(mSource != null)
             {
                 removeModule(mSource);
@@ -1009,4 +1049,116 @@ public class ProcessingChain implements Listener<ChannelEvent>
     {
         mIdentifierUpdateNotificationBroadcaster.broadcast(updateNotification);
     }
+
+    @Override
+    public void collectMetrics(List<Metric> metrics)
+    {
+        Map<String,Long> moduleNanos = new LinkedHashMap<>();
+
+        mModuleLock.lock();
+
+        try
+        {
+            for(Module module : mModules)
+            {
+                long nanos = getProcessingNanos(module);
+
+                if(nanos > 0)
+                {
+                    moduleNanos.merge(module.getClass().getSimpleName(), nanos, Long::sum);
+                }
+            }
+        }
+        finally
+        {
+            mModuleLock.unlock();
+        }
+
+        for(Map.Entry<String,Long> entry : moduleNanos.entrySet())
+        {
+            metrics.add(Metric.counter(MetricNames.MODULE_PROCESSING_TIME, "Time spent by a module processing " +
+                "sample buffers and audio segments", entry.getValue() / 1E9, MetricNames.LABEL_CHANNEL, mChannelName,
+                MetricNames.LABEL_MODULE, entry.getKey()));
+        }
+
+        mMessageCounter.collectMetrics(metrics);
+    }
+
+    /**
+     * Cumulative time that the module has spent processing elements from the timed sample buffer and audio segment
+     * broadcasters.
+     */
+    private long getProcessingNanos(Module module)
+    {
+        long nanos = 0;
+
+        if(module instanceof IComplexSamplesListener)
+        {
+            nanos += mBasebandComplexSamplesBroadcaster
+                .getListenerProcessingNanos(((IComplexSamplesListener)module).getComplexSamplesListener());
+        }
+
+        if(module instanceof IRealBufferListener)
+        {
+            nanos += mDemodulatedAudioBufferBroadcaster
+                .getListenerProcessingNanos(((IRealBufferListener)module).getBufferListener());
+        }
+
+        if(module instanceof IByteBufferListener)
+        {
+            nanos += mDemodulatedBitstreamBufferBroadcaster
+                .getListenerProcessingNanos(((IByteBufferListener)module).getByteBufferListener());
+        }
+
+        if(module instanceof IAudioSegmentListener)
+        {
+            nanos += mAudioSegmentBroadcaster
+                .getListenerProcessingNanos(((IAudioSegmentListener)module).getAudioSegmentListener());
+        }
+
+        return nanos;
+    }
+
+    /**
+     * Counts the decoded messages and the messages that failed error detection (CRC) for each protocol.
+     */
+    private class MessageCounter implements Listener<IMessage>
+    {
+        private Map<Protocol,LongAdder> mMessageCounts = new ConcurrentHashMap<>();
+        private Map<Protocol,LongAdder> mCrcFailureCounts = new ConcurrentHashMap<>();
+
+        @Override
+        public void receive(IMessage message)
+        {
+            Protocol protocol = message.getProtocol();
+
+            if(protocol != null)
+            {
+                mMessageCounts.computeIfAbsent(protocol, key -> new LongAdder()).increment();
+
+                if(!message.isValid())
+                {
+                    mCrcFailureCounts.computeIfAbsent(protocol, key -> new LongAdder()).increment();
+                }
+            }
+        }
+
+        /**
+         * Adds the message and CRC failure counts to the metrics
+         */
+        public void collectMetrics(List<Metric> metrics)
+        {
+            for(Map.Entry<Protocol,LongAdder> entry : mMessageCounts.entrySet())
+            {
+                Protocol protocol = entry.getKey();
+                LongAdder crcFailures = mCrcFailureCounts.get(protocol);
+
+                metrics.add(Metric.counter(MetricNames.DECODER_MESSAGES, "Decoded messages", entry.getValue().sum(),
+                    MetricNames.LABEL_CHANNEL, mChannelName, MetricNames.LABEL_PROTOCOL, protocol.name()));
+                metrics.add(Metric.counter(MetricNames.DECODER_CRC_FAILURES, "Decoded messages that failed error " +
+                    "detection", crcFailures != null ? crcFailures.sum() : 0, MetricNames.LABEL_CHANNEL, mChannelName,
+                    MetricNames.LABEL_PROTOCOL, protocol.name()));
+            }
+        }
+    }
 }
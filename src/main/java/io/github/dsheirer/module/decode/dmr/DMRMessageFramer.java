@@ -38,6 +38,7 @@ import io.github.dsheirer.protocol.Protocol;
 import io.github.dsheirer.record.binary.BinaryReader;
 import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.SampleClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -83,7 +84,7 @@ public class DMRMessageFramer implements Listener<Dibit>, IDMRBurstDetectListene
      * Tracks current time for use with framed bursts/messages.  This value is updated externally from sample buffer
      * timestamps and internally as each framed message is received or sync loss is processed.
      */
-    private long mCurrentTime = System.currentTimeMillis();
+    private long mCurrentTime = SampleClock.currentTimeMillis();
 
     /**
      * Constructs an instance
@@ -420,8 +420,10 @@ public class DMRTrafficChannelManager extends TrafficChannelManager implements I
                 sourceConfig.setFrequency(frequency);
                 trafficChannel.setSourceConfiguration(sourceConfig);
                 mAllocatedTrafficChannelFrequencyMap.put(frequency, trafficChannel);
-                getInterModuleEventBus().post(new ChannelStartProcessingRequest(trafficChannel, channel,
-                    identifierCollection));
+                ChannelStartProcessingRequest startChannelRequest = new ChannelStartProcessingRequest(trafficChannel,
+                    channel, identifierCollection);
+                startChannelRequest.setStartTimestamp(timestamp);
+                getInterModuleEventBus().post(startChannelRequest);
             }
             else
             {
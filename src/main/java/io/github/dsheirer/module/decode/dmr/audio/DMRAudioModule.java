@@ -44,6 +44,7 @@ import io.github.dsheirer.module.decode.dmr.message.voice.VoiceMessage;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.protocol.Protocol;
 import io.github.dsheirer.sample.Listener;
+import jmbe.iface.IAudioCodec;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -86,7 +87,7 @@ public class DMRAudioModule extends AmbeAudioModule implements IdentifierUpdateP
     public void reset()
     {
         //Explicitly clear FROM identifiers to ensure previous call TONE identifiers are cleared.
-        mIdentifierCollection.remove(Role.FROM);
+        queueAudioTask(() -> mIdentifierCollection.remove(Role.FROM));
 
         mEncryptedCall = false;
         mEncryptedCallStateEstablished = false;
@@ -202,18 +203,28 @@ public class DMRAudioModule extends AmbeAudioModule implements IdentifierUpdateP
         }
     }
 
+    /**
+     * Queues the AMBE frame for audio decoding on the vocoder executor.
+     */
     private void produceAudio(byte[] frame, long timestamp)
     {
-        try
-        {
-            IAudioWithMetadata audioWithMetadata = getAudioCodec().getAudioWithMetadata(frame);
-            addAudio(audioWithMetadata.getAudio());
-            processMetadata(audioWithMetadata, timestamp);
-        }
-        catch(Exception e)
-        {
-            mLog.error("Error synthesizing DMR AMBE audio - continuing [" + e.getMessage() + "]");
-        }
+        queueAudioTask(() -> {
+            IAudioCodec audioCodec = getAudioCodec();
+
+            if(audioCodec != null)
+            {
+                try
+                {
+                    IAudioWithMetadata audioWithMetadata = audioCodec.getAudioWithMetadata(frame);
+                    addAudio(audioWithMetadata.getAudio());
+                    processMetadata(audioWithMetadata, timestamp);
+                }
+                catch(Exception e)
+                {
+                    mLog.error("Error synthesizing DMR AMBE audio - continuing [" + e.getMessage() + "]");
+                }
+            }
+        });
     }
 
     /**
@@ -315,7 +326,7 @@ public class DMRAudioModule extends AmbeAudioModule implements IdentifierUpdateP
         {
             if(event.getTimeslot() == getTimeslot() && event.getSquelchState() == SquelchState.SQUELCH)
             {
-                closeAudioSegment();
+                queueCloseAudioSegment();
             }
         }
     }
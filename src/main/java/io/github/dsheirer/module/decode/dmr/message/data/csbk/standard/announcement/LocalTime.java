@@ -24,6 +24,7 @@ import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.dmr.DMRSyncPattern;
 import io.github.dsheirer.module.decode.dmr.message.CACH;
 import io.github.dsheirer.module.decode.dmr.message.data.SlotType;
+import io.github.dsheirer.util.SampleClock;
 
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -94,7 +95,7 @@ public class LocalTime extends Announcement
     public long getLocalTime()
     {
         Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
-        calendar.setTimeInMillis(System.currentTimeMillis());
+        calendar.setTimeInMillis(SampleClock.currentTimeMillis());
         int year = calendar.get(Calendar.YEAR);
         int month = getMessage().getInt(MONTH);
         int day = getMessage().getInt(DAY);
@@ -27,14 +27,24 @@ import io.github.dsheirer.module.decode.event.filter.DecodeEventFilterSet;
 import io.github.dsheirer.module.decode.event.filter.EventFilterProvider;
 import io.github.dsheirer.preference.PreferenceType;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.SwingBatchUpdater;
+import java.awt.Component;
+import java.awt.EventQueue;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.table.AbstractTableModel;
 
+/**
+ * Decode event table model.  Events are received on the decoder threads and are coalesced into batches that are
+ * applied to the model on the Swing event dispatch thread at a limited frame rate.  Events are stored newest-first in
+ * a ring buffer with an identity index of each event's insertion sequence, so that updates to an existing event can be
+ * located without searching the table rows.
+ */
 public class DecodeEventModel extends AbstractTableModel implements Listener<IDecodeEvent>, EventFilterProvider<IDecodeEvent>
 {
     private static final long serialVersionUID = 1L;
@@ -53,7 +63,11 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
 
     protected int mMaxMessages = 500;
 
-    protected List<IDecodeEvent> mEvents = new ArrayList<>();
+    private IDecodeEvent[] mEvents = new IDecodeEvent[mMaxMessages];
+    private Map<IDecodeEvent,Long> mEventSequences = new IdentityHashMap<>();
+    private int mEventCount;
+    private long mNextSequence;
+    private SwingBatchUpdater<IDecodeEvent> mUpdater = new SwingBatchUpdater<>(this::process, mMaxMessages);
     protected FilterSet<IDecodeEvent> mEventFilterSet = new DecodeEventFilterSet();
 
     protected String[] mHeaders = new String[]{"Time", "Duration", "Event", "From", "Alias", "To", "Alias", "Channel", "Frequency", "Details"};
@@ -72,53 +86,78 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
     {
         if(preferenceType == PreferenceType.DECODE_EVENT)
         {
-            for(int row = 0; row < mEvents.size(); row++)
-            {
-                fireTableCellUpdated(row, COLUMN_TIME);
-            }
+            EventQueue.invokeLater(() -> {
+                for(int row = 0; row < mEventCount; row++)
+                {
+                    fireTableCellUpdated(row, COLUMN_TIME);
+                }
+            });
         }
         else if(preferenceType == PreferenceType.TALKGROUP_FORMAT)
         {
-            for(int row = 0; row < mEvents.size(); row++)
-            {
-                fireTableCellUpdated(row, COLUMN_FROM_ID);
-                fireTableCellUpdated(row, COLUMN_TO_ID);
-            }
+            EventQueue.invokeLater(() -> {
+                for(int row = 0; row < mEventCount; row++)
+                {
+                    fireTableCellUpdated(row, COLUMN_FROM_ID);
+                    fireTableCellUpdated(row, COLUMN_TO_ID);
+                }
+            });
         }
     }
 
     /**
-     * Access the complete list of events managed by this model.
+     * Pauses table updates while the component is hidden or minimized.  Events received while paused are applied
+     * when the component is displayed again.
+     * @param component that displays this model
      */
-    public List<IDecodeEvent> getEvents()
+    public void pauseWhenHidden(Component component)
     {
-        return new ArrayList<>(mEvents);
+        mUpdater.pauseWhenHidden(component);
     }
 
-    public void dispose()
+    /**
+     * Access the complete list of events managed by this model, newest first.
+     */
+    public List<IDecodeEvent> getEvents()
     {
-        MyEventBus.getGlobalEventBus().unregister(this);
-        Iterator<IDecodeEvent> it = mEvents.iterator();
+        List<IDecodeEvent> events = new ArrayList<>(mEventCount);
 
-        while(it.hasNext())
+        for(int row = 0; row < mEventCount; row++)
         {
-            it.remove();
+            events.add(getEvent(row));
         }
+
+        return events;
+    }
+
+    public void dispose()
+    {
+        MyEventBus.getGlobalEventBus().unregister(this);
+        mUpdater.dispose();
+        removeAll();
     }
 
     public void clear()
     {
-        mEvents.clear();
+        mUpdater.clear();
+        removeAll();
         fireTableDataChanged();
     }
 
     /**
      * Clears all events from this model and loads the events argument
+     * @param events in chronological order
      */
     public void clearAndSet(List<IDecodeEvent> events)
     {
-        mEvents.clear();
-        mEvents.addAll(events);
+        mUpdater.clear();
+        removeAll();
+
+        for(IDecodeEvent event: events)
+        {
+            insert(event);
+        }
+
         fireTableDataChanged();
     }
 
@@ -133,16 +172,31 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
         return mMaxMessages;
     }
 
+    /**
+     * Sets the maximum number of events retained by this model, keeping the newest events.  Must be invoked on the
+     * Swing event dispatch thread.
+     */
     public void setMaxMessageCount(int count)
     {
+        count = Math.max(1, count);
+        List<IDecodeEvent> events = getEvents().subList(0, Math.min(count, mEventCount));
         mMaxMessages = count;
+        mUpdater.setMaximumPending(count);
+        removeAll();
+        mEvents = new IDecodeEvent[count];
+
+        for(int x = events.size() - 1; x >= 0; x--)
+        {
+            insert(events.get(x));
+        }
+
+        fireTableDataChanged();
     }
 
     /**
-     * Adds, updates or deletes the event from the model.  Producers can send
-     * the same call event multiple times to indicate that information in the
-     * event is updated.  Producers can also mark the event as invalid and the
-     * event will be removed from the model.
+     * Adds or updates the event in the model.  Producers can send the same call event multiple times to indicate
+     * that information in the event is updated.  Events are queued and applied to the model in batches on the Swing
+     * event dispatch thread, so this method can be invoked from any thread.
      */
     public void receive(final IDecodeEvent event)
     {
@@ -152,29 +206,124 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
 //            return;
 //        }
 
-        if(!mEvents.contains(event))
+        mUpdater.add(event);
+    }
+
+    /**
+     * Applies a batch of new and updated events to the model.  Invoked on the Swing event dispatch thread.
+     * @param events in the order received
+     * @param overflow indicates that events were discarded from the batch so all rows should be refreshed
+     */
+    void process(List<IDecodeEvent> events, boolean overflow)
+    {
+        List<IDecodeEvent> added = new ArrayList<>();
+        List<IDecodeEvent> updated = new ArrayList<>();
+
+        for(IDecodeEvent event: events)
         {
-            mEvents.add(0, event);
-            fireTableRowsInserted(0, 0);
-            prune();
+            if(mEventSequences.containsKey(event))
+            {
+                updated.add(event);
+            }
+            else
+            {
+                added.add(event);
+            }
         }
-        else
+
+        if(overflow || added.size() >= mMaxMessages)
         {
-            int row = mEvents.indexOf(event);
-            fireTableRowsUpdated(row, row);
+            for(IDecodeEvent event: added)
+            {
+                insert(event);
+            }
+
+            fireTableDataChanged();
+            return;
+        }
+
+        int evict = mEventCount + added.size() - mMaxMessages;
+
+        if(evict > 0)
+        {
+            int firstRow = mEventCount - evict;
+            removeOldest(evict);
+            fireTableRowsDeleted(firstRow, firstRow + evict - 1);
+        }
+
+        if(!added.isEmpty())
+        {
+            for(IDecodeEvent event: added)
+            {
+                insert(event);
+            }
+
+            fireTableRowsInserted(0, added.size() - 1);
+        }
+
+        for(IDecodeEvent event: updated)
+        {
+            int row = getRow(event);
+
+            if(row >= 0)
+            {
+                fireTableRowsUpdated(row, row);
+            }
+        }
+    }
+
+    /**
+     * Event at the table row, where row 0 is the newest event.
+     */
+    private IDecodeEvent getEvent(int row)
+    {
+        return mEvents[(int)((mNextSequence - 1 - row) % mEvents.length)];
+    }
+
+    /**
+     * Table row for the event or -1 if the event is not in this model.
+     */
+    int getRow(IDecodeEvent event)
+    {
+        Long sequence = mEventSequences.get(event);
+        return sequence != null ? (int)(mNextSequence - 1 - sequence) : -1;
+    }
+
+    /**
+     * Inserts the event as the newest event, replacing the oldest event when the model is full.
+     */
+    private void insert(IDecodeEvent event)
+    {
+        if(mEventCount == mEvents.length)
+        {
+            removeOldest(1);
         }
+
+        mEvents[(int)(mNextSequence % mEvents.length)] = event;
+        mEventSequences.put(event, mNextSequence++);
+        mEventCount++;
     }
 
-    private void prune()
+    /**
+     * Removes the oldest events from the ring buffer and the event index.
+     */
+    private void removeOldest(int count)
     {
-        while(mEvents.size() > mMaxMessages)
+        for(int x = 0; x < count && mEventCount > 0; x++)
         {
-            int index = mEvents.size() - 1;
-            mEvents.remove(index);
-            fireTableRowsDeleted(index, index);
+            int index = (int)((mNextSequence - mEventCount) % mEvents.length);
+            mEventSequences.remove(mEvents[index]);
+            mEvents[index] = null;
+            mEventCount--;
         }
     }
 
+    private void removeAll()
+    {
+        removeOldest(mEventCount);
+        mNextSequence = 0;
+    }
+
     @Override
     public FilterSet<IDecodeEvent> getFilterSet() {
         return mEventFilterSet;
@@ -188,7 +337,7 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
     @Override
     public int getRowCount()
     {
-        return mEvents.size();
+        return mEventCount;
     }
 
     @Override
@@ -205,9 +354,9 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
     @Override
     public Object getValueAt(int rowIndex, int columnIndex)
     {
-        synchronized(mEvents)
+        if(0 <= rowIndex && rowIndex < mEventCount)
         {
-            IDecodeEvent event = mEvents.get(rowIndex);
+            IDecodeEvent event = getEvent(rowIndex);
 
             if(event != null)
             {
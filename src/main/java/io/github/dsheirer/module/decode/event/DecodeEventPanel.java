@@ -92,6 +92,7 @@ public class DecodeEventPanel extends JPanel implements Listener<ProcessingChain
         mTimestampCellRenderer = new TimestampCellRenderer();
         mTable = new JTable(mEventModel);
         mTable.setAutoCreateRowSorter(true);
+        mEventModel.pauseWhenHidden(mTable);
         mTable.setAutoResizeMode(JTable.AUTO_RESIZE_LAST_COLUMN);
         mEventManagementPanel = new EventManagementPanel();
         mTableColumnWidthMonitor = new JTableColumnWidthMonitor(mUserPreferences, mTable, TABLE_PREFERENCE_KEY);
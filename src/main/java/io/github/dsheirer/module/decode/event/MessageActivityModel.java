@@ -26,8 +26,10 @@ import io.github.dsheirer.filter.FilterSet;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.StuffBitsMessage;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.SwingBatchUpdater;
 
 import javax.swing.table.AbstractTableModel;
+import java.awt.Component;
 import java.awt.EventQueue;
 import java.text.SimpleDateFormat;
 import java.util.LinkedList;
@@ -49,6 +51,7 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
     private SimpleDateFormat mSDFTime = new SimpleDateFormat("yyyy:MM:dd HH:mm:ss");
 
     private FilterSet<IMessage> mMessageFilterSet = new FilterSet<>(new AllPassFilter<>());
+    private SwingBatchUpdater<MessageItem> mUpdater = new SwingBatchUpdater<>(this::process, mMaxMessages);
 
     public MessageActivityModel()
     {
@@ -73,6 +76,7 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
     public void clear()
     {
         EventQueue.invokeLater(() -> {
+            mUpdater.clear();
             mMessageItems.clear();
             fireTableDataChanged();
         });
@@ -84,6 +88,7 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
     public void clearAndSet(List<IMessage> messages)
     {
         EventQueue.invokeLater(() -> {
+            mUpdater.clear();
             mMessageItems.clear();
             fireTableDataChanged();
             for(IMessage message: messages)
@@ -98,8 +103,18 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
         return mMessageFilterSet;
     }
 
+    /**
+     * Pauses table updates while the component is hidden or minimized.
+     * @param component that displays this model
+     */
+    public void pauseWhenHidden(Component component)
+    {
+        mUpdater.pauseWhenHidden(component);
+    }
+
     public void dispose()
     {
+        mUpdater.dispose();
         mMessageItems.clear();
     }
 
@@ -128,6 +143,7 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
     public void setMaxMessageCount(int count)
     {
         mMaxMessages = count;
+        mUpdater.setMaximumPending(count);
     }
 
     public void receive(final IMessage message)
@@ -140,30 +156,38 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
 
         if(mMessageFilterSet.passes(message))
         {
-            final MessageItem messageItem = new MessageItem(message);
-
-            EventQueue.invokeLater(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    mMessageItems.addFirst(messageItem);
-
-                    MessageActivityModel.this.fireTableRowsInserted(0, 0);
+            mUpdater.add(new MessageItem(message));
+        }
+    }
 
-                    prune();
-                }
-            });
+    /**
+     * Adds a batch of messages to the top of the table.  Invoked on the Swing event dispatch thread.
+     * @param messageItems in the order received
+     * @param overflow indicates that messages were discarded from the batch
+     */
+    private void process(List<MessageItem> messageItems, boolean overflow)
+    {
+        for(MessageItem messageItem: messageItems)
+        {
+            mMessageItems.addFirst(messageItem);
         }
+
+        fireTableRowsInserted(0, messageItems.size() - 1);
+        prune();
     }
 
     private void prune()
     {
-        while(mMessageItems.size() > mMaxMessages)
+        int size = mMessageItems.size();
+
+        if(size > mMaxMessages)
         {
-            MessageItem removed = mMessageItems.removeLast();
-            removed.dispose();
-            super.fireTableRowsDeleted(mMessageItems.size() - 1, mMessageItems.size() - 1);
+            while(mMessageItems.size() > mMaxMessages)
+            {
+                mMessageItems.removeLast().dispose();
+            }
+
+            fireTableRowsDeleted(mMessageItems.size(), size - 1);
         }
     }
 
@@ -75,6 +75,7 @@ public class MessageActivityPanel extends JPanel implements Listener<ProcessingC
         add(mManagementPanel, "span,growx");
 
         add(new JScrollPane(mTable), "span,grow");
+        mMessageModel.pauseWhenHidden(mTable);
         mTableColumnWidthMonitor = new JTableColumnWidthMonitor(mUserPreferences, mTable, TABLE_PREFERENCE_KEY);
     }
 
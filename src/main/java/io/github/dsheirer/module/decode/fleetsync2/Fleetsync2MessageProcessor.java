@@ -26,6 +26,7 @@ import io.github.dsheirer.module.decode.fleetsync2.message.Fleetsync2Message;
 import io.github.dsheirer.module.decode.fleetsync2.message.LocationReport;
 import io.github.dsheirer.module.decode.fleetsync2.message.Status;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.SampleClock;
 
 /**
  * Fleetsync message processor converts binary messages into IMessage implementations.
@@ -57,13 +58,13 @@ public class Fleetsync2MessageProcessor implements Listener<CorrectedBinaryMessa
         switch(messageType)
         {
             case GPS:
-                broadcast(new LocationReport(message, System.currentTimeMillis()));
+                broadcast(new LocationReport(message, SampleClock.currentTimeMillis()));
                 break;
             case STATUS:
-                broadcast(new Status(message, System.currentTimeMillis()));
+                broadcast(new Status(message, SampleClock.currentTimeMillis()));
                 break;
             default:
-                broadcast(new AutomaticNumberIdentification(message, System.currentTimeMillis()));
+                broadcast(new AutomaticNumberIdentification(message, SampleClock.currentTimeMillis()));
                 break;
         }
     }
@@ -30,6 +30,7 @@ import io.github.dsheirer.identifier.MutableIdentifierCollection;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.module.decode.DecoderType;
 import io.github.dsheirer.module.decode.event.DecodeEvent;
+import io.github.dsheirer.util.SampleClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,7 +73,7 @@ public class LJ1200DecoderState extends DecoderState
                 ic.remove(IdentifierClass.USER);
                 ic.update(lj.getIdentifiers());
 
-                DecodeEvent event = DecodeEvent.builder(System.currentTimeMillis())
+                DecodeEvent event = DecodeEvent.builder(SampleClock.currentTimeMillis())
                     .identifiers(ic)
                     .channel(getCurrentChannel())
                     .details("LOJACK")
@@ -91,7 +92,7 @@ public class LJ1200DecoderState extends DecoderState
             ic.remove(IdentifierClass.USER);
             ic.update(transponder.getIdentifiers());
 
-            DecodeEvent transponderEvent = DecodeEvent.builder(System.currentTimeMillis())
+            DecodeEvent transponderEvent = DecodeEvent.builder(SampleClock.currentTimeMillis())
                 .identifiers(ic)
                 .channel(getCurrentChannel())
                 .details("LOJACK TRANSPONDER")
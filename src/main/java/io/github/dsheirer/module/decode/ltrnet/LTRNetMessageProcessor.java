@@ -29,6 +29,7 @@ import io.github.dsheirer.module.decode.ltrnet.message.osw.ReceiveFrequencyLow;
 import io.github.dsheirer.module.decode.ltrnet.message.osw.TransmitFrequencyHigh;
 import io.github.dsheirer.module.decode.ltrnet.message.osw.TransmitFrequencyLow;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.SampleClock;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -55,7 +56,7 @@ public class LTRNetMessageProcessor implements Listener<CorrectedBinaryMessage>
     @Override
     public void receive(CorrectedBinaryMessage buffer)
     {
-        LtrNetMessage message = LtrNetMessageFactory.create(mDirection, buffer, System.currentTimeMillis());
+        LtrNetMessage message = LtrNetMessageFactory.create(mDirection, buffer, SampleClock.currentTimeMillis());
 
         if(message.isValid())
         {
@@ -37,6 +37,7 @@ import io.github.dsheirer.module.decode.mpt1327.channel.MPT1327Channel;
 import io.github.dsheirer.module.decode.traffic.TrafficChannelManager;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.source.config.SourceConfigTuner;
+import io.github.dsheirer.util.SampleClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -325,7 +326,7 @@ public class MPT1327TrafficChannelManager extends TrafficChannelManager implemen
 
                             if(event != null)
                             {
-                                event.end(System.currentTimeMillis());
+                                event.end(SampleClock.currentTimeMillis());
                                 broadcast(event);
                             }
                         }
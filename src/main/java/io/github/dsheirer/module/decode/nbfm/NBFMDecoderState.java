@@ -36,6 +36,7 @@ import io.github.dsheirer.module.decode.p25.identifier.channel.StandardChannel;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.source.ISourceEventListener;
 import io.github.dsheirer.source.SourceEvent;
+import io.github.dsheirer.util.SampleClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -128,7 +129,7 @@ public class NBFMDecoderState extends DecoderState implements ISourceEventListen
 
         if(mDecodeEvent == null)
         {
-            mDecodeEvent = DecodeEvent.builder(System.currentTimeMillis())
+            mDecodeEvent = DecodeEvent.builder(SampleClock.currentTimeMillis())
                     .channel(mChannelDescriptor)
                     .eventDescription("CALL")
                     .details("NBFM")
@@ -149,7 +150,7 @@ public class NBFMDecoderState extends DecoderState implements ISourceEventListen
             startCallEvent();
         }
 
-        mDecodeEvent.update(System.currentTimeMillis());
+        mDecodeEvent.update(SampleClock.currentTimeMillis());
         broadcast(mDecodeEvent);
     }
 
@@ -160,7 +161,7 @@ public class NBFMDecoderState extends DecoderState implements ISourceEventListen
     {
         if(mDecodeEvent != null)
         {
-            mDecodeEvent.end(System.currentTimeMillis());
+            mDecodeEvent.end(SampleClock.currentTimeMillis());
             broadcast(mDecodeEvent);
             mDecodeEvent = null;
         }
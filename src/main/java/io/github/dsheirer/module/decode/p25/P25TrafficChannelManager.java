@@ -318,6 +318,7 @@ public class P25TrafficChannelManager extends TrafficChannelManager implements I
 
                     ChannelStartProcessingRequest startChannelRequest =
                             new ChannelStartProcessingRequest(trafficChannel, apco25Channel, identifierCollection);
+                    startChannelRequest.setStartTimestamp(timestamp);
                     startChannelRequest.addPreloadDataContent(new PatchGroupPreLoadDataContent(identifierCollection));
                     getInterModuleEventBus().post(startChannelRequest);
                 }
@@ -370,6 +371,7 @@ public class P25TrafficChannelManager extends TrafficChannelManager implements I
 
             ChannelStartProcessingRequest startChannelRequest =
                     new ChannelStartProcessingRequest(trafficChannel, apco25Channel, identifierCollection);
+            startChannelRequest.setStartTimestamp(timestamp);
             startChannelRequest.addPreloadDataContent(new PatchGroupPreLoadDataContent(identifierCollection));
             getInterModuleEventBus().post(startChannelRequest);
         }
@@ -479,6 +481,7 @@ public class P25TrafficChannelManager extends TrafficChannelManager implements I
 
                     ChannelStartProcessingRequest startChannelRequest =
                             new ChannelStartProcessingRequest(trafficChannel, apco25Channel, identifierCollection);
+                    startChannelRequest.setStartTimestamp(timestamp);
                     startChannelRequest.addPreloadDataContent(new PatchGroupPreLoadDataContent(identifierCollection));
                     getInterModuleEventBus().post(startChannelRequest);
                 }
@@ -539,6 +542,7 @@ public class P25TrafficChannelManager extends TrafficChannelManager implements I
 
             ChannelStartProcessingRequest startChannelRequest =
                     new ChannelStartProcessingRequest(trafficChannel, apco25Channel, identifierCollection);
+            startChannelRequest.setStartTimestamp(timestamp);
             startChannelRequest.addPreloadDataContent(new PatchGroupPreLoadDataContent(identifierCollection));
             getInterModuleEventBus().post(startChannelRequest);
         }
@@ -30,6 +30,8 @@ import io.github.dsheirer.module.decode.p25.phase1.message.ldu.LDU2Message;
 import io.github.dsheirer.module.decode.p25.phase1.message.ldu.LDUMessage;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.sample.Listener;
+import java.util.List;
+import jmbe.iface.IAudioCodec;
 
 public class P25P1AudioModule extends ImbeAudioModule
 {
@@ -60,7 +62,7 @@ public class P25P1AudioModule extends ImbeAudioModule
     @Override
     public void reset()
     {
-        getIdentifierCollection().clear();
+        queueAudioTask(() -> getIdentifierCollection().clear());
     }
 
     @Override
@@ -118,18 +120,28 @@ public class P25P1AudioModule extends ImbeAudioModule
     }
 
     /**
-     * Processes an audio packet by decoding the IMBE audio frames and rebroadcasting them as PCM audio packets.
+     * Processes an audio packet by decoding the IMBE audio frames on the vocoder executor and rebroadcasting them as
+     * PCM audio packets.
      */
     private void processAudio(LDUMessage ldu)
     {
         if(!mEncryptedCall)
         {
-            for(byte[] frame : ldu.getIMBEFrames())
-            {
-                float[] audio = getAudioCodec().getAudio(frame);
-                audio = mGain.apply(audio);
-                addAudio(audio);
-            }
+            List<byte[]> frames = ldu.getIMBEFrames();
+
+            queueAudioTask(() -> {
+                IAudioCodec audioCodec = getAudioCodec();
+
+                if(audioCodec != null)
+                {
+                    for(byte[] frame : frames)
+                    {
+                        float[] audio = audioCodec.getAudio(frame);
+                        audio = mGain.apply(audio);
+                        addAudio(audio);
+                    }
+                }
+            });
         }
         else
         {
@@ -149,7 +161,7 @@ public class P25P1AudioModule extends ImbeAudioModule
         {
             if(event.getSquelchState() == SquelchState.SQUELCH)
             {
-                closeAudioSegment();
+                queueCloseAudioSegment();
                 mEncryptedCallStateEstablished = false;
                 mEncryptedCall = false;
                 mCachedLDU1Message = null;
@@ -41,6 +41,7 @@ import io.github.dsheirer.module.decode.p25.phase2.timeslot.AbstractVoiceTimeslo
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.protocol.Protocol;
 import io.github.dsheirer.sample.Listener;
+import jmbe.iface.IAudioCodec;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
@@ -81,9 +82,9 @@ public class P25P2AudioModule extends AmbeAudioModule implements IdentifierUpdat
     public void reset()
     {
         //Explicitly clear FROM identifiers to ensure previous call TONE identifiers are cleared.
-        mIdentifierCollection.remove(Role.FROM);
+        queueAudioTask(() -> mIdentifierCollection.remove(Role.FROM));
 
-        mToneMetadataProcessor.reset();
+        queueAudioTask(mToneMetadataProcessor::reset);
         mQueuedAudioTimeslots.clear();
 
         //Reset encrypted call handling flags
@@ -168,21 +169,28 @@ public class P25P2AudioModule extends AmbeAudioModule implements IdentifierUpdat
     {
         if(hasAudioCodec())
         {
-            for(BinaryMessage voiceFrame: voiceFrames)
-            {
-                byte[] voiceFrameBytes = voiceFrame.getBytes();
+            queueAudioTask(() -> {
+                IAudioCodec audioCodec = getAudioCodec();
 
-                try
-                {
-                    IAudioWithMetadata audioWithMetadata = getAudioCodec().getAudioWithMetadata(voiceFrameBytes);
-                    addAudio(audioWithMetadata.getAudio());
-                    processMetadata(audioWithMetadata, timestamp);
-                }
-                catch(Exception e)
+                if(audioCodec != null)
                 {
-                    mLog.error("Error synthesizing AMBE audio - continuing [" + e.getLocalizedMessage() + "]");
+                    for(BinaryMessage voiceFrame: voiceFrames)
+                    {
+                        byte[] voiceFrameBytes = voiceFrame.getBytes();
+
+                        try
+                        {
+                            IAudioWithMetadata audioWithMetadata = audioCodec.getAudioWithMetadata(voiceFrameBytes);
+                            addAudio(audioWithMetadata.getAudio());
+                            processMetadata(audioWithMetadata, timestamp);
+                        }
+                        catch(Exception e)
+                        {
+                            mLog.error("Error synthesizing AMBE audio - continuing [" + e.getLocalizedMessage() + "]");
+                        }
+                    }
                 }
-            }
+            });
         }
     }
 
@@ -346,7 +354,7 @@ public class P25P2AudioModule extends AmbeAudioModule implements IdentifierUpdat
             {
                 if(event.getSquelchState() == SquelchState.SQUELCH)
                 {
-                    closeAudioSegment();
+                    queueCloseAudioSegment();
                     reset();
                 }
             }
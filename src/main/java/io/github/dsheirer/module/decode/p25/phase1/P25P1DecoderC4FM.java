@@ -32,6 +32,7 @@ import io.github.dsheirer.dsp.psk.pll.PLLBandwidth;
 import io.github.dsheirer.module.decode.DecoderType;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.source.SourceEvent;
+import io.github.dsheirer.util.SampleClock;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -98,7 +99,7 @@ public class P25P1DecoderC4FM extends P25P1Decoder
     @Override
     public void receive(ComplexSamples samples)
     {
-        mMessageFramer.setCurrentTime(System.currentTimeMillis());
+        mMessageFramer.setCurrentTime(SampleClock.currentTimeMillis());
 
         float[] i = mIBasebandFilter.filter(samples.i());
         float[] q = mQBasebandFilter.filter(samples.q());
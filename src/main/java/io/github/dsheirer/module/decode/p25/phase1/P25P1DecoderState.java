@@ -139,6 +139,7 @@ import io.github.dsheirer.module.decode.p25.reference.ServiceOptions;
 import io.github.dsheirer.protocol.Protocol;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.util.PacketUtil;
+import io.github.dsheirer.util.SampleClock;
 import org.jdesktop.swingx.mapviewer.GeoPosition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -241,7 +242,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
 
         if(mCurrentCallEvent != null)
         {
-            mCurrentCallEvent.end(System.currentTimeMillis());
+            mCurrentCallEvent.end(SampleClock.currentTimeMillis());
             broadcast(mCurrentCallEvent);
             mCurrentCallEvent = null;
         }
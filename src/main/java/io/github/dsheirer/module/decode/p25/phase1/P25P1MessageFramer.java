@@ -52,6 +52,7 @@ import io.github.dsheirer.protocol.Protocol;
 import io.github.dsheirer.record.AudioRecordingManager;
 import io.github.dsheirer.record.binary.BinaryReader;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.SampleClock;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
@@ -83,7 +84,7 @@ public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetect
     private int mStatusSymbolDibitCounter = 0;
     private int mTrailingDibitsToSuppress = 0;
     private double mBitRate;
-    private long mCurrentTime = System.currentTimeMillis();
+    private long mCurrentTime = SampleClock.currentTimeMillis();
     private ISyncDetectListener mSyncDetectListener;
 
     public P25P1MessageFramer(IPhaseLockedLoop phaseLockedLoop, int bitRate)
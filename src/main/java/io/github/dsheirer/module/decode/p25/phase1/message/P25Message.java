@@ -24,6 +24,7 @@ import io.github.dsheirer.message.Message;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Nac;
 import io.github.dsheirer.module.decode.p25.phase1.P25P1DataUnitID;
 import io.github.dsheirer.protocol.Protocol;
+import io.github.dsheirer.util.SampleClock;
 
 public abstract class P25Message extends Message
 {
@@ -63,7 +64,7 @@ public abstract class P25Message extends Message
      */
     public P25Message(CorrectedBinaryMessage message, int nac)
     {
-        this(message, nac, System.currentTimeMillis());
+        this(message, nac, SampleClock.currentTimeMillis());
     }
 
     /**
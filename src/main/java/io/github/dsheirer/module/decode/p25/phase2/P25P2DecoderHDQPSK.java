@@ -37,6 +37,7 @@ import io.github.dsheirer.module.decode.p25.phase2.enumeration.ScrambleParameter
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.source.SourceEvent;
+import io.github.dsheirer.util.SampleClock;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -109,7 +110,7 @@ public class P25P2DecoderHDQPSK extends P25P2Decoder implements IdentifierUpdate
     @Override
     public void receive(ComplexSamples samples)
     {
-        mMessageFramer.setCurrentTime(System.currentTimeMillis());
+        mMessageFramer.setCurrentTime(SampleClock.currentTimeMillis());
 
         float[] i = mIBasebandFilter.filter(samples.i());
         float[] q = mQBasebandFilter.filter(samples.q());
@@ -24,6 +24,7 @@ import io.github.dsheirer.dsp.psk.SymbolDecisionData;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.complex.Complex;
 import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.util.SampleClock;
 
 public class P25P2DecoderHDQPSKInstrumented extends P25P2DecoderHDQPSK
 {
@@ -58,7 +59,7 @@ public class P25P2DecoderHDQPSKInstrumented extends P25P2DecoderHDQPSK
     @Override
     public void receive(ComplexSamples samples)
     {
-        mMessageFramer.setCurrentTime(System.currentTimeMillis());
+        mMessageFramer.setCurrentTime(SampleClock.currentTimeMillis());
 
         float[] i = mIBasebandFilter.filter(samples.i());
         float[] q = mQBasebandFilter.filter(samples.q());
@@ -38,6 +38,7 @@ import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.record.AudioRecordingManager;
 import io.github.dsheirer.record.binary.BinaryReader;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.SampleClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,7 +69,7 @@ public class P25P2MessageFramer implements Listener<Dibit>
     private int mStatusSymbolDibitCounter = 0;
     private int mTrailingDibitsToSuppress = 0;
     private double mBitRate;
-    private long mCurrentTime = System.currentTimeMillis();
+    private long mCurrentTime = SampleClock.currentTimeMillis();
 
     public P25P2MessageFramer(IPhaseLockedLoop phaseLockedLoop, int bitRate)
     {
@@ -38,6 +38,7 @@ import io.github.dsheirer.module.decode.p25.phase2.timeslot.ScramblingSequence;
 import io.github.dsheirer.module.decode.p25.phase2.timeslot.Timeslot;
 import io.github.dsheirer.protocol.Protocol;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.SampleClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -134,7 +135,7 @@ public class P25P2SuperFrameDetector implements Listener<Dibit>, ISyncDetectList
     {
         //TODO: implement a dibit counter and timestamp calculator.  We should receive a timestamp update with each
         //TODO: buffer that arrives.  Use the timestamp dibit counter to calculate the exact timestamp of where we're at.
-        return System.currentTimeMillis();
+        return SampleClock.currentTimeMillis();
     }
 
     @Override
@@ -37,6 +37,7 @@ import io.github.dsheirer.module.decode.event.DecodeEvent;
 import io.github.dsheirer.module.decode.passport.identifier.PassportRadioId;
 import io.github.dsheirer.module.decode.passport.identifier.PassportTalkgroup;
 import io.github.dsheirer.protocol.Protocol;
+import io.github.dsheirer.util.SampleClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -353,7 +354,7 @@ public class PassportDecoderState extends DecoderState
 
         if(mCurrentDecodeEvent != null)
         {
-            mCurrentDecodeEvent.end(System.currentTimeMillis());
+            mCurrentDecodeEvent.end(SampleClock.currentTimeMillis());
             mCurrentDecodeEvent = null;
         }
     }
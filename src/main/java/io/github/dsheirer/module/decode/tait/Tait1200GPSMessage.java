@@ -25,6 +25,7 @@ import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.message.Message;
 import io.github.dsheirer.module.decode.tait.identifier.TaitIdentifier;
 import io.github.dsheirer.protocol.Protocol;
+import io.github.dsheirer.util.SampleClock;
 import org.jdesktop.swingx.mapviewer.GeoPosition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -262,7 +263,7 @@ public class Tait1200GPSMessage extends Message
         cal.clear();
 
         /* Use current time to get current year */
-        cal.setTimeInMillis(System.currentTimeMillis());
+        cal.setTimeInMillis(SampleClock.currentTimeMillis());
 
         //TODO: this field is either the month field, or the speed hundredths field
         cal.set(Calendar.MONTH, mMessage.getInt(DATE_MONTH));
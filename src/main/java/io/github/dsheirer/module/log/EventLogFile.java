@@ -0,0 +1,224 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.module.log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Event log file that continues in a new file when the file reaches the rotation size or a new day starts, and that
+ * can optionally be written gzip compressed.  Each new file starts with the log header.
+ *
+ * Instances are only accessed by the event log writer thread and are not thread safe.
+ */
+public class EventLogFile
+{
+    public static final String COMPRESSED_EXTENSION = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Supplier<Path> mPathSupplier;
+    private String mHeader;
+    private long mRotationSize;
+    private boolean mRotationDaily;
+    private boolean mCompressed;
+    private Writer mWriter;
+    private Path mPath;
+    private LocalDate mDate;
+    private long mSize;
+    private boolean mDirty;
+
+    /**
+     * Constructs an instance.  The file is created when the first entry is written.
+     * @param pathSupplier for the initial and each rotated log file.  Paths should be unique, for example by including
+     * a timestamp.  The compressed extension is added when the file is compressed.
+     * @param header to write at the start of each file, or null
+     * @param rotationSize in (uncompressed) bytes to start a new file, or 0 to disable size rotation
+     * @param rotationDaily to start a new file at the start of each day
+     * @param compressed to write gzip compressed files
+     */
+    public EventLogFile(Supplier<Path> pathSupplier, String header, long rotationSize, boolean rotationDaily,
+                        boolean compressed)
+    {
+        mPathSupplier = pathSupplier;
+        mHeader = header;
+        mRotationSize = rotationSize;
+        mRotationDaily = rotationDaily;
+        mCompressed = compressed;
+    }
+
+    /**
+     * Current log file, or null if the file has not been created.
+     */
+    public Path getPath()
+    {
+        return mPath;
+    }
+
+    /**
+     * Indicates if entries have been written since the last flush.
+     */
+    public boolean isDirty()
+    {
+        return mDirty;
+    }
+
+    /**
+     * Creates the log file, if not already created, and writes the header.
+     * @return true if a new file was created
+     */
+    public boolean open() throws IOException
+    {
+        if(mWriter != null)
+        {
+            return false;
+        }
+
+        Path path = mPathSupplier.get();
+
+        if(mCompressed)
+        {
+            path = path.resolveSibling(path.getFileName() + COMPRESSED_EXTENSION);
+        }
+
+        path = getUniquePath(path);
+
+        OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE_NEW);
+
+        if(mCompressed)
+        {
+            out = new GZIPOutputStream(out, BUFFER_SIZE, true);
+        }
+
+        mWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        mPath = path;
+        mDate = LocalDate.now();
+        mSize = 0;
+
+        if(mHeader != null)
+        {
+            append(mHeader);
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes the entry, followed by a line separator, starting a new file first when a rotation is due.
+     * @return true if a new file was created for this entry
+     */
+    public boolean write(String entry) throws IOException
+    {
+        boolean created = false;
+
+        if(mWriter != null && isRotationDue())
+        {
+            close();
+        }
+
+        if(mWriter == null)
+        {
+            created = open();
+        }
+
+        append(entry != null ? entry : "");
+        return created;
+    }
+
+    private void append(String entry) throws IOException
+    {
+        mWriter.write(entry);
+        mWriter.write('\n');
+        mSize += entry.length() + 1;
+        mDirty = true;
+    }
+
+    private boolean isRotationDue()
+    {
+        return (mRotationSize > 0 && mSize >= mRotationSize) || (mRotationDaily && !LocalDate.now().equals(mDate));
+    }
+
+    /**
+     * Writes buffered entries to the file.
+     */
+    public void flush() throws IOException
+    {
+        if(mWriter != null && mDirty)
+        {
+            mWriter.flush();
+        }
+
+        mDirty = false;
+    }
+
+    /**
+     * Flushes and closes the current file.  A subsequent write starts a new file.
+     */
+    public void close() throws IOException
+    {
+        if(mWriter != null)
+        {
+            try
+            {
+                mWriter.close();
+            }
+            finally
+            {
+                mWriter = null;
+                mDirty = false;
+            }
+        }
+    }
+
+    /**
+     * Adds a numeric suffix ahead of the file extension when the path already exists.
+     */
+    private static Path getUniquePath(Path path)
+    {
+        if(!Files.exists(path))
+        {
+            return path;
+        }
+
+        String name = path.getFileName().toString();
+        int extension = name.endsWith(COMPRESSED_EXTENSION) ?
+            name.lastIndexOf('.', name.length() - COMPRESSED_EXTENSION.length() - 1) : name.lastIndexOf('.');
+        String base = extension > 0 ? name.substring(0, extension) : name;
+        String suffix = extension > 0 ? name.substring(extension) : "";
+
+        for(int series = 2; ; series++)
+        {
+            Path candidate = path.resolveSibling(base + "_" + series + suffix);
+
+            if(!Files.exists(candidate))
+            {
+                return candidate;
+            }
+        }
+    }
+}
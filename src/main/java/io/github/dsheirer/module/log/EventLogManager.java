@@ -19,10 +19,13 @@
  */
 package io.github.dsheirer.module.log;
 
+import com.google.common.eventbus.Subscribe;
 import io.github.dsheirer.alias.AliasModel;
 import io.github.dsheirer.controller.channel.Channel;
+import io.github.dsheirer.eventbus.MyEventBus;
 import io.github.dsheirer.module.Module;
 import io.github.dsheirer.module.log.config.EventLogConfiguration;
+import io.github.dsheirer.preference.PreferenceType;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.source.config.SourceConfigTuner;
 import io.github.dsheirer.util.StringUtils;
@@ -39,11 +42,49 @@ public class EventLogManager
 
     private UserPreferences mUserPreferences;
     private AliasModel mAliasModel;
+    private Path mEventLogDirectory;
 
     public EventLogManager(AliasModel aliasModel, UserPreferences userPreferences)
+    {
+        this(aliasModel, userPreferences, null);
+    }
+
+    /**
+     * Constructs an instance that writes event logs to the specified directory instead of the event log directory
+     * from the user preferences.
+     * @param aliasModel for aliasing
+     * @param userPreferences for user settings
+     * @param eventLogDirectory for event logs or null to use the user preference event log directory
+     */
+    public EventLogManager(AliasModel aliasModel, UserPreferences userPreferences, Path eventLogDirectory)
     {
         mAliasModel = aliasModel;
         mUserPreferences = userPreferences;
+        mEventLogDirectory = eventLogDirectory;
+        EventLogWriter.getInstance().configure(mUserPreferences.getEventLogPreference());
+        MyEventBus.getGlobalEventBus().register(this);
+    }
+
+    /**
+     * Unregisters this manager from preference update notifications
+     */
+    public void dispose()
+    {
+        MyEventBus.getGlobalEventBus().unregister(this);
+    }
+
+    /**
+     * Receives preference update notifications via the event bus and applies event log preference changes to the
+     * event log writer.
+     * @param preferenceType that was updated
+     */
+    @Subscribe
+    public void preferenceUpdated(PreferenceType preferenceType)
+    {
+        if(preferenceType == PreferenceType.EVENT_LOG)
+        {
+            EventLogWriter.getInstance().configure(mUserPreferences.getEventLogPreference());
+        }
     }
 
     public List<Module> getLoggers(Channel channel)
@@ -91,7 +132,8 @@ public class EventLogManager
         sb.append(eventLogType.getFileSuffix());
         sb.append(".log");
 
-        Path eventLogDirectory = mUserPreferences.getDirectoryPreference().getDirectoryEventLog();
+        Path eventLogDirectory = mEventLogDirectory != null ? mEventLogDirectory :
+            mUserPreferences.getDirectoryPreference().getDirectoryEventLog();
 
         switch(eventLogType)
         {
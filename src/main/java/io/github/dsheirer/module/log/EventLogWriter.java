@@ -0,0 +1,440 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.module.log;
+
+import io.github.dsheirer.metrics.IMetricsProvider;
+import io.github.dsheirer.metrics.Metric;
+import io.github.dsheirer.metrics.MetricNames;
+import io.github.dsheirer.metrics.MetricsRegistry;
+import io.github.dsheirer.preference.eventlog.EventLogPreference;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared background writer for the call event and decoded message logs.
+ *
+ * Event loggers queue log entries and return immediately.  A single writer thread drains the queue in batches,
+ * writes the entries through buffered log files and flushes the files when the number of pending entries reaches the
+ * flush size or when the flush interval elapses, so that the decoder threads never block on file I/O and the log
+ * files are flushed a few times per second instead of once per entry.  Producers block when the queue is full, so
+ * log entries are never discarded.
+ *
+ * Once the writer thread is started, the queued entries are written and the log files closed when the JVM shuts down.
+ */
+public class EventLogWriter implements IMetricsProvider
+{
+    private final static Logger mLog = LoggerFactory.getLogger(EventLogWriter.class);
+    private static final int QUEUE_CAPACITY = 65536;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+    private static EventLogWriter sInstance;
+
+    private BlockingQueue<Request> mQueue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private Set<EventLogFile> mOpenFiles = new HashSet<>();
+    private AtomicLong mEntriesWritten = new AtomicLong();
+    private AtomicLong mFlushCount = new AtomicLong();
+    private AtomicLong mFilesCreated = new AtomicLong();
+    private AtomicLong mErrorCount = new AtomicLong();
+    private volatile long mFlushIntervalMs = EventLogPreference.DEFAULT_FLUSH_INTERVAL_MS;
+    private volatile int mFlushSize = EventLogPreference.DEFAULT_FLUSH_SIZE;
+    private volatile long mRotationSize;
+    private volatile boolean mRotationDaily;
+    private volatile boolean mCompressed;
+    private volatile int mOpenFileCount;
+    private Thread mWriterThread;
+
+    /**
+     * Constructs an instance.  Use getInstance() to access the shared writer.
+     */
+    EventLogWriter()
+    {
+    }
+
+    /**
+     * Shared event log writer
+     */
+    public static synchronized EventLogWriter getInstance()
+    {
+        if(sInstance == null)
+        {
+            sInstance = new EventLogWriter();
+            MetricsRegistry.getInstance().register(sInstance);
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Applies the flush, rotation and compression settings.  Rotation and compression settings apply to log files
+     * opened after this call.
+     */
+    public void configure(EventLogPreference preference)
+    {
+        setFlushInterval(preference.getFlushIntervalMs(), preference.getFlushSize());
+        setRotation(preference.getRotationSizeMb() * 1024L * 1024L, preference.isRotationDaily());
+        setCompressed(preference.isCompressed());
+    }
+
+    /**
+     * Sets the maximum time that an entry is held before it is written and the number of pending entries that causes
+     * an early flush.
+     * @param milliseconds flush interval
+     * @param entries flush size
+     */
+    public void setFlushInterval(long milliseconds, int entries)
+    {
+        mFlushIntervalMs = Math.max(1, milliseconds);
+        mFlushSize = Math.max(1, entries);
+    }
+
+    /**
+     * Sets the log file rotation.
+     * @param size in bytes to start a new log file, or 0 to disable size rotation
+     * @param daily to start a new log file at the start of each day
+     */
+    public void setRotation(long size, boolean daily)
+    {
+        mRotationSize = Math.max(0, size);
+        mRotationDaily = daily;
+    }
+
+    /**
+     * Sets gzip compression for log files
+     */
+    public void setCompressed(boolean compressed)
+    {
+        mCompressed = compressed;
+    }
+
+    /**
+     * Creates a log file using the current rotation and compression settings and queues creation of the file.
+     * @param pathSupplier for the initial and each rotated log file
+     * @param header to write at the start of each file, or null
+     * @return log file to use for writing entries
+     */
+    public EventLogFile open(Supplier<Path> pathSupplier, String header)
+    {
+        EventLogFile file = new EventLogFile(pathSupplier, header, mRotationSize, mRotationDaily, mCompressed);
+        enqueue(new Request(Action.OPEN, file, null, null));
+        return file;
+    }
+
+    /**
+     * Queues the entry for writing to the log file.
+     */
+    public void write(EventLogFile file, String entry)
+    {
+        if(file != null)
+        {
+            enqueue(new Request(Action.WRITE, file, entry, null));
+        }
+    }
+
+    /**
+     * Queues closing of the log file, after any entries already queued for the file are written.
+     */
+    public void close(EventLogFile file)
+    {
+        if(file != null)
+        {
+            enqueue(new Request(Action.CLOSE, file, null, null));
+        }
+    }
+
+    /**
+     * Waits until the entries queued prior to this call are written and the log files are flushed.
+     * @param timeout in milliseconds
+     * @return true if flushed or false if the timeout elapsed
+     */
+    public boolean flush(long timeout) throws InterruptedException
+    {
+        CountDownLatch latch = new CountDownLatch(1);
+        enqueue(new Request(Action.FLUSH, null, null, latch));
+        return latch.await(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the queued entries and closes the open log files.
+     */
+    private void shutdown()
+    {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.currentTimeMillis();
+
+        try
+        {
+            //Wait for the writer thread to make room in a full queue so that the final flush is not skipped
+            if(mQueue.offer(new Request(Action.SHUTDOWN, null, null, latch), SHUTDOWN_TIMEOUT_MS,
+                TimeUnit.MILLISECONDS))
+            {
+                long remaining = Math.max(0, SHUTDOWN_TIMEOUT_MS - (System.currentTimeMillis() - start));
+
+                if(!latch.await(remaining, TimeUnit.MILLISECONDS))
+                {
+                    mLog.warn("Timeout while writing event log entries at shutdown - [" + mQueue.size() +
+                        "] queued entries may not be written");
+                }
+            }
+            else
+            {
+                mLog.warn("Event log queue is full at shutdown - [" + mQueue.size() + "] queued entries were not " +
+                    "written and the log files were not closed");
+            }
+        }
+        catch(InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Current number of queued requests
+     */
+    public int getQueueDepth()
+    {
+        return mQueue.size();
+    }
+
+    private void enqueue(Request request)
+    {
+        startWriterThread();
+
+        try
+        {
+            mQueue.put(request);
+        }
+        catch(InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            mLog.warn("Interrupted while queueing event log entry - entry not logged");
+        }
+    }
+
+    private synchronized void startWriterThread()
+    {
+        if(mWriterThread == null)
+        {
+            mWriterThread = new Thread(new Processor(), "sdrtrunk event log writer");
+            mWriterThread.setDaemon(true);
+            mWriterThread.start();
+
+            //Only register the shutdown hook once there is a writer thread to complete the shutdown request
+            Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "sdrtrunk event log shutdown"));
+        }
+    }
+
+    @Override
+    public void collectMetrics(List<Metric> metrics)
+    {
+        metrics.add(Metric.gauge(MetricNames.EVENT_LOG_QUEUE_DEPTH, "Event log entries waiting to be written",
+            mQueue.size()));
+        metrics.add(Metric.gauge(MetricNames.EVENT_LOG_QUEUE_CAPACITY, "Event log queue capacity", QUEUE_CAPACITY));
+        metrics.add(Metric.counter(MetricNames.EVENT_LOG_ENTRIES, "Event log entries written", mEntriesWritten.get()));
+        metrics.add(Metric.counter(MetricNames.EVENT_LOG_FLUSHES, "Event log file flushes", mFlushCount.get()));
+        metrics.add(Metric.counter(MetricNames.EVENT_LOG_FILES_CREATED, "Event log files created, including " +
+            "rotated files", mFilesCreated.get()));
+        metrics.add(Metric.counter(MetricNames.EVENT_LOG_ERRORS, "Event log file errors", mErrorCount.get()));
+        metrics.add(Metric.gauge(MetricNames.EVENT_LOG_OPEN_FILES, "Open event log files", mOpenFileCount));
+    }
+
+    private enum Action
+    {
+        OPEN, WRITE, CLOSE, FLUSH, SHUTDOWN
+    }
+
+    /**
+     * Queued writer request
+     * @param action to perform
+     * @param file for open, write and close actions
+     * @param entry to write
+     * @param latch to release once a flush or shutdown completes
+     */
+    private record Request(Action action, EventLogFile file, String entry, CountDownLatch latch) {}
+
+    /**
+     * Writer thread that drains the queue in batches and flushes the log files.
+     */
+    private class Processor implements Runnable
+    {
+        private List<Request> mBatch = new ArrayList<>();
+        private int mPendingCount;
+        private long mNextFlush;
+
+        @Override
+        public void run()
+        {
+            mNextFlush = System.currentTimeMillis() + mFlushIntervalMs;
+
+            while(true)
+            {
+                try
+                {
+                    long wait = Math.max(0, mNextFlush - System.currentTimeMillis());
+                    Request request = mPendingCount > 0 ? mQueue.poll(wait, TimeUnit.MILLISECONDS) : mQueue.take();
+
+                    if(request != null)
+                    {
+                        mBatch.add(request);
+                        mQueue.drainTo(mBatch, mFlushSize);
+
+                        for(Request queued: mBatch)
+                        {
+                            process(queued);
+                        }
+
+                        mBatch.clear();
+                    }
+
+                    if(mPendingCount >= mFlushSize || System.currentTimeMillis() >= mNextFlush)
+                    {
+                        flushAll();
+                    }
+                }
+                catch(InterruptedException ie)
+                {
+                    mBatch.clear();
+                }
+                catch(Exception e)
+                {
+                    mBatch.clear();
+                    mLog.error("Error processing event log entries", e);
+                }
+            }
+        }
+
+        private void process(Request request)
+        {
+            switch(request.action())
+            {
+                case OPEN -> write(request.file(), null);
+                case WRITE -> write(request.file(), request.entry());
+                case CLOSE ->
+                {
+                    try
+                    {
+                        request.file().close();
+                    }
+                    catch(IOException ioe)
+                    {
+                        error(request.file(), ioe);
+                    }
+
+                    mOpenFiles.remove(request.file());
+                    mOpenFileCount = mOpenFiles.size();
+                }
+                case FLUSH ->
+                {
+                    flushAll();
+                    request.latch().countDown();
+                }
+                case SHUTDOWN ->
+                {
+                    flushAll();
+
+                    for(EventLogFile file: mOpenFiles)
+                    {
+                        try
+                        {
+                            file.close();
+                        }
+                        catch(IOException ioe)
+                        {
+                            error(file, ioe);
+                        }
+                    }
+
+                    mOpenFiles.clear();
+                    mOpenFileCount = 0;
+                    request.latch().countDown();
+                }
+            }
+        }
+
+        /**
+         * Writes the entry to the file, or only opens the file when the entry is null.
+         */
+        private void write(EventLogFile file, String entry)
+        {
+            try
+            {
+                boolean created = entry == null ? file.open() : file.write(entry);
+
+                if(created)
+                {
+                    mFilesCreated.incrementAndGet();
+                    mOpenFiles.add(file);
+                    mOpenFileCount = mOpenFiles.size();
+                }
+
+                if(entry != null)
+                {
+                    mEntriesWritten.incrementAndGet();
+                }
+
+                mPendingCount++;
+            }
+            catch(IOException ioe)
+            {
+                error(file, ioe);
+            }
+        }
+
+        private void flushAll()
+        {
+            for(EventLogFile file: mOpenFiles)
+            {
+                if(file.isDirty())
+                {
+                    try
+                    {
+                        file.flush();
+                        mFlushCount.incrementAndGet();
+                    }
+                    catch(IOException ioe)
+                    {
+                        error(file, ioe);
+                    }
+                }
+            }
+
+            mPendingCount = 0;
+            mNextFlush = System.currentTimeMillis() + mFlushIntervalMs;
+        }
+
+        private void error(EventLogFile file, IOException ioe)
+        {
+            //Log the first error and then periodically so that a full disk doesn't flood the application log
+            if(mErrorCount.getAndIncrement() % 1000 == 0)
+            {
+                mLog.error("Error writing event log file [" + file.getPath() + "]", ioe);
+            }
+        }
+    }
+}
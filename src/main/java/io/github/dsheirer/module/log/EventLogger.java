@@ -20,24 +20,18 @@ package io.github.dsheirer.module.log;
 
 import io.github.dsheirer.module.Module;
 import io.github.dsheirer.util.TimeStamp;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.nio.file.Path;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+/**
+ * Base event logger.  Log entries are queued to the shared event log writer, which writes them to the log file on a
+ * background thread, so that logging never blocks the decoder on file I/O.
+ */
 public abstract class EventLogger extends Module
 {
-    private final static Logger mLog = LoggerFactory.getLogger(EventLogger.class);
-
     private Path mLogDirectory;
     private String mFileNameSuffix;
-    private String mLogFileName;
     private long mFrequency;
-    protected Writer mLogFile;
+    private EventLogFile mLogFile;
 
     public EventLogger(Path logDirectory, String fileNameSuffix, long frequency)
     {
@@ -48,9 +42,9 @@ public abstract class EventLogger extends Module
 
     public String toString()
     {
-        if(mLogFileName != null)
+        if(mLogFile != null && mLogFile.getPath() != null)
         {
-            return mLogFileName;
+            return mLogFile.getPath().toString();
         }
         else
         {
@@ -60,31 +54,27 @@ public abstract class EventLogger extends Module
 
     public abstract String getHeader();
 
+    /**
+     * Creates a log file path for the current time.  A new path is created each time the log file is rotated.
+     */
+    private Path createLogFilePath()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(TimeStamp.getLongTimeStamp("_"));
+        sb.append("_");
+        sb.append(mFrequency);
+        sb.append("_Hz_");
+        sb.append(mFileNameSuffix);
+
+        return mLogDirectory.resolve(sb.toString());
+    }
+
     @Override
     public void start()
     {
         if(mLogFile == null)
         {
-            try
-            {
-                StringBuilder sb = new StringBuilder();
-                sb.append(mLogDirectory);
-                sb.append(File.separator);
-                sb.append(TimeStamp.getLongTimeStamp("_"));
-                sb.append("_");
-                sb.append(mFrequency);
-                sb.append("_Hz_");
-                sb.append(mFileNameSuffix);
-
-                mLogFileName = sb.toString();
-                mLogFile = new OutputStreamWriter(new FileOutputStream(mLogFileName));
-
-                write(getHeader());
-            }
-            catch(FileNotFoundException e)
-            {
-                mLog.error("Couldn't create log file in directory:" + mLogDirectory);
-            }
+            mLogFile = EventLogWriter.getInstance().open(this::createLogFilePath, getHeader());
         }
     }
 
@@ -92,32 +82,21 @@ public abstract class EventLogger extends Module
     {
         if(mLogFile != null)
         {
-            try
-            {
-                mLogFile.flush();
-                mLogFile.close();
-                mLogFile = null;
-            }
-            catch(Exception e)
-            {
-                mLog.error("Couldn't close log file:" + mFileNameSuffix);
-            }
+            EventLogWriter.getInstance().close(mLogFile);
+            mLogFile = null;
         }
     }
 
+    /**
+     * Queues the entry for writing to the log file.
+     */
     protected void write(String eventLogEntry)
     {
-        try
-        {
-            if(mLogFile != null)
-            {
-                mLogFile.write((eventLogEntry != null ? eventLogEntry : "") + "\n");
-                mLogFile.flush();
-            }
-        }
-        catch(Exception e)
+        EventLogFile logFile = mLogFile;
+
+        if(logFile != null)
         {
-            mLog.error("Error writing entry to event log file", e);
+            EventLogWriter.getInstance().write(logFile, eventLogEntry);
         }
     }
 }
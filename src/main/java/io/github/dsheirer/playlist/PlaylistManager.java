@@ -439,6 +439,34 @@ public class PlaylistManager implements Listener<ChannelEvent>
         }
     }
 
+    /**
+     * Reads and updates the playlist file without registering it as the current playlist and without saving any
+     * updates, for read-only uses such as batch decoding.
+     * @param path to the playlist file
+     * @return playlist
+     * @throws IOException if the file can't be read or is not a playlist
+     */
+    public static PlaylistV2 read(Path path) throws IOException
+    {
+        JacksonXmlModule xmlModule = new JacksonXmlModule();
+        xmlModule.setDefaultUseWrapper(false);
+        ObjectMapper objectMapper = new XmlMapper(xmlModule)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        try(InputStream in = Files.newInputStream(path))
+        {
+            PlaylistV2 playlist = objectMapper.readValue(in, PlaylistV2.class);
+
+            if(playlist == null)
+            {
+                throw new IOException("Unable to read playlist [" + path + "]");
+            }
+
+            PlaylistUpdater.update(playlist);
+            return playlist;
+        }
+    }
+
     /**
      * Loads a version 2 playlist
      */
@@ -28,8 +28,10 @@ public enum PreferenceType
     DECODE_EVENT,
     DIRECTORY,
     DUPLICATE_CALL_DETECTION,
+    EVENT_LOG,
     JMBE_LIBRARY,
     MP3,
+    METRICS,
     MULTI_FREQUENCY,
     PLAYLIST,
     PLAYBACK,
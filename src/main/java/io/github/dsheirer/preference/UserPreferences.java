@@ -25,8 +25,10 @@ import io.github.dsheirer.preference.decoder.JmbeLibraryPreference;
 import io.github.dsheirer.preference.directory.DirectoryPreference;
 import io.github.dsheirer.preference.duplicate.DuplicateCallDetectionPreference;
 import io.github.dsheirer.preference.event.DecodeEventPreference;
+import io.github.dsheirer.preference.eventlog.EventLogPreference;
 import io.github.dsheirer.preference.identifier.TalkgroupFormatPreference;
 import io.github.dsheirer.preference.javafx.JavaFxPreferences;
+import io.github.dsheirer.preference.metrics.MetricsPreference;
 import io.github.dsheirer.preference.mp3.MP3Preference;
 import io.github.dsheirer.preference.playback.PlaybackPreference;
 import io.github.dsheirer.preference.playlist.PlaylistPreference;
@@ -60,7 +62,9 @@ public class UserPreferences implements Listener<PreferenceType>
     private DecodeEventPreference mDecodeEventPreference;
     private DirectoryPreference mDirectoryPreference;
     private DuplicateCallDetectionPreference mDuplicateCallDetectionPreference;
+    private EventLogPreference mEventLogPreference;
     private JmbeLibraryPreference mJmbeLibraryPreference;
+    private MetricsPreference mMetricsPreference;
     private MP3Preference mMP3Preference;
     private PlaybackPreference mPlaybackPreference;
     private PlaylistPreference mPlaylistPreference;
@@ -157,6 +161,14 @@ public class UserPreferences implements Listener<PreferenceType>
         return mRecordPreference;
     }
 
+    /**
+     * Runtime pipeline metrics preferences
+     */
+    public MetricsPreference getMetricsPreference()
+    {
+        return mMetricsPreference;
+    }
+
     /**
      * MP3 preferences
      */
@@ -198,6 +210,14 @@ public class UserPreferences implements Listener<PreferenceType>
         return mDuplicateCallDetectionPreference;
     }
 
+    /**
+     * Call event and decoded message log file preferences
+     */
+    public EventLogPreference getEventLogPreference()
+    {
+        return mEventLogPreference;
+    }
+
     /**
      * Loads the managed preferences
      */
@@ -208,7 +228,9 @@ public class UserPreferences implements Listener<PreferenceType>
         mDecodeEventPreference = new DecodeEventPreference(this::receive);
         mDirectoryPreference = new DirectoryPreference(this::receive);
         mDuplicateCallDetectionPreference = new DuplicateCallDetectionPreference(this::receive);
+        mEventLogPreference = new EventLogPreference(this::receive);
         mJmbeLibraryPreference = new JmbeLibraryPreference(this::receive);
+        mMetricsPreference = new MetricsPreference(this::receive);
         mMP3Preference = new MP3Preference(this::receive);
         mPlaybackPreference = new PlaybackPreference(this::receive);
         mPlaylistPreference = new PlaylistPreference(this::receive, mDirectoryPreference);
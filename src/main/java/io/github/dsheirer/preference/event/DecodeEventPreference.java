@@ -38,6 +38,12 @@ public class DecodeEventPreference extends Preference
     private Preferences mPreferences = Preferences.userNodeForPackage(DecodeEventPreference.class);
     private TimestampFormat mTimestampFormat = TimestampFormat.TIMESTAMP_DEFAULT;
     private static final String TIMESTAMP_FORMAT_KEY = "timestamp.format";
+    private static final String MAP_ENTITY_RETENTION_KEY = "map.entity.retention.minutes";
+    private static final String MAP_ENTITY_MAXIMUM_KEY = "map.entity.maximum";
+    public static final int DEFAULT_MAP_ENTITY_RETENTION_MINUTES = 120;
+    public static final int DEFAULT_MAP_ENTITY_MAXIMUM = 1000;
+    private Integer mMapEntityRetention;
+    private Integer mMapEntityMaximum;
 
     public DecodeEventPreference(Listener<PreferenceType> updateListener)
     {
@@ -87,4 +93,51 @@ public class DecodeEventPreference extends Preference
         mPreferences.put(TIMESTAMP_FORMAT_KEY, mTimestampFormat.name());
         notifyPreferenceUpdated();
     }
+
+    /**
+     * Number of minutes that a plotted map entity is retained after its most recent location update.
+     */
+    public int getMapEntityRetention()
+    {
+        if(mMapEntityRetention == null)
+        {
+            mMapEntityRetention = mPreferences.getInt(MAP_ENTITY_RETENTION_KEY, DEFAULT_MAP_ENTITY_RETENTION_MINUTES);
+        }
+
+        return mMapEntityRetention;
+    }
+
+    /**
+     * Sets the number of minutes that a plotted map entity is retained after its most recent location update.
+     */
+    public void setMapEntityRetention(int minutes)
+    {
+        mMapEntityRetention = minutes;
+        mPreferences.putInt(MAP_ENTITY_RETENTION_KEY, minutes);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Maximum number of plotted map entities.  The least recently updated entities are removed from the map when this
+     * limit is exceeded.
+     */
+    public int getMapEntityMaximum()
+    {
+        if(mMapEntityMaximum == null)
+        {
+            mMapEntityMaximum = mPreferences.getInt(MAP_ENTITY_MAXIMUM_KEY, DEFAULT_MAP_ENTITY_MAXIMUM);
+        }
+
+        return mMapEntityMaximum;
+    }
+
+    /**
+     * Sets the maximum number of plotted map entities.
+     */
+    public void setMapEntityMaximum(int maximum)
+    {
+        mMapEntityMaximum = maximum;
+        mPreferences.putInt(MAP_ENTITY_MAXIMUM_KEY, maximum);
+        notifyPreferenceUpdated();
+    }
 }
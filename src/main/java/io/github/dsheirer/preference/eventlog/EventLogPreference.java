@@ -0,0 +1,179 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.preference.eventlog;
+
+import io.github.dsheirer.preference.Preference;
+import io.github.dsheirer.preference.PreferenceType;
+import io.github.dsheirer.sample.Listener;
+import java.util.prefs.Preferences;
+
+/**
+ * Call event and decoded message log file preferences
+ */
+public class EventLogPreference extends Preference
+{
+    private static final String PREFERENCE_KEY_FLUSH_INTERVAL_MS = "event.log.flush.interval.ms";
+    private static final String PREFERENCE_KEY_FLUSH_SIZE = "event.log.flush.size";
+    private static final String PREFERENCE_KEY_ROTATION_SIZE_MB = "event.log.rotation.size.mb";
+    private static final String PREFERENCE_KEY_ROTATION_DAILY = "event.log.rotation.daily";
+    private static final String PREFERENCE_KEY_COMPRESSED = "event.log.compressed";
+    public static final int DEFAULT_FLUSH_INTERVAL_MS = 1000;
+    public static final int DEFAULT_FLUSH_SIZE = 256;
+
+    private Preferences mPreferences = Preferences.userNodeForPackage(EventLogPreference.class);
+    private Integer mFlushIntervalMs;
+    private Integer mFlushSize;
+    private Integer mRotationSizeMb;
+    private Boolean mRotationDaily;
+    private Boolean mCompressed;
+
+    /**
+     * Constructs this preference with an update listener
+     *
+     * @param updateListener to receive notifications whenever these preferences change
+     */
+    public EventLogPreference(Listener<PreferenceType> updateListener)
+    {
+        super(updateListener);
+    }
+
+    @Override
+    public PreferenceType getPreferenceType()
+    {
+        return PreferenceType.EVENT_LOG;
+    }
+
+    /**
+     * Maximum time in milliseconds that a log entry is held before it is written to the log file
+     */
+    public int getFlushIntervalMs()
+    {
+        if(mFlushIntervalMs == null)
+        {
+            mFlushIntervalMs = mPreferences.getInt(PREFERENCE_KEY_FLUSH_INTERVAL_MS, DEFAULT_FLUSH_INTERVAL_MS);
+        }
+
+        return mFlushIntervalMs;
+    }
+
+    /**
+     * Sets the maximum time that a log entry is held before it is written to the log file
+     * @param milliseconds interval, minimum of 10 milliseconds
+     */
+    public void setFlushIntervalMs(int milliseconds)
+    {
+        mFlushIntervalMs = Math.max(10, milliseconds);
+        mPreferences.putInt(PREFERENCE_KEY_FLUSH_INTERVAL_MS, mFlushIntervalMs);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Number of pending log entries that causes the log files to be flushed before the flush interval elapses
+     */
+    public int getFlushSize()
+    {
+        if(mFlushSize == null)
+        {
+            mFlushSize = mPreferences.getInt(PREFERENCE_KEY_FLUSH_SIZE, DEFAULT_FLUSH_SIZE);
+        }
+
+        return mFlushSize;
+    }
+
+    /**
+     * Sets the number of pending log entries that causes the log files to be flushed
+     * @param entries count, minimum of 1
+     */
+    public void setFlushSize(int entries)
+    {
+        mFlushSize = Math.max(1, entries);
+        mPreferences.putInt(PREFERENCE_KEY_FLUSH_SIZE, mFlushSize);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Log file size in megabytes that causes the log to continue in a new file, or 0 to disable size rotation
+     */
+    public int getRotationSizeMb()
+    {
+        if(mRotationSizeMb == null)
+        {
+            mRotationSizeMb = mPreferences.getInt(PREFERENCE_KEY_ROTATION_SIZE_MB, 0);
+        }
+
+        return mRotationSizeMb;
+    }
+
+    /**
+     * Sets the log file size in megabytes that causes the log to continue in a new file
+     * @param megabytes size, or 0 to disable size rotation
+     */
+    public void setRotationSizeMb(int megabytes)
+    {
+        mRotationSizeMb = Math.max(0, megabytes);
+        mPreferences.putInt(PREFERENCE_KEY_ROTATION_SIZE_MB, mRotationSizeMb);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Indicates if logs continue in a new file at the start of each day
+     */
+    public boolean isRotationDaily()
+    {
+        if(mRotationDaily == null)
+        {
+            mRotationDaily = mPreferences.getBoolean(PREFERENCE_KEY_ROTATION_DAILY, false);
+        }
+
+        return mRotationDaily;
+    }
+
+    /**
+     * Sets the enabled state for continuing logs in a new file at the start of each day
+     */
+    public void setRotationDaily(boolean daily)
+    {
+        mRotationDaily = daily;
+        mPreferences.putBoolean(PREFERENCE_KEY_ROTATION_DAILY, daily);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Indicates if log files are written gzip compressed
+     */
+    public boolean isCompressed()
+    {
+        if(mCompressed == null)
+        {
+            mCompressed = mPreferences.getBoolean(PREFERENCE_KEY_COMPRESSED, false);
+        }
+
+        return mCompressed;
+    }
+
+    /**
+     * Sets the enabled state for writing gzip compressed log files
+     */
+    public void setCompressed(boolean compressed)
+    {
+        mCompressed = compressed;
+        mPreferences.putBoolean(PREFERENCE_KEY_COMPRESSED, compressed);
+        notifyPreferenceUpdated();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.preference.metrics;
+
+import io.github.dsheirer.preference.Preference;
+import io.github.dsheirer.preference.PreferenceType;
+import io.github.dsheirer.sample.Listener;
+import java.util.prefs.Preferences;
+
+/**
+ * Runtime pipeline metrics preferences
+ */
+public class MetricsPreference extends Preference
+{
+    private static final String PREFERENCE_KEY_LOG_ENABLED = "metrics.log.enabled";
+    private static final String PREFERENCE_KEY_LOG_INTERVAL_SECONDS = "metrics.log.interval.seconds";
+    private static final String PREFERENCE_KEY_HTTP_ENABLED = "metrics.http.enabled";
+    private static final String PREFERENCE_KEY_HTTP_PORT = "metrics.http.port";
+    public static final int DEFAULT_LOG_INTERVAL_SECONDS = 60;
+    public static final int DEFAULT_HTTP_PORT = 9464;
+
+    private Preferences mPreferences = Preferences.userNodeForPackage(MetricsPreference.class);
+    private Boolean mLogEnabled;
+    private Integer mLogIntervalSeconds;
+    private Boolean mHttpEnabled;
+    private Integer mHttpPort;
+
+    /**
+     * Constructs this preference with an update listener
+     *
+     * @param updateListener to receive notifications whenever these preferences change
+     */
+    public MetricsPreference(Listener<PreferenceType> updateListener)
+    {
+        super(updateListener);
+    }
+
+    @Override
+    public PreferenceType getPreferenceType()
+    {
+        return PreferenceType.METRICS;
+    }
+
+    /**
+     * Indicates if the metrics summary is periodically written to the application log
+     */
+    public boolean isLogEnabled()
+    {
+        if(mLogEnabled == null)
+        {
+            mLogEnabled = mPreferences.getBoolean(PREFERENCE_KEY_LOG_ENABLED, true);
+        }
+
+        return mLogEnabled;
+    }
+
+    /**
+     * Sets the enabled state for periodically writing the metrics summary to the application log
+     */
+    public void setLogEnabled(boolean enabled)
+    {
+        mLogEnabled = enabled;
+        mPreferences.putBoolean(PREFERENCE_KEY_LOG_ENABLED, enabled);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Interval in seconds between metrics summary log entries
+     */
+    public int getLogIntervalSeconds()
+    {
+        if(mLogIntervalSeconds == null)
+        {
+            mLogIntervalSeconds = mPreferences.getInt(PREFERENCE_KEY_LOG_INTERVAL_SECONDS, DEFAULT_LOG_INTERVAL_SECONDS);
+        }
+
+        return mLogIntervalSeconds;
+    }
+
+    /**
+     * Sets the interval in seconds between metrics summary log entries
+     * @param seconds interval, minimum of 1 second
+     */
+    public void setLogIntervalSeconds(int seconds)
+    {
+        mLogIntervalSeconds = Math.max(1, seconds);
+        mPreferences.putInt(PREFERENCE_KEY_LOG_INTERVAL_SECONDS, mLogIntervalSeconds);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Indicates if the Prometheus text format metrics endpoint is enabled on the local (loopback) interface
+     */
+    public boolean isHttpEnabled()
+    {
+        if(mHttpEnabled == null)
+        {
+            mHttpEnabled = mPreferences.getBoolean(PREFERENCE_KEY_HTTP_ENABLED, false);
+        }
+
+        return mHttpEnabled;
+    }
+
+    /**
+     * Sets the enabled state for the Prometheus text format metrics endpoint
+     */
+    public void setHttpEnabled(boolean enabled)
+    {
+        mHttpEnabled = enabled;
+        mPreferences.putBoolean(PREFERENCE_KEY_HTTP_ENABLED, enabled);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Local TCP port for the metrics endpoint
+     */
+    public int getHttpPort()
+    {
+        if(mHttpPort == null)
+        {
+            mHttpPort = mPreferences.getInt(PREFERENCE_KEY_HTTP_PORT, DEFAULT_HTTP_PORT);
+        }
+
+        return mHttpPort;
+    }
+
+    /**
+     * Sets the local TCP port for the metrics endpoint
+     */
+    public void setHttpPort(int port)
+    {
+        if(port < 1 || port > 65535)
+        {
+            throw new IllegalArgumentException("Metrics HTTP port [" + port + "] must be in the range 1 - 65535");
+        }
+
+        mHttpPort = port;
+        mPreferences.putInt(PREFERENCE_KEY_HTTP_PORT, port);
+        notifyPreferenceUpdated();
+    }
+}
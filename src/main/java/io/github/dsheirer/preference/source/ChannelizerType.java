@@ -25,7 +25,8 @@ package io.github.dsheirer.preference.source;
 public enum ChannelizerType
 {
     POLYPHASE("Polyphase"),
-    HETERODYNE(" Heterodyne");
+    HETERODYNE(" Heterodyne"),
+    FAST_CONVOLUTION("Fast Convolution");
 
     private String mLabel;
 
@@ -35,8 +35,15 @@ public class TunerPreference extends Preference
     private final static Logger mLog = LoggerFactory.getLogger(TunerPreference.class);
     private Preferences mPreferences = Preferences.userNodeForPackage(TunerPreference.class);
     private static final String PREFERENCE_KEY_CHANNELIZER_TYPE = "channelizer.type";
+    private static final String PREFERENCE_KEY_CHANNELIZER_THREAD_COUNT = "channelizer.thread.count";
+    private static final String PREFERENCE_KEY_ZERO_COPY_BUFFER_COUNT = "usb.transfer.zero.copy.buffers";
+    private static final String PREFERENCE_KEY_PRE_ROLL_HISTORY_SIZE = "polyphase.pre.roll.history.megabytes";
+    private static final int DEFAULT_PRE_ROLL_HISTORY_SIZE = 32;
 
     private ChannelizerType mChannelizerType;
+    private Integer mChannelizerThreadCount;
+    private Integer mZeroCopyBufferCount;
+    private Integer mPreRollHistorySize;
 
     /**
      * Constructs a tuner preference with the update listener
@@ -74,6 +81,10 @@ public class TunerPreference extends Preference
                 {
                     mChannelizerType = ChannelizerType.HETERODYNE;
                 }
+                else if(type.equalsIgnoreCase(ChannelizerType.FAST_CONVOLUTION.name()))
+                {
+                    mChannelizerType = ChannelizerType.FAST_CONVOLUTION;
+                }
             }
 
             if(type == null)
@@ -94,4 +105,77 @@ public class TunerPreference extends Preference
         mPreferences.put(PREFERENCE_KEY_CHANNELIZER_TYPE, mChannelizerType.name());
         notifyPreferenceUpdated();
     }
+
+    /**
+     * Number of threads used by each polyphase channelizer to process the filter bank for a tuner sample buffer.
+     * Defaults to 1, where the filter bank is processed entirely on the tuner's buffer processing thread.
+     */
+    public int getChannelizerThreadCount()
+    {
+        if(mChannelizerThreadCount == null)
+        {
+            mChannelizerThreadCount = mPreferences.getInt(PREFERENCE_KEY_CHANNELIZER_THREAD_COUNT, 1);
+        }
+
+        return mChannelizerThreadCount;
+    }
+
+    /**
+     * Sets the number of threads used by each polyphase channelizer to process the filter bank.
+     */
+    public void setChannelizerThreadCount(int threadCount)
+    {
+        mChannelizerThreadCount = threadCount;
+        mPreferences.putInt(PREFERENCE_KEY_CHANNELIZER_THREAD_COUNT, threadCount);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Number of direct transfer buffers in the ring used by USB tuners to dispatch sample buffers without copying the
+     * USB transfer buffer contents.  Defaults to 0, where the transfer buffer contents are copied.
+     */
+    public int getZeroCopyBufferCount()
+    {
+        if(mZeroCopyBufferCount == null)
+        {
+            mZeroCopyBufferCount = mPreferences.getInt(PREFERENCE_KEY_ZERO_COPY_BUFFER_COUNT, 0);
+        }
+
+        return mZeroCopyBufferCount;
+    }
+
+    /**
+     * Sets the number of direct transfer buffers used by USB tuners for zero-copy sample buffers, or 0 to disable.
+     */
+    public void setZeroCopyBufferCount(int count)
+    {
+        mZeroCopyBufferCount = count;
+        mPreferences.putInt(PREFERENCE_KEY_ZERO_COPY_BUFFER_COUNT, count);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Size in megabytes of the polyphase channelizer output history, per tuner, that is used to pre-load newly
+     * started channels with the samples from the channel grant forward.  Defaults to 32 MB, or 0 to disable.
+     */
+    public int getPreRollHistorySize()
+    {
+        if(mPreRollHistorySize == null)
+        {
+            mPreRollHistorySize = mPreferences.getInt(PREFERENCE_KEY_PRE_ROLL_HISTORY_SIZE,
+                DEFAULT_PRE_ROLL_HISTORY_SIZE);
+        }
+
+        return mPreRollHistorySize;
+    }
+
+    /**
+     * Sets the size in megabytes of the polyphase channelizer output history, or 0 to disable.
+     */
+    public void setPreRollHistorySize(int megabytes)
+    {
+        mPreRollHistorySize = megabytes;
+        mPreferences.putInt(PREFERENCE_KEY_PRE_ROLL_HISTORY_SIZE, megabytes);
+        notifyPreferenceUpdated();
+    }
 }
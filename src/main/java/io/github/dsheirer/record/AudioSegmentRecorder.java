@@ -21,20 +21,21 @@ package io.github.dsheirer.record;
 
 import io.github.dsheirer.audio.AudioFormats;
 import io.github.dsheirer.audio.AudioSegment;
+import io.github.dsheirer.audio.convert.EncodedAudio;
+import io.github.dsheirer.audio.convert.EncodedAudioCache;
 import io.github.dsheirer.audio.convert.InputAudioFormat;
 import io.github.dsheirer.audio.convert.MP3AudioConverter;
+import io.github.dsheirer.audio.convert.MP3FrameTools;
 import io.github.dsheirer.audio.convert.MP3Setting;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.record.wave.AudioMetadata;
 import io.github.dsheirer.record.wave.AudioMetadataUtils;
 import io.github.dsheirer.record.wave.WaveWriter;
 import io.github.dsheirer.sample.ConversionUtils;
-import java.io.FileOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
-import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -82,41 +83,54 @@ public class AudioSegmentRecorder
     {
         if(audioSegment.hasAudio())
         {
-            OutputStream outputStream = new FileOutputStream(path.toFile());
+            EncodedAudio encodedAudio = encodeMP3(audioSegment, userPreferences);
 
-            //Write ID3 metadata
+            try
+            {
+                encodedAudio.write(path);
+            }
+            finally
+            {
+                encodedAudio.release();
+            }
+        }
+    }
+
+    /**
+     * Encodes the audio segment as MP3 audio with an ID3 tag.  The audio segment is encoded once and the encoded
+     * audio is shared with all consumers of the audio segment via the encoded audio cache.
+     *
+     * @param audioSegment to encode
+     * @return encoded audio that is retained for the caller.  The caller must release() the audio when finished.
+     * @throws IOException on any errors
+     */
+    public static EncodedAudio encodeMP3(AudioSegment audioSegment, UserPreferences userPreferences) throws IOException
+    {
+        return EncodedAudioCache.getInstance().get(audioSegment, () -> {
             Map<AudioMetadata,String> metadataMap = AudioMetadataUtils.getMetadataMap(audioSegment.getIdentifierCollection(),
                 audioSegment.getAliasList());
-
             byte[] id3Bytes = AudioMetadataUtils.getMP3ID3(metadataMap);
-            outputStream.write(id3Bytes);
 
-            //Convert audio to MP3 and write to file
             InputAudioFormat inputAudioFormat = userPreferences.getMP3Preference().getAudioSampleRate();
             MP3Setting mp3Setting = userPreferences.getMP3Preference().getMP3Setting();
-
             boolean normalizeAudio = userPreferences.getMP3Preference().isNormalizeAudioBeforeEncode();
 
+            //The converter output is not aligned to MP3 frames, so it is split on frame boundaries once here
             MP3AudioConverter converter = new MP3AudioConverter(inputAudioFormat, mp3Setting, normalizeAudio);
-            List<byte[]> mp3Frames = converter.convert(audioSegment.getAudioBuffers());
-            for(byte[] mp3Frame: mp3Frames)
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+            for(byte[] mp3Bytes: converter.convert(audioSegment.getAudioBuffers()))
             {
-                outputStream.write(mp3Frame);
+                stream.write(mp3Bytes);
             }
 
-            List<byte[]> lastFrames = converter.flush();
-
-            if(!lastFrames.isEmpty())
+            for(byte[] mp3Bytes: converter.flush())
             {
-                for(byte[] lastFrame: lastFrames)
-                {
-                    outputStream.write(lastFrame);
-                }
+                stream.write(mp3Bytes);
             }
 
-            outputStream.flush();
-            outputStream.close();
-        }
+            return new EncodedAudio(id3Bytes, MP3FrameTools.split(stream.toByteArray()));
+        });
     }
 
     /**
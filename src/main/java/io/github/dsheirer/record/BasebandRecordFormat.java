@@ -0,0 +1,51 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.record;
+
+/**
+ * Tuner baseband (I/Q) recording formats
+ */
+public enum BasebandRecordFormat
+{
+    WAVE(".wav", "WAVE (16-bit)"),
+    NATIVE(".nbb", "Native Tuner Samples");
+
+    private String mExtension;
+    private String mLabel;
+
+    BasebandRecordFormat(String extension, String label)
+    {
+        mExtension = extension;
+        mLabel = label;
+    }
+
+    /**
+     * File extension
+     */
+    public String getExtension()
+    {
+        return mExtension;
+    }
+
+    @Override
+    public String toString()
+    {
+        return mLabel;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.record;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.sample.Listener;
+
+/**
+ * Recorder for the complex (I/Q) sample buffers produced by a tuner.
+ */
+public interface IBasebandRecorder extends Listener<INativeBuffer>
+{
+    /**
+     * Sets the sample rate of the recorded buffers.  Changing the sample rate while recording starts a new recording.
+     */
+    void setSampleRate(float sampleRate);
+
+    /**
+     * Starts recording
+     */
+    void start();
+
+    /**
+     * Stops recording and closes the recording file
+     */
+    void stop();
+}
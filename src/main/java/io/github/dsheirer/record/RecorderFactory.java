@@ -26,6 +26,7 @@ import io.github.dsheirer.module.decode.p25.audio.P25P1CallSequenceRecorder;
 import io.github.dsheirer.module.decode.p25.audio.P25P2CallSequenceRecorder;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.record.binary.BinaryRecorder;
+import io.github.dsheirer.record.nativebuffer.NativeBufferRecorder;
 import io.github.dsheirer.record.wave.ComplexSamplesWaveRecorder;
 import io.github.dsheirer.record.wave.IRecordingStatusListener;
 import io.github.dsheirer.record.wave.NativeBufferWaveRecorder;
@@ -37,6 +38,7 @@ import java.io.File;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.LongSupplier;
 
 /**
  * Factory for creating recorder modules.
@@ -170,14 +172,25 @@ public class RecorderFactory
     }
 
     /**
-     * Constructs a baseband recorder for use in a processing chain.
+     * Constructs a tuner baseband recorder in the baseband record format specified in the user preferences.
+     * @param channelName for the recording file name
+     * @param userPreferences for the recordings directory and baseband record format
+     * @param frequencySupplier to provide the current tuner center frequency
+     * @param statusListener to receive recording file name and size updates
      */
-    public static NativeBufferWaveRecorder getTunerRecorder(String channelName, UserPreferences userPreferences,
-                                                            IRecordingStatusListener statusListener)
+    public static IBasebandRecorder getTunerRecorder(String channelName, UserPreferences userPreferences,
+                                                     LongSupplier frequencySupplier,
+                                                     IRecordingStatusListener statusListener)
     {
         StringBuilder sb = new StringBuilder();
         sb.append(getRecordingBasePath(userPreferences));
         sb.append(File.separator).append(StringUtils.replaceIllegalCharacters(channelName)).append("_baseband");
+
+        if(userPreferences.getRecordPreference().getBasebandRecordFormat() == BasebandRecordFormat.NATIVE)
+        {
+            return new NativeBufferRecorder(BASEBAND_SAMPLE_RATE, sb.toString(), frequencySupplier, statusListener);
+        }
+
         return new NativeBufferWaveRecorder(BASEBAND_SAMPLE_RATE, sb.toString(), statusListener);
     }
 }
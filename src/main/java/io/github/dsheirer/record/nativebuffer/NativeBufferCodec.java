@@ -0,0 +1,365 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.record.nativebuffer;
+
+import io.github.dsheirer.buffer.AbstractNativeBuffer;
+import io.github.dsheirer.buffer.ByteNativeBuffer;
+import io.github.dsheirer.buffer.FloatNativeBuffer;
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.buffer.SignedByteNativeBuffer;
+import io.github.dsheirer.buffer.airspy.AirspyNativeBuffer;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import io.github.dsheirer.vector.calibrate.CalibrationManager;
+import io.github.dsheirer.vector.calibrate.CalibrationType;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Encodes native buffers to, and decodes native buffers from, native buffer recording blocks.  Each block holds the
+ * sample data of one native buffer exactly as the tuner produced it, preceded by a block header.
+ *
+ * Block header layout (little endian, 48 bytes):
+ * <pre>
+ *   0  sync word (int)
+ *   4  buffer type (int)
+ *   8  sample data length in bytes (int)
+ *  12  residual I sample count (short)
+ *  14  residual Q sample count (short)
+ *  16  timestamp in milliseconds (long)
+ *  24  tuner center frequency in hertz (long)
+ *  32  samples per millisecond (float)
+ *  36  average DC / I average DC (float)
+ *  40  Q average DC (float)
+ *  44  reserved (int)
+ * </pre>
+ *
+ * The sample data follows the header, followed by the residual I and Q samples (Airspy only) as 16-bit values.
+ *
+ * Instances are not thread safe.
+ */
+public class NativeBufferCodec
+{
+    public static final int BLOCK_HEADER_SIZE = 48;
+    public static final int BLOCK_SYNC = 0x4B4C424E; //'NBLK'
+
+    private Implementation mAirspyInterleavedImplementation;
+    private Implementation mAirspyNonInterleavedImplementation;
+
+    /**
+     * Constructs an instance
+     */
+    public NativeBufferCodec()
+    {
+    }
+
+    /**
+     * Recording format of the native buffer
+     */
+    public static NativeBufferType getType(INativeBuffer buffer)
+    {
+        if(buffer instanceof ByteNativeBuffer)
+        {
+            return NativeBufferType.UNSIGNED_BYTE;
+        }
+        else if(buffer instanceof SignedByteNativeBuffer)
+        {
+            return NativeBufferType.SIGNED_BYTE;
+        }
+        else if(buffer instanceof AirspyNativeBuffer)
+        {
+            return NativeBufferType.AIRSPY_SHORT;
+        }
+
+        return NativeBufferType.FLOAT;
+    }
+
+    /**
+     * Total number of bytes required to encode the buffer, including the block header.
+     * @param buffer that is recordable (see toRecordable())
+     */
+    public static int getEncodedLength(INativeBuffer buffer)
+    {
+        return switch(getType(buffer))
+        {
+            case UNSIGNED_BYTE, SIGNED_BYTE -> BLOCK_HEADER_SIZE + buffer.sampleCount() * 2;
+            case AIRSPY_SHORT ->
+            {
+                AirspyNativeBuffer airspy = (AirspyNativeBuffer)buffer;
+                yield BLOCK_HEADER_SIZE + 2 * (airspy.getSamples().length + airspy.getResidualI().length +
+                    airspy.getResidualQ().length);
+            }
+            default -> BLOCK_HEADER_SIZE + 4 * buffer.sampleCount() * 2;
+        };
+    }
+
+    /**
+     * Encodes the buffer as a recording block at the current position of the output buffer.  Buffer types that don't
+     * have a native recording format are encoded as float samples and should first be converted with toRecordable()
+     * so that the encoded length is known.
+     *
+     * @param buffer to encode
+     * @param frequency of the tuner when the buffer was produced
+     * @param out with at least getEncodedLength() bytes remaining
+     */
+    public void encode(INativeBuffer buffer, long frequency, ByteBuffer out)
+    {
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        NativeBufferType type = getType(buffer);
+        float samplesPerMillisecond = buffer instanceof AbstractNativeBuffer abstractNativeBuffer ?
+            abstractNativeBuffer.getSamplesPerMillisecond() : 0.0f;
+
+        switch(type)
+        {
+            case UNSIGNED_BYTE ->
+            {
+                ByteNativeBuffer bytes = (ByteNativeBuffer)buffer;
+                putBlockHeader(out, type, buffer.sampleCount() * 2, 0, 0, buffer.getTimestamp(), frequency,
+                    samplesPerMillisecond, bytes.getAverageDc(), 0.0f);
+                bytes.putSamples(out);
+            }
+            case SIGNED_BYTE ->
+            {
+                SignedByteNativeBuffer bytes = (SignedByteNativeBuffer)buffer;
+                putBlockHeader(out, type, buffer.sampleCount() * 2, 0, 0, buffer.getTimestamp(), frequency,
+                    samplesPerMillisecond, bytes.getIAverageDc(), bytes.getQAverageDc());
+                bytes.putSamples(out);
+            }
+            case AIRSPY_SHORT ->
+            {
+                AirspyNativeBuffer airspy = (AirspyNativeBuffer)buffer;
+                short[] samples = airspy.getSamples();
+                putBlockHeader(out, type, samples.length * 2, airspy.getResidualI().length,
+                    airspy.getResidualQ().length, buffer.getTimestamp(), frequency, samplesPerMillisecond,
+                    airspy.getAverageDc(), 0.0f);
+                putShorts(out, samples);
+                putShorts(out, airspy.getResidualI());
+                putShorts(out, airspy.getResidualQ());
+            }
+            default ->
+            {
+                float[] samples = ((FloatNativeBuffer)toRecordable(buffer)).getSamples();
+                putBlockHeader(out, NativeBufferType.FLOAT, samples.length * 4, 0, 0, buffer.getTimestamp(),
+                    frequency, samplesPerMillisecond, 0.0f, 0.0f);
+                out.asFloatBuffer().put(samples);
+                out.position(out.position() + samples.length * 4);
+            }
+        }
+    }
+
+    /**
+     * Reads a block header from the current position of the buffer.
+     * @param in buffer with at least BLOCK_HEADER_SIZE bytes remaining
+     * @return block header
+     * @throws IOException if the block header sync word or buffer type is invalid
+     */
+    public static BlockHeader readBlockHeader(ByteBuffer in) throws IOException
+    {
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        int sync = in.getInt();
+
+        if(sync != BLOCK_SYNC)
+        {
+            throw new IOException("Invalid native buffer recording block sync [" + Integer.toHexString(sync) + "]");
+        }
+
+        NativeBufferType type = NativeBufferType.fromValue(in.getInt());
+
+        if(type == NativeBufferType.UNKNOWN)
+        {
+            throw new IOException("Unrecognized native buffer recording block type");
+        }
+
+        int length = in.getInt();
+        int residualI = in.getShort();
+        int residualQ = in.getShort();
+        long timestamp = in.getLong();
+        long frequency = in.getLong();
+        float samplesPerMillisecond = in.getFloat();
+        float dc1 = in.getFloat();
+        float dc2 = in.getFloat();
+        in.getInt();
+
+        if(length < 0 || residualI < 0 || residualQ < 0)
+        {
+            throw new IOException("Invalid native buffer recording block length");
+        }
+
+        return new BlockHeader(type, length, residualI, residualQ, timestamp, frequency, samplesPerMillisecond,
+            dc1, dc2);
+    }
+
+    /**
+     * Decodes the block sample data at the current position of the buffer to a native buffer of the recorded type.
+     * @param header for the block
+     * @param in buffer positioned at the sample data with at least header.getDataLength() bytes remaining
+     * @param timestamp to assign to the decoded buffer
+     * @return native buffer
+     */
+    public INativeBuffer decode(BlockHeader header, ByteBuffer in, long timestamp)
+    {
+        in.order(ByteOrder.LITTLE_ENDIAN);
+
+        switch(header.type())
+        {
+            case UNSIGNED_BYTE:
+            {
+                byte[] samples = new byte[header.length()];
+                in.get(samples);
+                return new ByteNativeBuffer(samples, timestamp, header.dc1(), header.samplesPerMillisecond());
+            }
+            case SIGNED_BYTE:
+            {
+                byte[] samples = new byte[header.length()];
+                in.get(samples);
+                return new SignedByteNativeBuffer(samples, timestamp, header.dc1(), header.dc2(),
+                    header.samplesPerMillisecond());
+            }
+            case AIRSPY_SHORT:
+            {
+                short[] samples = getShorts(in, header.length() / 2);
+                short[] residualI = getShorts(in, header.residualI());
+                short[] residualQ = getShorts(in, header.residualQ());
+
+                if(mAirspyInterleavedImplementation == null)
+                {
+                    mAirspyInterleavedImplementation = CalibrationManager.getInstance()
+                        .getImplementation(CalibrationType.AIRSPY_UNPACKED_INTERLEAVED_ITERATOR);
+                    mAirspyNonInterleavedImplementation = CalibrationManager.getInstance()
+                        .getImplementation(CalibrationType.AIRSPY_UNPACKED_ITERATOR);
+                }
+
+                return new AirspyNativeBuffer(samples, residualI, residualQ, header.dc1(), timestamp,
+                    mAirspyInterleavedImplementation, mAirspyNonInterleavedImplementation,
+                    header.samplesPerMillisecond());
+            }
+            default:
+            {
+                float[] samples = new float[header.length() / 4];
+                in.asFloatBuffer().get(samples);
+                in.position(in.position() + header.length());
+                return new FloatNativeBuffer(samples, timestamp, header.samplesPerMillisecond());
+            }
+        }
+    }
+
+    private static void putBlockHeader(ByteBuffer out, NativeBufferType type, int length, int residualI,
+                                       int residualQ, long timestamp, long frequency, float samplesPerMillisecond,
+                                       float dc1, float dc2)
+    {
+        out.putInt(BLOCK_SYNC);
+        out.putInt(type.getValue());
+        out.putInt(length);
+        out.putShort((short)residualI);
+        out.putShort((short)residualQ);
+        out.putLong(timestamp);
+        out.putLong(frequency);
+        out.putFloat(samplesPerMillisecond);
+        out.putFloat(dc1);
+        out.putFloat(dc2);
+        out.putInt(0);
+    }
+
+    private static void putShorts(ByteBuffer out, short[] values)
+    {
+        out.asShortBuffer().put(values);
+        out.position(out.position() + values.length * 2);
+    }
+
+    private static short[] getShorts(ByteBuffer in, int count)
+    {
+        short[] values = new short[count];
+        in.asShortBuffer().get(values);
+        in.position(in.position() + count * 2);
+        return values;
+    }
+
+    /**
+     * Converts a buffer type that doesn't have a native recording format to a float buffer.  Buffer types that have
+     * a native recording format are returned unchanged.
+     */
+    public static INativeBuffer toRecordable(INativeBuffer buffer)
+    {
+        if(getType(buffer) != NativeBufferType.FLOAT || buffer instanceof FloatNativeBuffer)
+        {
+            return buffer;
+        }
+
+        List<float[]> fragments = new ArrayList<>();
+        int length = 0;
+        Iterator<InterleavedComplexSamples> iterator = buffer.iteratorInterleaved();
+
+        while(iterator.hasNext())
+        {
+            float[] fragment = iterator.next().samples();
+            fragments.add(fragment);
+            length += fragment.length;
+        }
+
+        float[] samples = new float[length];
+        int offset = 0;
+
+        for(float[] fragment: fragments)
+        {
+            System.arraycopy(fragment, 0, samples, offset, fragment.length);
+            offset += fragment.length;
+        }
+
+        float samplesPerMillisecond = buffer instanceof AbstractNativeBuffer abstractNativeBuffer ?
+            abstractNativeBuffer.getSamplesPerMillisecond() : 0.0f;
+        return new FloatNativeBuffer(samples, buffer.getTimestamp(), samplesPerMillisecond);
+    }
+
+    /**
+     * Recording block header
+     *
+     * @param type of sample data
+     * @param length of the sample data in bytes
+     * @param residualI count of residual I samples (Airspy)
+     * @param residualQ count of residual Q samples (Airspy)
+     * @param timestamp of the recorded buffer
+     * @param frequency of the tuner when the buffer was recorded
+     * @param samplesPerMillisecond of the recorded buffer
+     * @param dc1 average DC or I average DC
+     * @param dc2 Q average DC
+     */
+    public record BlockHeader(NativeBufferType type, int length, int residualI, int residualQ, long timestamp,
+                              long frequency, float samplesPerMillisecond, float dc1, float dc2)
+    {
+        /**
+         * Length of the block data that follows the block header, in bytes.
+         */
+        public int getDataLength()
+        {
+            return length + 2 * (residualI + residualQ);
+        }
+
+        /**
+         * Number of complex samples in the block.
+         */
+        public int getSampleCount()
+        {
+            return length / type.getBytesPerSample() / 2;
+        }
+    }
+}
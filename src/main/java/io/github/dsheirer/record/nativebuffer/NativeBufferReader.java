@@ -0,0 +1,336 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.record.nativebuffer;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Reads a native buffer recording file and reconstructs the recorded native buffers, in the same native buffer type
+ * that the tuner originally produced.
+ *
+ * Instances are not thread safe.
+ */
+public class NativeBufferReader implements AutoCloseable
+{
+    private static final long INDEX_INTERVAL_MS = 1000;
+
+    private NativeBufferCodec mCodec = new NativeBufferCodec();
+    private NativeRecordingHeader mHeader;
+    private FileChannel mFileChannel;
+    private ByteBuffer mReadBuffer = ByteBuffer.allocateDirect(NativeBufferWriter.STAGING_BUFFER_SIZE)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    private long mFrequency;
+    private NavigableMap<Long,Long> mTimeIndex;
+    private long mEndTimestamp;
+
+    /**
+     * Constructs an instance and reads the recording file header.
+     * @param path to the recording
+     * @throws IOException if the file can't be opened or is not a native buffer recording
+     */
+    public NativeBufferReader(Path path) throws IOException
+    {
+        mFileChannel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try
+        {
+            if(!read(NativeRecordingHeader.SIZE))
+            {
+                throw new IOException("Not a native buffer recording");
+            }
+
+            mHeader = NativeRecordingHeader.read(mReadBuffer);
+            mFrequency = mHeader.frequency();
+        }
+        catch(IOException ioe)
+        {
+            mFileChannel.close();
+            throw ioe;
+        }
+    }
+
+    /**
+     * Recording file header
+     */
+    public NativeRecordingHeader getHeader()
+    {
+        return mHeader;
+    }
+
+    /**
+     * Tuner center frequency for the most recently read buffer, or the recording start frequency.
+     */
+    public long getFrequency()
+    {
+        return mFrequency;
+    }
+
+    /**
+     * Reads the next buffer with the timestamp that was recorded with the buffer.
+     * @return buffer or null at the end of the recording
+     * @throws IOException if there is an error reading the file or the file is corrupt
+     */
+    public INativeBuffer next() throws IOException
+    {
+        return next(null);
+    }
+
+    /**
+     * Reads the next buffer and assigns it the specified timestamp.
+     * @param timestamp to assign to the buffer
+     * @return buffer or null at the end of the recording
+     * @throws IOException if there is an error reading the file or the file is corrupt
+     */
+    public INativeBuffer next(long timestamp) throws IOException
+    {
+        return next(Long.valueOf(timestamp));
+    }
+
+    private INativeBuffer next(Long timestamp) throws IOException
+    {
+        if(mFileChannel == null || !read(NativeBufferCodec.BLOCK_HEADER_SIZE))
+        {
+            return null;
+        }
+
+        NativeBufferCodec.BlockHeader header = NativeBufferCodec.readBlockHeader(mReadBuffer);
+
+        //A partial block at the end of the file (ie the recorder was interrupted) is treated as the end of recording
+        if(!read(header.getDataLength()))
+        {
+            return null;
+        }
+
+        mFrequency = header.frequency();
+        return mCodec.decode(header, mReadBuffer, timestamp != null ? timestamp : header.timestamp());
+    }
+
+    /**
+     * Repositions the reader to the first buffer in the recording.
+     */
+    public void rewind() throws IOException
+    {
+        if(mFileChannel != null)
+        {
+            mFileChannel.position(NativeRecordingHeader.SIZE);
+            mFrequency = mHeader.frequency();
+        }
+    }
+
+    /**
+     * Positions the reader at the recorded buffer that contains the timestamp, using a sparse time index of the
+     * recording to locate the nearest preceding buffer and then skipping forward over buffer headers.  The time index
+     * is built on the first seek by scanning the buffer headers of the recording.
+     *
+     * @param timestamp to seek to, in milliseconds
+     * @return recorded timestamp of the buffer that the reader is positioned at, or the end timestamp of the recording
+     * when the timestamp is beyond the end of the recording.
+     * @throws IOException if there is an error reading the file
+     */
+    public long seek(long timestamp) throws IOException
+    {
+        NavigableMap<Long,Long> index = getTimeIndex();
+
+        if(index.isEmpty())
+        {
+            rewind();
+            return mHeader.timestamp();
+        }
+
+        Map.Entry<Long,Long> entry = index.floorEntry(timestamp);
+
+        if(entry == null)
+        {
+            entry = index.firstEntry();
+        }
+
+        long position = entry.getValue();
+        long size = mFileChannel.size();
+        NativeBufferCodec.BlockHeader header = readBlockHeader(position);
+
+        while(header != null && getEndTimestamp(header) <= timestamp)
+        {
+            position += NativeBufferCodec.BLOCK_HEADER_SIZE + header.getDataLength();
+            header = position < size ? readBlockHeader(position) : null;
+        }
+
+        mFileChannel.position(position);
+
+        if(header != null)
+        {
+            mFrequency = header.frequency();
+            return header.timestamp();
+        }
+
+        return mEndTimestamp;
+    }
+
+    /**
+     * Timestamp following the last recorded buffer.
+     * @throws IOException if there is an error reading the file
+     */
+    public long getEndTimestamp() throws IOException
+    {
+        getTimeIndex();
+        return mEndTimestamp;
+    }
+
+    /**
+     * Sparse index of recorded buffer timestamps to file positions, with an entry at each index interval.
+     */
+    private NavigableMap<Long,Long> getTimeIndex() throws IOException
+    {
+        if(mTimeIndex == null)
+        {
+            mTimeIndex = new TreeMap<>();
+            mEndTimestamp = mHeader.timestamp();
+
+            long position = NativeRecordingHeader.SIZE;
+            long size = mFileChannel.size();
+            long lastIndexed = Long.MIN_VALUE;
+
+            while(position + NativeBufferCodec.BLOCK_HEADER_SIZE <= size)
+            {
+                NativeBufferCodec.BlockHeader header = readBlockHeader(position);
+
+                if(header == null)
+                {
+                    break;
+                }
+
+                long next = position + NativeBufferCodec.BLOCK_HEADER_SIZE + header.getDataLength();
+
+                //Ignore a partial block at the end of the file
+                if(next > size)
+                {
+                    break;
+                }
+
+                if(header.timestamp() >= lastIndexed + INDEX_INTERVAL_MS)
+                {
+                    mTimeIndex.put(header.timestamp(), position);
+                    lastIndexed = header.timestamp();
+                }
+
+                mEndTimestamp = Math.max(mEndTimestamp, getEndTimestamp(header));
+                position = next;
+            }
+        }
+
+        return mTimeIndex;
+    }
+
+    /**
+     * Timestamp following the last sample of the recorded buffer
+     */
+    private static long getEndTimestamp(NativeBufferCodec.BlockHeader header)
+    {
+        if(header.samplesPerMillisecond() > 0)
+        {
+            return header.timestamp() + (long)Math.ceil(header.getSampleCount() / header.samplesPerMillisecond());
+        }
+
+        return header.timestamp() + 1;
+    }
+
+    /**
+     * Reads the block header at the file position without changing the current read position.
+     */
+    private NativeBufferCodec.BlockHeader readBlockHeader(long position) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(NativeBufferCodec.BLOCK_HEADER_SIZE);
+
+        while(buffer.hasRemaining())
+        {
+            if(mFileChannel.read(buffer, position + buffer.position()) < 0)
+            {
+                return null;
+            }
+        }
+
+        buffer.flip();
+        return NativeBufferCodec.readBlockHeader(buffer);
+    }
+
+    /**
+     * Reads the number of bytes from the file into the read buffer.
+     * @return true if the bytes were read or false if the end of the file was reached first.
+     */
+    private boolean read(int length) throws IOException
+    {
+        if(length > mReadBuffer.capacity())
+        {
+            mReadBuffer = ByteBuffer.allocateDirect(length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        mReadBuffer.clear().limit(length);
+
+        while(mReadBuffer.hasRemaining())
+        {
+            if(mFileChannel.read(mReadBuffer) < 0)
+            {
+                return false;
+            }
+        }
+
+        mReadBuffer.flip();
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if(mFileChannel != null)
+        {
+            mFileChannel.close();
+            mFileChannel = null;
+        }
+    }
+
+    /**
+     * Indicates if the file is a native buffer recording.
+     */
+    public static boolean supports(Path path)
+    {
+        if(path == null || !path.toString().toLowerCase().endsWith(NativeBufferWriter.EXTENSION))
+        {
+            return false;
+        }
+
+        try(NativeBufferReader reader = new NativeBufferReader(path))
+        {
+            return reader.getHeader() != null;
+        }
+        catch(Exception e)
+        {
+            //Do nothing, we'll return a default of false
+        }
+
+        return false;
+    }
+}
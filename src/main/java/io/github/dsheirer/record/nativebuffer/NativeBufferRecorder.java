@@ -0,0 +1,260 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.record.nativebuffer;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.buffer.NativeBufferPoisonPill;
+import io.github.dsheirer.module.Module;
+import io.github.dsheirer.record.IBasebandRecorder;
+import io.github.dsheirer.record.wave.IRecordingStatusListener;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.source.ISourceEventListener;
+import io.github.dsheirer.source.SourceEvent;
+import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.ThreadPool;
+import io.github.dsheirer.util.TimeStamp;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tuner baseband recorder that writes the native buffers produced by the tuner in their native sample format (ie
+ * 8-bit samples for RTL-SDR and HackRF tuners) without converting the samples, producing recordings that are half the
+ * size of a 16-bit wave recording for 8-bit tuners, at a fraction of the CPU cost.
+ */
+public class NativeBufferRecorder extends Module implements IBasebandRecorder, ISourceEventListener
+{
+    private static final Logger mLog = LoggerFactory.getLogger(NativeBufferRecorder.class);
+    private static final long STATUS_UPDATE_BYTE_INTERVAL = 1_048_576;
+    private static final long MAX_RECORDING_SIZE = (long)Integer.MAX_VALUE * 2l;
+    private Dispatcher<INativeBuffer> mBufferProcessor = new Dispatcher<>(500,
+            "sdrtrunk native buffer recorder", new NativeBufferPoisonPill());
+
+    private AtomicBoolean mRunning = new AtomicBoolean();
+    private NativeBufferWriter mWriter;
+    private String mFilePrefix;
+    private float mSampleRate;
+    private LongSupplier mFrequencySupplier;
+    private IRecordingStatusListener mStatusListener;
+    private String mFilePath;
+    private long mLastReportedSize = 0;
+    private int mRecordingCount = 0;
+
+    /**
+     * Constructs an instance
+     * @param sampleRate of the tuner
+     * @param filePrefix for the recording file(s)
+     * @param frequencySupplier to provide the tuner center frequency for each recorded buffer
+     * @param statusListener to receive recording file name and size updates
+     */
+    public NativeBufferRecorder(float sampleRate, String filePrefix, LongSupplier frequencySupplier,
+                                IRecordingStatusListener statusListener)
+    {
+        mSampleRate = sampleRate;
+        mFilePrefix = filePrefix;
+        mFrequencySupplier = frequencySupplier;
+        mStatusListener = statusListener;
+        mBufferProcessor.setListener(this::write);
+        mBufferProcessor.setReleaseListener(INativeBuffer::release);
+    }
+
+    @Override
+    public void setSampleRate(float sampleRate)
+    {
+        if(mSampleRate != sampleRate)
+        {
+            mSampleRate = sampleRate;
+
+            if(mRunning.get())
+            {
+                stop();
+                start();
+            }
+        }
+    }
+
+    private String getFileName()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(mFilePrefix);
+        sb.append("_");
+        sb.append(TimeStamp.getTimeStamp("_"));
+        sb.append(NativeBufferWriter.EXTENSION);
+        return sb.toString();
+    }
+
+    @Override
+    public void start()
+    {
+        if(mRunning.compareAndSet(false, true))
+        {
+            mRecordingCount = 1;
+            mLastReportedSize = 0;
+
+            try
+            {
+                mFilePath = getFileName();
+                mWriter = new NativeBufferWriter(Paths.get(mFilePath), mSampleRate);
+                mStatusListener.update(mRecordingCount, mFilePath, 0);
+                mBufferProcessor.start();
+            }
+            catch(IOException io)
+            {
+                mLog.error("Error starting native buffer baseband recorder", io);
+            }
+        }
+    }
+
+    /**
+     * Rollover the recording once the current recording file size is full
+     */
+    private void rollRecording()
+    {
+        if(mWriter != null)
+        {
+            try
+            {
+                mWriter.close();
+                mWriter = null;
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error closing recording during file rollover");
+            }
+
+            mLastReportedSize = 0;
+
+            try
+            {
+                mFilePath = getFileName();
+                mWriter = new NativeBufferWriter(Paths.get(mFilePath), mSampleRate);
+                mStatusListener.update(++mRecordingCount, mFilePath, 0);
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error creating new recording during file rollover");
+                stop();
+            }
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        if(mRunning.compareAndSet(true, false))
+        {
+            mBufferProcessor.stop();
+
+            NativeBufferWriter writer = mWriter;
+            mWriter = null;
+
+            if(writer != null)
+            {
+                //Thread this operation so that it doesn't tie up the calling thread while staged buffers are written
+                ThreadPool.CACHED.submit(() ->
+                {
+                    try
+                    {
+                        writer.close();
+                    }
+                    catch(IOException ioe)
+                    {
+                        mLog.error("Error closing native buffer baseband recorder", ioe);
+                    }
+                });
+            }
+        }
+    }
+
+    @Override
+    public void receive(INativeBuffer nativeBuffer)
+    {
+        if(mRunning.get())
+        {
+            //Queue the buffer with the buffer processor so that recording occurs on the buffer processor thread
+            mBufferProcessor.receive(nativeBuffer);
+        }
+        else
+        {
+            nativeBuffer.release();
+        }
+    }
+
+    /**
+     * Writes the buffer to the recording on the buffer processor thread.
+     */
+    private void write(INativeBuffer nativeBuffer)
+    {
+        NativeBufferWriter writer = mWriter;
+
+        if(writer == null)
+        {
+            return;
+        }
+
+        try
+        {
+            if((writer.getSize() + NativeBufferCodec.getEncodedLength(nativeBuffer)) > MAX_RECORDING_SIZE)
+            {
+                rollRecording();
+                writer = mWriter;
+
+                if(writer == null)
+                {
+                    return;
+                }
+            }
+
+            writer.write(nativeBuffer, mFrequencySupplier.getAsLong());
+
+            if(writer.getSize() > (mLastReportedSize + STATUS_UPDATE_BYTE_INTERVAL))
+            {
+                mStatusListener.update(mRecordingCount, mFilePath, writer.getSize());
+                mLastReportedSize = writer.getSize();
+            }
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("I/O exception while writing native buffers to recorder - stopping recorder", ioe);
+            stop();
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+    }
+
+    @Override
+    public Listener<SourceEvent> getSourceEventListener()
+    {
+        return sourceEvent ->
+        {
+            switch(sourceEvent.getEvent())
+            {
+                case NOTIFICATION_SAMPLE_RATE_CHANGE:
+                    setSampleRate(sourceEvent.getValue().floatValue());
+                    break;
+            }
+        };
+    }
+}
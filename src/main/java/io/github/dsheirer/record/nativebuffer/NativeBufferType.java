@@ -0,0 +1,87 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.record.nativebuffer;
+
+/**
+ * Sample formats that can be stored in a native buffer recording.  Each format matches the sample data of a native
+ * buffer implementation so that the tuner's samples are written and read back without conversion.
+ */
+public enum NativeBufferType
+{
+    UNKNOWN(0, 0),
+    /**
+     * Unsigned 8-bit interleaved I/Q samples (ie RTL-SDR) - ByteNativeBuffer
+     */
+    UNSIGNED_BYTE(1, 1),
+    /**
+     * Signed 8-bit interleaved I/Q samples (ie HackRF) - SignedByteNativeBuffer
+     */
+    SIGNED_BYTE(2, 1),
+    /**
+     * Unpacked 12-bit samples in 16-bit shorts with I/Q residuals (ie Airspy) - AirspyNativeBuffer
+     */
+    AIRSPY_SHORT(3, 2),
+    /**
+     * 32-bit float interleaved I/Q samples - FloatNativeBuffer and any other buffer type
+     */
+    FLOAT(4, 4);
+
+    private int mValue;
+    private int mBytesPerSample;
+
+    NativeBufferType(int value, int bytesPerSample)
+    {
+        mValue = value;
+        mBytesPerSample = bytesPerSample;
+    }
+
+    /**
+     * Value stored in the recording file for this type.
+     */
+    public int getValue()
+    {
+        return mValue;
+    }
+
+    /**
+     * Number of bytes used to store each (I or Q) sample value.
+     */
+    public int getBytesPerSample()
+    {
+        return mBytesPerSample;
+    }
+
+    /**
+     * Lookup the type from the stored value
+     * @param value from the recording file
+     * @return type or UNKNOWN
+     */
+    public static NativeBufferType fromValue(int value)
+    {
+        for(NativeBufferType type: values())
+        {
+            if(type.getValue() == value)
+            {
+                return type;
+            }
+        }
+
+        return UNKNOWN;
+    }
+}
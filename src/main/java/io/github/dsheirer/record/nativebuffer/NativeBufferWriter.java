@@ -0,0 +1,180 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.record.nativebuffer;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.record.BasebandRecordFormat;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes native buffers to a native buffer recording file.  Buffers are encoded into a large direct staging buffer
+ * that is written to the file channel when full, so that the recording thread makes a few large writes instead of
+ * a write per buffer.
+ *
+ * The file header is written when the first buffer arrives, using the type, timestamp and frequency of that buffer.
+ */
+public class NativeBufferWriter implements AutoCloseable
+{
+    public static final String EXTENSION = BasebandRecordFormat.NATIVE.getExtension();
+    public static final int STAGING_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private NativeBufferCodec mCodec = new NativeBufferCodec();
+    private FileChannel mFileChannel;
+    private ByteBuffer mStagingBuffer;
+    private NativeRecordingHeader mHeader;
+    private Path mPath;
+    private double mSampleRate;
+    private long mSize = NativeRecordingHeader.SIZE;
+
+    /**
+     * Constructs an instance and creates (or truncates) the recording file.
+     * @param path for the recording
+     * @param sampleRate of the tuner
+     * @throws IOException if the file can't be created
+     */
+    public NativeBufferWriter(Path path, double sampleRate) throws IOException
+    {
+        mPath = path;
+        mSampleRate = sampleRate;
+        mFileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        mFileChannel.position(NativeRecordingHeader.SIZE);
+        mStagingBuffer = ByteBuffer.allocateDirect(STAGING_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Recording file
+     */
+    public Path getPath()
+    {
+        return mPath;
+    }
+
+    /**
+     * Current size of the recording, in bytes, including buffers that are staged but not yet written to the file.
+     */
+    public long getSize()
+    {
+        return mSize;
+    }
+
+    /**
+     * Records the buffer.
+     * @param buffer to record
+     * @param frequency of the tuner when the buffer was produced
+     * @throws IOException if there is an error writing to the file
+     */
+    public void write(INativeBuffer buffer, long frequency) throws IOException
+    {
+        if(mFileChannel == null)
+        {
+            throw new IOException("Native buffer recording is closed");
+        }
+
+        INativeBuffer recordable = NativeBufferCodec.toRecordable(buffer);
+
+        if(mHeader == null)
+        {
+            writeHeader(new NativeRecordingHeader(NativeBufferCodec.getType(recordable), frequency, mSampleRate,
+                recordable.getTimestamp()));
+        }
+
+        int length = NativeBufferCodec.getEncodedLength(recordable);
+
+        if(length > mStagingBuffer.remaining())
+        {
+            flush();
+
+            if(length > mStagingBuffer.capacity())
+            {
+                mStagingBuffer = ByteBuffer.allocateDirect(length).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        mCodec.encode(recordable, frequency, mStagingBuffer);
+        mSize += length;
+    }
+
+    /**
+     * Writes all staged buffers to the file.
+     * @throws IOException if there is an error writing to the file
+     */
+    public void flush() throws IOException
+    {
+        if(mFileChannel != null && mStagingBuffer.position() > 0)
+        {
+            mStagingBuffer.flip();
+
+            while(mStagingBuffer.hasRemaining())
+            {
+                mFileChannel.write(mStagingBuffer);
+            }
+
+            mStagingBuffer.clear();
+        }
+    }
+
+    /**
+     * Writes the file header to the start of the file, independent of the current write position.
+     */
+    private void writeHeader(NativeRecordingHeader header) throws IOException
+    {
+        mHeader = header;
+        ByteBuffer buffer = ByteBuffer.allocate(NativeRecordingHeader.SIZE);
+        header.write(buffer);
+        buffer.flip();
+
+        long position = 0;
+
+        while(buffer.hasRemaining())
+        {
+            position += mFileChannel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Writes any staged buffers and closes the file.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if(mFileChannel != null)
+        {
+            try
+            {
+                if(mHeader == null)
+                {
+                    writeHeader(new NativeRecordingHeader(NativeBufferType.UNKNOWN, 0, mSampleRate, 0));
+                }
+
+                flush();
+            }
+            finally
+            {
+                mFileChannel.close();
+                mFileChannel = null;
+            }
+        }
+    }
+}
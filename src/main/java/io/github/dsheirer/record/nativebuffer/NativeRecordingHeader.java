@@ -0,0 +1,107 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.record.nativebuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * File header for a native buffer recording.
+ *
+ * Layout (little endian, 64 bytes):
+ * <pre>
+ *   0  magic 'SDRTNBB' + version byte
+ *   8  buffer type (int)
+ *  12  reserved (int)
+ *  16  center frequency in hertz (long)
+ *  24  sample rate in hertz (double)
+ *  32  timestamp of the first sample buffer in milliseconds (long)
+ *  40  reserved
+ * </pre>
+ *
+ * @param type of sample buffers that were recorded
+ * @param frequency center frequency of the tuner at the start of the recording
+ * @param sampleRate of the tuner
+ * @param timestamp of the first recorded sample buffer
+ */
+public record NativeRecordingHeader(NativeBufferType type, long frequency, double sampleRate, long timestamp)
+{
+    public static final int SIZE = 64;
+    public static final int VERSION = 1;
+    private static final byte[] MAGIC = "SDRTNBB".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Writes this header to the buffer at the current position.
+     */
+    public void write(ByteBuffer buffer)
+    {
+        ByteBuffer header = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC);
+        header.put((byte)VERSION);
+        header.putInt(type.getValue());
+        header.putInt(0);
+        header.putLong(frequency);
+        header.putDouble(sampleRate);
+        header.putLong(timestamp);
+        header.put(new byte[SIZE - header.position()]);
+        buffer.position(buffer.position() + SIZE);
+    }
+
+    /**
+     * Reads a header from the buffer at the current position.
+     * @param buffer containing at least SIZE bytes
+     * @return header
+     * @throws IOException if the buffer does not contain a native buffer recording header
+     */
+    public static NativeRecordingHeader read(ByteBuffer buffer) throws IOException
+    {
+        if(buffer.remaining() < SIZE)
+        {
+            throw new IOException("Native buffer recording header is incomplete");
+        }
+
+        ByteBuffer header = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magic = new byte[MAGIC.length];
+        header.get(magic);
+
+        if(!Arrays.equals(magic, MAGIC))
+        {
+            throw new IOException("Not a native buffer recording");
+        }
+
+        int version = header.get();
+
+        if(version != VERSION)
+        {
+            throw new IOException("Unsupported native buffer recording version [" + version + "]");
+        }
+
+        NativeBufferType type = NativeBufferType.fromValue(header.getInt());
+        header.getInt();
+        long frequency = header.getLong();
+        double sampleRate = header.getDouble();
+        long timestamp = header.getLong();
+        buffer.position(buffer.position() + SIZE);
+
+        return new NativeRecordingHeader(type, frequency, sampleRate, timestamp);
+    }
+}
@@ -21,6 +21,7 @@ package io.github.dsheirer.record.wave;
 import io.github.dsheirer.buffer.INativeBuffer;
 import io.github.dsheirer.buffer.NativeBufferPoisonPill;
 import io.github.dsheirer.module.Module;
+import io.github.dsheirer.record.IBasebandRecorder;
 import io.github.dsheirer.sample.ConversionUtils;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
@@ -43,7 +44,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * WAVE audio recorder module for recording complex (I&Q) samples to a wave file
  */
-public class NativeBufferWaveRecorder extends Module implements Listener<INativeBuffer>, ISourceEventListener
+public class NativeBufferWaveRecorder extends Module implements IBasebandRecorder, ISourceEventListener
 {
     private static final Logger mLog = LoggerFactory.getLogger(ComplexSamplesWaveRecorder.class);
     private static final long STATUS_UPDATE_BYTE_INTERVAL = 1_048_576;
@@ -65,9 +66,11 @@ public class NativeBufferWaveRecorder extends Module implements Listener<INative
     {
         mFilePrefix = filePrefix;
         mStatusListener = statusListener;
+        mBufferProcessor.setReleaseListener(INativeBuffer::release);
         setSampleRate(sampleRate);
     }
 
+    @Override
     public void setSampleRate(float sampleRate)
     {
         if(mAudioFormat == null || mAudioFormat.getSampleRate() != sampleRate)
@@ -92,6 +95,7 @@ public class NativeBufferWaveRecorder extends Module implements Listener<INative
         return sb.toString();
     }
 
+    @Override
     public void start()
     {
         if(mRunning.compareAndSet(false, true))
@@ -150,6 +154,7 @@ public class NativeBufferWaveRecorder extends Module implements Listener<INative
         }
     }
 
+    @Override
     public void stop()
     {
         if(mRunning.compareAndSet(true, false))
@@ -187,6 +192,10 @@ public class NativeBufferWaveRecorder extends Module implements Listener<INative
             //Queue the buffer with the buffer processor so that recording occurs on the buffer processor thread
             mBufferProcessor.receive(nativeBuffer);
         }
+        else
+        {
+            nativeBuffer.release();
+        }
     }
 
     public Listener<INativeBuffer> getReusableComplexBufferListener()
@@ -146,9 +146,9 @@ public class Broadcaster<T> implements Listener<T>
         {
             List<Listener<T>> listeners = new ArrayList<>(mListeners);
 
-            for(Listener listener: listeners)
+            for(Listener<T> listener: listeners)
             {
-                listener.receive(t);
+                deliver(listener, t);
             }
         }
         finally
@@ -156,4 +156,13 @@ public class Broadcaster<T> implements Listener<T>
             mLock.unlock();
         }
     }
+
+    /**
+     * Delivers the element to a single listener.  Sub-classes can override this to prepare the element for each
+     * listener.
+     */
+    protected void deliver(Listener<T> listener, T t)
+    {
+        listener.receive(t);
+    }
 }
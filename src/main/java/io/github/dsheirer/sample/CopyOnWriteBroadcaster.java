@@ -0,0 +1,328 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.sample;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Broadcasts an item to multiple listeners.
+ *
+ * This broadcaster holds its listeners in an immutable array that is replaced atomically each time a listener is
+ * added or removed (copy-on-write).  The broadcast path reads the current array and loops over it with no locking and
+ * no iterator allocation, so it is intended for the high-rate sample buffer and message fan-out paths where listeners
+ * change rarely.  A listener that is removed during a broadcast may still receive the element being broadcast.
+ *
+ * Optional per-listener timing can be enabled to identify a slow listener.  When enabled, any listener that takes
+ * longer than the threshold to process an element is logged, at most once per logging interval for each listener, and
+ * the cumulative processing time of each listener is available for metrics reporting.
+ */
+public class CopyOnWriteBroadcaster<T> implements Listener<T>
+{
+    private final static Logger mLog = LoggerFactory.getLogger(CopyOnWriteBroadcaster.class);
+    private static final Listener[] EMPTY = new Listener[0];
+    private static final long TIMING_LOG_INTERVAL_MS = 10000;
+    @SuppressWarnings("unchecked")
+    private AtomicReference<Listener<T>[]> mListeners = new AtomicReference<>((Listener<T>[])EMPTY);
+    private Map<Listener<T>,ListenerTiming> mListenerTimings = new ConcurrentHashMap<>();
+    private volatile boolean mTimingEnabled;
+    private String mName;
+    private long mTimingThresholdNanos;
+
+    public CopyOnWriteBroadcaster()
+    {
+    }
+
+    /**
+     * Implements the Listener<T> interface to receive an element and broadcast that element to all registered
+     * listeners.
+     *
+     * @param t element to broadcast
+     */
+    @Override
+    public void receive(T t)
+    {
+        broadcast(t);
+    }
+
+    /**
+     * Clear listeners to prepare for garbage collection
+     */
+    public void dispose()
+    {
+        clear();
+    }
+
+    /**
+     * Indicates if this broadcaster has any listeners registered
+     */
+    public boolean hasListeners()
+    {
+        return mListeners.get().length > 0;
+    }
+
+    /**
+     * The count of listeners currently registered with this broadcaster
+     */
+    public int getListenerCount()
+    {
+        return mListeners.get().length;
+    }
+
+    /**
+     * Snapshot of the listeners currently registered with this broadcaster
+     */
+    public List<Listener<T>> getListeners()
+    {
+        return Collections.unmodifiableList(Arrays.asList(mListeners.get()));
+    }
+
+    /**
+     * Current listener array for subclasses that customize the broadcast.  The array must not be modified.
+     */
+    protected Listener<T>[] getListenerArray()
+    {
+        return mListeners.get();
+    }
+
+    /**
+     * Registers the listener to receive elements from this broadcaster
+     *
+     * @param listener to add
+     */
+    public void addListener(Listener<T> listener)
+    {
+        if(listener != null)
+        {
+            Listener<T>[] current;
+            Listener<T>[] updated;
+
+            do
+            {
+                current = mListeners.get();
+
+                for(Listener<T> existing: current)
+                {
+                    if(existing.equals(listener))
+                    {
+                        return;
+                    }
+                }
+
+                updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = listener;
+            }
+            while(!mListeners.compareAndSet(current, updated));
+        }
+    }
+
+    /**
+     * Deregisters the listener from receiving elements from this broadcaster
+     */
+    public void removeListener(Listener<T> listener)
+    {
+        if(listener != null)
+        {
+            Listener<T>[] current;
+            Listener<T>[] updated;
+
+            do
+            {
+                current = mListeners.get();
+                int index = -1;
+
+                for(int x = 0; x < current.length; x++)
+                {
+                    if(current[x].equals(listener))
+                    {
+                        index = x;
+                        break;
+                    }
+                }
+
+                if(index < 0)
+                {
+                    return;
+                }
+
+                updated = Arrays.copyOf(current, current.length - 1);
+                System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+            }
+            while(!mListeners.compareAndSet(current, updated));
+
+            mListenerTimings.remove(listener);
+        }
+    }
+
+    /**
+     * Deregisters all listeners from this broadcaster
+     */
+    @SuppressWarnings("unchecked")
+    public void clear()
+    {
+        mListeners.set((Listener<T>[])EMPTY);
+        mListenerTimings.clear();
+    }
+
+    /**
+     * Enables per-listener timing.  Each listener that takes longer than the threshold to process a broadcast element
+     * is logged with the name of this broadcaster.
+     *
+     * @param name of this broadcaster to identify it in the logs
+     * @param threshold duration
+     * @param unit for the threshold duration
+     */
+    public void enableListenerTiming(String name, long threshold, TimeUnit unit)
+    {
+        mName = name;
+        mTimingThresholdNanos = unit.toNanos(threshold);
+        mTimingEnabled = true;
+    }
+
+    /**
+     * Disables per-listener timing
+     */
+    public void disableListenerTiming()
+    {
+        mTimingEnabled = false;
+        mListenerTimings.clear();
+    }
+
+    /**
+     * Indicates if per-listener timing is enabled
+     */
+    public boolean isListenerTimingEnabled()
+    {
+        return mTimingEnabled;
+    }
+
+    /**
+     * Cumulative time that the listener has spent processing broadcast elements while listener timing is enabled.
+     * @param listener to lookup
+     * @return processing time in nanoseconds, or zero if the listener is not registered or timing is not enabled
+     */
+    public long getListenerProcessingNanos(Listener<T> listener)
+    {
+        ListenerTiming timing = listener != null ? mListenerTimings.get(listener) : null;
+        return timing != null ? timing.getTotalNanos() : 0;
+    }
+
+    /**
+     * Broadcasts the element to all registered listeners
+     */
+    public void broadcast(T t)
+    {
+        Listener<T>[] listeners = mListeners.get();
+
+        if(mTimingEnabled)
+        {
+            broadcastTimed(listeners, t);
+            return;
+        }
+
+        for(Listener<T> listener: listeners)
+        {
+            listener.receive(t);
+        }
+    }
+
+    /**
+     * Broadcasts the element to each of the listeners and measures the duration of each listener's receive call.
+     */
+    private void broadcastTimed(Listener<T>[] listeners, T t)
+    {
+        for(Listener<T> listener: listeners)
+        {
+            long start = System.nanoTime();
+            listener.receive(t);
+            long elapsed = System.nanoTime() - start;
+
+            ListenerTiming timing = mListenerTimings.get(listener);
+
+            if(timing == null)
+            {
+                timing = mListenerTimings.computeIfAbsent(listener, key -> new ListenerTiming());
+            }
+
+            timing.add(elapsed);
+
+            if(elapsed > mTimingThresholdNanos)
+            {
+                timing.slow(listener, elapsed);
+            }
+        }
+    }
+
+    /**
+     * Tracks the cumulative processing time and the slow receive calls for a single listener and periodically logs a
+     * summary of the slow calls.
+     */
+    private class ListenerTiming
+    {
+        private LongAdder mTotalNanos = new LongAdder();
+        private long mSlowCount;
+        private long mMaxNanos;
+        private long mLastLogTimestamp;
+
+        /**
+         * Adds the duration of a receive call to the cumulative processing time.
+         */
+        public void add(long elapsedNanos)
+        {
+            mTotalNanos.add(elapsedNanos);
+        }
+
+        /**
+         * Cumulative processing time in nanoseconds
+         */
+        public long getTotalNanos()
+        {
+            return mTotalNanos.sum();
+        }
+
+        /**
+         * Records a slow receive call and logs a summary when the logging interval has elapsed.
+         */
+        public synchronized void slow(Listener<T> listener, long elapsedNanos)
+        {
+            mSlowCount++;
+            mMaxNanos = Math.max(mMaxNanos, elapsedNanos);
+
+            long now = System.currentTimeMillis();
+
+            if(now - mLastLogTimestamp >= TIMING_LOG_INTERVAL_MS)
+            {
+                mLog.warn("Broadcaster [" + mName + "] slow listener [" + listener.getClass().getName() +
+                    "] exceeded [" + TimeUnit.NANOSECONDS.toMicros(mTimingThresholdNanos) + "us] " + mSlowCount +
+                    " times - max [" + TimeUnit.NANOSECONDS.toMicros(mMaxNanos) + "us]");
+                mSlowCount = 0;
+                mMaxNanos = 0;
+                mLastLogTimestamp = now;
+            }
+        }
+    }
+}
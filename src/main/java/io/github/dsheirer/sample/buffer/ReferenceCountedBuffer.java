@@ -0,0 +1,91 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.sample.buffer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class for a sample buffer that is shared by several consumers and recycled when the last consumer releases it.
+ *
+ * The buffer is created with a single reference held by the producer.  Before dispatching the buffer to its
+ * consumers, the producer retains one reference for each consumer and then releases its own reference after the
+ * dispatch completes, so that a consumer that finishes early cannot recycle the buffer before it is delivered to the
+ * remaining consumers.  Each consumer releases its reference when it no longer needs the buffer, which may be on
+ * another thread.  The buffer is recycled exactly once, when the reference count reaches zero.
+ *
+ * A consumer that never releases its reference only prevents the buffer from being recycled, and the buffer is then
+ * garbage collected normally.
+ */
+public abstract class ReferenceCountedBuffer
+{
+    private AtomicInteger mReferenceCount = new AtomicInteger(1);
+
+    /**
+     * Adds references for additional consumers.
+     * @param count of references to add
+     */
+    public void retain(int count)
+    {
+        if(count > 0)
+        {
+            int current;
+
+            do
+            {
+                current = mReferenceCount.get();
+
+                if(current <= 0)
+                {
+                    throw new IllegalStateException("Can't retain a buffer that has already been recycled");
+                }
+            }
+            while(!mReferenceCount.compareAndSet(current, current + count));
+        }
+    }
+
+    /**
+     * Releases one reference and recycles the buffer when no references remain.
+     */
+    public void release()
+    {
+        int count = mReferenceCount.decrementAndGet();
+
+        if(count == 0)
+        {
+            recycle();
+        }
+        else if(count < 0)
+        {
+            throw new IllegalStateException("Buffer reference count released below zero");
+        }
+    }
+
+    /**
+     * Current reference count
+     */
+    public int getReferenceCount()
+    {
+        return mReferenceCount.get();
+    }
+
+    /**
+     * Sub-class implementation to return the buffer contents to a pool once all consumers have released the buffer.
+     */
+    protected abstract void recycle();
+}
@@ -0,0 +1,77 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.sample.buffer;
+
+import io.github.dsheirer.buffer.FloatArrayPool;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reference counted batch of pooled float arrays.  The arrays are released to the pool when the last consumer releases
+ * the batch.
+ */
+public class ReferenceCountedFloatArrays extends ReferenceCountedBuffer
+{
+    private List<float[]> mArrays;
+    private FloatArrayPool mPool;
+
+    /**
+     * Constructs an instance
+     * @param arrays borrowed from the pool.  The list is owned by this batch.
+     * @param pool to receive the arrays once all consumers release this batch, or null to not recycle the arrays.
+     */
+    public ReferenceCountedFloatArrays(List<float[]> arrays, FloatArrayPool pool)
+    {
+        mArrays = arrays;
+        mPool = pool;
+    }
+
+    /**
+     * Creates an empty batch that is not recycled.
+     */
+    public static ReferenceCountedFloatArrays empty()
+    {
+        return new ReferenceCountedFloatArrays(Collections.emptyList(), null);
+    }
+
+    /**
+     * Float arrays in this batch.  Consumers must not retain the list or any of the arrays after releasing the batch.
+     */
+    public List<float[]> getArrays()
+    {
+        return mArrays;
+    }
+
+    /**
+     * Number of arrays in this batch
+     */
+    public int size()
+    {
+        return mArrays.size();
+    }
+
+    @Override
+    protected void recycle()
+    {
+        if(mPool != null)
+        {
+            mPool.release(mArrays);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.source;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.sample.Listener;
+import java.io.IOException;
+
+/**
+ * Baseband (I/Q) recording file source that can be played back at near real time (looping) or unthrottled (faster
+ * than real time) for batch processing.
+ */
+public interface IBasebandFileSource extends IControllableFileSource, AutoCloseable
+{
+    /**
+     * Registers the listener to receive sample buffers as they are read from the recording
+     */
+    void setListener(Listener<INativeBuffer> listener);
+
+    /**
+     * Starts playback of the recording
+     */
+    void start();
+
+    /**
+     * Stops playback of the recording
+     */
+    void stop();
+
+    /**
+     * Recorded center frequency, or zero when the recording does not specify a frequency
+     */
+    long getFrequency();
+
+    /**
+     * Number of samples per buffer
+     */
+    int getBufferSampleCount();
+
+    /**
+     * Starts unthrottled playback of the recording for batch (faster than real time) processing.
+     * @param startTimestamp in milliseconds for the first sample in the recording
+     * @throws IOException if the recording can't be opened
+     */
+    void startUnthrottled(long startTimestamp) throws IOException;
+
+    /**
+     * Recording time line position of unthrottled playback
+     */
+    long getPlaybackTimestamp();
+
+    /**
+     * Indicates if unthrottled playback has reached the end of the recording, or was stopped.
+     */
+    boolean isPlaybackComplete();
+}
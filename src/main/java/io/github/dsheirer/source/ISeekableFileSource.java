@@ -0,0 +1,60 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.source;
+
+import java.io.IOException;
+
+/**
+ * Recording file source that can reposition playback to any time within the recording.
+ */
+public interface ISeekableFileSource
+{
+    /**
+     * Timestamp of the first sample in the recording, in milliseconds.
+     */
+    long getStartTimestamp();
+
+    /**
+     * Duration of the recording, in milliseconds.
+     */
+    long getDuration();
+
+    /**
+     * Current playback position as a time offset from the start of the recording, in milliseconds.
+     */
+    long getPosition();
+
+    /**
+     * Repositions playback to the time offset from the start of the recording.  Offsets beyond the end of the
+     * recording position playback at the end of the recording.
+     * @param offset in milliseconds from the start of the recording
+     * @throws IOException if the recording can't be read
+     */
+    void seek(long offset) throws IOException;
+
+    /**
+     * Repositions playback to the specified time within the recording.
+     * @param timestamp in milliseconds
+     * @throws IOException if the recording can't be read
+     */
+    default void seekTo(long timestamp) throws IOException
+    {
+        seek(Math.max(0, timestamp - getStartTimestamp()));
+    }
+}
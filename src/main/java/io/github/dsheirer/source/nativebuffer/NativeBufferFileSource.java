@@ -0,0 +1,510 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.source.nativebuffer;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.record.nativebuffer.NativeBufferReader;
+import io.github.dsheirer.record.nativebuffer.NativeRecordingHeader;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.SampleType;
+import io.github.dsheirer.source.IBasebandFileSource;
+import io.github.dsheirer.source.IFrameLocationListener;
+import io.github.dsheirer.source.ISeekableFileSource;
+import io.github.dsheirer.source.Source;
+import io.github.dsheirer.source.SourceEvent;
+import io.github.dsheirer.util.ThreadPool;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.math3.util.FastMath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Playback source for native buffer recordings.  Recorded buffers are delivered as the same native buffer type that
+ * the tuner produced, so the sample conversion happens downstream exactly as it does for a live tuner.
+ */
+public class NativeBufferFileSource extends Source implements IBasebandFileSource, ISeekableFileSource
+{
+    private final static Logger mLog = LoggerFactory.getLogger(NativeBufferFileSource.class);
+
+    private IFrameLocationListener mFrameLocationListener;
+    private long mFrameCounter = 0;
+    private long mSurplusFrames = 0;
+    private long mSeekOffset = 0;
+    private long mFramesSinceSeek = 0;
+    private Listener<INativeBuffer> mListener;
+    private NativeBufferReader mReader;
+    private NativeRecordingHeader mHeader;
+    private File mFile;
+    private boolean mAutoReplay;
+    private ScheduledFuture<?> mReplayController;
+    private Thread mUnthrottledReader;
+    private volatile boolean mUnthrottledRunning;
+    private volatile boolean mPlaybackComplete;
+    private volatile long mPlaybackTimestamp;
+
+    /**
+     * Constructs an instance with optional auto-replay at near real time.
+     * @param file containing a native buffer recording
+     * @param autoReplay to enable continuous looping, real-time playback of sample data
+     * @throws IOException if the file is not a native buffer recording
+     */
+    public NativeBufferFileSource(File file, boolean autoReplay) throws IOException
+    {
+        if(file == null || !file.exists())
+        {
+            throw new IOException("Empty or null file");
+        }
+
+        try(NativeBufferReader reader = new NativeBufferReader(file.toPath()))
+        {
+            mHeader = reader.getHeader();
+        }
+
+        mFile = file;
+        mAutoReplay = autoReplay;
+    }
+
+    public NativeBufferFileSource(File file) throws IOException
+    {
+        this(file, false);
+    }
+
+    @Override
+    public SampleType getSampleType()
+    {
+        return SampleType.COMPLEX;
+    }
+
+    @Override
+    public void setSourceEventListener(Listener<SourceEvent> listener)
+    {
+        //Not implemented
+    }
+
+    @Override
+    public void removeSourceEventListener()
+    {
+        //Not implemented
+    }
+
+    @Override
+    public Listener<SourceEvent> getSourceEventListener()
+    {
+        //Not implemented
+        return null;
+    }
+
+    @Override
+    public void reset()
+    {
+        stop();
+        mFrameCounter = 0;
+        mSurplusFrames = 0;
+        mSeekOffset = 0;
+        mFramesSinceSeek = 0;
+        start();
+    }
+
+    @Override
+    public int getBufferSampleCount()
+    {
+        return (int)(getSampleRate() / 20.0d);
+    }
+
+    @Override
+    public void start()
+    {
+        if(mReader == null)
+        {
+            try
+            {
+                open();
+            }
+            catch(Exception e)
+            {
+                mLog.error("Error", e);
+            }
+        }
+
+        if(mAutoReplay)
+        {
+            long intervalMilliseconds = 50; //20 intervals per second
+            double framesPerInterval = getSampleRate() / 20.0d;
+            mReplayController = ThreadPool.SCHEDULED.scheduleAtFixedRate(new ReplayController(framesPerInterval),
+                    0, intervalMilliseconds, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Starts unthrottled playback of the recording, from the current position, on a separate thread for batch (faster
+     * than real time) processing.  Buffers are delivered as fast as the listener accepts them and each buffer is
+     * stamped with the start time plus the buffer's sample time within the recording.  Playback stops at the end of
+     * the recording and isPlaybackComplete() then returns true.
+     *
+     * @param startTimestamp in milliseconds for the first sample in the recording
+     * @throws IOException if the recording can't be opened
+     */
+    @Override
+    public void startUnthrottled(long startTimestamp) throws IOException
+    {
+        open();
+
+        if(mUnthrottledReader == null)
+        {
+            mPlaybackComplete = false;
+            mUnthrottledRunning = true;
+            mUnthrottledReader = new Thread(new UnthrottledReader(startTimestamp), "sdrtrunk batch recording reader");
+            mUnthrottledReader.setDaemon(true);
+            mUnthrottledReader.start();
+        }
+    }
+
+    @Override
+    public long getPlaybackTimestamp()
+    {
+        return mPlaybackTimestamp;
+    }
+
+    @Override
+    public boolean isPlaybackComplete()
+    {
+        return mPlaybackComplete;
+    }
+
+    @Override
+    public void stop()
+    {
+        try
+        {
+            if(mReplayController != null)
+            {
+                mReplayController.cancel(true);
+            }
+
+            if(mUnthrottledReader != null)
+            {
+                mUnthrottledRunning = false;
+                mUnthrottledReader.interrupt();
+
+                try
+                {
+                    mUnthrottledReader.join(2000);
+                }
+                catch(InterruptedException ie)
+                {
+                    Thread.currentThread().interrupt();
+                }
+
+                mUnthrottledReader = null;
+            }
+
+            close();
+        }
+        catch(IOException e)
+        {
+            mLog.error("Error stopping native buffer file source");
+        }
+    }
+
+    @Override
+    public long getFrameCount() throws IOException
+    {
+        return 0;
+    }
+
+    @Override
+    public double getSampleRate()
+    {
+        return mHeader.sampleRate();
+    }
+
+    /**
+     * Tuner center frequency at the start of the recording.
+     */
+    @Override
+    public long getFrequency()
+    {
+        return mHeader.frequency();
+    }
+
+    /**
+     * Closes the source file
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if(mReader != null)
+        {
+            mReader.close();
+            mReader = null;
+        }
+    }
+
+    /**
+     * Opens the source file for reading
+     */
+    @Override
+    public void open() throws IOException
+    {
+        if(mReader == null)
+        {
+            mReader = new NativeBufferReader(mFile.toPath());
+
+            /* Broadcast that we're at frame location 0 */
+            broadcast(0);
+        }
+    }
+
+    /**
+     * Reads the number of frames and sends the buffer(s) to the listener
+     */
+    @Override
+    public void next(int frames) throws IOException
+    {
+        next(frames, true);
+    }
+
+    /**
+     * Reads recorded buffers until the number of frames is reached and optionally sends the buffer(s) to the
+     * listener.  Recorded buffers are not split, so frames in excess of the request are credited to the next request.
+     */
+    @Override
+    public void next(int frames, boolean broadcast) throws IOException
+    {
+        if(mReader != null)
+        {
+            mSurplusFrames -= frames;
+
+            while(mSurplusFrames < 0)
+            {
+                INativeBuffer buffer = read(System.currentTimeMillis());
+
+                if(buffer == null)
+                {
+                    mSurplusFrames = 0;
+                    throw new IOException("End of file reached");
+                }
+
+                mSurplusFrames += buffer.sampleCount();
+                mFrameCounter += buffer.sampleCount();
+
+                if(broadcast && mListener != null)
+                {
+                    mListener.receive(buffer);
+                }
+            }
+
+            broadcast(mFrameCounter);
+        }
+    }
+
+    /**
+     * Reads the next recorded buffer and updates the playback position.
+     * @param timestamp to assign to the buffer
+     * @return buffer or null at the end of the recording
+     */
+    private synchronized INativeBuffer read(long timestamp) throws IOException
+    {
+        INativeBuffer buffer = mReader != null ? mReader.next(timestamp) : null;
+
+        if(buffer != null)
+        {
+            mFramesSinceSeek += buffer.sampleCount();
+        }
+
+        return buffer;
+    }
+
+    @Override
+    public long getStartTimestamp()
+    {
+        return mHeader.timestamp();
+    }
+
+    @Override
+    public long getDuration()
+    {
+        try(NativeBufferReader reader = new NativeBufferReader(mFile.toPath()))
+        {
+            return reader.getEndTimestamp() - mHeader.timestamp();
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error reading native buffer recording duration", ioe);
+        }
+
+        return 0;
+    }
+
+    @Override
+    public synchronized long getPosition()
+    {
+        return mSeekOffset + (long)(mFramesSinceSeek * 1000.0 / getSampleRate());
+    }
+
+    /**
+     * Repositions playback to the recorded buffer that contains the time offset.
+     */
+    @Override
+    public synchronized void seek(long offset) throws IOException
+    {
+        open();
+        mSeekOffset = Math.max(0, mReader.seek(mHeader.timestamp() + Math.max(0, offset)) - mHeader.timestamp());
+        mFramesSinceSeek = 0;
+        mSurplusFrames = 0;
+    }
+
+    @Override
+    public void setListener(Listener<INativeBuffer> listener)
+    {
+        mListener = listener;
+    }
+
+    /**
+     * Unregisters the listener from receiving sample buffers
+     */
+    public void removeListener(Listener<INativeBuffer> listener)
+    {
+        mListener = null;
+    }
+
+    @Override
+    public File getFile()
+    {
+        return mFile;
+    }
+
+    private void broadcast(long frameLocation)
+    {
+        if(mFrameLocationListener != null)
+        {
+            mFrameLocationListener.frameLocationUpdated((int)frameLocation);
+        }
+    }
+
+    @Override
+    public void setListener(IFrameLocationListener listener)
+    {
+        mFrameLocationListener = listener;
+    }
+
+    @Override
+    public void removeListener(IFrameLocationListener listener)
+    {
+        mFrameLocationListener = null;
+    }
+
+    /**
+     * Indicates if the file is a native buffer recording
+     */
+    public static boolean supports(File file)
+    {
+        return file != null && NativeBufferReader.supports(file.toPath());
+    }
+
+    /**
+     * Reads the recording from the current position to the end as fast as the listener will accept the sample buffers.  The listener is
+     * expected to apply back-pressure (i.e. block) when it can't keep up.
+     */
+    public class UnthrottledReader implements Runnable
+    {
+        private long mStartTimestamp;
+
+        public UnthrottledReader(long startTimestamp)
+        {
+            mStartTimestamp = startTimestamp;
+        }
+
+        @Override
+        public void run()
+        {
+            long framesRead = 0;
+            mPlaybackTimestamp = mStartTimestamp + getPosition();
+
+            try
+            {
+                while(mUnthrottledRunning)
+                {
+                    INativeBuffer buffer = read(mStartTimestamp + getPosition());
+
+                    if(buffer == null)
+                    {
+                        break;
+                    }
+
+                    framesRead += buffer.sampleCount();
+                    mPlaybackTimestamp = mStartTimestamp + getPosition();
+
+                    Listener<INativeBuffer> listener = mListener;
+
+                    if(listener != null)
+                    {
+                        listener.receive(buffer);
+                    }
+                }
+
+                mLog.info("End of recording [" + mFile.getName() + "] - played " + framesRead + " samples");
+            }
+            catch(IOException ioe)
+            {
+                if(mUnthrottledRunning)
+                {
+                    mLog.error("Error reading recording [" + mFile.getName() + "]", ioe);
+                }
+            }
+            finally
+            {
+                mPlaybackComplete = true;
+            }
+        }
+    }
+
+    public class ReplayController implements Runnable
+    {
+        private double mFramesPerInterval;
+        private long mFramesRead;
+        private long mIntervals;
+
+        public ReplayController(double framesPerInterval)
+        {
+            mFramesPerInterval = framesPerInterval;
+        }
+
+        @Override
+        public void run()
+        {
+            mIntervals++;
+            int framesToRead = (int)FastMath.floor((mIntervals * mFramesPerInterval) - mFramesRead);
+
+            try
+            {
+                next(framesToRead, true);
+                mFramesRead += framesToRead;
+            }
+            catch(IOException ioe)
+            {
+                mLog.debug("End of Recording - looping [" + ioe.getLocalizedMessage() + "]");
+                reset();
+            }
+        }
+    }
+}
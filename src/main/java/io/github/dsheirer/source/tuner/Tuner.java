@@ -26,6 +26,7 @@ import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.SourceException;
 import io.github.dsheirer.source.tuner.TunerEvent.Event;
 import io.github.dsheirer.source.tuner.manager.ChannelSourceManager;
+import io.github.dsheirer.source.tuner.manager.FastConvolutionChannelSourceManager;
 import io.github.dsheirer.source.tuner.manager.HeterodyneChannelSourceManager;
 import io.github.dsheirer.source.tuner.manager.PolyphaseChannelSourceManager;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -75,6 +76,10 @@ public abstract class Tuner implements ISourceEventProcessor, ITunerErrorListene
         {
             setChannelSourceManager(new HeterodyneChannelSourceManager(mTunerController));
         }
+        else if(channelizerType == ChannelizerType.FAST_CONVOLUTION)
+        {
+            setChannelSourceManager(new FastConvolutionChannelSourceManager(mTunerController));
+        }
         else
         {
             throw new IllegalArgumentException("Unrecognized channelizer type: " + channelizerType);
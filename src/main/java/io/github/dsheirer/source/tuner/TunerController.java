@@ -20,11 +20,11 @@ package io.github.dsheirer.source.tuner;
 
 import io.github.dsheirer.buffer.INativeBuffer;
 import io.github.dsheirer.buffer.INativeBufferProvider;
+import io.github.dsheirer.buffer.NativeBufferBroadcaster;
 import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.record.IBasebandRecorder;
 import io.github.dsheirer.record.RecorderFactory;
 import io.github.dsheirer.record.wave.IRecordingStatusListener;
-import io.github.dsheirer.record.wave.NativeBufferWaveRecorder;
-import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.source.ISourceEventListener;
 import io.github.dsheirer.source.ISourceEventProcessor;
@@ -46,13 +46,13 @@ public abstract class TunerController implements Tunable, ISourceEventProcessor,
         INativeBufferProvider, Listener<INativeBuffer>, ITunerErrorListener
 {
     private final static Logger mLog = LoggerFactory.getLogger(TunerController.class);
-    protected Broadcaster<INativeBuffer> mNativeBufferBroadcaster = new Broadcaster();
+    protected NativeBufferBroadcaster mNativeBufferBroadcaster = new NativeBufferBroadcaster();
     protected FrequencyController mFrequencyController;
     private int mMiddleUnusableHalfBandwidth;
     private int mMeasuredFrequencyError;
     private double mUsableBandwidthPercentage;
     private SourceEventListenerToProcessorAdapter mSourceEventListener;
-    private NativeBufferWaveRecorder mRecorder;
+    private IBasebandRecorder mRecorder;
     private ITunerErrorListener mTunerErrorListener;
     private DecimalFormat mFrequencyErrorPPMFormat = new DecimalFormat("0.0");
     private FrequencyErrorCorrectionManager mFrequencyErrorCorrectionManager;
@@ -594,7 +594,8 @@ public abstract class TunerController implements Tunable, ISourceEventProcessor,
     }
 
     /**
-     * Broadcasts the buffer to any registered listeners
+     * Broadcasts the buffer to any registered listeners, retaining a buffer reference for each listener.  The caller
+     * keeps its own reference to the buffer.
      */
     protected void broadcast(INativeBuffer complexSamples)
     {
@@ -701,7 +702,8 @@ public abstract class TunerController implements Tunable, ISourceEventProcessor,
     {
         if(!isRecording())
         {
-            mRecorder = RecorderFactory.getTunerRecorder(prefix + "_" + getFrequency(), userPreferences, statusListener);
+            mRecorder = RecorderFactory.getTunerRecorder(prefix + "_" + getFrequency(), userPreferences,
+                this::getFrequency, statusListener);
             mRecorder.setSampleRate((float)getSampleRate());
             mRecorder.start();
             addBufferListener(mRecorder);
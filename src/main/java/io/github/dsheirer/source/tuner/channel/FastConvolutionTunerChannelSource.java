@@ -0,0 +1,253 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.source.tuner.channel;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.channelizer.FastConvolutionChannelFilter;
+import io.github.dsheirer.dsp.filter.channelizer.FastConvolutionChannelizer;
+import io.github.dsheirer.dsp.filter.channelizer.FastConvolutionChannelizer.Spectrum;
+import io.github.dsheirer.dsp.filter.decimate.DecimationFilterFactory;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.dsp.mixer.ComplexMixer;
+import io.github.dsheirer.dsp.mixer.ComplexMixerFactory;
+import io.github.dsheirer.metrics.IMetricsProvider;
+import io.github.dsheirer.metrics.Metric;
+import io.github.dsheirer.metrics.MetricNames;
+import io.github.dsheirer.metrics.MetricsRegistry;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.source.SourceEvent;
+import io.github.dsheirer.util.BatchMode;
+import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.SampleClock;
+import io.github.dsheirer.util.WaitStrategy;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Complex sample source that provides a frequency-translated and decimated sample stream from the block spectra
+ * produced by a shared fast convolution channelizer.  The channel can be centered at any frequency within the tuner
+ * bandwidth and uses any power of two decimation supported by the channelizer.  Block spectra are queued and
+ * processed on the channel's own dispatcher thread.
+ */
+public class FastConvolutionTunerChannelSource extends TunerChannelSource implements Listener<Spectrum>, IMetricsProvider
+{
+    //Maximum number of queued block spectra
+    private static final int BUFFER_MAX_CAPACITY = 250;
+    private static final float FILTER_ATTENUATION = 80.0f;
+
+    private Dispatcher<Spectrum> mSpectrumDispatcher;
+    private FastConvolutionChannelFilter mChannelFilter;
+    private ComplexMixer mResidualMixer;
+    private StreamProcessorWithHeartbeat<ComplexSamples> mStreamHeartbeatProcessor;
+    private LongAdder mSampleCount = new LongAdder();
+    private double mTunerSampleRate;
+    private double mChannelSampleRate;
+    private int mFftSize;
+    private long mTunerFrequency;
+
+    /**
+     * Constructs a fast convolution channel source.
+     *
+     * @param producerSourceEventListener to receive sample stream start/stop requests
+     * @param tunerChannel that details the desired channel frequency and bandwidth
+     * @param channelizer that provides the block spectra for this channel
+     * @param channelSpecification for the requested channel.
+     * @throws FilterDesignException if the channel filter can't be designed for the channel specification
+     */
+    public FastConvolutionTunerChannelSource(Listener<SourceEvent> producerSourceEventListener,
+                                             TunerChannel tunerChannel, FastConvolutionChannelizer channelizer,
+                                             ChannelSpecification channelSpecification) throws FilterDesignException
+    {
+        super(producerSourceEventListener, tunerChannel);
+
+        mStreamHeartbeatProcessor = new StreamProcessorWithHeartbeat<>(getHeartbeatManager(), HEARTBEAT_INTERVAL_MS);
+
+        mTunerSampleRate = channelizer.getSampleRate();
+        mFftSize = channelizer.getFftSize();
+
+        int desiredDecimation = (int)(mTunerSampleRate / channelSpecification.getMinimumSampleRate());
+        int decimation = Math.min(DecimationFilterFactory.getDecimationRate(desiredDecimation),
+            channelizer.getMaximumDecimation());
+        mChannelSampleRate = mTunerSampleRate / decimation;
+
+        //Place the cutoff midway between the pass and stop frequencies, within the channel sample rate
+        double stopFrequency = Math.min(channelSpecification.getStopFrequency(), mChannelSampleRate / 2.0);
+        double cutoff = (channelSpecification.getPassFrequency() + stopFrequency) / 2.0 / mTunerSampleRate;
+        float[] taps = FilterFactory.getKaiserSinc(channelizer.getMaximumFilterLength(), cutoff, FILTER_ATTENUATION);
+
+        mChannelFilter = new FastConvolutionChannelFilter(mFftSize, channelizer.getBlockSize(), decimation, taps);
+        mResidualMixer = ComplexMixerFactory.getMixer(0, mChannelSampleRate);
+
+        mSpectrumDispatcher = new Dispatcher<>(BUFFER_MAX_CAPACITY, "sdrtrunk fast convolution channel " +
+            tunerChannel.getFrequency(), new Spectrum(new float[0], -1, 0, null), WaitStrategy.PARK,
+            BatchMode.getSampleOverflowPolicy());
+        mSpectrumDispatcher.setListener(new SpectrumProcessor());
+
+        mTunerFrequency = tunerChannel.getFrequency();
+        updateChannelOffset();
+    }
+
+    @Override
+    public void start()
+    {
+        super.start();
+        mStreamHeartbeatProcessor.start();
+        MetricsRegistry.getInstance().register(this);
+        mSpectrumDispatcher.start();
+    }
+
+    @Override
+    public void stop()
+    {
+        super.stop();
+        mSpectrumDispatcher.stop();
+        MetricsRegistry.getInstance().unregister(this);
+        mStreamHeartbeatProcessor.stop();
+    }
+
+    @Override
+    public void dispose()
+    {
+    }
+
+    @Override
+    public boolean isIdle()
+    {
+        return mSpectrumDispatcher.isIdle();
+    }
+
+    /**
+     * Primary interface for receiving block spectra from the channelizer.
+     */
+    @Override
+    public void receive(Spectrum spectrum)
+    {
+        mSpectrumDispatcher.receive(spectrum);
+    }
+
+    /**
+     * Sets/updates the center frequency for the sample streaming being sent from the producer.
+     *
+     * @param frequency in hertz
+     */
+    @Override
+    public void setFrequency(long frequency)
+    {
+        mTunerFrequency = frequency;
+        updateChannelOffset();
+    }
+
+    /**
+     * Calculates the channelizer bin nearest to the channel frequency and the residual offset from that bin that is
+     * removed by the mixer.
+     */
+    private void updateChannelOffset()
+    {
+        double binWidth = mTunerSampleRate / mFftSize;
+        long offset = getTunerChannel().getFrequency() - mTunerFrequency;
+        int centerBin = (int)Math.round(offset / binWidth);
+        mChannelFilter.setCenterBin(centerBin);
+        mResidualMixer.setFrequency((centerBin * binWidth) - offset);
+    }
+
+    /**
+     * Channelizer bin translated to baseband
+     */
+    public int getCenterBin()
+    {
+        return mChannelFilter.getCenterBin();
+    }
+
+    /**
+     * Mixer frequency removing the residual offset between the channel frequency and the center bin.
+     * @return mixer frequency
+     */
+    public long getMixerFrequency()
+    {
+        return (long)mResidualMixer.getFrequency();
+    }
+
+    /**
+     * Sets the sample rate of the incoming sample stream from the producer
+     *
+     * @param sampleRate in hertz
+     */
+    @Override
+    protected void setSampleRate(double sampleRate)
+    {
+        //Not implemented.  Sample rate changes are not permitted once sample stream starts
+    }
+
+    /**
+     * Sets the listener to receive the complex buffer sample output from this channel
+     *
+     * @param listener to receive complex buffers
+     */
+    @Override
+    public void setListener(Listener<ComplexSamples> listener)
+    {
+        mStreamHeartbeatProcessor.setListener(listener);
+    }
+
+    @Override
+    public double getSampleRate()
+    {
+        return mChannelSampleRate;
+    }
+
+    @Override
+    public void collectMetrics(List<Metric> metrics)
+    {
+        String channel = String.valueOf(getTunerChannel().getFrequency());
+        metrics.add(Metric.gauge(MetricNames.CHANNEL_SAMPLE_RATE, "Configured channel sample rate", getSampleRate(),
+            MetricNames.LABEL_CHANNEL, channel));
+        metrics.add(Metric.counter(MetricNames.CHANNEL_SAMPLES, "Complex samples produced by the channel",
+            mSampleCount.sum(), MetricNames.LABEL_CHANNEL, channel));
+    }
+
+    /**
+     * Processes block spectra received from the dispatcher and sends the channel samples to the registered listener
+     */
+    public class SpectrumProcessor implements Listener<Spectrum>
+    {
+        @Override
+        public void receive(Spectrum spectrum)
+        {
+            try
+            {
+                ComplexSamples samples = mChannelFilter.filter(spectrum.getBins(), spectrum.getBlockIndex(),
+                    spectrum.getTimestamp());
+
+                if(mResidualMixer.hasFrequency())
+                {
+                    samples = mResidualMixer.mix(samples);
+                }
+
+                mSampleCount.add(samples.i().length);
+                SampleClock.setSampleTime(samples.timestamp());
+                mStreamHeartbeatProcessor.receive(samples);
+            }
+            finally
+            {
+                spectrum.release();
+            }
+        }
+    }
+}
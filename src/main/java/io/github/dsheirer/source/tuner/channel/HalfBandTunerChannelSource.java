@@ -28,7 +28,10 @@ import io.github.dsheirer.dsp.mixer.ComplexMixerFactory;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.source.SourceEvent;
+import io.github.dsheirer.util.BatchMode;
 import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.SampleClock;
+import io.github.dsheirer.util.WaitStrategy;
 import java.util.Iterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,8 +80,10 @@ public class HalfBandTunerChannelSource<T extends INativeBuffer> extends TunerCh
         mQDecimationFilter = DecimationFilterFactory.getRealDecimationFilter(decimation);
 
         mBufferDispatcher = new Dispatcher(BUFFER_MAX_CAPACITY, "sdrtrunk heterodyne channel " +
-                tunerChannel.getFrequency(), new NativeBufferPoisonPill());
+                tunerChannel.getFrequency(), new NativeBufferPoisonPill(), WaitStrategy.PARK,
+                BatchMode.getSampleOverflowPolicy());
         mBufferDispatcher.setListener(new NativeBufferProcessor());
+        mBufferDispatcher.setReleaseListener(INativeBuffer::release);
 
         //Setup the frequency mixer to the current source frequency
         mChannelSampleRate = sampleRate / (double)decimation;
@@ -108,6 +113,12 @@ public class HalfBandTunerChannelSource<T extends INativeBuffer> extends TunerCh
     {
     }
 
+    @Override
+    public boolean isIdle()
+    {
+        return mBufferDispatcher.isIdle();
+    }
+
     /**
      * Primary interface for receiving incoming complex sample buffers to be frequency translated and decimated.
      */
@@ -191,6 +202,7 @@ public class HalfBandTunerChannelSource<T extends INativeBuffer> extends TunerCh
                 ComplexSamples basebanded = mFrequencyCorrectionMixer.mix(iterator.next());
                 float[] i = mIDecimationFilter.decimateReal(basebanded.i());
                 float[] q = mQDecimationFilter.decimateReal(basebanded.q());
+                SampleClock.setSampleTime(basebanded.timestamp());
                 mStreamHeartbeatProcessor.receive(new ComplexSamples(i, q, basebanded.timestamp()));
             }
         }
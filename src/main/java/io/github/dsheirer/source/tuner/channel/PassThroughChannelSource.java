@@ -26,7 +26,10 @@ import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.source.ISourceEventListener;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.tuner.TunerController;
+import io.github.dsheirer.util.BatchMode;
 import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.SampleClock;
+import io.github.dsheirer.util.WaitStrategy;
 import java.util.Iterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,8 +59,10 @@ public class PassThroughChannelSource extends TunerChannelSource implements ISou
         super(listener, tunerChannel);
         mTunerController = tunerController;
         mBufferDispatcher = new Dispatcher<>(500, "sdrtrunk pass-through channel " +
-                tunerChannel.getFrequency(), new NativeBufferPoisonPill());
+                tunerChannel.getFrequency(), new NativeBufferPoisonPill(), WaitStrategy.PARK,
+                BatchMode.getSampleOverflowPolicy());
         mBufferDispatcher.setListener(new BufferProcessor());
+        mBufferDispatcher.setReleaseListener(INativeBuffer::release);
         mStreamHeartbeatProcessor = new StreamProcessorWithHeartbeat<>(getHeartbeatManager(), HEARTBEAT_INTERVAL_MS);
     }
 
@@ -101,6 +106,12 @@ public class PassThroughChannelSource extends TunerChannelSource implements ISou
         return mTunerController.getSampleRate();
     }
 
+    @Override
+    public boolean isIdle()
+    {
+        return mBufferDispatcher.isIdle();
+    }
+
     @Override
     public void receive(INativeBuffer buffer)
     {
@@ -116,7 +127,9 @@ public class PassThroughChannelSource extends TunerChannelSource implements ISou
 
             while(iterator.hasNext())
             {
-                mStreamHeartbeatProcessor.receive(iterator.next());
+                ComplexSamples samples = iterator.next();
+                SampleClock.setSampleTime(samples.timestamp());
+                mStreamHeartbeatProcessor.receive(samples);
             }
         }
     }
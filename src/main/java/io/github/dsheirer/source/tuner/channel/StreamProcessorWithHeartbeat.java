@@ -21,6 +21,7 @@ package io.github.dsheirer.source.tuner.channel;
 
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.source.heartbeat.HeartbeatManager;
+import io.github.dsheirer.util.BatchMode;
 import io.github.dsheirer.util.ThreadPool;
 
 import java.util.concurrent.ScheduledFuture;
@@ -60,11 +61,12 @@ public class StreamProcessorWithHeartbeat<T> implements Listener<T>
     }
 
     /**
-     * Starts the heartbeat timer
+     * Starts the heartbeat timer.  The timer is not used in batch mode, where the heartbeat that precedes each sample
+     * buffer drives the decoder timers from the sample stream time instead of the wall clock.
      */
     public void start()
     {
-        if(mHeartbeatTimerFuture == null)
+        if(mHeartbeatTimerFuture == null && !BatchMode.isEnabled())
         {
             mHeartbeatTimerFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(() -> fireOptionalHeartbeat(),
                     mHeartbeatInterval, mHeartbeatInterval, TimeUnit.MILLISECONDS);
@@ -36,6 +36,7 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
     protected TunerChannel mTunerChannel;
     private Listener<SourceEvent> mProducerSourceEventListener;
     private Listener<SourceEvent> mConsumerSourceEventListener;
+    private long mStartTimestamp;
 
     /**
      * Tuner Channel Source is a Digital Drop Channel (DDC) abstract class that defines the minimum functionality
@@ -92,6 +93,16 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
         return mTunerChannel;
     }
 
+    /**
+     * Sets the timestamp of the earliest samples requested from the producer when this source is started.  Producers
+     * that retain a sample history pre-load the source with samples from this timestamp forward.
+     * @param startTimestamp in milliseconds, or 0 to start with the current samples
+     */
+    public void setStartTimestamp(long startTimestamp)
+    {
+        mStartTimestamp = startTimestamp;
+    }
+
     /**
      * Starts this tuner channel source producing sample stream.
      */
@@ -99,7 +110,15 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
     {
         //Broadcast current frequency and sample rate so consumer can configure correctly
         broadcastConsumerSourceEvent(SourceEvent.frequencyChange(this, getFrequency(), "Startup"));
-        broadcastProducerSourceEvent(SourceEvent.startSampleStreamRequest(this));
+
+        if(mStartTimestamp > 0)
+        {
+            broadcastProducerSourceEvent(SourceEvent.startSampleStreamRequest(this, mStartTimestamp));
+        }
+        else
+        {
+            broadcastProducerSourceEvent(SourceEvent.startSampleStreamRequest(this));
+        }
     }
 
     /**
@@ -112,6 +131,15 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
         broadcastProducerSourceEvent(SourceEvent.sourceDisposeRequest(this));
     }
 
+    /**
+     * Indicates if this source has no sample buffers queued or in process.  Sources that don't queue sample buffers
+     * are always idle.
+     */
+    public boolean isIdle()
+    {
+        return true;
+    }
+
     @Override
     public void reset()
     {
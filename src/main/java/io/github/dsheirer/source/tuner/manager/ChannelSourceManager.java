@@ -81,6 +81,16 @@ public abstract class ChannelSourceManager implements ISourceEventProcessor
      */
     public abstract TunerChannelSource getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification);
 
+    /**
+     * Indicates if this manager and each of its tuner channel sources have no sample buffers queued or in process.
+     * Batch processing uses this to detect when the sample stream has been fully consumed once the tuner stops
+     * producing sample buffers.
+     */
+    public boolean isIdle()
+    {
+        return true;
+    }
+
     /**
      * Signals that the complex buffer provider has an error and can no long provider buffers.  The subclass should
      * implement procedures to gracefully shutdown any tuner channel sources that have been provisioned.
@@ -0,0 +1,470 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.source.tuner.manager;
+
+import io.github.dsheirer.buffer.FloatArrayPool;
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.buffer.NativeBufferPoisonPill;
+import io.github.dsheirer.controller.channel.event.ChannelStopProcessingRequest;
+import io.github.dsheirer.dsp.filter.channelizer.FastConvolutionChannelizer;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.eventbus.MyEventBus;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import io.github.dsheirer.source.SourceEvent;
+import io.github.dsheirer.source.SourceException;
+import io.github.dsheirer.source.tuner.TunerController;
+import io.github.dsheirer.source.tuner.channel.ChannelSpecification;
+import io.github.dsheirer.source.tuner.channel.FastConvolutionTunerChannelSource;
+import io.github.dsheirer.source.tuner.channel.TunerChannel;
+import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
+import io.github.dsheirer.util.BatchMode;
+import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.WaitStrategy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Channel provider for the overlap-save fast convolution method of channel provisioning.  A single forward FFT of
+ * the tuner sample stream is shared by all channels and each channel performs only a bin selection, filter and small
+ * inverse FFT at its own center frequency and decimation rate.  Unlike the polyphase channelizer, channels are not
+ * constrained to a fixed channel grid and unlike the heterodyne channelizer, the per-channel cost does not scale with
+ * the tuner sample rate.
+ */
+public class FastConvolutionChannelSourceManager extends ChannelSourceManager
+{
+    private final static Logger mLog = LoggerFactory.getLogger(FastConvolutionChannelSourceManager.class);
+
+    private List<FastConvolutionTunerChannelSource> mChannelSources = new CopyOnWriteArrayList<>();
+    private SortedSet<TunerChannel> mTunerChannels = new TreeSet<>();
+    private TunerController mTunerController;
+    private ChannelSourceEventProcessor mChannelSourceEventProcessor = new ChannelSourceEventProcessor();
+    private NativeBufferReceiver mNativeBufferReceiver = new NativeBufferReceiver();
+    private Dispatcher<INativeBuffer> mBufferDispatcher;
+    private FastConvolutionChannelizer mChannelizer;
+    private boolean mRunning = true;
+
+    public FastConvolutionChannelSourceManager(TunerController tunerController)
+    {
+        mTunerController = tunerController;
+        mTunerController.addListener(this);
+        mBufferDispatcher = new Dispatcher<>(500, "sdrtrunk fast convolution buffer processor",
+            new NativeBufferPoisonPill(), WaitStrategy.PARK, BatchMode.getSampleOverflowPolicy());
+        mBufferDispatcher.setListener(mNativeBufferReceiver);
+        mBufferDispatcher.setReleaseListener(INativeBuffer::release);
+    }
+
+    @Override
+    public String getStateDescription()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Fast Convolution Channel Source Manager Providing [").append(mTunerChannels.size()).append("] Channels");
+        sb.append("\n\tTuner Controller Frequency: ").append(mTunerController.getFrequency());
+
+        FastConvolutionChannelizer channelizer = mChannelizer;
+
+        if(channelizer != null)
+        {
+            sb.append("\n\tFFT Size: ").append(channelizer.getFftSize())
+                .append(" Block Size: ").append(channelizer.getBlockSize());
+        }
+
+        for(FastConvolutionTunerChannelSource channelSource: mChannelSources)
+        {
+            sb.append("\n\tChannel [").append(channelSource.getTunerChannel())
+                    .append("] Frequency [").append(channelSource.getFrequency())
+                    .append("] Sample Rate [").append(channelSource.getSampleRate())
+                    .append("] Bin [").append(channelSource.getCenterBin())
+                    .append("] Mixer [").append(channelSource.getMixerFrequency())
+                    .append("]");
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public void stopAllChannels()
+    {
+        mRunning = false;
+
+        List<TunerChannelSource> toStop = new ArrayList<>(mChannelSources);
+
+        for(TunerChannelSource tunerChannelSource: toStop)
+        {
+            MyEventBus.getGlobalEventBus().post(new ChannelStopProcessingRequest(tunerChannelSource));
+        }
+    }
+
+    @Override
+    public SortedSet<TunerChannel> getTunerChannels()
+    {
+        return mTunerChannels;
+    }
+
+    /**
+     * Indicates if there are no sample buffers queued or in process in the buffer processor or any of the channel
+     * sources.
+     */
+    @Override
+    public boolean isIdle()
+    {
+        if(!mBufferDispatcher.isIdle())
+        {
+            return false;
+        }
+
+        for(FastConvolutionTunerChannelSource channelSource: mChannelSources)
+        {
+            if(!channelSource.isIdle())
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int getTunerChannelCount()
+    {
+        return mTunerChannels.size();
+    }
+
+    @Override
+    public TunerChannelSource getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification)
+    {
+        if(!mRunning)
+        {
+            return null;
+        }
+
+        TunerChannelSource source = null;
+
+        try
+        {
+            mTunerController.getFrequencyControllerLock().lock();
+            if(CenterFrequencyCalculator.canTune(tunerChannel, mTunerController, mTunerChannels))
+            {
+                try
+                {
+                    //Attempt to create the channel source first, in case we get a filter design exception
+                    FastConvolutionTunerChannelSource tunerChannelSource =
+                        new FastConvolutionTunerChannelSource(mChannelSourceEventProcessor, tunerChannel,
+                            getChannelizer(), channelSpecification);
+
+                    //Add to the list of channel sources so that it will receive the tuner frequency change
+                    mChannelSources.add(tunerChannelSource);
+
+                    //Set the current tuner frequency
+                    tunerChannelSource.setFrequency(mTunerController.getFrequency());
+
+                    //Add to the channel list and update the tuner center frequency as needed
+                    mTunerChannels.add(tunerChannel);
+                    updateTunerFrequency();
+
+                    //Lock the tuner controller frequency and sample rate
+                    mTunerController.setLockedSampleRate(true);
+
+                    broadcast(SourceEvent.channelCountChange(getTunerChannelCount()));
+
+                    source = tunerChannelSource;
+                }
+                catch(FilterDesignException fde)
+                {
+                    mLog.error("Error creating fast convolution tuner channel source - couldn't design channel filter", fde);
+                }
+            }
+        }
+        finally
+        {
+            mTunerController.getFrequencyControllerLock().unlock();
+        }
+
+        return source;
+    }
+
+    /**
+     * Channelizer for the current tuner sample rate.  The channelizer is recreated when the sample rate has changed
+     * while no channels were allocated, since the sample rate is locked while channels are allocated.
+     */
+    private FastConvolutionChannelizer getChannelizer()
+    {
+        synchronized(mBufferDispatcher)
+        {
+            if(mChannelizer == null ||
+                (mChannelSources.isEmpty() && mChannelizer.getSampleRate() != mTunerController.getSampleRate()))
+            {
+                mChannelizer = new FastConvolutionChannelizer(mTunerController.getSampleRate());
+            }
+
+            return mChannelizer;
+        }
+    }
+
+    @Override
+    public void setErrorMessage(String errorMessage)
+    {
+        for(TunerChannelSource tunerChannelSource: mChannelSources)
+        {
+            tunerChannelSource.setError(errorMessage);
+        }
+    }
+
+    /**
+     * Calculates a new center frequency and updates the tuner center frequency
+     */
+    private void updateTunerFrequency()
+    {
+        if(!mTunerController.isTunedFor(getTunerChannels()))
+        {
+            long centerFrequency = CenterFrequencyCalculator.getCenterFrequency(mTunerController, getTunerChannels());
+
+            if(centerFrequency == CenterFrequencyCalculator.INVALID_FREQUENCY)
+            {
+                mLog.error("Couldn't calculate center frequency for tuner and tuner channels");
+                return;
+            }
+
+            if(centerFrequency != mTunerController.getFrequency())
+            {
+                try
+                {
+                    mTunerController.setFrequency(centerFrequency);
+                }
+                catch(SourceException se)
+                {
+                    mLog.error("Couldn't update tuner center frequency to " + centerFrequency, se);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void process(SourceEvent tunerSourceEvent) throws SourceException
+    {
+        switch(tunerSourceEvent.getEvent())
+        {
+            case NOTIFICATION_FREQUENCY_CHANGE:
+                //Tuner center frequency has changed - update channels
+                updateTunerFrequency(tunerSourceEvent.getValue().longValue());
+
+                //Clear the channelizer sample history on the buffer processing thread since it holds samples that are
+                //centered on the previous frequency
+                mNativeBufferReceiver.clear();
+                break;
+            case NOTIFICATION_FREQUENCY_CORRECTION_CHANGE:
+                //The tuner is self-correcting for PPM error - relay to channels
+                broadcastToChannels(tunerSourceEvent);
+                break;
+            case NOTIFICATION_SAMPLE_RATE_CHANGE:
+            case NOTIFICATION_FREQUENCY_AND_SAMPLE_RATE_LOCKED:
+            case NOTIFICATION_FREQUENCY_AND_SAMPLE_RATE_UNLOCKED:
+                //no-op
+                break;
+            default:
+                mLog.info("Unrecognized Source Event received from tuner: " + tunerSourceEvent);
+        }
+    }
+
+    /**
+     * Broadcasts the source event to any channel
+     */
+    private void broadcastToChannels(SourceEvent sourceEvent)
+    {
+        for(FastConvolutionTunerChannelSource channelSource : mChannelSources)
+        {
+            try
+            {
+                channelSource.process(sourceEvent);
+            }
+            catch(Exception e)
+            {
+                mLog.error("Error broadcasting source event to channel: " + sourceEvent);
+            }
+        }
+    }
+
+    /**
+     * Updates all channel sources to use the new tuner center frequency
+     *
+     * @param tunerFrequency in hertz
+     */
+    private void updateTunerFrequency(long tunerFrequency)
+    {
+        for(FastConvolutionTunerChannelSource channelSource : mChannelSources)
+        {
+            channelSource.setFrequency(tunerFrequency);
+        }
+    }
+
+    /**
+     * Registers the channel source to receive block spectra from the channelizer, registering with the tuner to
+     * receive sample buffers when this is the first channel.
+     */
+    private void startChannelSource(FastConvolutionTunerChannelSource channelSource)
+    {
+        synchronized(mBufferDispatcher)
+        {
+            FastConvolutionChannelizer channelizer = getChannelizer();
+            channelizer.addListener(channelSource);
+
+            if(channelizer.getListenerCount() == 1)
+            {
+                mTunerController.addBufferListener(mBufferDispatcher);
+                mBufferDispatcher.start();
+            }
+        }
+    }
+
+    /**
+     * Deregisters the channel source from the channelizer and deregisters from the tuner when this is the last
+     * channel being sourced.
+     */
+    private void stopChannelSource(FastConvolutionTunerChannelSource channelSource)
+    {
+        synchronized(mBufferDispatcher)
+        {
+            FastConvolutionChannelizer channelizer = mChannelizer;
+
+            if(channelizer != null)
+            {
+                channelizer.removeListener(channelSource);
+
+                if(channelizer.getListenerCount() == 0)
+                {
+                    mTunerController.removeBufferListener(mBufferDispatcher);
+                    mBufferDispatcher.stop();
+                    channelizer.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes native buffers from the tuner on the buffer dispatcher thread and sends the samples to the
+     * channelizer.
+     */
+    public class NativeBufferReceiver implements Listener<INativeBuffer>
+    {
+        private AtomicBoolean mClearRequired = new AtomicBoolean();
+
+        /**
+         * Flags the channelizer sample history to be cleared before the next sample buffer is processed.
+         */
+        public void clear()
+        {
+            mClearRequired.set(true);
+        }
+
+        @Override
+        public void receive(INativeBuffer nativeBuffer)
+        {
+            FastConvolutionChannelizer channelizer = mChannelizer;
+
+            if(channelizer != null)
+            {
+                if(mClearRequired.getAndSet(false))
+                {
+                    channelizer.clear();
+                }
+
+                //The channelizer copies each sample array into its sample history, so we can return each pooled
+                //sample array to the pool once the channelizer has received it
+                Iterator<InterleavedComplexSamples> iterator =
+                    nativeBuffer.iteratorInterleaved(FloatArrayPool.TUNER_SAMPLES);
+
+                while(iterator.hasNext())
+                {
+                    InterleavedComplexSamples samples = iterator.next();
+
+                    try
+                    {
+                        channelizer.receive(samples);
+                    }
+                    catch(Throwable throwable)
+                    {
+                        mLog.error("Error", throwable);
+                    }
+                    finally
+                    {
+                        FloatArrayPool.TUNER_SAMPLES.release(samples.samples());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes channel source events
+     */
+    public class ChannelSourceEventProcessor implements Listener<SourceEvent>
+    {
+        @Override
+        public void receive(SourceEvent sourceEvent)
+        {
+            switch(sourceEvent.getEvent())
+            {
+                case REQUEST_START_SAMPLE_STREAM:
+                    if(sourceEvent.getSource() instanceof FastConvolutionTunerChannelSource channelSource)
+                    {
+                        startChannelSource(channelSource);
+                    }
+                    break;
+                case REQUEST_STOP_SAMPLE_STREAM:
+                    if(sourceEvent.getSource() instanceof FastConvolutionTunerChannelSource channelSource)
+                    {
+                        stopChannelSource(channelSource);
+                    }
+                    break;
+                case REQUEST_SOURCE_DISPOSE:
+                    if(sourceEvent.getSource() instanceof FastConvolutionTunerChannelSource channelSource)
+                    {
+                        mChannelSources.remove(channelSource);
+                        mTunerChannels.remove(channelSource.getTunerChannel());
+                        channelSource.dispose();
+
+                        //Unlock the tuner controller if there are no more channels
+                        if(getTunerChannelCount() == 0)
+                        {
+                            mTunerController.setLockedSampleRate(false);
+                        }
+                        broadcast(SourceEvent.channelCountChange(getTunerChannelCount()));
+                    }
+                    break;
+                case NOTIFICATION_MEASURED_FREQUENCY_ERROR_SYNC_LOCKED:
+                    //Rebroadcast so that the tuner source can process this event
+                    broadcast(sourceEvent);
+                    break;
+                case NOTIFICATION_CHANNEL_COUNT_CHANGE:
+                    //Lock the tuner controller frequency & sample rate when we're processing channels
+                    break;
+                default:
+                    mLog.info("Unrecognized Source Event received from channel: " + sourceEvent);
+                    break;
+            }
+        }
+    }
+}
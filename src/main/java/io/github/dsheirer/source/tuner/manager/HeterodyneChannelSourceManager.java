@@ -96,6 +96,20 @@ public class HeterodyneChannelSourceManager extends ChannelSourceManager
         return mTunerChannels;
     }
 
+    @Override
+    public boolean isIdle()
+    {
+        for(HalfBandTunerChannelSource channelSource: mChannelSources)
+        {
+            if(!channelSource.isIdle())
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     @Override
     public int getTunerChannelCount()
     {
@@ -86,6 +86,20 @@ public class PassThroughSourceManager extends ChannelSourceManager
         return mTunerChannels;
     }
 
+    @Override
+    public boolean isIdle()
+    {
+        for(TunerChannelSource tunerChannelSource: mTunerChannelSources)
+        {
+            if(!tunerChannelSource.isIdle())
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     @Override
     public int getTunerChannelCount()
     {
@@ -407,6 +407,12 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
         return mPolyphaseChannelManager.getTunerChannels();
     }
 
+    @Override
+    public boolean isIdle()
+    {
+        return mPolyphaseChannelManager.isIdle();
+    }
+
     /**
      * Count of tuner channels currently being sourced by this source manager
      */
@@ -19,6 +19,11 @@
 
 package io.github.dsheirer.source.tuner.manager;
 
+import com.google.common.eventbus.Subscribe;
+import io.github.dsheirer.dsp.filter.channelizer.ChannelizerWorkerPool;
+import io.github.dsheirer.dsp.filter.channelizer.PolyphaseChannelManager;
+import io.github.dsheirer.eventbus.MyEventBus;
+import io.github.dsheirer.preference.PreferenceType;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.preference.source.ChannelizerType;
 import io.github.dsheirer.source.Source;
@@ -37,6 +42,7 @@ import io.github.dsheirer.source.tuner.configuration.TunerConfiguration;
 import io.github.dsheirer.source.tuner.configuration.TunerConfigurationManager;
 import io.github.dsheirer.source.tuner.recording.RecordingTunerConfiguration;
 import io.github.dsheirer.source.tuner.ui.DiscoveredTunerModel;
+import io.github.dsheirer.source.tuner.usb.USBTunerController;
 import io.github.dsheirer.util.ThreadPool;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -80,6 +86,26 @@ public class TunerManager implements IDiscoveredTunerStatusListener
     {
         mUserPreferences = userPreferences;
         mTunerConfigurationManager = new TunerConfigurationManager(userPreferences);
+        ChannelizerWorkerPool.getInstance()
+            .setThreadCount(mUserPreferences.getTunerPreference().getChannelizerThreadCount());
+        USBTunerController.setZeroCopyBufferCount(mUserPreferences.getTunerPreference().getZeroCopyBufferCount());
+        PolyphaseChannelManager.setPreRollHistorySize(mUserPreferences.getTunerPreference().getPreRollHistorySize());
+        MyEventBus.getGlobalEventBus().register(this);
+    }
+
+    /**
+     * Applies changes to the tuner preferences that can be updated while tuners are running.
+     */
+    @Subscribe
+    public void preferenceUpdated(PreferenceType preferenceType)
+    {
+        if(preferenceType == PreferenceType.TUNER)
+        {
+            ChannelizerWorkerPool.getInstance()
+                .setThreadCount(mUserPreferences.getTunerPreference().getChannelizerThreadCount());
+            USBTunerController.setZeroCopyBufferCount(mUserPreferences.getTunerPreference().getZeroCopyBufferCount());
+            PolyphaseChannelManager.setPreRollHistorySize(mUserPreferences.getTunerPreference().getPreRollHistorySize());
+        }
     }
 
     /**
@@ -62,7 +62,7 @@ public class AddRecordingTunerDialog extends JFrame
     private JTextField mFrequencyTextField;
     private JButton mAddButton;
     private JButton mCancelButton;
-    private static final Pattern TUNER_RECORDING_PATTERN = Pattern.compile(".*_(\\d*)_baseband_\\d{8}_\\d{6}\\.wav");
+    private static final Pattern TUNER_RECORDING_PATTERN = Pattern.compile(".*_(\\d*)_baseband_\\d{8}_\\d{6}\\.(wav|nbb)");
 
     public AddRecordingTunerDialog(UserPreferences userPreferences, DiscoveredTunerModel discoveredTunerModel,
                                    TunerConfigurationManager tunerConfigurationManager)
@@ -105,13 +105,13 @@ public class AddRecordingTunerDialog extends JFrame
                 @Override
                 public boolean accept(File f)
                 {
-                    return f.getAbsolutePath().endsWith(".wav") || f.isDirectory();
+                    return f.getAbsolutePath().endsWith(".wav") || f.getAbsolutePath().endsWith(".nbb") || f.isDirectory();
                 }
 
                 @Override
                 public String getDescription()
                 {
-                    return "Recordings (*.wav)";
+                    return "Recordings (*.wav, *.nbb)";
                 }
             });
 
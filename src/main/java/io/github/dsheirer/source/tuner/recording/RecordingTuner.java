@@ -25,6 +25,7 @@ import io.github.dsheirer.source.tuner.ITunerErrorListener;
 import io.github.dsheirer.source.tuner.Tuner;
 import io.github.dsheirer.source.tuner.TunerClass;
 import io.github.dsheirer.source.tuner.TunerType;
+import io.github.dsheirer.source.tuner.manager.FastConvolutionChannelSourceManager;
 import io.github.dsheirer.source.tuner.manager.HeterodyneChannelSourceManager;
 import io.github.dsheirer.source.tuner.manager.PassThroughSourceManager;
 import io.github.dsheirer.source.tuner.manager.PolyphaseChannelSourceManager;
@@ -69,6 +70,10 @@ public class RecordingTuner extends Tuner
             {
                 setChannelSourceManager(new HeterodyneChannelSourceManager(getTunerController()));
             }
+            else if(channelizerType == ChannelizerType.FAST_CONVOLUTION)
+            {
+                setChannelSourceManager(new FastConvolutionChannelSourceManager(getTunerController()));
+            }
             else
             {
                 throw new IllegalArgumentException("Unrecognized channelizer type: " + channelizerType);
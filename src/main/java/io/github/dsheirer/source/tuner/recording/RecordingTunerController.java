@@ -18,12 +18,17 @@
  */
 package io.github.dsheirer.source.tuner.recording;
 
+import io.github.dsheirer.record.nativebuffer.NativeBufferWriter;
+import io.github.dsheirer.source.IBasebandFileSource;
+import io.github.dsheirer.source.ISeekableFileSource;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.SourceException;
 import io.github.dsheirer.source.tuner.ITunerErrorListener;
 import io.github.dsheirer.source.tuner.TunerController;
 import io.github.dsheirer.source.tuner.TunerType;
-import io.github.dsheirer.source.wave.ComplexWaveSource;
+import io.github.dsheirer.source.nativebuffer.NativeBufferFileSource;
+import io.github.dsheirer.source.wave.MappedComplexWaveSource;
+import io.github.dsheirer.util.BatchMode;
 import java.io.File;
 import java.io.IOException;
 import org.slf4j.Logger;
@@ -40,9 +45,11 @@ public class RecordingTunerController extends TunerController
 
     public static final int DC_NOISE_BANDWIDTH = 0;
     public static final double USABLE_BANDWIDTH_PERCENTAGE = 1.00;
-    private ComplexWaveSource mComplexWaveSource;
+    private static final long DEFAULT_CENTER_FREQUENCY = 100000000;
+    private IBasebandFileSource mBasebandFileSource;
     private String mPath;
     private long mCenterFrequency;
+    private boolean mCenterFrequencySpecified;
     private boolean mRunning;
 
     /**
@@ -54,9 +61,10 @@ public class RecordingTunerController extends TunerController
         super(tunerErrorListener);
         mPath = path;
         mCenterFrequency = centerFrequency;
+        mCenterFrequencySpecified = centerFrequency != 0;
         if(mCenterFrequency == 0)
         {
-            mCenterFrequency = 100000000;
+            mCenterFrequency = DEFAULT_CENTER_FREQUENCY;
         }
 
         setMinimumFrequency(1000000l);
@@ -68,11 +76,12 @@ public class RecordingTunerController extends TunerController
     @Override
     public void start() throws SourceException
     {
-        if(mComplexWaveSource == null)
+        if(mBasebandFileSource == null)
         {
             try
             {
-                mComplexWaveSource = new ComplexWaveSource(new File(mPath), true);
+                //Batch mode playback is started on request once the channels are ready to receive samples
+                mBasebandFileSource = createSource(new File(mPath), !BatchMode.isEnabled());
             }
             catch(IOException ioe)
             {
@@ -81,12 +90,12 @@ public class RecordingTunerController extends TunerController
                 return;
             }
 
-            mComplexWaveSource.setListener(complexSamples -> broadcast(complexSamples));
+            mBasebandFileSource.setListener(complexSamples -> broadcast(complexSamples));
 
             try
             {
-                mComplexWaveSource.open();
-                mComplexWaveSource.start();
+                mBasebandFileSource.open();
+                mBasebandFileSource.start();
                 mLog.info("Tuner Recording Loaded: " + mPath);
             }
             catch(IOException | UnsupportedAudioFileException e)
@@ -96,10 +105,16 @@ public class RecordingTunerController extends TunerController
                 return;
             }
 
+            //Use the frequency recorded in the file when a center frequency is not specified
+            if(!mCenterFrequencySpecified && mBasebandFileSource.getFrequency() > 0)
+            {
+                mCenterFrequency = mBasebandFileSource.getFrequency();
+            }
+
             try
             {
                 mFrequencyController.setFrequency(mCenterFrequency);
-                mFrequencyController.setSampleRate((int)mComplexWaveSource.getSampleRate());
+                mFrequencyController.setSampleRate((int)mBasebandFileSource.getSampleRate());
                 mFrequencyController.broadcast(SourceEvent.recordingFileLoaded());
             }
             catch(SourceException e)
@@ -110,25 +125,103 @@ public class RecordingTunerController extends TunerController
         }
     }
 
+    /**
+     * Creates a playback source for the recording file, based on the file type.
+     * @param file containing a wave or native buffer baseband recording
+     * @param autoReplay to enable continuous looping, real-time playback
+     * @return source
+     * @throws IOException if the file is not a supported recording
+     */
+    public static IBasebandFileSource createSource(File file, boolean autoReplay) throws IOException
+    {
+        if(file.getName().toLowerCase().endsWith(NativeBufferWriter.EXTENSION))
+        {
+            return new NativeBufferFileSource(file, autoReplay);
+        }
+
+        return new MappedComplexWaveSource(file, autoReplay);
+    }
+
     @Override
     public void stop()
     {
-        if(mComplexWaveSource != null)
+        if(mBasebandFileSource != null)
         {
             try
             {
-                mComplexWaveSource.stop();
-                mComplexWaveSource.close();
+                mBasebandFileSource.stop();
+                mBasebandFileSource.close();
             }
             catch(IOException ioe)
             {
                 mLog.error("Ignoring - error stopping baseband recording playback - " + ioe.getLocalizedMessage());
             }
 
-            mComplexWaveSource = null;
+            mBasebandFileSource = null;
+        }
+    }
+
+    /**
+     * Starts unthrottled (faster than real time) playback of the recording for batch processing.  Sample buffers are
+     * stamped with the recording time line, starting at the specified timestamp.
+     * @param startTimestamp in milliseconds for the first sample of the recording
+     * @throws SourceException if the recording is not loaded or can't be read
+     */
+    public void startBatchPlayback(long startTimestamp) throws SourceException
+    {
+        if(mBasebandFileSource == null)
+        {
+            throw new SourceException("Recording is not loaded: " + mPath);
+        }
+
+        try
+        {
+            mBasebandFileSource.startUnthrottled(startTimestamp);
+        }
+        catch(IOException ioe)
+        {
+            throw new SourceException("Unable to start playback of recording: " + mPath, ioe);
         }
     }
 
+    /**
+     * Repositions playback to the time offset from the start of the recording.
+     * @param offset in milliseconds from the start of the recording
+     * @throws SourceException if the recording is not loaded or does not support seeking
+     */
+    public void seek(long offset) throws SourceException
+    {
+        if(!(mBasebandFileSource instanceof ISeekableFileSource seekable))
+        {
+            throw new SourceException("Recording is not loaded or does not support seeking: " + mPath);
+        }
+
+        try
+        {
+            seekable.seek(offset);
+        }
+        catch(IOException ioe)
+        {
+            throw new SourceException("Unable to seek recording: " + mPath, ioe);
+        }
+    }
+
+    /**
+     * Indicates if batch playback has reached the end of the recording.
+     */
+    public boolean isBatchPlaybackComplete()
+    {
+        return mBasebandFileSource == null || mBasebandFileSource.isPlaybackComplete();
+    }
+
+    /**
+     * Recording time line position of batch playback, in milliseconds.
+     */
+    public long getBatchPlaybackTimestamp()
+    {
+        return mBasebandFileSource != null ? mBasebandFileSource.getPlaybackTimestamp() : 0;
+    }
+
     @Override
     public TunerType getTunerType()
     {
@@ -138,9 +231,9 @@ public class RecordingTunerController extends TunerController
     @Override
     public int getBufferSampleCount()
     {
-        if(mComplexWaveSource != null)
+        if(mBasebandFileSource != null)
         {
-            return mComplexWaveSource.getBufferSampleCount();
+            return mBasebandFileSource.getBufferSampleCount();
         }
 
         return 0;
@@ -179,9 +272,9 @@ public class RecordingTunerController extends TunerController
     @Override
     public double getCurrentSampleRate()
     {
-        if(mComplexWaveSource != null)
+        if(mBasebandFileSource != null)
         {
-            return mComplexWaveSource.getSampleRate();
+            return mBasebandFileSource.getSampleRate();
         }
 
         return 0d;
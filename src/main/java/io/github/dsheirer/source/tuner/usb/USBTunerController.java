@@ -18,6 +18,7 @@
  */
 package io.github.dsheirer.source.tuner.usb;
 
+import io.github.dsheirer.buffer.DirectBufferPool;
 import io.github.dsheirer.buffer.INativeBuffer;
 import io.github.dsheirer.buffer.INativeBufferFactory;
 import io.github.dsheirer.sample.Listener;
@@ -56,6 +57,7 @@ public abstract class USBTunerController extends TunerController
     private static final int USB_BULK_TRANSFER_BUFFER_POOL_SIZE = 8;
     private static final byte USB_BULK_TRANSFER_ENDPOINT = (byte) 0x81;
     private static final long USB_BULK_TRANSFER_TIMEOUT_MS = 2000l;
+    private static volatile int sZeroCopyBufferCount = 0;
 
     private int mBus;
     private String mPortAddress;
@@ -107,6 +109,20 @@ public abstract class USBTunerController extends TunerController
         setUsableBandwidthPercentage(usablePercent);
     }
 
+    /**
+     * Sets the number of direct transfer buffers in the ring used for zero-copy sample streaming, or zero to disable
+     * zero-copy streaming.  In zero-copy mode, completed USB transfer buffers are dispatched as native buffers that
+     * wrap the transfer buffer memory, and the transfer is resubmitted with a free buffer from the ring.  The sample
+     * stream is copied as before when the ring has no free buffer or when the tuner's native buffer factory doesn't
+     * support direct buffers.  Applies to tuners when they next start streaming.
+     *
+     * @param count of transfer buffers in the ring
+     */
+    public static void setZeroCopyBufferCount(int count)
+    {
+        sZeroCopyBufferCount = Math.max(0, count);
+    }
+
     /**
      * Tuner type for this USB controller
      */
@@ -518,6 +534,9 @@ public abstract class USBTunerController extends TunerController
     class TransferManager implements TransferCallback
     {
         private List<Transfer> mAvailableTransfers;
+        private DirectBufferPool mDirectBufferPool;
+        private long mDirectDispatchCount;
+        private long mCopyDispatchCount;
         private LinkedTransferQueue<Transfer> mInProgressTransfers = new LinkedTransferQueue<>();
         private boolean mAutoResubmitTransfers = false;
         private int mTransferErrorCount = 0;
@@ -536,6 +555,16 @@ public abstract class USBTunerController extends TunerController
             if(mAvailableTransfers == null)
             {
                 mAvailableTransfers = new ArrayList<>();
+                int zeroCopyBufferCount = sZeroCopyBufferCount;
+
+                if(zeroCopyBufferCount > 0 && getNativeBufferFactory().supportsDirectBuffers())
+                {
+                    //The ring holds the in-flight transfer buffers plus the buffers lent to native buffers
+                    mDirectBufferPool = new DirectBufferPool(getTransferBufferSize(),
+                        Math.max(zeroCopyBufferCount, USB_BULK_TRANSFER_BUFFER_POOL_SIZE * 2));
+                    mDirectDispatchCount = 0;
+                    mCopyDispatchCount = 0;
+                }
 
                 for(int x = 0; x < USB_BULK_TRANSFER_BUFFER_POOL_SIZE; x++)
                 {
@@ -546,7 +575,8 @@ public abstract class USBTunerController extends TunerController
                         throw new SourceException("Couldn't allocate USB transfer buffer - out of memory");
                     }
 
-                    final ByteBuffer buffer = ByteBuffer.allocateDirect(getTransferBufferSize());
+                    final ByteBuffer buffer = mDirectBufferPool != null ? mDirectBufferPool.take() :
+                        ByteBuffer.allocateDirect(getTransferBufferSize());
 
                     LibUsb.fillBulkTransfer(transfer, mDeviceHandle, USB_BULK_TRANSFER_ENDPOINT, buffer,
                             TransferManager.this, "Transfer Buffer " + x, USB_BULK_TRANSFER_TIMEOUT_MS);
@@ -684,6 +714,13 @@ public abstract class USBTunerController extends TunerController
                 mAvailableTransfers.clear();
                 mAvailableTransfers = null;
             }
+
+            if(mDirectBufferPool != null)
+            {
+                mLog.info("Zero-copy USB transfers - dispatched [" + mDirectDispatchCount + "] without a copy and [" +
+                    mCopyDispatchCount + "] with a copy when the transfer buffer ring was exhausted");
+                mDirectBufferPool = null;
+            }
         }
 
         @Override
@@ -730,16 +767,53 @@ public abstract class USBTunerController extends TunerController
         }
 
         /**
-         * Makes a copy of the transfer's native memory byte array payload so that the transfer can be reused.
-         * Dispatches the native buffer to registered listeners.
-         * @param transfer to copy and dispatch
+         * Dispatches the transfer's native memory byte array payload to registered listeners as a native buffer.
+         *
+         * In zero-copy mode, the native buffer wraps the transfer buffer and the transfer is given a free buffer from
+         * the ring so that it can be resubmitted.  Each listener holds a reference to the native buffer and the wrapped
+         * buffer returns to the ring once the last listener releases its reference.  Otherwise, the payload is copied
+         * so that the transfer buffer can be reused.
+         *
+         * @param transfer to dispatch
          */
         private void dispatchTransfer(Transfer transfer)
         {
-            //Pass the transfer's byte buffer so the native buffer factory can make a copy of the byte array contents
-            //and package it as a native buffer.
-            INativeBuffer nativeBuffer = getNativeBufferFactory().getBuffer(transfer.buffer(), System.currentTimeMillis());
-            mNativeBufferBroadcaster.broadcast(nativeBuffer);
+            long timestamp = System.currentTimeMillis();
+            INativeBuffer nativeBuffer = null;
+
+            if(mDirectBufferPool != null)
+            {
+                ByteBuffer replacement = mDirectBufferPool.take();
+
+                if(replacement != null)
+                {
+                    ByteBuffer filled = transfer.buffer();
+                    transfer.setBuffer(replacement);
+                    nativeBuffer = getNativeBufferFactory().getDirectBuffer(mDirectBufferPool.lease(filled), timestamp);
+                    mDirectDispatchCount++;
+                }
+                else
+                {
+                    mCopyDispatchCount++;
+                }
+            }
+
+            if(nativeBuffer == null)
+            {
+                //Pass the transfer's byte buffer so the native buffer factory can make a copy of the byte array
+                //contents and package it as a native buffer.
+                nativeBuffer = getNativeBufferFactory().getBuffer(transfer.buffer(), timestamp);
+            }
+
+            try
+            {
+                mNativeBufferBroadcaster.broadcast(nativeBuffer);
+            }
+            finally
+            {
+                //Release the dispatch reference now that each listener holds its own reference
+                nativeBuffer.release();
+            }
         }
     }
 
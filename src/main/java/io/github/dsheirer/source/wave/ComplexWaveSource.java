@@ -23,7 +23,7 @@ import io.github.dsheirer.buffer.INativeBuffer;
 import io.github.dsheirer.sample.ConversionUtils;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.SampleType;
-import io.github.dsheirer.source.IControllableFileSource;
+import io.github.dsheirer.source.IBasebandFileSource;
 import io.github.dsheirer.source.IFrameLocationListener;
 import io.github.dsheirer.source.Source;
 import io.github.dsheirer.source.SourceEvent;
@@ -42,7 +42,7 @@ import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.UnsupportedAudioFileException;
 
-public class ComplexWaveSource extends Source implements IControllableFileSource, AutoCloseable
+public class ComplexWaveSource extends Source implements IBasebandFileSource
 {
     private final static Logger mLog = LoggerFactory.getLogger(ComplexWaveSource.class);
 
@@ -55,6 +55,10 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
     private File mFile;
     private boolean mAutoReplay;
     private ScheduledFuture<?> mReplayController;
+    private Thread mUnthrottledReader;
+    private volatile boolean mUnthrottledRunning;
+    private volatile boolean mPlaybackComplete;
+    private volatile long mPlaybackTimestamp;
 
     /**
      * Constructs an instance with optional auto-replay at near real time.
@@ -117,6 +121,7 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
     /**
      * Number of samples per buffer
      */
+    @Override
     public int getBufferSampleCount()
     {
         return (int)(getSampleRate() / 20.0d);
@@ -148,6 +153,59 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
         }
     }
 
+    /**
+     * Starts unthrottled playback of the recording on a separate thread for batch (faster than real time) processing.
+     * Sample buffers are delivered as fast as the listener accepts them and each buffer is stamped with the recording
+     * start time plus the elapsed sample time so that downstream decoders observe the recorded time line.  Playback
+     * stops at the end of the recording (no looping) and isPlaybackComplete() then returns true.
+     *
+     * @param startTimestamp in milliseconds for the first sample in the recording
+     * @throws IOException if the recording can't be opened
+     */
+    @Override
+    public void startUnthrottled(long startTimestamp) throws IOException
+    {
+        if(mInputStream == null)
+        {
+            try
+            {
+                open();
+            }
+            catch(UnsupportedAudioFileException e)
+            {
+                throw new IOException("Unsupported recording file format", e);
+            }
+        }
+
+        if(mUnthrottledReader == null)
+        {
+            mPlaybackComplete = false;
+            mUnthrottledRunning = true;
+            mUnthrottledReader = new Thread(new UnthrottledReader(startTimestamp), "sdrtrunk batch recording reader");
+            mUnthrottledReader.setDaemon(true);
+            mUnthrottledReader.start();
+        }
+    }
+
+    /**
+     * Recording time line position of unthrottled playback: the timestamp following the most recently delivered sample
+     * buffer.
+     */
+    @Override
+    public long getPlaybackTimestamp()
+    {
+        return mPlaybackTimestamp;
+    }
+
+    /**
+     * Indicates if unthrottled playback has reached the end of the recording, or was stopped.
+     */
+    @Override
+    public boolean isPlaybackComplete()
+    {
+        return mPlaybackComplete;
+    }
+
     @Override
     public void stop()
     {
@@ -158,6 +216,23 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
                 mReplayController.cancel(true);
             }
 
+            if(mUnthrottledReader != null)
+            {
+                mUnthrottledRunning = false;
+                mUnthrottledReader.interrupt();
+
+                try
+                {
+                    mUnthrottledReader.join(2000);
+                }
+                catch(InterruptedException ie)
+                {
+                    Thread.currentThread().interrupt();
+                }
+
+                mUnthrottledReader = null;
+            }
+
             close();
         }
         catch(IOException e)
@@ -187,6 +262,7 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
      * Returns the frequency set for this file.  Normally returns zero, but
      * the value can be set with setFrequency() method.
      */
+    @Override
     public long getFrequency()
     {
         return mFrequency;
@@ -286,6 +362,7 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
      * Registers the listener to receive sample buffers as they are read from
      * the wave file
      */
+    @Override
     public void setListener(Listener<INativeBuffer> listener)
     {
         mListener = listener;
@@ -349,6 +426,72 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
         return false;
     }
 
+    /**
+     * Reads the recording from start to end as fast as the listener will accept the sample buffers.  The listener is
+     * expected to apply back-pressure (i.e. block) when it can't keep up.
+     */
+    public class UnthrottledReader implements Runnable
+    {
+        private long mStartTimestamp;
+
+        public UnthrottledReader(long startTimestamp)
+        {
+            mStartTimestamp = startTimestamp;
+        }
+
+        @Override
+        public void run()
+        {
+            AudioInputStream inputStream = mInputStream;
+            double sampleRate = getSampleRate();
+            float samplesPerMillisecond = (float)(sampleRate / 1000.0);
+            byte[] buffer = new byte[mBytesPerFrame * getBufferSampleCount()];
+            long framesRead = 0;
+            mPlaybackTimestamp = mStartTimestamp;
+
+            try
+            {
+                while(mUnthrottledRunning && inputStream != null)
+                {
+                    int bytesRead = inputStream.readNBytes(buffer, 0, buffer.length);
+                    int framesInBuffer = bytesRead / mBytesPerFrame;
+
+                    if(framesInBuffer <= 0)
+                    {
+                        break;
+                    }
+
+                    byte[] bytes = framesInBuffer * mBytesPerFrame < buffer.length ?
+                        Arrays.copyOf(buffer, framesInBuffer * mBytesPerFrame) : buffer;
+                    float[] samples = ConversionUtils.convertFromSigned16BitSamples(bytes);
+                    long timestamp = mStartTimestamp + (long)(framesRead * 1000.0 / sampleRate);
+                    framesRead += framesInBuffer;
+                    mPlaybackTimestamp = mStartTimestamp + (long)(framesRead * 1000.0 / sampleRate);
+
+                    Listener<INativeBuffer> listener = mListener;
+
+                    if(listener != null)
+                    {
+                        listener.receive(new FloatNativeBuffer(samples, timestamp, samplesPerMillisecond));
+                    }
+                }
+
+                mLog.info("End of recording [" + mFile.getName() + "] - played " + framesRead + " samples");
+            }
+            catch(IOException ioe)
+            {
+                if(mUnthrottledRunning)
+                {
+                    mLog.error("Error reading recording [" + mFile.getName() + "]", ioe);
+                }
+            }
+            finally
+            {
+                mPlaybackComplete = true;
+            }
+        }
+    }
+
     public class ReplayController implements Runnable
     {
         private double mFramesPerInterval;
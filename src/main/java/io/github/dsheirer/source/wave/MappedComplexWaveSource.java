@@ -0,0 +1,642 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.source.wave;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.buffer.SignedShortNativeBuffer;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.SampleType;
+import io.github.dsheirer.source.IBasebandFileSource;
+import io.github.dsheirer.source.IFrameLocationListener;
+import io.github.dsheirer.source.ISeekableFileSource;
+import io.github.dsheirer.source.Source;
+import io.github.dsheirer.source.SourceEvent;
+import io.github.dsheirer.util.ThreadPool;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.math3.util.FastMath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Memory-mapped complex (I/Q) wave recording source with random access playback.
+ *
+ * The recording is mapped instead of streamed, and sample buffers are delivered as views over the mapped file that
+ * are only converted to float as they are consumed.  Recordings that were rolled over into series segment files
+ * (ie recording.tmp, recording_2.tmp, recording_3.tmp) by the wave writer are played back as a single, continuous
+ * recording.  A sparse time index of the recording segments supports seeking to any time within the recording.
+ */
+public class MappedComplexWaveSource extends Source implements IBasebandFileSource, ISeekableFileSource
+{
+    private final static Logger mLog = LoggerFactory.getLogger(MappedComplexWaveSource.class);
+    private static final Pattern TIMESTAMP_PATTERN = Pattern.compile(".*_(\\d{8}_\\d{6})(_\\d+)?\\.(wav|tmp)");
+    private static final long INDEX_INTERVAL_MS = 1000;
+
+    private IFrameLocationListener mFrameLocationListener;
+    private Listener<INativeBuffer> mListener;
+    private File mFile;
+    private boolean mAutoReplay;
+    private List<MappedWaveFile> mSegments;
+    private long[] mSegmentStartFrames;
+    private NavigableMap<Long,IndexEntry> mTimeIndex = new TreeMap<>();
+    private double mSampleRate;
+    private long mFrameCount;
+    private long mStartTimestamp;
+    private long mPosition;
+    private ScheduledFuture<?> mReplayController;
+    private Thread mUnthrottledReader;
+    private volatile boolean mUnthrottledRunning;
+    private volatile boolean mPlaybackComplete;
+    private volatile long mPlaybackTimestamp;
+
+    /**
+     * Constructs an instance with optional auto-replay at near real time.
+     * @param file containing complex I/Q sample data, or the first segment of a rolled over recording
+     * @param autoReplay to enable continuous looping, real-time playback of sample data
+     * @throws IOException if the file is not a complex 16-bit wave recording
+     */
+    public MappedComplexWaveSource(File file, boolean autoReplay) throws IOException
+    {
+        if(file == null || !file.exists())
+        {
+            throw new IOException("Empty or null file");
+        }
+
+        mFile = file;
+        mAutoReplay = autoReplay;
+        open();
+    }
+
+    public MappedComplexWaveSource(File file) throws IOException
+    {
+        this(file, false);
+    }
+
+    @Override
+    public SampleType getSampleType()
+    {
+        return SampleType.COMPLEX;
+    }
+
+    @Override
+    public void setSourceEventListener(Listener<SourceEvent> listener)
+    {
+        //Not implemented
+    }
+
+    @Override
+    public void removeSourceEventListener()
+    {
+        //Not implemented
+    }
+
+    @Override
+    public Listener<SourceEvent> getSourceEventListener()
+    {
+        //Not implemented
+        return null;
+    }
+
+    @Override
+    public void reset()
+    {
+        stop();
+
+        try
+        {
+            seek(0);
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error resetting mapped wave source", ioe);
+        }
+
+        start();
+    }
+
+    @Override
+    public int getBufferSampleCount()
+    {
+        return (int)(getSampleRate() / 20.0d);
+    }
+
+    @Override
+    public void start()
+    {
+        try
+        {
+            open();
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error", ioe);
+            return;
+        }
+
+        if(mAutoReplay)
+        {
+            long intervalMilliseconds = 50; //20 intervals per second
+            double framesPerInterval = getSampleRate() / 20.0d;
+            mReplayController = ThreadPool.SCHEDULED.scheduleAtFixedRate(new ReplayController(framesPerInterval),
+                    0, intervalMilliseconds, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Starts unthrottled playback of the recording, from the current position, on a separate thread for batch
+     * (faster than real time) processing.  Buffers are delivered as fast as the listener accepts them and each buffer
+     * is stamped with the start timestamp plus the buffer's sample time within the recording.  Playback stops at the
+     * end of the recording and isPlaybackComplete() then returns true.
+     *
+     * @param startTimestamp in milliseconds for the first sample in the recording
+     * @throws IOException if the recording can't be opened
+     */
+    @Override
+    public void startUnthrottled(long startTimestamp) throws IOException
+    {
+        open();
+
+        if(mUnthrottledReader == null)
+        {
+            mPlaybackComplete = false;
+            mUnthrottledRunning = true;
+            mUnthrottledReader = new Thread(new UnthrottledReader(startTimestamp), "sdrtrunk batch recording reader");
+            mUnthrottledReader.setDaemon(true);
+            mUnthrottledReader.start();
+        }
+    }
+
+    @Override
+    public long getPlaybackTimestamp()
+    {
+        return mPlaybackTimestamp;
+    }
+
+    @Override
+    public boolean isPlaybackComplete()
+    {
+        return mPlaybackComplete;
+    }
+
+    @Override
+    public void stop()
+    {
+        if(mReplayController != null)
+        {
+            mReplayController.cancel(true);
+            mReplayController = null;
+        }
+
+        if(mUnthrottledReader != null)
+        {
+            mUnthrottledRunning = false;
+            mUnthrottledReader.interrupt();
+
+            try
+            {
+                mUnthrottledReader.join(2000);
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            mUnthrottledReader = null;
+        }
+    }
+
+    @Override
+    public long getFrameCount()
+    {
+        return mFrameCount;
+    }
+
+    @Override
+    public double getSampleRate()
+    {
+        return mSampleRate;
+    }
+
+    /**
+     * Frequency is not recorded in wave files
+     */
+    @Override
+    public long getFrequency()
+    {
+        return 0;
+    }
+
+    @Override
+    public long getStartTimestamp()
+    {
+        return mStartTimestamp;
+    }
+
+    @Override
+    public long getDuration()
+    {
+        return toMilliseconds(mFrameCount);
+    }
+
+    @Override
+    public synchronized long getPosition()
+    {
+        return toMilliseconds(mPosition);
+    }
+
+    /**
+     * Repositions playback using the sparse time index to locate the recording segment and the nearest indexed
+     * frame, and then the sample rate to locate the frame within the segment.
+     */
+    @Override
+    public synchronized void seek(long offset) throws IOException
+    {
+        open();
+
+        long timestamp = mStartTimestamp + Math.max(0, offset);
+        Map.Entry<Long,IndexEntry> entry = mTimeIndex.floorEntry(timestamp);
+        long frame = entry.getValue().frame() + (long)((timestamp - entry.getKey()) * mSampleRate / 1000.0);
+        int segment = entry.getValue().segment();
+        long segmentEnd = mSegmentStartFrames[segment] + mSegments.get(segment).getFrameCount();
+
+        mPosition = Math.min(frame, segmentEnd);
+        broadcast(mPosition);
+    }
+
+    private long toMilliseconds(long frames)
+    {
+        return mSampleRate > 0 ? (long)(frames * 1000.0 / mSampleRate) : 0;
+    }
+
+    /**
+     * Releases the mapped recording.  The mapped file regions are unmapped once the delivered sample buffers are
+     * no longer referenced.
+     */
+    @Override
+    public synchronized void close()
+    {
+        mSegments = null;
+        mTimeIndex.clear();
+    }
+
+    /**
+     * Maps the recording segment files and builds the time index.
+     */
+    @Override
+    public synchronized void open() throws IOException
+    {
+        if(mSegments == null)
+        {
+            List<MappedWaveFile> segments = new ArrayList<>();
+
+            for(Path path: getSegmentPaths(mFile.toPath()))
+            {
+                MappedWaveFile segment = new MappedWaveFile(path);
+
+                if(!segments.isEmpty() && segment.getSampleRate() != segments.get(0).getSampleRate())
+                {
+                    mLog.warn("Ignoring recording segment with a different sample rate [" + path + "]");
+                    break;
+                }
+
+                segments.add(segment);
+            }
+
+            mSegmentStartFrames = new long[segments.size()];
+            long frameCount = 0;
+
+            for(int x = 0; x < segments.size(); x++)
+            {
+                mSegmentStartFrames[x] = frameCount;
+                frameCount += segments.get(x).getFrameCount();
+            }
+
+            mSegments = segments;
+            mSampleRate = segments.get(0).getSampleRate();
+            mFrameCount = frameCount;
+            mStartTimestamp = getStartTimestamp(segments);
+            mPosition = Math.min(mPosition, mFrameCount);
+            buildTimeIndex();
+
+            /* Broadcast that we're at frame location 0 */
+            broadcast(mPosition);
+        }
+    }
+
+    /**
+     * Builds the sparse time index with an entry at the start of each segment and at each index interval.
+     */
+    private void buildTimeIndex()
+    {
+        mTimeIndex.clear();
+        long framesPerInterval = (long)(mSampleRate * INDEX_INTERVAL_MS / 1000.0);
+
+        for(int x = 0; x < mSegments.size(); x++)
+        {
+            long segmentStart = mSegmentStartFrames[x];
+            long segmentEnd = segmentStart + mSegments.get(x).getFrameCount();
+
+            for(long frame = segmentStart; frame < segmentEnd || frame == segmentStart;
+                frame += Math.max(1, framesPerInterval))
+            {
+                mTimeIndex.put(mStartTimestamp + toMilliseconds(frame), new IndexEntry(x, frame));
+            }
+        }
+    }
+
+    /**
+     * Recording start time from the recording file name, or from the file modified time less the recording duration.
+     */
+    private long getStartTimestamp(List<MappedWaveFile> segments)
+    {
+        Matcher matcher = TIMESTAMP_PATTERN.matcher(mFile.getName());
+
+        if(matcher.matches())
+        {
+            try
+            {
+                return new SimpleDateFormat("yyyyMMdd_HHmmss").parse(matcher.group(1)).getTime();
+            }
+            catch(ParseException pe)
+            {
+                //Fall through to the file modified time
+            }
+        }
+
+        try
+        {
+            return Files.getLastModifiedTime(segments.get(segments.size() - 1).getPath()).toMillis() -
+                toMilliseconds(mFrameCount);
+        }
+        catch(IOException ioe)
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Lists the first recording file and any series segment files created when the wave writer rolled the recording
+     * over to a new file (ie recording.tmp, recording_2.tmp, recording_3.tmp).
+     * @param first recording file
+     * @return segment files, in order
+     */
+    public static List<Path> getSegmentPaths(Path first)
+    {
+        List<Path> paths = new ArrayList<>();
+        paths.add(first);
+
+        String name = first.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+
+        if(extension > 0)
+        {
+            String base = name.substring(0, extension);
+            String suffix = name.substring(extension);
+            Path segment = first.resolveSibling(base + "_2" + suffix);
+
+            for(int series = 3; Files.isRegularFile(segment); series++)
+            {
+                paths.add(segment);
+                segment = first.resolveSibling(base + "_" + series + suffix);
+            }
+        }
+
+        return paths;
+    }
+
+    /**
+     * Reads up to the number of frames from the current position as a view over the mapped recording.  Fewer frames
+     * are returned at the end of a mapped window or recording segment.
+     * @param frames maximum
+     * @param timestamp for the buffer
+     * @return buffer or null at the end of the recording
+     */
+    private synchronized INativeBuffer read(int frames, long timestamp)
+    {
+        if(mSegments == null || mPosition >= mFrameCount)
+        {
+            return null;
+        }
+
+        int segment = Arrays.binarySearch(mSegmentStartFrames, mPosition);
+
+        if(segment < 0)
+        {
+            segment = -segment - 2;
+        }
+
+        //Skip over empty segments
+        while(mPosition >= mSegmentStartFrames[segment] + mSegments.get(segment).getFrameCount())
+        {
+            segment++;
+        }
+
+        ByteBuffer view = mSegments.get(segment).getFrames(mPosition - mSegmentStartFrames[segment], frames);
+        mPosition += view.remaining() / MappedWaveFile.FRAME_SIZE;
+        return new SignedShortNativeBuffer(view, timestamp, (float)(mSampleRate / 1000.0));
+    }
+
+    /**
+     * Current position in frames
+     */
+    private synchronized long getPositionFrame()
+    {
+        return mPosition;
+    }
+
+    /**
+     * Reads the number of frames and sends the buffer(s) to the listener
+     */
+    @Override
+    public void next(int frames) throws IOException
+    {
+        next(frames, true);
+    }
+
+    /**
+     * Reads the number of frames and optionally sends the buffer(s) to the listener
+     */
+    @Override
+    public void next(int frames, boolean broadcast) throws IOException
+    {
+        int remaining = frames;
+
+        while(remaining > 0)
+        {
+            INativeBuffer buffer = read(remaining, System.currentTimeMillis());
+
+            if(buffer == null)
+            {
+                throw new IOException("End of file reached");
+            }
+
+            remaining -= buffer.sampleCount();
+
+            if(broadcast && mListener != null)
+            {
+                mListener.receive(buffer);
+            }
+        }
+
+        broadcast(getPositionFrame());
+    }
+
+    @Override
+    public void setListener(Listener<INativeBuffer> listener)
+    {
+        mListener = listener;
+    }
+
+    /**
+     * Unregisters the listener from receiving sample buffers
+     */
+    public void removeListener(Listener<INativeBuffer> listener)
+    {
+        mListener = null;
+    }
+
+    @Override
+    public File getFile()
+    {
+        return mFile;
+    }
+
+    private void broadcast(long frameLocation)
+    {
+        if(mFrameLocationListener != null)
+        {
+            mFrameLocationListener.frameLocationUpdated((int)frameLocation);
+        }
+    }
+
+    @Override
+    public void setListener(IFrameLocationListener listener)
+    {
+        mFrameLocationListener = listener;
+    }
+
+    @Override
+    public void removeListener(IFrameLocationListener listener)
+    {
+        mFrameLocationListener = null;
+    }
+
+    /**
+     * Time index entry
+     * @param segment index of the recording segment
+     * @param frame offset from the start of the recording
+     */
+    private record IndexEntry(int segment, long frame) {}
+
+    /**
+     * Reads the recording from the current position to the end as fast as the listener will accept the sample
+     * buffers.  The listener is expected to apply back-pressure (i.e. block) when it can't keep up.
+     */
+    public class UnthrottledReader implements Runnable
+    {
+        private long mStartTimestamp;
+
+        public UnthrottledReader(long startTimestamp)
+        {
+            mStartTimestamp = startTimestamp;
+        }
+
+        @Override
+        public void run()
+        {
+            int bufferFrames = getBufferSampleCount();
+            long framesRead = 0;
+            mPlaybackTimestamp = mStartTimestamp + toMilliseconds(getPositionFrame());
+
+            try
+            {
+                while(mUnthrottledRunning)
+                {
+                    INativeBuffer buffer = read(bufferFrames, mStartTimestamp + toMilliseconds(getPositionFrame()));
+
+                    if(buffer == null)
+                    {
+                        break;
+                    }
+
+                    framesRead += buffer.sampleCount();
+                    mPlaybackTimestamp = mStartTimestamp + toMilliseconds(getPositionFrame());
+
+                    Listener<INativeBuffer> listener = mListener;
+
+                    if(listener != null)
+                    {
+                        listener.receive(buffer);
+                    }
+                }
+
+                mLog.info("End of recording [" + mFile.getName() + "] - played " + framesRead + " samples");
+            }
+            finally
+            {
+                mPlaybackComplete = true;
+            }
+        }
+    }
+
+    public class ReplayController implements Runnable
+    {
+        private double mFramesPerInterval;
+        private long mFramesRead;
+        private long mIntervals;
+
+        public ReplayController(double framesPerInterval)
+        {
+            mFramesPerInterval = framesPerInterval;
+        }
+
+        @Override
+        public void run()
+        {
+            mIntervals++;
+            int framesToRead = (int)FastMath.floor((mIntervals * mFramesPerInterval) - mFramesRead);
+
+            try
+            {
+                next(framesToRead, true);
+                mFramesRead += framesToRead;
+            }
+            catch(IOException ioe)
+            {
+                mLog.debug("End of Recording - looping [" + ioe.getLocalizedMessage() + "]");
+                reset();
+            }
+        }
+    }
+}
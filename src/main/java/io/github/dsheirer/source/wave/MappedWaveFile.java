@@ -0,0 +1,208 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.source.wave;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory-mapped complex (2-channel, 16-bit PCM) wave file.  The data chunk is mapped read-only in windows of up to
+ * 1 GB so that files up to the 4 GB wave size limit can be accessed without reading through the file.  Sample frames
+ * are returned as read-only views over the mapped file.
+ *
+ * The data chunk length is taken from the file length when the data chunk header was not updated, for example when
+ * the recording was interrupted.
+ */
+public class MappedWaveFile
+{
+    public static final int FRAME_SIZE = 4;
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final int PCM = 1;
+    private static final int EXTENSIBLE = 0xFFFE;
+
+    private Path mPath;
+    private double mSampleRate;
+    private long mFrameCount;
+    private List<MappedByteBuffer> mWindows = new ArrayList<>();
+
+    /**
+     * Constructs an instance and maps the wave file data chunk.
+     * @param path to the wave file
+     * @throws IOException if the file can't be read or is not a complex 16-bit wave file
+     */
+    public MappedWaveFile(Path path) throws IOException
+    {
+        mPath = path;
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long fileSize = channel.size();
+            ByteBuffer header = read(channel, 0, 12);
+
+            if(!"RIFF".equals(getId(header, 0)) || !"WAVE".equals(getId(header, 8)))
+            {
+                throw new IOException("Not a wave file [" + path.getFileName() + "]");
+            }
+
+            long position = 12;
+            long dataOffset = -1;
+            long dataLength = 0;
+
+            while(dataOffset < 0 && position + 8 <= fileSize)
+            {
+                ByteBuffer chunk = read(channel, position, 8);
+                String id = getId(chunk, 0);
+                long length = Integer.toUnsignedLong(chunk.getInt(4));
+
+                if("fmt ".equals(id))
+                {
+                    parseFormat(read(channel, position + 8, (int)Math.min(length, 40)));
+                }
+                else if("data".equals(id))
+                {
+                    dataOffset = position + 8;
+                    dataLength = length;
+                }
+
+                position += 8 + length + (length & 1);
+            }
+
+            if(mSampleRate <= 0)
+            {
+                throw new IOException("Wave file format chunk not found [" + path.getFileName() + "]");
+            }
+
+            if(dataOffset < 0)
+            {
+                throw new IOException("Wave file data chunk not found [" + path.getFileName() + "]");
+            }
+
+            //Use the file length when the data chunk length was not updated or is truncated
+            if(dataLength == 0 || dataOffset + dataLength > fileSize)
+            {
+                dataLength = fileSize - dataOffset;
+            }
+
+            mFrameCount = dataLength / FRAME_SIZE;
+            long framesPerWindow = WINDOW_SIZE / FRAME_SIZE;
+
+            for(long frame = 0; frame < mFrameCount; frame += framesPerWindow)
+            {
+                long frames = Math.min(framesPerWindow, mFrameCount - frame);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                    dataOffset + frame * FRAME_SIZE, frames * FRAME_SIZE);
+                window.order(ByteOrder.LITTLE_ENDIAN);
+                mWindows.add(window);
+            }
+        }
+    }
+
+    private void parseFormat(ByteBuffer format) throws IOException
+    {
+        int audioFormat = format.getShort(0) & 0xFFFF;
+        int channels = format.getShort(2);
+        int sampleRate = format.getInt(4);
+        int bitsPerSample = format.getShort(14);
+
+        if((audioFormat != PCM && audioFormat != EXTENSIBLE) || channels != 2 || bitsPerSample != 16)
+        {
+            throw new IOException("Unsupported Wave Format - EXPECTED: 2 channels 16-bit PCM samples FOUND: " +
+                channels + " channels " + bitsPerSample + "-bit samples format " + audioFormat);
+        }
+
+        mSampleRate = sampleRate;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        while(buffer.hasRemaining())
+        {
+            if(channel.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new IOException("Unexpected end of wave file");
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    private static String getId(ByteBuffer buffer, int offset)
+    {
+        byte[] id = new byte[4];
+        buffer.get(offset, id);
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Wave file
+     */
+    public Path getPath()
+    {
+        return mPath;
+    }
+
+    /**
+     * Sample rate in hertz
+     */
+    public double getSampleRate()
+    {
+        return mSampleRate;
+    }
+
+    /**
+     * Number of complex sample frames in the data chunk
+     */
+    public long getFrameCount()
+    {
+        return mFrameCount;
+    }
+
+    /**
+     * Returns a read-only view of up to the requested number of sample frames, starting at the frame offset.  Fewer
+     * frames are returned when the request crosses a mapped window boundary or the end of the file.
+     *
+     * @param frame offset of the first sample frame
+     * @param frames maximum number of sample frames
+     * @return little-endian view of the sample frames, or an empty buffer when the offset is at the end of the file
+     */
+    public ByteBuffer getFrames(long frame, int frames)
+    {
+        if(frame < 0 || frame >= mFrameCount || frames <= 0)
+        {
+            return ByteBuffer.allocate(0);
+        }
+
+        long framesPerWindow = WINDOW_SIZE / FRAME_SIZE;
+        MappedByteBuffer window = mWindows.get((int)(frame / framesPerWindow));
+        int offset = (int)((frame % framesPerWindow) * FRAME_SIZE);
+        int length = (int)Math.min((long)frames * FRAME_SIZE, window.capacity() - offset);
+
+        return window.slice(offset, length).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -42,6 +42,8 @@ import java.util.concurrent.LinkedTransferQueue;
  * is updated on the consumer side with each request.  This class is designed for the get() operation to consistently
  * request the same size buffer, with occasional changes.
  *
+ * Each native buffer is released once it is ignored, cleared or converted to complex samples.
+ *
  * @param <T> native buffer
  */
 public class NativeBufferManager<T extends INativeBuffer>
@@ -80,6 +82,10 @@ public class NativeBufferManager<T extends INativeBuffer>
             mProducerQueue.add(nativeBuffer);
             mProducerAvailable += nativeBuffer.sampleCount();
         }
+        else
+        {
+            nativeBuffer.release();
+        }
     }
 
     /**
@@ -87,9 +93,29 @@ public class NativeBufferManager<T extends INativeBuffer>
      */
     public void clear()
     {
-        mTransferQueue.clear();
-        mProducerQueue.clear();
-        mConsumerQueue.clear();
+        T nativeBuffer = mTransferQueue.poll();
+
+        while(nativeBuffer != null)
+        {
+            nativeBuffer.release();
+            nativeBuffer = mTransferQueue.poll();
+        }
+
+        release(mProducerQueue);
+        release(mConsumerQueue);
+    }
+
+    /**
+     * Releases and removes each of the native buffers in the list
+     */
+    private void release(List<T> nativeBuffers)
+    {
+        for(T nativeBuffer: nativeBuffers)
+        {
+            nativeBuffer.release();
+        }
+
+        nativeBuffers.clear();
     }
 
     /**
@@ -144,7 +170,7 @@ public class NativeBufferManager<T extends INativeBuffer>
             }
         }
 
-        mConsumerQueue.clear();
+        release(mConsumerQueue);
         return samples;
     }
 }
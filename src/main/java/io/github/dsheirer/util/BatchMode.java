@@ -0,0 +1,64 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.util;
+
+/**
+ * Application-wide batch (offline) decoding mode.
+ *
+ * Batch mode is enabled once, at startup, by the batch decoder launcher before any tuners or channels are created.
+ * While enabled, recording tuners replay sample files as fast as the decoders can consume them, the sample buffer
+ * dispatchers between the tuner and the decoders block the producer instead of discarding buffers when full, and
+ * decoders use the sample stream time (see SampleClock) instead of the wall clock.
+ */
+public final class BatchMode
+{
+    private static volatile boolean sEnabled = false;
+
+    private BatchMode()
+    {
+    }
+
+    /**
+     * Enables batch mode.  This should be invoked before any tuners or channels are constructed.
+     */
+    public static void enable()
+    {
+        sEnabled = true;
+    }
+
+    /**
+     * Indicates if batch mode is enabled.
+     */
+    public static boolean isEnabled()
+    {
+        return sEnabled;
+    }
+
+    /**
+     * Overflow policy to use for sample buffer dispatchers in the tuner to decoder path.  Live processing discards
+     * buffers when a consumer falls behind so that the tuner is never stalled, whereas batch processing applies
+     * back-pressure so that no samples are lost.
+     *
+     * @return BLOCK in batch mode, otherwise DROP_NEWEST
+     */
+    public static OverflowPolicy getSampleOverflowPolicy()
+    {
+        return sEnabled ? OverflowPolicy.BLOCK : OverflowPolicy.DROP_NEWEST;
+    }
+}
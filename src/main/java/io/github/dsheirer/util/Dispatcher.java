@@ -18,44 +18,91 @@
  */
 package io.github.dsheirer.util;
 
+import io.github.dsheirer.metrics.IMetricsProvider;
+import io.github.dsheirer.metrics.Metric;
+import io.github.dsheirer.metrics.MetricNames;
+import io.github.dsheirer.metrics.MetricsRegistry;
 import io.github.dsheirer.sample.Listener;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Threaded processor for receiving elements from a separate producer thread and forwarding those buffers to a
  * registered listener on this consumer/dispatcher thread.
+ *
+ * Elements are queued in a pre-allocated lock-free ring buffer.  The wait strategy controls how the dispatcher thread
+ * waits for new elements and the overflow policy controls what happens when a producer delivers an element while the
+ * buffer is full.  The default constructor uses PARK and DROP_NEWEST.
+ *
+ * While running, the dispatcher is registered with the metrics registry to report its queue depth and drop counts.
+ *
+ * An optional release listener is notified once for each element passed to receive(), either after the element is
+ * delivered to the listener or when the element is discarded, so that reference counted elements can be released.
  */
-public class Dispatcher<E> implements Listener<E>
+public class Dispatcher<E> implements Listener<E>, IMetricsProvider
 {
     private final static Logger mLog = LoggerFactory.getLogger(Dispatcher.class);
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
     private static final long OVERFLOW_LOG_EVENT_WAIT_PERIOD = TimeUnit.SECONDS.toMillis(10);
-    private LinkedBlockingQueue<E> mQueue;
+    private static final long PARK_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private RingBuffer<E> mRingBuffer;
+    private WaitStrategy mWaitStrategy;
+    private OverflowPolicy mOverflowPolicy;
     private Listener<E> mListener;
+    private Listener<E> mReleaseListener;
     private AtomicBoolean mRunning = new AtomicBoolean();
+    private AtomicLong mDroppedCount = new AtomicLong();
+    private AtomicInteger mHighWaterMark = new AtomicInteger();
+    private volatile boolean mWaiting;
+    private volatile boolean mProcessing;
     private String mThreadName;
-    private Thread mThread;
+    private volatile Thread mThread;
     private E mPoisonPill;
     private long mLastOverflowLogEvent;
+    private String mInstanceId = String.valueOf(INSTANCE_COUNTER.incrementAndGet());
 
     /**
-     * Constructs an instance
+     * Constructs an instance that parks the dispatcher thread while idle and discards new elements on overflow.
      * @param maxSize of the internal queue
      * @param threadName to name the dispatcher thread
      * @param poisonPill of type E, used to kill the thread
      */
     public Dispatcher(int maxSize, String threadName, E poisonPill)
+    {
+        this(maxSize, threadName, poisonPill, WaitStrategy.PARK, OverflowPolicy.DROP_NEWEST);
+    }
+
+    /**
+     * Constructs an instance
+     * @param maxSize of the internal queue, rounded up to the next power of two
+     * @param threadName to name the dispatcher thread
+     * @param poisonPill of type E, used to kill the thread
+     * @param waitStrategy for the dispatcher thread while waiting for elements
+     * @param overflowPolicy to apply when an element is received and the queue is full
+     */
+    public Dispatcher(int maxSize, String threadName, E poisonPill, WaitStrategy waitStrategy,
+                      OverflowPolicy overflowPolicy)
     {
         if(poisonPill == null)
         {
             throw new IllegalArgumentException("Poison pill must be non-null");
         }
-        mQueue = new LinkedBlockingQueue<>(maxSize);
+        if(waitStrategy == null || overflowPolicy == null)
+        {
+            throw new IllegalArgumentException("Wait strategy and overflow policy must be non-null");
+        }
+        mRingBuffer = new RingBuffer<>(maxSize);
         mThreadName = threadName;
         mPoisonPill = poisonPill;
+        mWaitStrategy = waitStrategy;
+        mOverflowPolicy = overflowPolicy;
     }
 
     /**
@@ -75,6 +122,50 @@ public class Dispatcher<E> implements Listener<E>
         mListener = listener;
     }
 
+    /**
+     * Sets the listener to be notified once for each received element after the element is delivered to the
+     * listener, or when the element is discarded due to overflow or because this processor is stopped.
+     * @param releaseListener to release each element, or null
+     */
+    public void setReleaseListener(Listener<E> releaseListener)
+    {
+        mReleaseListener = releaseListener;
+    }
+
+    /**
+     * Notifies the release listener that this processor is finished with the element.
+     */
+    private void release(E e)
+    {
+        Listener<E> releaseListener = mReleaseListener;
+
+        if(releaseListener != null && e != null && e != mPoisonPill)
+        {
+            try
+            {
+                releaseListener.receive(e);
+            }
+            catch(Exception ex)
+            {
+                mLog.error("Error while releasing element", ex);
+            }
+        }
+    }
+
+    /**
+     * Removes and releases all queued elements.
+     */
+    private void discardQueued()
+    {
+        E element = mRingBuffer.poll();
+
+        while(element != null)
+        {
+            release(element);
+            element = mRingBuffer.poll();
+        }
+    }
+
     /**
      * Primary input method for adding buffers to this processor.  Note: incoming buffers will be ignored if this
      * processor is in a stopped state.  You must invoke start() to allow incoming buffers and initiate buffer
@@ -86,15 +177,129 @@ public class Dispatcher<E> implements Listener<E>
     {
         if(mRunning.get())
         {
-            if(!mQueue.offer(e))
+            boolean dropped = false;
+
+            switch(mOverflowPolicy)
             {
-                if(System.currentTimeMillis() > (mLastOverflowLogEvent + OVERFLOW_LOG_EVENT_WAIT_PERIOD))
-                {
-                    mLastOverflowLogEvent = System.currentTimeMillis();
-                    mLog.warn("Temporary buffer overflow for thread [" + mThreadName + "] - throwing away samples");
-                }
+                case DROP_NEWEST:
+                    if(!mRingBuffer.offer(e))
+                    {
+                        mDroppedCount.incrementAndGet();
+                        dropped = true;
+                        release(e);
+                    }
+                    break;
+                case DROP_OLDEST:
+                    while(!mRingBuffer.offer(e))
+                    {
+                        E oldest = mRingBuffer.poll();
+
+                        if(oldest == mPoisonPill)
+                        {
+                            //Don't discard a pending stop request - requeue it and discard the new element instead
+                            mRingBuffer.offer(oldest);
+                            mDroppedCount.incrementAndGet();
+                            dropped = true;
+                            release(e);
+                            break;
+                        }
+                        else if(oldest != null)
+                        {
+                            mDroppedCount.incrementAndGet();
+                            dropped = true;
+                            release(oldest);
+                        }
+                    }
+                    break;
+                case BLOCK:
+                    while(!mRingBuffer.offer(e))
+                    {
+                        if(!mRunning.get())
+                        {
+                            release(e);
+                            return;
+                        }
+
+                        idle(BLOCK_PARK_NANOS);
+                    }
+                    break;
+            }
+
+            updateHighWaterMark();
+            signal();
+
+            if(dropped && System.currentTimeMillis() > (mLastOverflowLogEvent + OVERFLOW_LOG_EVENT_WAIT_PERIOD))
+            {
+                mLastOverflowLogEvent = System.currentTimeMillis();
+                mLog.warn("Temporary buffer overflow for thread [" + mThreadName + "] - throwing away samples");
             }
         }
+        else
+        {
+            release(e);
+        }
+    }
+
+    /**
+     * Updates the high water mark from the current queue depth.
+     */
+    private void updateHighWaterMark()
+    {
+        int depth = mRingBuffer.size();
+
+        if(depth > mHighWaterMark.get())
+        {
+            mHighWaterMark.accumulateAndGet(depth, Math::max);
+        }
+    }
+
+    /**
+     * Wakes the dispatcher thread if it is parked waiting for elements.
+     */
+    private void signal()
+    {
+        if(mWaiting)
+        {
+            Thread thread = mThread;
+
+            if(thread != null)
+            {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Waits according to the wait strategy.
+     * @param parkNanos maximum time to park when using the PARK strategy
+     */
+    private void idle(long parkNanos)
+    {
+        switch(mWaitStrategy)
+        {
+            case SPIN:
+                Thread.onSpinWait();
+                break;
+            case YIELD:
+                Thread.yield();
+                break;
+            case PARK:
+                LockSupport.parkNanos(parkNanos);
+                break;
+        }
+    }
+
+    /**
+     * Adds the poison pill to the queue, waiting for space if necessary, while this processor is running.
+     */
+    private void enqueuePoisonPill()
+    {
+        while(!mRingBuffer.offer(mPoisonPill) && mRunning.get())
+        {
+            idle(BLOCK_PARK_NANOS);
+        }
+
+        signal();
     }
 
     /**
@@ -102,12 +307,19 @@ public class Dispatcher<E> implements Listener<E>
      */
     public void start()
     {
+        if(!mRunning.get())
+        {
+            //Discard anything left over from a previous run before producers are allowed to enqueue again
+            discardQueued();
+        }
+
         if(mRunning.compareAndSet(false, true))
         {
             mThread = new Thread(new Processor());
             mThread.setName(mThreadName);
             mThread.setPriority(Thread.MAX_PRIORITY);
             mThread.start();
+            MetricsRegistry.getInstance().register(this);
         }
     }
 
@@ -118,12 +330,14 @@ public class Dispatcher<E> implements Listener<E>
     {
         if(mRunning.compareAndSet(true, false))
         {
-            mQueue.offer(mPoisonPill);
+            MetricsRegistry.getInstance().unregister(this);
+            mRingBuffer.offer(mPoisonPill);
 
             try
             {
-                mThread.interrupt();
-                mThread.join();
+                Thread thread = mThread;
+                thread.interrupt();
+                thread.join();
                 mThread = null;
             }
             catch(Exception e)
@@ -138,7 +352,7 @@ public class Dispatcher<E> implements Listener<E>
      */
     public void flushAndStop()
     {
-        mQueue.offer(mPoisonPill);
+        enqueuePoisonPill();
     }
 
     /**
@@ -149,6 +363,81 @@ public class Dispatcher<E> implements Listener<E>
         return mRunning.get();
     }
 
+    /**
+     * Indicates if this dispatcher has no queued elements and is not currently delivering an element to the listener.
+     * Used to detect when a producer has stopped and all of its elements have been consumed.
+     */
+    public boolean isIdle()
+    {
+        return !mProcessing && mRingBuffer.isEmpty();
+    }
+
+    /**
+     * Current number of elements waiting in the queue
+     */
+    public int getQueueDepth()
+    {
+        return mRingBuffer.size();
+    }
+
+    /**
+     * Maximum number of elements the queue can hold
+     */
+    public int getQueueCapacity()
+    {
+        return mRingBuffer.getCapacity();
+    }
+
+    /**
+     * Largest queue depth observed since construction or since the last reset.
+     */
+    public int getHighWaterMark()
+    {
+        return mHighWaterMark.get();
+    }
+
+    /**
+     * Resets the high water mark to the current queue depth.
+     */
+    public void resetHighWaterMark()
+    {
+        mHighWaterMark.set(mRingBuffer.size());
+    }
+
+    /**
+     * Total number of elements discarded due to queue overflow.
+     */
+    public long getDroppedCount()
+    {
+        return mDroppedCount.get();
+    }
+
+    /**
+     * Name of the dispatcher thread
+     */
+    public String getThreadName()
+    {
+        return mThreadName;
+    }
+
+    @Override
+    public void collectMetrics(List<Metric> metrics)
+    {
+        //A dispatcher that was stopped via flushAndStop() remains registered until it is garbage collected
+        if(isRunning())
+        {
+            String[] labels = {MetricNames.LABEL_DISPATCHER, mThreadName, MetricNames.LABEL_ID, mInstanceId};
+            metrics.add(Metric.gauge(MetricNames.DISPATCHER_QUEUE_DEPTH, "Elements waiting in the dispatcher queue",
+                getQueueDepth(), labels));
+            metrics.add(Metric.gauge(MetricNames.DISPATCHER_QUEUE_CAPACITY, "Dispatcher queue capacity",
+                getQueueCapacity(), labels));
+            metrics.add(Metric.gauge(MetricNames.DISPATCHER_QUEUE_HIGH_WATER_MARK, "Largest observed dispatcher " +
+                "queue depth", getHighWaterMark(), labels));
+            metrics.add(Metric.counter(MetricNames.DISPATCHER_DROPPED, "Elements discarded due to dispatcher queue " +
+                "overflow", getDroppedCount(), labels));
+        }
+    }
+
     /**
      * Processor to service the buffer queue and distribute the buffers to the registered listener
      */
@@ -159,41 +448,71 @@ public class Dispatcher<E> implements Listener<E>
         {
             try
             {
-                mQueue.clear();
-
                 E element;
 
                 while(mRunning.get())
                 {
                     try
                     {
-                        element = mQueue.take();
+                        //Flag processing before removing the element so that isIdle() never observes an empty
+                        //queue while an element is in hand
+                        mProcessing = true;
+                        element = mRingBuffer.poll();
 
-                        if(mPoisonPill == element)
+                        if(element == null)
+                        {
+                            mProcessing = false;
+
+                            if(mWaitStrategy == WaitStrategy.PARK)
+                            {
+                                //Advertise that we're parking, then check again before parking so that a producer
+                                //either sees the flag and unparks us, or we see its element.
+                                mWaiting = true;
+
+                                if(mRingBuffer.isEmpty() && mRunning.get())
+                                {
+                                    LockSupport.parkNanos(PARK_TIMEOUT_NANOS);
+                                }
+
+                                mWaiting = false;
+                            }
+                            else
+                            {
+                                idle(0);
+                            }
+                        }
+                        else if(mPoisonPill == element)
                         {
                             mRunning.set(false);
                         }
-                        else if(element != null)
+                        else
                         {
-                            if(mListener == null)
+                            try
+                            {
+                                if(mListener == null)
+                                {
+                                    throw new IllegalStateException("Listener for [" + mThreadName + "] is null");
+                                }
+                                mListener.receive(element);
+                            }
+                            finally
                             {
-                                throw new IllegalStateException("Listener for [" + mThreadName + "] is null");
+                                release(element);
                             }
-                            mListener.receive(element);
                         }
                     }
-                    catch(InterruptedException e)
-                    {
-                        //Normal shutdown is by interrupt
-                    }
                     catch(Exception e)
                     {
                         mLog.error("Error while processing element", e);
                     }
+                    finally
+                    {
+                        mProcessing = false;
+                    }
                 }
 
                 //Shutting down - clear the queue
-                mQueue.clear();
+                discardQueued();
             }
             catch(Throwable t)
             {
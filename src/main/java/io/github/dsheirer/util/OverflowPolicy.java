@@ -0,0 +1,40 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.util;
+
+/**
+ * Action taken by a dispatcher when an element arrives and the dispatcher buffer is full.
+ */
+public enum OverflowPolicy
+{
+    /**
+     * Discard the oldest queued element to make room for the new element.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Discard the new element.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Block the producer until space is available.
+     */
+    BLOCK;
+}
@@ -0,0 +1,192 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, pre-allocated, lock-free ring buffer.
+ *
+ * Each slot carries a sequence number that tells producers when the slot is free and tells consumers when the slot
+ * holds a published element (D. Vyukov's bounded queue).  Producers and consumers each claim a slot with a single
+ * compare-and-set on their position counter, so the buffer is safe for multiple producers (e.g. a tuner thread plus
+ * a control thread enqueuing a poison pill) and for a producer that removes the oldest element to make room, while
+ * the uncontended single producer/single consumer case costs one CAS per operation and allocates nothing.
+ *
+ * Capacity is rounded up to the next power of two.
+ *
+ * @param <E> element type
+ */
+public class RingBuffer<E>
+{
+    private final Object[] mBuffer;
+    private final AtomicLongArray mSequences;
+    private final int mMask;
+    private final AtomicLong mProducerPosition = new AtomicLong();
+    private final AtomicLong mConsumerPosition = new AtomicLong();
+
+    /**
+     * Constructs an instance
+     * @param capacity minimum number of elements, rounded up to the next power of two
+     */
+    public RingBuffer(int capacity)
+    {
+        if(capacity < 1 || capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("Capacity must be in range 1 - 2^30: " + capacity);
+        }
+
+        int size = Integer.highestOneBit(capacity);
+
+        if(size < capacity)
+        {
+            size <<= 1;
+        }
+
+        mBuffer = new Object[size];
+        mSequences = new AtomicLongArray(size);
+        mMask = size - 1;
+
+        for(int x = 0; x < size; x++)
+        {
+            mSequences.set(x, x);
+        }
+    }
+
+    /**
+     * Adds the element to the tail of this buffer when there is space available.
+     * @param element to add, non-null
+     * @return true if the element was added or false if the buffer is full
+     */
+    public boolean offer(E element)
+    {
+        if(element == null)
+        {
+            throw new NullPointerException("Element must be non-null");
+        }
+
+        long position = mProducerPosition.get();
+
+        while(true)
+        {
+            int index = (int)position & mMask;
+            long difference = mSequences.getAcquire(index) - position;
+
+            if(difference == 0)
+            {
+                if(mProducerPosition.compareAndSet(position, position + 1))
+                {
+                    mBuffer[index] = element;
+                    mSequences.setRelease(index, position + 1);
+                    return true;
+                }
+
+                position = mProducerPosition.get();
+            }
+            else if(difference < 0)
+            {
+                return false;
+            }
+            else
+            {
+                position = mProducerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the element at the head of this buffer.
+     * @return element or null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll()
+    {
+        long position = mConsumerPosition.get();
+
+        while(true)
+        {
+            int index = (int)position & mMask;
+            long difference = mSequences.getAcquire(index) - (position + 1);
+
+            if(difference == 0)
+            {
+                if(mConsumerPosition.compareAndSet(position, position + 1))
+                {
+                    E element = (E)mBuffer[index];
+                    mBuffer[index] = null;
+                    mSequences.setRelease(index, position + mMask + 1);
+                    return element;
+                }
+
+                position = mConsumerPosition.get();
+            }
+            else if(difference < 0)
+            {
+                return null;
+            }
+            else
+            {
+                position = mConsumerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Removes all elements from this buffer.
+     */
+    public void clear()
+    {
+        while(poll() != null)
+        {
+            //Empty the buffer
+        }
+    }
+
+    /**
+     * Approximate number of elements in this buffer.  The value is exact when there are no concurrent operations.
+     */
+    public int size()
+    {
+        long size = mProducerPosition.get() - mConsumerPosition.get();
+
+        if(size < 0)
+        {
+            return 0;
+        }
+
+        return (int)Math.min(size, getCapacity());
+    }
+
+    /**
+     * Indicates if this buffer is (approximately) empty
+     */
+    public boolean isEmpty()
+    {
+        return mProducerPosition.get() <= mConsumerPosition.get();
+    }
+
+    /**
+     * Maximum number of elements that this buffer can hold
+     */
+    public int getCapacity()
+    {
+        return mMask + 1;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.util;
+
+/**
+ * Decoder time source.
+ *
+ * During live processing this clock is the system wall clock.  In batch mode (see BatchMode), sample buffers are
+ * processed faster than real time and decoder timers (call fade/end timeouts, decode event start and end times) must
+ * follow the time of the samples instead.  Each channel source updates the clock for its dispatch thread with the
+ * timestamp of each sample buffer before handing the buffer to the decoders, so code running on that thread observes
+ * the sample stream time.  Threads that have not received a sample timestamp fall back to the wall clock.
+ */
+public final class SampleClock
+{
+    private static final ThreadLocal<long[]> SAMPLE_TIME = ThreadLocal.withInitial(() -> new long[1]);
+
+    private SampleClock()
+    {
+    }
+
+    /**
+     * Current time in milliseconds: the most recent sample timestamp for the calling thread when batch mode is
+     * enabled, or the system wall clock time otherwise.
+     */
+    public static long currentTimeMillis()
+    {
+        if(BatchMode.isEnabled())
+        {
+            long sampleTime = SAMPLE_TIME.get()[0];
+
+            if(sampleTime > 0)
+            {
+                return sampleTime;
+            }
+        }
+
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Updates the sample time for the calling thread.  Ignored unless batch mode is enabled.
+     * @param timestamp in milliseconds of the sample buffer about to be processed on this thread.
+     */
+    public static void setSampleTime(long timestamp)
+    {
+        if(BatchMode.isEnabled())
+        {
+            SAMPLE_TIME.get()[0] = timestamp;
+        }
+    }
+
+    /**
+     * Clears the sample time for the calling thread so that it reverts to the wall clock.
+     */
+    public static void clear()
+    {
+        SAMPLE_TIME.remove();
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.util;
+
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Frame;
+import java.awt.Window;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.WindowStateListener;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces updates produced on any thread into batches that are delivered on the Swing event dispatch thread at a
+ * fixed frame rate, instead of posting a separate runnable to the event queue for each update.
+ *
+ * Items are coalesced using their equals() contract, so an item that is added several times within one frame is
+ * delivered once, at the position of its first addition.  At most one batch is queued on the event dispatch thread at
+ * a time, so updates accumulate while the dispatch thread is busy instead of flooding the event queue.
+ *
+ * Delivery is paused while the bound component is hidden or its window is minimized.  The number of pending items is
+ * limited and the oldest pending items are discarded when the limit is exceeded, in which case the next batch is
+ * flagged as overflowed so that the consumer can refresh all of its rows.
+ *
+ * @param <T> item type
+ */
+public class SwingBatchUpdater<T>
+{
+    private final static Logger mLog = LoggerFactory.getLogger(SwingBatchUpdater.class);
+    public static final long DEFAULT_INTERVAL_MS = 100; //10 Hz
+
+    private final LinkedHashSet<T> mPending = new LinkedHashSet<>();
+    private final AtomicBoolean mBatchQueued = new AtomicBoolean();
+    private final BatchProcessor<T> mProcessor;
+    private final long mIntervalMilliseconds;
+    private int mMaximumPending;
+    private boolean mOverflow;
+    private volatile boolean mPaused;
+    private ScheduledFuture<?> mFlushFuture;
+    private Window mWindow;
+    private final WindowStateListener mWindowStateListener = e -> updatePaused();
+    private Component mComponent;
+
+    /**
+     * Constructs an instance
+     * @param processor to receive batches of items on the Swing event dispatch thread
+     * @param maximumPending number of items to hold before discarding the oldest pending items
+     * @param intervalMilliseconds between batches
+     */
+    public SwingBatchUpdater(BatchProcessor<T> processor, int maximumPending, long intervalMilliseconds)
+    {
+        mProcessor = processor;
+        mMaximumPending = Math.max(1, maximumPending);
+        mIntervalMilliseconds = intervalMilliseconds;
+    }
+
+    /**
+     * Constructs an instance that delivers batches at the default interval.
+     * @param processor to receive batches of items on the Swing event dispatch thread
+     * @param maximumPending number of items to hold before discarding the oldest pending items
+     */
+    public SwingBatchUpdater(BatchProcessor<T> processor, int maximumPending)
+    {
+        this(processor, maximumPending, DEFAULT_INTERVAL_MS);
+    }
+
+    /**
+     * Adds the item to the next batch.  This method is thread safe.
+     */
+    public void add(T item)
+    {
+        synchronized(mPending)
+        {
+            mPending.add(item);
+
+            if(mPending.size() > mMaximumPending)
+            {
+                Iterator<T> it = mPending.iterator();
+                it.next();
+                it.remove();
+                mOverflow = true;
+            }
+
+            if(mFlushFuture == null)
+            {
+                mFlushFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(this::flush, mIntervalMilliseconds,
+                    mIntervalMilliseconds, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Discards any pending items that have not yet been delivered.
+     */
+    public void clear()
+    {
+        synchronized(mPending)
+        {
+            mPending.clear();
+            mOverflow = false;
+        }
+    }
+
+    /**
+     * Sets the maximum number of pending items.
+     */
+    public void setMaximumPending(int maximumPending)
+    {
+        synchronized(mPending)
+        {
+            mMaximumPending = Math.max(1, maximumPending);
+        }
+    }
+
+    /**
+     * Number of items waiting for delivery
+     */
+    public int getPendingCount()
+    {
+        synchronized(mPending)
+        {
+            return mPending.size();
+        }
+    }
+
+    /**
+     * Indicates if batch delivery is paused
+     */
+    public boolean isPaused()
+    {
+        return mPaused;
+    }
+
+    /**
+     * Pauses or resumes batch delivery.  Items added while paused are held until delivery resumes.
+     */
+    public void setPaused(boolean paused)
+    {
+        mPaused = paused;
+    }
+
+    /**
+     * Pauses batch delivery whenever the component is not showing on screen or the window that contains the component
+     * is minimized.  Must be invoked on the Swing event dispatch thread.
+     * @param component that displays the batched updates
+     */
+    public void pauseWhenHidden(Component component)
+    {
+        mComponent = component;
+        component.addHierarchyListener(e -> {
+            if((e.getChangeFlags() & (HierarchyEvent.SHOWING_CHANGED | HierarchyEvent.PARENT_CHANGED)) != 0)
+            {
+                updateWindow();
+                updatePaused();
+            }
+        });
+        updateWindow();
+        updatePaused();
+    }
+
+    /**
+     * Moves the window state listener to the window that currently contains the component.
+     */
+    private void updateWindow()
+    {
+        Window window = SwingUtilities.getWindowAncestor(mComponent);
+
+        if(window != mWindow)
+        {
+            if(mWindow != null)
+            {
+                mWindow.removeWindowStateListener(mWindowStateListener);
+            }
+
+            mWindow = window;
+
+            if(mWindow != null)
+            {
+                mWindow.addWindowStateListener(mWindowStateListener);
+            }
+        }
+    }
+
+    private void updatePaused()
+    {
+        boolean minimized = mWindow instanceof Frame frame && (frame.getExtendedState() & Frame.ICONIFIED) != 0;
+        setPaused(!mComponent.isShowing() || minimized);
+    }
+
+    /**
+     * Stops batch delivery and discards pending items.
+     */
+    public void dispose()
+    {
+        synchronized(mPending)
+        {
+            if(mFlushFuture != null)
+            {
+                mFlushFuture.cancel(false);
+                mFlushFuture = null;
+            }
+
+            mPending.clear();
+        }
+
+        if(mWindow != null)
+        {
+            mWindow.removeWindowStateListener(mWindowStateListener);
+            mWindow = null;
+        }
+    }
+
+    /**
+     * Queues the pending items as a batch on the Swing event dispatch thread, unless delivery is paused or the
+     * previous batch has not yet been processed.
+     */
+    private void flush()
+    {
+        if(mPaused || mBatchQueued.get())
+        {
+            return;
+        }
+
+        List<T> batch;
+        boolean overflow;
+
+        synchronized(mPending)
+        {
+            if(mPending.isEmpty())
+            {
+                return;
+            }
+
+            batch = new ArrayList<>(mPending);
+            overflow = mOverflow;
+            mPending.clear();
+            mOverflow = false;
+        }
+
+        mBatchQueued.set(true);
+
+        EventQueue.invokeLater(() -> {
+            try
+            {
+                mProcessor.process(batch, overflow);
+            }
+            catch(Throwable t)
+            {
+                mLog.error("Error processing batch of Swing updates", t);
+            }
+            finally
+            {
+                mBatchQueued.set(false);
+            }
+        });
+    }
+
+    /**
+     * Processes batches of coalesced items on the Swing event dispatch thread.
+     */
+    public interface BatchProcessor<T>
+    {
+        /**
+         * Processes a batch of items.
+         * @param batch of items in the order that they were first added
+         * @param overflow indicates that pending items were discarded before this batch was delivered
+         */
+        void process(List<T> batch, boolean overflow);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.util;
+
+/**
+ * Strategy used by a dispatcher thread while waiting for elements to arrive, and by a producer while waiting for
+ * space with the BLOCK overflow policy.
+ */
+public enum WaitStrategy
+{
+    /**
+     * Busy spin.  Lowest latency, but occupies a CPU core continuously.
+     */
+    SPIN,
+
+    /**
+     * Yield the CPU to other threads between checks.  Low latency with less CPU pressure than spinning.
+     */
+    YIELD,
+
+    /**
+     * Park the thread until signalled by a producer.  Lowest CPU usage.
+     */
+    PARK;
+}
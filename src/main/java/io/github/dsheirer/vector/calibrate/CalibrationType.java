@@ -42,6 +42,7 @@ public enum CalibrationType
     FILTER_HALF_BAND_REAL_23_TAP("Real Half-Band Decimation Filter - 23 Tap", 1),
     FILTER_HALF_BAND_REAL_63_TAP("Real Half-Band Decimation Filter - 63 Tap", 1),
     FILTER_HALF_BAND_REAL_DEFAULT("Real Half-Band Decimation Filter - Default", 1),
+    FILTER_POLYPHASE_CHANNELIZER("Polyphase Channelizer Filter", 1),
     FM_DEMODULATOR("FM Demodulator", 1),
     GAIN_CONTROL_COMPLEX("Complex Gain Control", 1),
     HILBERT_TRANSFORM("Hilbert Transform", 1),
@@ -0,0 +1,341 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.vector.calibrate.filter;
+
+import io.github.dsheirer.dsp.filter.channelizer.IPolyphaseFilterKernel;
+import io.github.dsheirer.dsp.filter.channelizer.ScalarPolyphaseFilterKernel;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseFilterKernel128Bit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseFilterKernel256Bit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseFilterKernel512Bit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseFilterKernel64Bit;
+import io.github.dsheirer.vector.calibrate.Calibration;
+import io.github.dsheirer.vector.calibrate.CalibrationException;
+import io.github.dsheirer.vector.calibrate.CalibrationType;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+import org.apache.commons.math3.stat.descriptive.moment.Mean;
+
+/**
+ * Calibration plugin for the polyphase channelizer filter kernel
+ */
+public class PolyphaseChannelizerFilterCalibration extends Calibration
+{
+    private static final VectorSpecies<Float> VECTOR_SPECIES = FloatVector.SPECIES_PREFERRED;
+    //Sized for a 10 MHz baseband sample rate with 400 channels and 9 taps per channel
+    private static final int BLOCK_SIZE = 400;
+    private static final int BLOCK_COUNT = 18;
+    private static final int STEPS = 64;
+    private static final int ITERATION_DURATION_MS = 1000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int TEST_ITERATIONS = 5;
+
+    private IPolyphaseFilterKernel mScalar = new ScalarPolyphaseFilterKernel();
+    private IPolyphaseFilterKernel mVector512 = new VectorPolyphaseFilterKernel512Bit();
+    private IPolyphaseFilterKernel mVector256 = new VectorPolyphaseFilterKernel256Bit();
+    private IPolyphaseFilterKernel mVector128 = new VectorPolyphaseFilterKernel128Bit();
+    private IPolyphaseFilterKernel mVector64 = new VectorPolyphaseFilterKernel64Bit();
+
+    /**
+     * Constructs an instance
+     */
+    public PolyphaseChannelizerFilterCalibration()
+    {
+        super(CalibrationType.FILTER_POLYPHASE_CHANNELIZER);
+    }
+
+    /**
+     * Performs calibration to determine optimal (Scalar vs Vector) operation type.
+     * @throws CalibrationException
+     */
+    @Override public void calibrate() throws CalibrationException
+    {
+        float[] samples = getFloatSamples((STEPS + BLOCK_COUNT - 1) * BLOCK_SIZE);
+        float[] filter = getFloatSamples(BLOCK_COUNT * BLOCK_SIZE);
+
+        Mean scalarMean = new Mean();
+
+        for(int x = 0; x < WARMUP_ITERATIONS; x++)
+        {
+            long score = testScalar(samples, filter);
+            scalarMean.increment(score);
+        }
+
+        mLog.info("POLYPHASE CHANNELIZER FILTER WARMUP - SCALAR: " + DECIMAL_FORMAT.format(scalarMean.getResult()));
+
+        Mean vector512Mean = new Mean();
+
+        if(VECTOR_SPECIES.length() >= 16)
+        {
+            for(int x = 0; x < WARMUP_ITERATIONS; x++)
+            {
+                long score = testVector512(samples, filter);
+                vector512Mean.increment(score);
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER WARMUP - VECTOR 512: " + DECIMAL_FORMAT.format(vector512Mean.getResult()));
+        }
+
+        Mean vector256Mean = new Mean();
+
+        if(VECTOR_SPECIES.length() >= 8)
+        {
+            for(int x = 0; x < WARMUP_ITERATIONS; x++)
+            {
+                long score = testVector256(samples, filter);
+                vector256Mean.increment(score);
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER WARMUP - VECTOR 256: " + DECIMAL_FORMAT.format(vector256Mean.getResult()));
+        }
+
+        Mean vector128Mean = new Mean();
+
+        if(VECTOR_SPECIES.length() >= 4)
+        {
+            for(int x = 0; x < WARMUP_ITERATIONS; x++)
+            {
+                long score = testVector128(samples, filter);
+                vector128Mean.increment(score);
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER WARMUP - VECTOR 128: " + DECIMAL_FORMAT.format(vector128Mean.getResult()));
+        }
+
+        Mean vector64Mean = new Mean();
+
+        if(VECTOR_SPECIES.length() >= 2)
+        {
+            for(int x = 0; x < WARMUP_ITERATIONS; x++)
+            {
+                long score = testVector64(samples, filter);
+                vector64Mean.increment(score);
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER WARMUP - VECTOR 64: " + DECIMAL_FORMAT.format(vector64Mean.getResult()));
+        }
+
+        //Test starts ...
+        scalarMean.clear();
+
+        for(int x = 0; x < TEST_ITERATIONS; x++)
+        {
+            long score = testScalar(samples, filter);
+            scalarMean.increment(score);
+        }
+
+        mLog.info("POLYPHASE CHANNELIZER FILTER - SCALAR: " + DECIMAL_FORMAT.format(scalarMean.getResult()));
+
+        double bestScore = scalarMean.getResult();
+        setImplementation(Implementation.SCALAR);
+
+        if(VECTOR_SPECIES.length() >= 16)
+        {
+            vector512Mean.clear();
+
+            for(int x = 0; x < TEST_ITERATIONS; x++)
+            {
+                long score = testVector512(samples, filter);
+                vector512Mean.increment(score);
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER - VECTOR 512: " + DECIMAL_FORMAT.format(vector512Mean.getResult()));
+
+            if(vector512Mean.getResult() > bestScore)
+            {
+                bestScore = vector512Mean.getResult();
+                setImplementation(Implementation.VECTOR_SIMD_512);
+            }
+        }
+
+        if(VECTOR_SPECIES.length() >= 8)
+        {
+            vector256Mean.clear();
+
+            for(int x = 0; x < TEST_ITERATIONS; x++)
+            {
+                long score = testVector256(samples, filter);
+                vector256Mean.increment(score);
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER - VECTOR 256: " + DECIMAL_FORMAT.format(vector256Mean.getResult()));
+
+            if(vector256Mean.getResult() > bestScore)
+            {
+                bestScore = vector256Mean.getResult();
+                setImplementation(Implementation.VECTOR_SIMD_256);
+            }
+        }
+
+        if(VECTOR_SPECIES.length() >= 4)
+        {
+            vector128Mean.clear();
+
+            for(int x = 0; x < TEST_ITERATIONS; x++)
+            {
+                long score = testVector128(samples, filter);
+                vector128Mean.increment(score);
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER - VECTOR 128: " + DECIMAL_FORMAT.format(vector128Mean.getResult()));
+
+            if(vector128Mean.getResult() > bestScore)
+            {
+                bestScore = vector128Mean.getResult();
+                setImplementation(Implementation.VECTOR_SIMD_128);
+            }
+        }
+
+        if(VECTOR_SPECIES.length() >= 2)
+        {
+            vector64Mean.clear();
+
+            for(int x = 0; x < TEST_ITERATIONS; x++)
+            {
+                long score = testVector64(samples, filter);
+                vector64Mean.increment(score);
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER - VECTOR 64: " + DECIMAL_FORMAT.format(vector64Mean.getResult()));
+
+            if(vector64Mean.getResult() > bestScore)
+            {
+                setImplementation(Implementation.VECTOR_SIMD_64);
+            }
+        }
+
+        mLog.info("POLYPHASE CHANNELIZER FILTER - SET OPTIMAL IMPLEMENTATION TO: " + getImplementation());
+    }
+
+    private long testScalar(float[] samples, float[] filter)
+    {
+        float[] accumulator = new float[2 * BLOCK_SIZE];
+        double sum = 0.0;
+        long count = 0;
+
+        long start = System.currentTimeMillis();
+
+        while((System.currentTimeMillis() - start) < ITERATION_DURATION_MS)
+        {
+            for(int step = 0; step < STEPS; step++)
+            {
+                mScalar.filter(samples, (step + BLOCK_COUNT - 1) * BLOCK_SIZE, filter, BLOCK_SIZE, BLOCK_COUNT,
+                    accumulator);
+                sum += accumulator[0];
+            }
+
+            count++;
+        }
+
+        return count + (long)(sum * 0);
+    }
+
+    private long testVector512(float[] samples, float[] filter)
+    {
+        float[] accumulator = new float[2 * BLOCK_SIZE];
+        double sum = 0.0;
+        long count = 0;
+
+        long start = System.currentTimeMillis();
+
+        while((System.currentTimeMillis() - start) < ITERATION_DURATION_MS)
+        {
+            for(int step = 0; step < STEPS; step++)
+            {
+                mVector512.filter(samples, (step + BLOCK_COUNT - 1) * BLOCK_SIZE, filter, BLOCK_SIZE, BLOCK_COUNT,
+                    accumulator);
+                sum += accumulator[0];
+            }
+
+            count++;
+        }
+
+        return count + (long)(sum * 0);
+    }
+
+    private long testVector256(float[] samples, float[] filter)
+    {
+        float[] accumulator = new float[2 * BLOCK_SIZE];
+        double sum = 0.0;
+        long count = 0;
+
+        long start = System.currentTimeMillis();
+
+        while((System.currentTimeMillis() - start) < ITERATION_DURATION_MS)
+        {
+            for(int step = 0; step < STEPS; step++)
+            {
+                mVector256.filter(samples, (step + BLOCK_COUNT - 1) * BLOCK_SIZE, filter, BLOCK_SIZE, BLOCK_COUNT,
+                    accumulator);
+                sum += accumulator[0];
+            }
+
+            count++;
+        }
+
+        return count + (long)(sum * 0);
+    }
+
+    private long testVector128(float[] samples, float[] filter)
+    {
+        float[] accumulator = new float[2 * BLOCK_SIZE];
+        double sum = 0.0;
+        long count = 0;
+
+        long start = System.currentTimeMillis();
+
+        while((System.currentTimeMillis() - start) < ITERATION_DURATION_MS)
+        {
+            for(int step = 0; step < STEPS; step++)
+            {
+                mVector128.filter(samples, (step + BLOCK_COUNT - 1) * BLOCK_SIZE, filter, BLOCK_SIZE, BLOCK_COUNT,
+                    accumulator);
+                sum += accumulator[0];
+            }
+
+            count++;
+        }
+
+        return count + (long)(sum * 0);
+    }
+
+    private long testVector64(float[] samples, float[] filter)
+    {
+        float[] accumulator = new float[2 * BLOCK_SIZE];
+        double sum = 0.0;
+        long count = 0;
+
+        long start = System.currentTimeMillis();
+
+        while((System.currentTimeMillis() - start) < ITERATION_DURATION_MS)
+        {
+            for(int step = 0; step < STEPS; step++)
+            {
+                mVector64.filter(samples, (step + BLOCK_COUNT - 1) * BLOCK_SIZE, filter, BLOCK_SIZE, BLOCK_COUNT,
+                    accumulator);
+                sum += accumulator[0];
+            }
+
+            count++;
+        }
+
+        return count + (long)(sum * 0);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.alias;
+
+import io.github.dsheirer.alias.id.talkgroup.Talkgroup;
+import io.github.dsheirer.alias.id.talkgroup.TalkgroupRange;
+import io.github.dsheirer.identifier.Role;
+import io.github.dsheirer.module.decode.p25.identifier.talkgroup.APCO25Talkgroup;
+import io.github.dsheirer.protocol.Protocol;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the alias range index and the alias list lookup cache.
+ */
+class AliasRangeIndexTest
+{
+    private static Alias alias(String name)
+    {
+        return new Alias(name);
+    }
+
+    @Test
+    void nonOverlappingRangesUseBinarySearch()
+    {
+        Alias first = alias("first");
+        Alias second = alias("second");
+        AliasRangeIndex index = new AliasRangeIndex(List.of(new AliasRangeIndex.Range(200, 299, second),
+            new AliasRangeIndex.Range(100, 199, first)));
+
+        assertFalse(index.isOverlapping());
+        assertNull(index.get(99));
+        assertSame(first, index.get(100));
+        assertSame(first, index.get(199));
+        assertSame(second, index.get(200));
+        assertSame(second, index.get(299));
+        assertNull(index.get(300));
+        assertNull(AliasRangeIndex.EMPTY.get(1));
+    }
+
+    @Test
+    void overlappingRangesMatchNarrowestRange()
+    {
+        Alias wide = alias("wide");
+        Alias narrow = alias("narrow");
+        Alias other = alias("other");
+        AliasRangeIndex index = new AliasRangeIndex(List.of(new AliasRangeIndex.Range(0, 1000, wide),
+            new AliasRangeIndex.Range(500, 510, narrow), new AliasRangeIndex.Range(2000, 3000, other)));
+
+        assertTrue(index.isOverlapping());
+        assertSame(wide, index.get(499));
+        assertSame(narrow, index.get(505));
+        assertSame(wide, index.get(511));
+        assertNull(index.get(1500));
+        assertSame(other, index.get(2500));
+    }
+
+    @Test
+    void overlappingLookupMatchesLinearSearch()
+    {
+        Random random = new Random(42);
+        List<AliasRangeIndex.Range> ranges = new ArrayList<>();
+
+        for(int x = 0; x < 500; x++)
+        {
+            int min = random.nextInt(100_000);
+            ranges.add(new AliasRangeIndex.Range(min, min + random.nextInt(2_000), alias("alias " + x)));
+        }
+
+        AliasRangeIndex index = new AliasRangeIndex(ranges);
+
+        for(int value = -10; value < 102_000; value += 7)
+        {
+            AliasRangeIndex.Range expected = null;
+
+            for(AliasRangeIndex.Range range: ranges)
+            {
+                if(range.min() <= value && value <= range.max() && (expected == null ||
+                    (long)range.max() - range.min() < (long)expected.max() - expected.min() ||
+                    ((long)range.max() - range.min() == (long)expected.max() - expected.min() &&
+                        range.min() < expected.min())))
+                {
+                    expected = range;
+                }
+            }
+
+            assertSame(expected != null ? expected.alias() : null, index.get(value), "Value " + value);
+        }
+    }
+
+    @Test
+    void aliasListLookupCacheIsInvalidatedOnChange()
+    {
+        AliasList aliasList = new AliasList("list");
+        Alias range = alias("range");
+        range.setAliasListName("list");
+        range.addAliasID(new TalkgroupRange(Protocol.APCO25, 100, 199));
+        aliasList.addAlias(range);
+
+        APCO25Talkgroup talkgroup = new APCO25Talkgroup(150, Role.TO);
+        assertEquals(List.of(range), aliasList.getAliases(talkgroup));
+        assertSame(aliasList.getAliases(talkgroup), aliasList.getAliases(new APCO25Talkgroup(150, Role.FROM)),
+            "Lookup result should be cached independent of role");
+
+        Alias exact = alias("exact");
+        exact.setAliasListName("list");
+        exact.addAliasID(new Talkgroup(Protocol.APCO25, 150));
+        aliasList.addAlias(exact);
+        assertEquals(List.of(exact), aliasList.getAliases(talkgroup), "Exact match after add");
+
+        aliasList.removeAlias(exact);
+        assertEquals(List.of(range), aliasList.getAliases(talkgroup), "Range match after remove");
+
+        range.removeAliasID(range.getAliasIdentifiers().get(0));
+        range.addAliasID(new TalkgroupRange(Protocol.APCO25, 200, 299));
+        aliasList.updateAlias(range);
+        assertTrue(aliasList.getAliases(talkgroup).isEmpty(), "No match after update");
+        assertEquals(List.of(range), aliasList.getAliases(new APCO25Talkgroup(250, Role.TO)));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.audio;
+
+import io.github.dsheirer.alias.AliasList;
+import io.github.dsheirer.identifier.IdentifierUpdateNotification;
+import io.github.dsheirer.identifier.configuration.SystemConfigurationIdentifier;
+import io.github.dsheirer.module.decode.p25.identifier.talkgroup.APCO25Talkgroup;
+import io.github.dsheirer.preference.UserPreferences;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for call key based duplicate call detection.
+ */
+class DuplicateCallDetectorTest
+{
+    private static final AliasList ALIAS_LIST = new AliasList("test");
+    private DuplicateCallDetector mDetector;
+
+    @BeforeEach
+    void setup()
+    {
+        UserPreferences userPreferences = new UserPreferences();
+        assumeTrue(userPreferences.getDuplicateCallDetectionPreference().isDuplicateCallDetectionByTalkgroupEnabled(),
+            "Duplicate call detection by talkgroup is disabled in the user preferences");
+        mDetector = new DuplicateCallDetector(userPreferences);
+    }
+
+    /**
+     * Creates an audio segment for the system with an optional talkgroup and delivers it to the detector.
+     */
+    private AudioSegment segment(String system, int talkgroup)
+    {
+        AudioSegment segment = new AudioSegment(ALIAS_LIST, 0);
+        segment.incrementConsumerCount();
+        segment.addIdentifier(SystemConfigurationIdentifier.create(system));
+
+        if(talkgroup > 0)
+        {
+            segment.addIdentifier(APCO25Talkgroup.create(talkgroup));
+        }
+
+        segment.incrementConsumerCount();
+        mDetector.receive(segment);
+        return segment;
+    }
+
+    @Test
+    void duplicateIsFlaggedWhenSegmentArrives()
+    {
+        AudioSegment first = segment("system", 100);
+        AudioSegment second = segment("system", 100);
+        AudioSegment otherTalkgroup = segment("system", 200);
+        AudioSegment otherSystem = segment("other", 100);
+
+        assertFalse(first.isDuplicate());
+        assertTrue(second.isDuplicate());
+        assertFalse(otherTalkgroup.isDuplicate());
+        assertFalse(otherSystem.isDuplicate());
+
+        //Completing the first call releases the talkgroup for the next call
+        first.completeProperty().set(true);
+        assertFalse(segment("system", 100).isDuplicate());
+    }
+
+    @Test
+    void duplicateIsFlaggedWhenIdentifierArrives()
+    {
+        AudioSegment first = segment("system", 300);
+        AudioSegment late = segment("system", 0);
+        assertFalse(late.isDuplicate());
+
+        late.receive(new IdentifierUpdateNotification(APCO25Talkgroup.create(300),
+            IdentifierUpdateNotification.Operation.ADD, 0));
+        assertTrue(late.isDuplicate());
+        assertFalse(first.isDuplicate());
+    }
+
+    @Test
+    void laterSegmentIsFlaggedWhenIdentifierArrivesLateOnEarlierSegment()
+    {
+        AudioSegment earlier = segment("system", 0);
+        AudioSegment later = segment("system", 400);
+        assertFalse(later.isDuplicate());
+
+        earlier.receive(new IdentifierUpdateNotification(APCO25Talkgroup.create(400),
+            IdentifierUpdateNotification.Operation.ADD, 0));
+        assertFalse(earlier.isDuplicate());
+        assertTrue(later.isDuplicate());
+
+        //The call key moves to the earlier segment
+        assertTrue(segment("system", 400).isDuplicate());
+        earlier.completeProperty().set(true);
+        assertFalse(segment("system", 400).isDuplicate());
+    }
+}
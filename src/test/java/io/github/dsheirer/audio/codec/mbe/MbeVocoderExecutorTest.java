@@ -0,0 +1,160 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.audio.codec.mbe;
+
+import io.github.dsheirer.metrics.Metric;
+import io.github.dsheirer.metrics.MetricNames;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for ordering and parallelism of the shared MBE vocoder executor.
+ */
+class MbeVocoderExecutorTest
+{
+    private static final int LANES = 8;
+    private static final int TASKS = 200;
+
+    @Test
+    void laneTasksRunInOrderAndLanesRunInParallel() throws InterruptedException
+    {
+        MbeVocoderExecutor executor = new MbeVocoderExecutor(4);
+        CountDownLatch complete = new CountDownLatch(LANES * TASKS);
+        AtomicInteger concurrentLanes = new AtomicInteger();
+        AtomicInteger maxConcurrentLanes = new AtomicInteger();
+        List<List<Integer>> results = new ArrayList<>();
+        List<AtomicInteger> active = new ArrayList<>();
+        List<Boolean> overlapped = Collections.synchronizedList(new ArrayList<>());
+
+        for(int lane = 0; lane < LANES; lane++)
+        {
+            results.add(Collections.synchronizedList(new ArrayList<>()));
+            active.add(new AtomicInteger());
+        }
+
+        List<MbeVocoderExecutor.Lane> lanes = new ArrayList<>();
+
+        for(int lane = 0; lane < LANES; lane++)
+        {
+            lanes.add(executor.createLane());
+        }
+
+        for(int task = 0; task < TASKS; task++)
+        {
+            for(int lane = 0; lane < LANES; lane++)
+            {
+                int laneIndex = lane;
+                int taskIndex = task;
+
+                lanes.get(lane).execute(() -> {
+                    if(active.get(laneIndex).incrementAndGet() > 1)
+                    {
+                        overlapped.add(true);
+                    }
+
+                    maxConcurrentLanes.accumulateAndGet(concurrentLanes.incrementAndGet(), Math::max);
+
+                    //Simulate the vocoder work for a voice frame
+                    long end = System.nanoTime() + 50_000;
+                    while(System.nanoTime() < end)
+                    {
+                        Thread.onSpinWait();
+                    }
+
+                    results.get(laneIndex).add(taskIndex);
+                    concurrentLanes.decrementAndGet();
+                    active.get(laneIndex).decrementAndGet();
+                    complete.countDown();
+                });
+            }
+        }
+
+        assertTrue(complete.await(30, TimeUnit.SECONDS), "All tasks completed");
+
+        for(int lane = 0; lane < LANES; lane++)
+        {
+            List<Integer> result = results.get(lane);
+            assertEquals(TASKS, result.size());
+
+            for(int task = 0; task < TASKS; task++)
+            {
+                assertEquals(task, result.get(task), "Lane " + lane + " task order");
+            }
+        }
+
+        assertTrue(overlapped.isEmpty(), "Tasks from the same lane never overlap");
+        assertTrue(maxConcurrentLanes.get() > 1, "Lanes run in parallel");
+        assertTrue(maxConcurrentLanes.get() <= 4, "Parallelism is bounded by the thread pool");
+        assertEquals(0, executor.getQueueDepth());
+
+        List<Metric> metrics = new ArrayList<>();
+        executor.collectMetrics(metrics);
+        Metric tasks = metrics.stream().filter(metric -> metric.name().equals(MetricNames.VOCODER_TASKS))
+            .findFirst().orElseThrow();
+        assertEquals(LANES * TASKS, tasks.value(), 0.0);
+        executor.shutdown();
+    }
+
+    @Test
+    void failedTaskDoesNotStallTheLane() throws InterruptedException
+    {
+        MbeVocoderExecutor executor = new MbeVocoderExecutor(1);
+        MbeVocoderExecutor.Lane lane = executor.createLane();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        lane.execute(() -> {
+            throw new IllegalStateException("Bad voice frame");
+        });
+        lane.execute(latch::countDown);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    void laneIdentifiesItsTaskThread() throws InterruptedException
+    {
+        MbeVocoderExecutor executor = new MbeVocoderExecutor(1);
+        MbeVocoderExecutor.Lane lane = executor.createLane();
+        MbeVocoderExecutor.Lane other = executor.createLane();
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Boolean> results = Collections.synchronizedList(new ArrayList<>());
+
+        lane.execute(() -> {
+            results.add(lane.isTaskThread());
+            results.add(other.isTaskThread());
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(true, false), results);
+        assertFalse(lane.isTaskThread(), "Caller is not running a lane task");
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.audio.convert;
+
+import io.github.dsheirer.alias.AliasList;
+import io.github.dsheirer.audio.AudioSegment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the encoded audio cache.
+ */
+class EncodedAudioCacheTest
+{
+    private static final AliasList ALIAS_LIST = new AliasList("test");
+    private static final byte[] HEADER = new byte[]{'I', 'D', '3'};
+
+    @TempDir
+    Path mDirectory;
+
+    /**
+     * Creates MPEG-2 layer III frames (16 kbps, 16 kHz) with the frame number in the first payload byte.
+     */
+    private static MP3AudioFrames frames(int count)
+    {
+        List<byte[]> frames = new ArrayList<>();
+        int duration = 0;
+
+        for(int x = 0; x < count; x++)
+        {
+            byte[] header = new byte[]{(byte)0xFF, (byte)0xF3, (byte)0x28, (byte)0xC4};
+            byte[] frame = new byte[MP3Header.getFrameLength(header, 0)];
+            System.arraycopy(header, 0, frame, 0, header.length);
+            frame[4] = (byte)x;
+            frames.add(frame);
+            duration += MP3Header.getFrameDuration(frame, 0);
+        }
+
+        return new MP3AudioFrames(duration, frames);
+    }
+
+    private long spillFileCount() throws IOException
+    {
+        try(Stream<Path> files = Files.list(mDirectory))
+        {
+            return files.count();
+        }
+    }
+
+    @Test
+    void segmentIsEncodedOnceForAllConsumers() throws IOException
+    {
+        EncodedAudioCache cache = new EncodedAudioCache(Long.MAX_VALUE);
+        AudioSegment segment = new AudioSegment(ALIAS_LIST, 0);
+        AtomicInteger encodings = new AtomicInteger();
+        EncodedAudioCache.Encoder encoder = () -> {
+            encodings.incrementAndGet();
+            return new EncodedAudio(HEADER, frames(10));
+        };
+
+        EncodedAudio recorder = cache.get(segment, encoder);
+        EncodedAudio streamer = cache.get(segment, encoder);
+        assertSame(recorder, streamer, "Consumers share the encoded audio");
+        assertEquals(1, encodings.get());
+        assertEquals(HEADER.length + 10 * recorder.getFrames().get(0).length, recorder.getLength());
+        assertEquals(recorder.getLength(), cache.getResidentBytes());
+
+        //Each consumer iterates the shared frames independently
+        MP3AudioFrames first = recorder.getAudioFrames();
+        first.nextFrame();
+        first.nextFrame();
+        MP3AudioFrames second = streamer.getAudioFrames();
+        second.nextFrame();
+        assertEquals(1, first.getCurrentFrame()[4]);
+        assertEquals(0, second.getCurrentFrame()[4]);
+
+        //The encoded audio outlives the segment until every consumer releases it
+        recorder.release();
+        cache.remove(segment);
+        assertEquals(0, cache.size());
+        assertEquals(recorder.getLength(), cache.getResidentBytes());
+        streamer.release();
+        assertEquals(0, cache.getResidentBytes());
+    }
+
+    @Test
+    void oldestAudioIsSpilledOverMemoryLimit() throws IOException
+    {
+        MP3AudioFrames frames = frames(10);
+        EncodedAudio sample = new EncodedAudio(HEADER, frames);
+        EncodedAudioCache cache = new EncodedAudioCache(sample.getLength() + 1);
+        cache.setSpillDirectory(mDirectory, "spill_");
+
+        AudioSegment firstSegment = new AudioSegment(ALIAS_LIST, 0);
+        AudioSegment secondSegment = new AudioSegment(ALIAS_LIST, 0);
+        EncodedAudio first = cache.get(firstSegment, () -> new EncodedAudio(HEADER, frames(10)));
+        assertFalse(first.isSpilled());
+
+        EncodedAudio second = cache.get(secondSegment, () -> new EncodedAudio(HEADER, frames(10)));
+        assertTrue(first.isSpilled(), "Oldest audio spilled");
+        assertFalse(second.isSpilled());
+        assertEquals(second.getLength(), cache.getResidentBytes());
+        assertEquals(1, spillFileCount());
+
+        //Spilled audio reads back the same frames
+        List<byte[]> spilledFrames = first.getFrames();
+        assertEquals(frames.getFrames().size(), spilledFrames.size());
+
+        for(int x = 0; x < spilledFrames.size(); x++)
+        {
+            assertArrayEquals(frames.getFrames().get(x), spilledFrames.get(x));
+        }
+
+        assertArrayEquals(second.getBytes(), first.getBytes());
+
+        first.release();
+        cache.remove(firstSegment);
+        assertEquals(0, spillFileCount(), "Spill file deleted on final release");
+
+        second.release();
+        cache.remove(secondSegment);
+        assertEquals(0, cache.getResidentBytes());
+    }
+}
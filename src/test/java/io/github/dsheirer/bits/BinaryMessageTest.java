@@ -0,0 +1,165 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.bits;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the word-packed field access methods of the binary message against bit by bit reference values.
+ */
+class BinaryMessageTest
+{
+    private static final int MESSAGE_LENGTH = 196;
+    private static final int ITERATIONS = 1000;
+
+    @Test
+    void contiguousFieldsMatchBitValues()
+    {
+        Random random = new Random(3);
+        BinaryMessage message = getRandomMessage(random);
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            int start = random.nextInt(MESSAGE_LENGTH - 64);
+            int intEnd = start + random.nextInt(32);
+            int longEnd = start + random.nextInt(64);
+
+            assertEquals((int)getReferenceValue(message, start, intEnd), message.getInt(start, intEnd));
+            assertEquals(getReferenceValue(message, start, longEnd), message.getLong(start, longEnd));
+            assertEquals((int)getReferenceValue(message, start, intEnd),
+                message.getInt(BinaryMessage.getFieldIndexes(start, intEnd - start + 1, false)));
+        }
+    }
+
+    @Test
+    void nonContiguousFieldMatchesBitValues()
+    {
+        BinaryMessage message = BinaryMessage.load("1011001110001111");
+        int[] bits = {15, 0, 1, 2, 9, 7, 8};
+        assertEquals(0b1101011, message.getInt(bits));
+        assertEquals(0b1101011, message.getLong(bits));
+        assertEquals(0b1011, message.getInt(new int[]{0, 1, 2, 3}));
+    }
+
+    @Test
+    void loadAndSubMessageAcrossWordBoundaries()
+    {
+        Random random = new Random(5);
+        BinaryMessage message = getRandomMessage(random);
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            int offset = random.nextInt(MESSAGE_LENGTH - 64);
+            int width = 1 + random.nextInt(64);
+            long value = random.nextLong();
+            message.load(offset, width, value);
+
+            long mask = width == 64 ? -1L : (1L << width) - 1;
+            assertEquals(value & mask, message.getLong(offset, offset + width - 1));
+
+            int end = offset + width;
+            BinaryMessage sub = message.getSubMessage(offset, end);
+            assertEquals(width, sub.size());
+            assertEquals(message.getHex(offset, end - 1).length(), sub.toHexString().length());
+
+            for(int y = 0; y < width; y++)
+            {
+                assertEquals(message.get(offset + y), sub.get(y));
+            }
+        }
+    }
+
+    @Test
+    void rotateMatchesSingleBitRotation()
+    {
+        Random random = new Random(7);
+        BinaryMessage message = getRandomMessage(random);
+
+        for(int x = 0; x < 100; x++)
+        {
+            int start = random.nextInt(MESSAGE_LENGTH - 1);
+            int end = start + 1 + random.nextInt(MESSAGE_LENGTH - start - 1);
+            int places = random.nextInt(300);
+            String expected = getReferenceRotateLeft(message.toString(), places, start, end);
+
+            message.rotateLeft(places, start, end);
+            assertEquals(expected, message.toString());
+
+            message.rotateRight(places, start, end);
+            message.rotateLeft(places, start, end);
+            assertEquals(expected, message.toString());
+        }
+    }
+
+    @Test
+    void bitSetInteroperability()
+    {
+        BitSet bitSet = new BitSet();
+        bitSet.set(3);
+        bitSet.set(70);
+
+        BinaryMessage message = new BinaryMessage(bitSet, 100);
+        assertTrue(message.get(3));
+        assertTrue(message.get(70));
+        assertEquals(2, message.cardinality());
+        assertEquals(message, bitSet);
+        assertEquals(bitSet.hashCode(), message.hashCode());
+        assertArrayEquals(bitSet.toLongArray(), message.toLongArray());
+        assertEquals(70, message.previousSetBit(99));
+        assertEquals(71, message.length());
+    }
+
+    private static BinaryMessage getRandomMessage(Random random)
+    {
+        BinaryMessage message = new BinaryMessage(MESSAGE_LENGTH);
+
+        for(int x = 0; x < MESSAGE_LENGTH; x++)
+        {
+            message.set(x, random.nextBoolean());
+        }
+
+        return message;
+    }
+
+    private static long getReferenceValue(BinaryMessage message, int start, int end)
+    {
+        long value = 0;
+
+        for(int x = start; x <= end; x++)
+        {
+            value = (value << 1) | (message.get(x) ? 1 : 0);
+        }
+
+        return value;
+    }
+
+    private static String getReferenceRotateLeft(String bits, int places, int start, int end)
+    {
+        String range = bits.substring(start, end + 1);
+        int shift = places % range.length();
+        return bits.substring(0, start) + range.substring(shift) + range.substring(0, shift) + bits.substring(end + 1);
+    }
+}
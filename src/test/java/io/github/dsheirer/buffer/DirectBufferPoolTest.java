@@ -0,0 +1,132 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.buffer;
+
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the direct buffer ring and the zero-copy native buffers that wrap its buffers.
+ */
+class DirectBufferPoolTest
+{
+    private static final int BUFFER_SIZE = 8192;
+
+    private static ByteBuffer fill(ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.capacity()];
+        new Random(1).nextBytes(bytes);
+        buffer.clear();
+        buffer.put(bytes);
+        return buffer.flip();
+    }
+
+    /**
+     * Asserts that both native buffers produce the same complex samples
+     */
+    private static void assertSameSamples(INativeBuffer expected, INativeBuffer actual)
+    {
+        assertEquals(expected.sampleCount(), actual.sampleCount());
+        Iterator<ComplexSamples> expectedIterator = expected.iterator();
+        Iterator<ComplexSamples> actualIterator = actual.iterator();
+
+        while(expectedIterator.hasNext())
+        {
+            assertTrue(actualIterator.hasNext());
+            ComplexSamples expectedSamples = expectedIterator.next();
+            ComplexSamples actualSamples = actualIterator.next();
+            assertArrayEquals(expectedSamples.i(), actualSamples.i());
+            assertArrayEquals(expectedSamples.q(), actualSamples.q());
+        }
+
+        assertFalse(actualIterator.hasNext());
+    }
+
+    @Test
+    void takeReturnsNullWhenExhausted()
+    {
+        DirectBufferPool pool = new DirectBufferPool(BUFFER_SIZE, 2);
+        ByteBuffer first = pool.take();
+        assertNotNull(first);
+        assertTrue(first.isDirect());
+        assertNotNull(pool.take());
+        assertNull(pool.take(), "Ring is empty");
+
+        first.position(100);
+        pool.release(first);
+        assertEquals(1, pool.getAvailableCount());
+        assertEquals(0, pool.take().position(), "Buffers are cleared when taken");
+    }
+
+    @Test
+    void directBuffersMatchCopiedBuffers()
+    {
+        DirectBufferPool pool = new DirectBufferPool(BUFFER_SIZE, 2);
+        ByteBuffer samples = fill(pool.take());
+
+        INativeBuffer copied = new ByteNativeBufferFactory().getBuffer(samples, 0);
+        INativeBuffer direct = new ByteNativeBufferFactory().getDirectBuffer(pool.lease(samples), 0);
+        assertSameSamples(copied, direct);
+        assertArrayEquals(((ByteNativeBuffer)copied).getSamples(), ((ByteNativeBuffer)direct).getSamples());
+
+        ByteBuffer written = ByteBuffer.allocate(BUFFER_SIZE);
+        ((ByteNativeBuffer)direct).putSamples(written);
+        assertArrayEquals(((ByteNativeBuffer)copied).getSamples(), written.array());
+
+        //The copy path reads from the buffer position, so rewind as the USB transfer processing does
+        samples.rewind();
+        INativeBuffer signedCopied = new SignedByteNativeBufferFactory().getBuffer(samples, 0);
+        INativeBuffer signedDirect = new SignedByteNativeBufferFactory().getDirectBuffer(pool.lease(samples), 0);
+        assertSameSamples(signedCopied, signedDirect);
+    }
+
+    @Test
+    void bufferReturnsWhenLastReferenceIsReleased()
+    {
+        DirectBufferPool pool = new DirectBufferPool(BUFFER_SIZE, 1);
+        ByteNativeBuffer nativeBuffer = (ByteNativeBuffer)new ByteNativeBufferFactory()
+            .getDirectBuffer(pool.lease(fill(pool.take())), 0);
+        assertEquals(BUFFER_SIZE / 2, nativeBuffer.sampleCount());
+
+        //Producer dispatches to two listeners and then releases its own reference
+        nativeBuffer.retain(2);
+        nativeBuffer.release();
+        nativeBuffer.release();
+        assertEquals(0, pool.getAvailableCount(), "Buffer is held by the remaining listener");
+        assertNotNull(nativeBuffer.getSamples());
+
+        nativeBuffer.release();
+        assertEquals(1, pool.getAvailableCount(), "Buffer returned to the ring");
+        assertThrows(IllegalStateException.class, nativeBuffer::getSamples);
+        assertThrows(IllegalStateException.class, () -> nativeBuffer.iterator().next());
+        assertThrows(IllegalStateException.class, () -> nativeBuffer.retain(1));
+    }
+}
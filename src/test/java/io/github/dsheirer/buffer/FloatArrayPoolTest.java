@@ -0,0 +1,111 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.buffer;
+
+import io.github.dsheirer.sample.buffer.ReferenceCountedFloatArrays;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the float array pool and reference counted float array batches.
+ */
+class FloatArrayPoolTest
+{
+    @Test
+    void borrowReusesReleasedArrays()
+    {
+        FloatArrayPool pool = new FloatArrayPool("Test", 2);
+        float[] first = pool.borrow(16);
+        assertEquals(16, first.length);
+        assertEquals(1, pool.getMissCount());
+
+        pool.release(first);
+        assertSame(first, pool.borrow(16));
+        assertEquals(1, pool.getHitCount());
+
+        //A different length is a separate size class
+        assertNotSame(first, pool.borrow(32));
+        assertEquals(2, pool.getMissCount());
+    }
+
+    @Test
+    void releaseDiscardsWhenSizeClassIsFull()
+    {
+        FloatArrayPool pool = new FloatArrayPool("Test", 2);
+        pool.release(new float[8]);
+        pool.release(new float[8]);
+        pool.release(new float[8]);
+
+        assertEquals(2, pool.getReleaseCount());
+        assertEquals(1, pool.getDiscardCount());
+        assertEquals(2, pool.getPooledCount());
+    }
+
+    @Test
+    void sizeClassesAreEvicted()
+    {
+        FloatArrayPool pool = new FloatArrayPool("Test", 2);
+
+        for(int length = 1; length <= 10; length++)
+        {
+            pool.release(new float[length]);
+        }
+
+        assertEquals(4, pool.getPooledCount());
+        pool.clear();
+        assertEquals(0, pool.getPooledCount());
+    }
+
+    @Test
+    void batchIsRecycledWhenLastConsumerReleases()
+    {
+        FloatArrayPool pool = new FloatArrayPool("Test", 4);
+        List<float[]> arrays = new ArrayList<>();
+        arrays.add(pool.borrow(4));
+        arrays.add(pool.borrow(4));
+
+        ReferenceCountedFloatArrays batch = new ReferenceCountedFloatArrays(arrays, pool);
+        batch.retain(2);
+        batch.release();
+        batch.release();
+        assertEquals(0, pool.getPooledCount());
+
+        batch.release();
+        assertEquals(0, batch.getReferenceCount());
+        assertEquals(2, pool.getPooledCount());
+
+        assertThrows(IllegalStateException.class, () -> batch.retain(1));
+        assertThrows(IllegalStateException.class, batch::release);
+    }
+
+    @Test
+    void emptyBatchIsNotRecycled()
+    {
+        ReferenceCountedFloatArrays empty = ReferenceCountedFloatArrays.empty();
+        assertEquals(0, empty.size());
+        empty.release();
+    }
+}
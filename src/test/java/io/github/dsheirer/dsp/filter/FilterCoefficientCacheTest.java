@@ -0,0 +1,107 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter;
+
+import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the process-wide, persistent filter coefficient cache.
+ */
+class FilterCoefficientCacheTest
+{
+    @TempDir
+    Path mDirectory;
+
+    @Test
+    void filtersAreDesignedOnce() throws Exception
+    {
+        FilterCoefficientCache cache = new FilterCoefficientCache();
+        AtomicInteger designs = new AtomicInteger();
+        FilterCoefficientCache.Designer designer = () -> {
+            designs.incrementAndGet();
+            return new float[]{0.25f, 0.5f, 0.25f};
+        };
+
+        float[] first = cache.get("test", designer);
+        first[0] = 99.0f;
+        float[] second = cache.get("test", designer);
+
+        assertEquals(1, designs.get());
+        assertNotSame(first, second);
+        assertArrayEquals(new float[]{0.25f, 0.5f, 0.25f}, second, "Callers can't modify the cached filter");
+
+        assertNull(cache.get("invalid", () -> null));
+        assertFalse(cache.contains("invalid"), "Failed designs are not cached");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void filtersArePersisted() throws Exception
+    {
+        Path path = mDirectory.resolve(FilterCoefficientCache.CACHE_FILE_NAME);
+        FilterCoefficientCache cache = new FilterCoefficientCache();
+        cache.load(path);
+        cache.get("a", () -> new float[]{1.0f, 2.0f});
+        cache.get("b", () -> new float[]{3.0f});
+        cache.save();
+
+        FilterCoefficientCache restored = new FilterCoefficientCache();
+        restored.load(path);
+        assertTrue(restored.contains("a"));
+        assertArrayEquals(new float[]{3.0f}, restored.get("b", () -> {
+            throw new IllegalStateException("Filter should be loaded from the cache file");
+        }));
+
+        Files.write(path, new byte[]{1, 2, 3});
+        FilterCoefficientCache corrupt = new FilterCoefficientCache();
+        corrupt.load(path);
+        assertEquals(0, corrupt.size(), "Corrupt cache files are ignored");
+    }
+
+    @Test
+    void specificationKeyDescribesDesignParameters()
+    {
+        FIRFilterSpecification a = FIRFilterSpecification.lowPassBuilder().sampleRate(50000).gridDensity(16)
+            .passBandCutoff(5100).passBandAmplitude(1.0).passBandRipple(0.01)
+            .stopBandStart(6500).stopBandAmplitude(0.0).stopBandRipple(0.01).build();
+        FIRFilterSpecification b = FIRFilterSpecification.lowPassBuilder().sampleRate(50000).gridDensity(16)
+            .passBandCutoff(5100).passBandAmplitude(1.0).passBandRipple(0.01)
+            .stopBandStart(6500).stopBandAmplitude(0.0).stopBandRipple(0.01).build();
+        FIRFilterSpecification c = FIRFilterSpecification.lowPassBuilder().sampleRate(25000).gridDensity(16)
+            .passBandCutoff(5100).passBandAmplitude(1.0).passBandRipple(0.01)
+            .stopBandStart(6500).stopBandAmplitude(0.0).stopBandRipple(0.01).build();
+
+        assertEquals(a.getKey(), b.getKey());
+        assertNotEquals(a.getKey(), c.getKey());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.sample.buffer.ReferenceCountedFloatArrays;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the bounded, time-indexed polyphase channelizer results history.
+ */
+class ChannelResultsHistoryTest
+{
+    /**
+     * Creates a batch of two 128-float arrays (1 KB)
+     */
+    private static ReferenceCountedFloatArrays batch()
+    {
+        List<float[]> arrays = new ArrayList<>();
+        arrays.add(new float[128]);
+        arrays.add(new float[128]);
+        return new ReferenceCountedFloatArrays(arrays, null);
+    }
+
+    @Test
+    void historyIsBoundedByMemory()
+    {
+        ChannelResultsHistory history = new ChannelResultsHistory(3 * 1024);
+        List<ReferenceCountedFloatArrays> batches = new ArrayList<>();
+
+        for(int x = 0; x < 5; x++)
+        {
+            ReferenceCountedFloatArrays batch = batch();
+            batches.add(batch);
+            history.add(batch, 1000 + x * 100);
+            batch.release(); //Producer's reference
+        }
+
+        assertEquals(3, history.size());
+        assertEquals(3 * 1024, history.getBytes());
+        assertEquals(0, batches.get(0).getReferenceCount(), "Oldest batch released");
+        assertEquals(0, batches.get(1).getReferenceCount(), "Oldest batch released");
+        assertEquals(1, batches.get(4).getReferenceCount(), "Newest batch retained");
+
+        history.setMaximumBytes(1024);
+        assertEquals(1, history.size());
+
+        history.clear();
+        assertEquals(0, history.getBytes());
+        assertEquals(0, batches.get(4).getReferenceCount(), "All batches released");
+    }
+
+    @Test
+    void replayStartsAtRequestedTimestamp()
+    {
+        ChannelResultsHistory history = new ChannelResultsHistory(1024 * 1024);
+
+        for(int x = 0; x < 5; x++)
+        {
+            ReferenceCountedFloatArrays batch = batch();
+            history.add(batch, 1000 + x * 100);
+            batch.release();
+        }
+
+        List<Long> timestamps = new ArrayList<>();
+        int count = history.replay((batch, timestamp) -> {
+            timestamps.add(timestamp);
+            assertEquals(2, batch.getReferenceCount(), "Reference retained for the channel");
+            batch.release();
+        }, 1200);
+
+        assertEquals(3, count);
+        assertEquals(List.of(1200L, 1300L, 1400L), timestamps, "Oldest first, from the requested timestamp");
+        assertEquals(0, history.replay((batch, timestamp) -> batch.release(), 2000), "Nothing after the newest batch");
+    }
+
+    @Test
+    void disabledHistoryRetainsNothing()
+    {
+        ChannelResultsHistory history = new ChannelResultsHistory(0);
+        ReferenceCountedFloatArrays batch = batch();
+        history.add(batch, 1000);
+        assertEquals(0, history.size());
+        assertEquals(1, batch.getReferenceCount());
+    }
+}
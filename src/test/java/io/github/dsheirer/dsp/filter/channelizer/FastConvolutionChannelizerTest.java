@@ -0,0 +1,123 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the overlap-save fast convolution channelizer and channel filter.
+ */
+class FastConvolutionChannelizerTest
+{
+    private static final double SAMPLE_RATE = 256_000.0;
+    private static final int DECIMATION = 16;
+
+    /**
+     * Channelizes a complex tone and returns the concatenated channel output for a channel at the offset.
+     */
+    private static List<float[]> channelize(double toneFrequency, double channelOffset) throws Exception
+    {
+        FastConvolutionChannelizer channelizer = new FastConvolutionChannelizer(SAMPLE_RATE);
+        float[] taps = FilterFactory.getKaiserSinc(channelizer.getMaximumFilterLength(), 6000.0 / SAMPLE_RATE, 80.0f);
+        FastConvolutionChannelFilter filter = new FastConvolutionChannelFilter(channelizer.getFftSize(),
+            channelizer.getBlockSize(), DECIMATION, taps);
+        double binWidth = SAMPLE_RATE / channelizer.getFftSize();
+        filter.setCenterBin((int)Math.round(channelOffset / binWidth));
+
+        List<float[]> output = new ArrayList<>();
+        channelizer.addListener(spectrum -> {
+            ComplexSamples samples = filter.filter(spectrum.getBins(), spectrum.getBlockIndex(),
+                spectrum.getTimestamp());
+
+            for(int x = 0; x < samples.i().length; x++)
+            {
+                output.add(new float[]{samples.i()[x], samples.q()[x]});
+            }
+
+            spectrum.release();
+        });
+
+        //Deliver the tone in odd-sized buffers that don't align with the channelizer blocks
+        int sample = 0;
+
+        for(int buffer = 0; buffer < 40; buffer++)
+        {
+            float[] samples = new float[1000 * 2];
+
+            for(int x = 0; x < 1000; x++)
+            {
+                double angle = 2.0 * Math.PI * toneFrequency * sample++ / SAMPLE_RATE;
+                samples[x * 2] = (float)Math.cos(angle);
+                samples[x * 2 + 1] = (float)Math.sin(angle);
+            }
+
+            channelizer.receive(new InterleavedComplexSamples(samples, buffer));
+        }
+
+        //The first block requires a full FFT of samples and each subsequent block requires a block of new samples
+        int blocks = (sample - channelizer.getFftSize()) / channelizer.getBlockSize() + 1;
+        assertEquals(blocks * channelizer.getBlockSize() / DECIMATION, output.size(), "Decimated sample count");
+
+        return output;
+    }
+
+    @Test
+    void toneIsTranslatedToResidualOffset() throws Exception
+    {
+        double channelOffset = -37_100.0;
+        double toneFrequency = channelOffset + 1_000.0;
+        List<float[]> output = channelize(toneFrequency, channelOffset);
+
+        //Tone lands at its offset from the center bin: -37_000 Hz is bin -148 at 250 Hz bins
+        double residual = toneFrequency - (-148 * 250.0);
+        double expectedPhaseStep = 2.0 * Math.PI * residual / (SAMPLE_RATE / DECIMATION);
+
+        //Skip the filter warm-up, then verify unity amplitude and a constant phase step across block boundaries
+        for(int x = 100; x < output.size(); x++)
+        {
+            float[] current = output.get(x);
+            float[] previous = output.get(x - 1);
+            assertEquals(1.0, Math.hypot(current[0], current[1]), 0.01, "Amplitude at sample " + x);
+
+            double step = Math.atan2(current[1], current[0]) - Math.atan2(previous[1], previous[0]);
+            step = Math.atan2(Math.sin(step), Math.cos(step));
+            assertEquals(expectedPhaseStep, step, 0.01, "Phase step at sample " + x);
+        }
+    }
+
+    @Test
+    void toneOutsideChannelIsRejected() throws Exception
+    {
+        List<float[]> output = channelize(50_000.0, 20_000.0);
+
+        for(int x = 100; x < output.size(); x++)
+        {
+            float[] current = output.get(x);
+            assertTrue(Math.hypot(current[0], current[1]) < 0.001, "Rejected tone at sample " + x);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Tests that each of the vector polyphase filter kernels produces results identical to the scalar kernel.
+ */
+class PolyphaseFilterKernelTest
+{
+    @Test
+    void vectorKernelsMatchScalarKernel()
+    {
+        List<IPolyphaseFilterKernel> kernels = List.of(new VectorPolyphaseFilterKernel64Bit(),
+            new VectorPolyphaseFilterKernel128Bit(), new VectorPolyphaseFilterKernel256Bit(),
+            new VectorPolyphaseFilterKernel512Bit());
+        IPolyphaseFilterKernel scalar = new ScalarPolyphaseFilterKernel();
+        Random random = new Random(1234);
+
+        //Block sizes that are, and are not, an integer multiple of each of the SIMD lane widths
+        for(int blockSize: new int[]{2, 6, 64, 96, 398, 400})
+        {
+            int blockCount = 18;
+            int steps = 3;
+            float[] samples = new float[(steps + blockCount - 1) * blockSize];
+            float[] filter = new float[blockCount * blockSize];
+
+            for(int x = 0; x < samples.length; x++)
+            {
+                samples[x] = random.nextFloat() * 2.0f - 1.0f;
+            }
+
+            for(int x = 0; x < filter.length; x++)
+            {
+                filter[x] = random.nextFloat() * 2.0f - 1.0f;
+            }
+
+            for(int step = 0; step < steps; step++)
+            {
+                int newestBlockOffset = (step + blockCount - 1) * blockSize;
+                float[] expected = new float[2 * blockSize];
+                scalar.filter(samples, newestBlockOffset, filter, blockSize, blockCount, expected);
+
+                for(IPolyphaseFilterKernel kernel: kernels)
+                {
+                    float[] actual = new float[2 * blockSize];
+                    kernel.filter(samples, newestBlockOffset, filter, blockSize, blockCount, actual);
+                    assertArrayEquals(expected, actual, kernel.getClass().getSimpleName() + " block size:" + blockSize);
+                }
+            }
+        }
+    }
+}
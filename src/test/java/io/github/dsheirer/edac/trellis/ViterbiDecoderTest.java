@@ -0,0 +1,141 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.edac.trellis;
+
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Golden output tests comparing the table viterbi decoder against the node and path based viterbi decoder.
+ */
+class ViterbiDecoderTest
+{
+    private static final int MESSAGE_LENGTH = 196;
+    private static final int ITERATIONS = 2000;
+
+    @Test
+    void p25HalfRateMatchesPathDecoder()
+    {
+        ViterbiDecoder_1_2_P25 decoder = new ViterbiDecoder_1_2_P25();
+        Random random = new Random(12);
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            CorrectedBinaryMessage encoded = getEncodedMessage(random, x, P25_1_2_Node.TRANSITION_MATRIX, 2);
+            CorrectedBinaryMessage expected = decoder.getMessage(decoder.decode(decoder.getSymbols(encoded)));
+            assertMessagesEqual(expected, decoder.decode(encoded));
+        }
+    }
+
+    @Test
+    void p25ThreeQuarterRateMatchesPathDecoder()
+    {
+        ViterbiDecoder_3_4_P25 decoder = new ViterbiDecoder_3_4_P25();
+        Random random = new Random(34);
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            CorrectedBinaryMessage encoded = getEncodedMessage(random, x, P25_3_4_Node.TRANSITION_MATRIX, 3);
+            CorrectedBinaryMessage expected = ViterbiDecoder_3_4_P25.getMessage(decoder.decode(decoder.getSymbols(encoded)));
+            assertMessagesEqual(expected, decoder.decode(encoded));
+        }
+    }
+
+    @Test
+    void dmrThreeQuarterRateMatchesPathDecoder()
+    {
+        ViterbiDecoder_3_4_DMR decoder = new ViterbiDecoder_3_4_DMR();
+        Random random = new Random(56);
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            //The encoded message is treated as the transmitted (interleaved) message
+            CorrectedBinaryMessage encoded = getEncodedMessage(random, x, DMR_3_4_Node.DMR_TRANSITION_MATRIX, 3);
+            CorrectedBinaryMessage deinterleaved = ViterbiDecoder_3_4_DMR.deinterleave(encoded);
+            CorrectedBinaryMessage expected = ViterbiDecoder_3_4_DMR.getMessage(decoder.decode(decoder.getSymbols(deinterleaved)));
+            assertMessagesEqual(expected, decoder.decode(encoded));
+        }
+    }
+
+    /**
+     * Asserts that the decoded messages have the same size, bits and corrected bit count.
+     */
+    private static void assertMessagesEqual(CorrectedBinaryMessage expected, CorrectedBinaryMessage actual)
+    {
+        assertEquals(expected.size(), actual.size(), "Message size");
+        assertEquals(expected.toHexString(), actual.toHexString(), "Message bits");
+        assertEquals(expected.getCorrectedBitCount(), actual.getCorrectedBitCount(), "Corrected bit count");
+    }
+
+    /**
+     * Creates a 196-bit test message.  Even iterations produce a trellis encoded random payload with a varying number
+     * of bit errors, and odd iterations produce completely random messages that exercise tie-breaks between paths.
+     */
+    private static CorrectedBinaryMessage getEncodedMessage(Random random, int iteration, int[][] transitionMatrix,
+                                                            int inputBitLength)
+    {
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(MESSAGE_LENGTH);
+
+        if(iteration % 2 == 1)
+        {
+            for(int x = 0; x < MESSAGE_LENGTH; x++)
+            {
+                if(random.nextBoolean())
+                {
+                    message.set(x);
+                }
+            }
+
+            return message;
+        }
+
+        int symbolCount = MESSAGE_LENGTH / 4;
+        int state = 0;
+
+        for(int x = 0; x < symbolCount; x++)
+        {
+            //Last symbol flushes the encoder with an input value of zero
+            int input = (x < symbolCount - 1) ? random.nextInt(1 << inputBitLength) : 0;
+            int symbol = transitionMatrix[state][input];
+            state = input;
+
+            for(int bit = 0; bit < 4; bit++)
+            {
+                if((symbol & (1 << (3 - bit))) != 0)
+                {
+                    message.set(x * 4 + bit);
+                }
+            }
+        }
+
+        int errors = (iteration / 2) % 12;
+
+        for(int x = 0; x < errors; x++)
+        {
+            message.flip(random.nextInt(MESSAGE_LENGTH));
+        }
+
+        return message;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.headless;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for parsing batch recording command line arguments.
+ */
+class BatchRecordingTest
+{
+    @TempDir
+    Path mDirectory;
+
+    @Test
+    void frequencyAndStartTimeAreParsedFromTunerRecordingName() throws IOException
+    {
+        Path file = Files.createFile(mDirectory.resolve("Airspy_R820T_851012500_baseband_20230415_133045.wav"));
+
+        BatchRecording recording = BatchRecording.parse(file.toString());
+
+        assertEquals(851012500L, recording.frequency());
+        assertEquals(new GregorianCalendar(2023, Calendar.APRIL, 15, 13, 30, 45).getTimeInMillis(),
+            recording.startTimestamp());
+        assertEquals("Airspy_R820T_851012500_baseband_20230415_133045", recording.getName());
+    }
+
+    @Test
+    void explicitFrequencyOverridesRecordingName() throws IOException
+    {
+        Path file = Files.createFile(mDirectory.resolve("Airspy_R820T_851012500_baseband_20230415_133045.wav"));
+
+        BatchRecording recording = BatchRecording.parse(file + "@852000000");
+
+        assertEquals(852000000L, recording.frequency());
+        assertEquals(file, recording.path());
+    }
+
+    @Test
+    void frequencyIsRequiredForOtherRecordingNames() throws IOException
+    {
+        Path file = Files.createFile(mDirectory.resolve("capture.wav"));
+
+        assertThrows(IllegalArgumentException.class, () -> BatchRecording.parse(file.toString()));
+        assertEquals(154000000L, BatchRecording.parse(file + "@154000000").frequency());
+        assertEquals(Files.getLastModifiedTime(file).toMillis(),
+            BatchRecording.parse(file + "@154000000").startTimestamp());
+    }
+
+    @Test
+    void missingRecordingIsRejected()
+    {
+        assertThrows(IllegalArgumentException.class,
+            () -> BatchRecording.parse(mDirectory.resolve("missing.wav") + "@154000000"));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.identifier;
+
+import io.github.dsheirer.module.decode.p25.identifier.radio.APCO25RadioIdentifier;
+import io.github.dsheirer.module.decode.p25.identifier.talkgroup.APCO25Talkgroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the indexed identifier class, form and role lookups of identifier collections.
+ */
+class IdentifierCollectionTest
+{
+    @Test
+    void lookupsMatchIdentifierClassFormAndRole()
+    {
+        Identifier talkgroup = APCO25Talkgroup.create(100);
+        Identifier from = APCO25RadioIdentifier.createFrom(1234);
+        Identifier to = APCO25RadioIdentifier.createTo(5678);
+        IdentifierCollection collection = new IdentifierCollection(List.of(talkgroup, from, to));
+
+        assertEquals(List.of(talkgroup, from, to), collection.getIdentifiers());
+        assertEquals(List.of(from, to), collection.getIdentifiers(Form.RADIO));
+        assertEquals(List.of(talkgroup, to), collection.getIdentifiers(Role.TO));
+        assertEquals(List.of(talkgroup, from, to), collection.getIdentifiers(IdentifierClass.USER));
+        assertEquals(List.of(from), collection.getIdentifiers(IdentifierClass.USER, Role.FROM));
+        assertEquals(List.of(talkgroup), collection.getIdentifiers(IdentifierClass.USER, Form.TALKGROUP));
+        assertTrue(collection.getIdentifiers(IdentifierClass.NETWORK).isEmpty());
+        assertTrue(collection.getIdentifiers(IdentifierClass.CONFIGURATION, Role.ANY).isEmpty());
+        assertSame(to, collection.getIdentifier(IdentifierClass.USER, Form.RADIO, Role.TO));
+        assertNull(collection.getIdentifier(IdentifierClass.USER, Form.PATCH_GROUP, Role.TO));
+        assertSame(from, collection.getFromIdentifier());
+        assertSame(talkgroup, collection.getToIdentifier(), "Talkgroup is preferred over a radio TO identifier");
+        assertThrows(UnsupportedOperationException.class, () -> collection.getIdentifiers(Form.RADIO).clear());
+    }
+
+    @Test
+    void mutationsAreVisibleToLookups()
+    {
+        MutableIdentifierCollection collection = new MutableIdentifierCollection();
+        List<IdentifierUpdateNotification> notifications = new ArrayList<>();
+        collection.setIdentifierUpdateListener(notifications::add);
+
+        Identifier first = APCO25Talkgroup.create(100);
+        collection.update(first);
+        List<Identifier> snapshot = collection.getIdentifiers(Form.TALKGROUP);
+        assertSame(snapshot, collection.getIdentifiers(Form.TALKGROUP), "Unchanged collection reuses the index");
+        assertSame(first, collection.getToIdentifier());
+
+        Identifier second = APCO25Talkgroup.create(200);
+        collection.update(second);
+        assertEquals(List.of(first), snapshot, "Earlier lookup results are not changed by updates");
+        assertEquals(List.of(second), collection.getIdentifiers(Form.TALKGROUP));
+        assertSame(second, collection.getToIdentifier());
+        assertEquals(3, notifications.size(), "Add, remove and add notifications");
+
+        collection.update(APCO25RadioIdentifier.createFrom(1234));
+        collection.remove(Form.TALKGROUP);
+        assertTrue(collection.getIdentifiers(Form.TALKGROUP).isEmpty());
+        assertNull(collection.getToIdentifier());
+        assertEquals(1, collection.getIdentifiers().size());
+
+        collection.remove(IdentifierClass.USER, Role.FROM);
+        assertTrue(collection.getIdentifiers().isEmpty());
+        assertNull(collection.getFromIdentifier());
+    }
+
+    @Test
+    void batchUpdateReplacesMatchingIdentifiers()
+    {
+        Identifier talkgroup = APCO25Talkgroup.create(100);
+        Identifier from = APCO25RadioIdentifier.createFrom(1234);
+        MutableIdentifierCollection collection = new MutableIdentifierCollection(List.of(talkgroup, from));
+        List<IdentifierUpdateNotification> notifications = new ArrayList<>();
+        collection.setIdentifierUpdateListener(notifications::add);
+
+        Identifier nextFrom = APCO25RadioIdentifier.createFrom(5678);
+        collection.update(List.of(talkgroup, nextFrom));
+        assertEquals(List.of(talkgroup, nextFrom), collection.getIdentifiers());
+        assertSame(nextFrom, collection.getFromIdentifier());
+        assertEquals(2, notifications.size(), "Remove and add notifications for the replaced identifier only");
+        assertSame(from, notifications.get(0).getIdentifier());
+        assertTrue(notifications.get(0).isRemove());
+        assertSame(nextFrom, notifications.get(1).getIdentifier());
+        assertTrue(notifications.get(1).isAdd());
+
+        collection.silentUpdate(from);
+        assertSame(from, collection.getFromIdentifier());
+        assertEquals(2, notifications.size(), "Silent updates are not broadcast");
+    }
+}
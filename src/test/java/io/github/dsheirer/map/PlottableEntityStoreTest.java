@@ -0,0 +1,133 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.map;
+
+import io.github.dsheirer.identifier.Identifier;
+import io.github.dsheirer.module.decode.event.PlottableDecodeEvent;
+import io.github.dsheirer.module.decode.p25.identifier.radio.APCO25RadioIdentifier;
+import org.jdesktop.swingx.mapviewer.GeoPosition;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the spatially indexed, bounded plottable entity store.
+ */
+class PlottableEntityStoreTest
+{
+    private List<PlottableEntityHistory> mRemoved = new ArrayList<>();
+
+    private static PlottableDecodeEvent event(double latitude, double longitude)
+    {
+        PlottableDecodeEvent event = new PlottableDecodeEvent(0);
+        event.setLocation(new GeoPosition(latitude, longitude));
+        return event;
+    }
+
+    private static Identifier radio(int id)
+    {
+        return APCO25RadioIdentifier.createFrom(id);
+    }
+
+    private static Set<Identifier> identifiers(List<PlottableEntityHistory> entities)
+    {
+        Set<Identifier> identifiers = new HashSet<>();
+        entities.forEach(entity -> identifiers.add(entity.getIdentifier()));
+        return identifiers;
+    }
+
+    @Test
+    void viewportQueryReturnsEntitiesWithRoutesInTheArea()
+    {
+        PlottableEntityStore store = new PlottableEntityStore(60_000, 100, mRemoved::add);
+        store.add(radio(1), event(43.0, -76.1), 0);
+        store.add(radio(2), event(40.7, -74.0), 0);
+        store.add(radio(3), event(-33.9, 151.2), 0);
+        store.add(radio(4), event(-17.0, 179.9), 0);
+        store.add(radio(5), event(-17.0, -179.9), 0);
+
+        //Radio 2 drives from New York into the Syracuse area
+        store.add(radio(2), event(43.1, -76.2), 1);
+
+        assertEquals(Set.of(radio(1), radio(2)), identifiers(store.getEntities(42.5, 43.5, -77.0, -75.5)));
+
+        //Radio 1 moves away but its route still passes through the area
+        store.add(radio(1), event(45.0, -70.0), 2);
+        assertEquals(Set.of(radio(1), radio(2)), identifiers(store.getEntities(42.5, 43.5, -77.0, -75.5)));
+        assertEquals(Set.of(radio(1)), identifiers(store.getEntities(44.5, 45.5, -70.5, -69.5)));
+
+        //Area that spans the 180 degree meridian
+        assertEquals(Set.of(radio(4), radio(5)), identifiers(store.getEntities(-18.0, -16.0, 179.0, -179.0)));
+
+        //World area visits the populated cells
+        assertEquals(5, store.getEntities(-90, 90, -180, 180).size());
+        assertEquals(Set.of(radio(3)), identifiers(store.getEntities(-60, -20, 0, 179.0)));
+    }
+
+    @Test
+    void entitiesExpireAndAreEvictedLeastRecentlyUpdatedFirst()
+    {
+        PlottableEntityStore store = new PlottableEntityStore(1_000, 3, mRemoved::add);
+        PlottableEntityHistory first = store.add(radio(1), event(43.0, -76.0), 0);
+        store.add(radio(2), event(43.0, -76.0), 100);
+        store.add(radio(3), event(43.0, -76.0), 200);
+        store.add(radio(1), event(43.1, -76.0), 300);
+        assertSame(first, store.add(radio(1), event(43.2, -76.0), 400));
+        assertEquals(3, first.getLocationHistory().size());
+
+        //Radio 2 is the least recently updated
+        store.add(radio(4), event(43.0, -76.0), 500);
+        assertEquals(List.of(radio(2)), identifiers(mRemoved).stream().toList());
+        assertEquals(3, store.size());
+
+        mRemoved.clear();
+        store.expire(1_450);
+        assertEquals(Set.of(radio(3), radio(1)), identifiers(mRemoved));
+        assertEquals(Set.of(radio(4)), identifiers(store.getEntities(42.0, 44.0, -77.0, -75.0)));
+
+        store.setMaximumEntities(1);
+        store.clear();
+        assertEquals(0, store.size());
+        assertTrue(store.getEntities(-90, 90, -180, 180).isEmpty());
+    }
+
+    @Test
+    void locationHistoryIsBounded()
+    {
+        PlottableEntityStore store = new PlottableEntityStore(60_000, 10, mRemoved::add);
+        PlottableEntityHistory entity = null;
+
+        //Travel east from the first cell to the last, so the earliest cells age out of the history
+        for(int x = 0; x <= PlottableEntityHistory.MAX_LOCATION_HISTORY; x++)
+        {
+            entity = store.add(radio(1), event(10.0, x * 0.1), x);
+        }
+
+        assertEquals(PlottableEntityHistory.MAX_LOCATION_HISTORY * 3 / 4 + 1, entity.getLocationHistory().size());
+        assertTrue(store.getEntities(9.9, 10.1, 0.0, 1.0).isEmpty(), "Discarded locations are no longer indexed");
+        assertEquals(1, store.getEntities(9.9, 10.1, 49.0, 50.0).size());
+    }
+}
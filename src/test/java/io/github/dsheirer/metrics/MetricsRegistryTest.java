@@ -0,0 +1,123 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.metrics;
+
+import io.github.dsheirer.util.Dispatcher;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the metrics registry, Prometheus formatting and the metrics endpoint.
+ */
+class MetricsRegistryTest
+{
+    @Test
+    void runningDispatcherReportsQueueMetrics()
+    {
+        Dispatcher<String> dispatcher = new Dispatcher<>(4, "metrics test dispatcher", "poison");
+        dispatcher.setListener(value -> {});
+
+        assertFalse(hasDispatcher(MetricsRegistry.getInstance().collect()));
+
+        dispatcher.start();
+
+        try
+        {
+            assertTrue(hasDispatcher(MetricsRegistry.getInstance().collect()));
+        }
+        finally
+        {
+            dispatcher.stop();
+        }
+
+        assertFalse(hasDispatcher(MetricsRegistry.getInstance().collect()));
+    }
+
+    @Test
+    void prometheusFormat()
+    {
+        List<Metric> metrics = List.of(
+            Metric.counter("test_total", "Test counter", 5, "b", "2", "a", "say \"hi\""),
+            Metric.counter("test_total", "Test counter", 1.5, "a", "x"),
+            Metric.gauge("test_gauge", null, 3));
+
+        String expected = "# HELP test_total Test counter\n" +
+            "# TYPE test_total counter\n" +
+            "test_total{a=\"say \\\"hi\\\"\",b=\"2\"} 5\n" +
+            "test_total{a=\"x\"} 1.5\n" +
+            "# TYPE test_gauge gauge\n" +
+            "test_gauge 3\n";
+
+        assertEquals(expected, PrometheusFormatter.format(metrics));
+    }
+
+    @Test
+    void counterRates()
+    {
+        MetricRateCalculator calculator = new MetricRateCalculator();
+        Metric first = Metric.counter("test_total", null, 100, "a", "1");
+        calculator.update(List.of(first), 1000);
+        assertNull(calculator.getRate(first));
+
+        Metric second = Metric.counter("test_total", null, 300, "a", "1");
+        calculator.update(List.of(second), 3000);
+        assertEquals(100.0, calculator.getRate(second), 0.0001);
+    }
+
+    @Test
+    void httpEndpointServesMetrics() throws Exception
+    {
+        MetricsHttpServer server = new MetricsHttpServer(0);
+        server.start();
+
+        try
+        {
+            URL url = new URL("http://127.0.0.1:" + server.getPort() + MetricsHttpServer.METRICS_PATH);
+            HttpURLConnection connection = (HttpURLConnection)url.openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain"));
+
+            try(InputStream inputStream = connection.getInputStream())
+            {
+                String body = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(body.contains("# TYPE sdrtrunk_jvm_memory_used_bytes gauge"));
+            }
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
+    private static boolean hasDispatcher(List<Metric> metrics)
+    {
+        return metrics.stream().anyMatch(metric -> metric.name().equals(MetricNames.DISPATCHER_DROPPED) &&
+            "metrics test dispatcher".equals(metric.labels().get(MetricNames.LABEL_DISPATCHER)));
+    }
+}
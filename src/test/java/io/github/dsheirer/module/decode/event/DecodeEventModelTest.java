@@ -0,0 +1,135 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.module.decode.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.event.TableModelEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for the ring buffer backed decode event model batch processing.
+ */
+class DecodeEventModelTest
+{
+    private DecodeEventModel mModel = new DecodeEventModel();
+    private List<TableModelEvent> mTableEvents = new ArrayList<>();
+
+    DecodeEventModelTest()
+    {
+        mModel.addTableModelListener(mTableEvents::add);
+    }
+
+    @AfterEach
+    void dispose()
+    {
+        mModel.dispose();
+    }
+
+    private static List<IDecodeEvent> events(int count)
+    {
+        List<IDecodeEvent> events = new ArrayList<>();
+
+        for(int x = 0; x < count; x++)
+        {
+            events.add(new DecodeEvent(x));
+        }
+
+        return events;
+    }
+
+    private static void assertTableEvent(TableModelEvent event, int type, int firstRow, int lastRow)
+    {
+        assertEquals(type, event.getType(), "Event type");
+        assertEquals(firstRow, event.getFirstRow(), "First row");
+        assertEquals(lastRow, event.getLastRow(), "Last row");
+    }
+
+    @Test
+    void batchIsInsertedNewestFirstWithUpdatesCoalesced()
+    {
+        List<IDecodeEvent> events = events(5);
+        mModel.process(events.subList(0, 3), false);
+        assertEquals(3, mModel.getRowCount());
+        assertTableEvent(mTableEvents.get(0), TableModelEvent.INSERT, 0, 2);
+
+        //Update the oldest event along with two new events
+        mTableEvents.clear();
+        mModel.process(List.of(events.get(0), events.get(3), events.get(4)), false);
+        assertEquals(5, mModel.getRowCount());
+        assertEquals(2, mTableEvents.size());
+        assertTableEvent(mTableEvents.get(0), TableModelEvent.INSERT, 0, 1);
+        assertTableEvent(mTableEvents.get(1), TableModelEvent.UPDATE, 4, 4);
+
+        for(int row = 0; row < 5; row++)
+        {
+            assertSame(events.get(4 - row), mModel.getEvents().get(row));
+            assertEquals(row, mModel.getRow(events.get(4 - row)));
+            assertEquals((long)(4 - row), mModel.getValueAt(row, DecodeEventModel.COLUMN_TIME));
+        }
+    }
+
+    @Test
+    void oldestEventsAreEvictedWhenFull()
+    {
+        mModel.setMaxMessageCount(4);
+        List<IDecodeEvent> events = events(7);
+        mModel.process(events.subList(0, 3), false);
+
+        mTableEvents.clear();
+        mModel.process(events.subList(3, 6), false);
+        assertEquals(4, mModel.getRowCount());
+        assertTableEvent(mTableEvents.get(0), TableModelEvent.DELETE, 1, 2);
+        assertTableEvent(mTableEvents.get(1), TableModelEvent.INSERT, 0, 2);
+        assertEquals(-1, mModel.getRow(events.get(0)));
+        assertEquals(-1, mModel.getRow(events.get(1)));
+        assertEquals(3, mModel.getRow(events.get(2)));
+        assertEquals(0, mModel.getRow(events.get(5)));
+
+        //An overflowed batch refreshes the whole table
+        mTableEvents.clear();
+        mModel.process(List.of(events.get(6)), true);
+        assertEquals(1, mTableEvents.size());
+        assertTableEvent(mTableEvents.get(0), TableModelEvent.UPDATE, 0, Integer.MAX_VALUE);
+        assertEquals(List.of(events.get(6), events.get(5), events.get(4), events.get(3)), mModel.getEvents());
+
+        //Reducing the maximum keeps the newest events
+        mModel.setMaxMessageCount(2);
+        assertEquals(List.of(events.get(6), events.get(5)), mModel.getEvents());
+        assertEquals(-1, mModel.getRow(events.get(4)));
+    }
+
+    @Test
+    void clearAndSetLoadsHistoryNewestFirst()
+    {
+        List<IDecodeEvent> events = events(3);
+        mModel.process(events(2), false);
+        mModel.clearAndSet(events);
+        assertEquals(List.of(events.get(2), events.get(1), events.get(0)), mModel.getEvents());
+
+        mModel.clear();
+        assertEquals(0, mModel.getRowCount());
+        assertEquals(-1, mModel.getRow(events.get(0)));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.module.log;
+
+import io.github.dsheirer.metrics.Metric;
+import io.github.dsheirer.metrics.MetricNames;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the shared background event log writer.
+ */
+class EventLogWriterTest
+{
+    @TempDir
+    Path mDirectory;
+
+    private static List<String> readCompressed(Path path) throws IOException
+    {
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8)))
+        {
+            return reader.lines().toList();
+        }
+    }
+
+    private List<Path> list() throws IOException
+    {
+        try(Stream<Path> paths = Files.list(mDirectory))
+        {
+            return paths.sorted().toList();
+        }
+    }
+
+    @Test
+    void queuedEntriesAreWrittenOnFlush() throws Exception
+    {
+        EventLogWriter writer = new EventLogWriter();
+        writer.setFlushInterval(60_000, 1000);
+        Path path = mDirectory.resolve("events.log");
+
+        EventLogFile file = writer.open(() -> path, "HEADER");
+        writer.write(file, "first");
+        writer.write(file, "second");
+
+        assertTrue(writer.flush(5000));
+        assertEquals(List.of("HEADER", "first", "second"), Files.readAllLines(path));
+        assertEquals(0, writer.getQueueDepth());
+
+        List<Metric> metrics = new ArrayList<>();
+        writer.collectMetrics(metrics);
+        assertEquals(2.0, metrics.stream().filter(m -> m.name().equals(MetricNames.EVENT_LOG_ENTRIES))
+            .findFirst().orElseThrow().value());
+
+        writer.close(file);
+        assertTrue(writer.flush(5000));
+    }
+
+    @Test
+    void compressedFilesRotateBySize() throws Exception
+    {
+        EventLogWriter writer = new EventLogWriter();
+        writer.setRotation(100, false);
+        writer.setCompressed(true);
+
+        //Each rotated file reuses the same path to also exercise the unique file naming
+        EventLogFile file = writer.open(() -> mDirectory.resolve("events.log"), "HEADER");
+        List<String> expected = new ArrayList<>();
+
+        for(int x = 0; x < 20; x++)
+        {
+            String entry = "entry " + x + " with some padding";
+            expected.add(entry);
+            writer.write(file, entry);
+        }
+
+        writer.close(file);
+        assertTrue(writer.flush(5000));
+
+        List<Path> paths = list();
+        assertTrue(paths.size() > 1, "Log should rotate into several files");
+
+        List<String> entries = new ArrayList<>();
+
+        for(Path path: paths)
+        {
+            assertTrue(path.getFileName().toString().endsWith(".log" + EventLogFile.COMPRESSED_EXTENSION),
+                "Unexpected file name " + path.getFileName());
+            List<String> lines = readCompressed(path);
+            assertEquals("HEADER", lines.get(0), "Each file starts with the header");
+            entries.addAll(lines.subList(1, lines.size()));
+        }
+
+        entries.sort(null);
+        expected.sort(null);
+        assertEquals(expected, entries);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.record.nativebuffer;
+
+import io.github.dsheirer.buffer.ByteNativeBuffer;
+import io.github.dsheirer.buffer.FloatNativeBuffer;
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.buffer.SignedByteNativeBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for writing and reading native buffer recordings.
+ */
+class NativeBufferRecordingTest
+{
+    private static final double SAMPLE_RATE = 2_400_000.0;
+    private static final float SAMPLES_PER_MILLISECOND = 2400.0f;
+
+    @TempDir
+    Path mDirectory;
+
+    private Random mRandom = new Random(12345);
+
+    private byte[] bytes(int length)
+    {
+        byte[] bytes = new byte[length];
+        mRandom.nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    void unsignedByteBuffersAreRecordedWithoutConversion() throws IOException
+    {
+        Path path = mDirectory.resolve("rtl" + NativeBufferWriter.EXTENSION);
+        byte[] first = bytes(4096);
+        byte[] second = bytes(8192);
+
+        try(NativeBufferWriter writer = new NativeBufferWriter(path, SAMPLE_RATE))
+        {
+            writer.write(new ByteNativeBuffer(first, 1000L, 127.4f, SAMPLES_PER_MILLISECOND), 851_000_000L);
+            writer.write(new ByteNativeBuffer(second, 1002L, 127.6f, SAMPLES_PER_MILLISECOND), 852_000_000L);
+        }
+
+        assertEquals(NativeRecordingHeader.SIZE + 2 * NativeBufferCodec.BLOCK_HEADER_SIZE + 4096 + 8192,
+            Files.size(path), "File should hold the native 8-bit samples");
+
+        try(NativeBufferReader reader = new NativeBufferReader(path))
+        {
+            NativeRecordingHeader header = reader.getHeader();
+            assertEquals(NativeBufferType.UNSIGNED_BYTE, header.type());
+            assertEquals(851_000_000L, header.frequency());
+            assertEquals(SAMPLE_RATE, header.sampleRate());
+            assertEquals(1000L, header.timestamp());
+
+            ByteNativeBuffer buffer = assertInstanceOf(ByteNativeBuffer.class, reader.next());
+            assertArrayEquals(first, buffer.getSamples());
+            assertEquals(1000L, buffer.getTimestamp());
+            assertEquals(127.4f, buffer.getAverageDc());
+            assertEquals(SAMPLES_PER_MILLISECOND, buffer.getSamplesPerMillisecond());
+
+            buffer = assertInstanceOf(ByteNativeBuffer.class, reader.next(5000L));
+            assertArrayEquals(second, buffer.getSamples());
+            assertEquals(5000L, buffer.getTimestamp(), "Timestamp should be overridden");
+            assertEquals(852_000_000L, reader.getFrequency());
+
+            assertNull(reader.next(), "End of recording");
+        }
+    }
+
+    @Test
+    void mixedBufferTypesAreReconstructed() throws IOException
+    {
+        Path path = mDirectory.resolve("mixed" + NativeBufferWriter.EXTENSION);
+        byte[] signed = bytes(2048);
+        float[] floats = new float[] {0.1f, -0.2f, 0.3f, -0.4f};
+
+        //Staging buffer is smaller than the second block to force a flush and staging buffer expansion
+        byte[] large = bytes(NativeBufferWriter.STAGING_BUFFER_SIZE + 2048);
+
+        try(NativeBufferWriter writer = new NativeBufferWriter(path, SAMPLE_RATE))
+        {
+            writer.write(new SignedByteNativeBuffer(signed, 10L, 0.5f, -0.5f, SAMPLES_PER_MILLISECOND), 1L);
+            writer.write(new SignedByteNativeBuffer(large, 11L, 0.25f, -0.25f, SAMPLES_PER_MILLISECOND), 1L);
+            writer.write(new FloatNativeBuffer(floats, 12L, SAMPLES_PER_MILLISECOND), 1L);
+        }
+
+        try(NativeBufferReader reader = new NativeBufferReader(path))
+        {
+            assertEquals(NativeBufferType.SIGNED_BYTE, reader.getHeader().type());
+
+            SignedByteNativeBuffer first = assertInstanceOf(SignedByteNativeBuffer.class, reader.next());
+            assertArrayEquals(signed, first.getSamples());
+            assertEquals(0.5f, first.getIAverageDc());
+            assertEquals(-0.5f, first.getQAverageDc());
+
+            SignedByteNativeBuffer second = assertInstanceOf(SignedByteNativeBuffer.class, reader.next());
+            assertArrayEquals(large, second.getSamples());
+
+            FloatNativeBuffer third = assertInstanceOf(FloatNativeBuffer.class, reader.next());
+            assertArrayEquals(floats, third.getSamples());
+            assertEquals(12L, third.getTimestamp());
+
+            assertNull(reader.next());
+
+            reader.rewind();
+            INativeBuffer rewound = reader.next();
+            assertArrayEquals(signed, ((SignedByteNativeBuffer)rewound).getSamples(), "Rewind to first buffer");
+        }
+    }
+
+    @Test
+    void truncatedBlockIsTreatedAsEndOfRecording() throws IOException
+    {
+        Path path = mDirectory.resolve("truncated" + NativeBufferWriter.EXTENSION);
+
+        try(NativeBufferWriter writer = new NativeBufferWriter(path, SAMPLE_RATE))
+        {
+            writer.write(new ByteNativeBuffer(bytes(2048), 1L, 127.5f, SAMPLES_PER_MILLISECOND), 1L);
+            writer.write(new ByteNativeBuffer(bytes(2048), 2L, 127.5f, SAMPLES_PER_MILLISECOND), 1L);
+        }
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE))
+        {
+            channel.truncate(Files.size(path) - 100);
+        }
+
+        try(NativeBufferReader reader = new NativeBufferReader(path))
+        {
+            assertInstanceOf(ByteNativeBuffer.class, reader.next());
+            assertNull(reader.next(), "Partial block should end the recording");
+        }
+    }
+
+    @Test
+    void seekPositionsReaderAtBufferContainingTimestamp() throws IOException
+    {
+        Path path = mDirectory.resolve("seek" + NativeBufferWriter.EXTENSION);
+        byte[][] samples = new byte[5][];
+
+        //Each buffer holds 2 milliseconds of samples, with buffers recorded 1.5 seconds apart
+        try(NativeBufferWriter writer = new NativeBufferWriter(path, SAMPLE_RATE))
+        {
+            for(int x = 0; x < samples.length; x++)
+            {
+                samples[x] = bytes(8192);
+                writer.write(new ByteNativeBuffer(samples[x], 1000L + x * 1500L, 127.5f, SAMPLES_PER_MILLISECOND), 1L);
+            }
+        }
+
+        try(NativeBufferReader reader = new NativeBufferReader(path))
+        {
+            assertEquals(7002L, reader.getEndTimestamp());
+            assertEquals(4000L, reader.seek(4001L));
+            assertArrayEquals(samples[2], ((ByteNativeBuffer)reader.next()).getSamples());
+
+            assertEquals(1000L, reader.seek(0L), "Seek before the start lands on the first buffer");
+            assertArrayEquals(samples[0], ((ByteNativeBuffer)reader.next()).getSamples());
+
+            assertEquals(5500L, reader.seek(4500L), "Seek into a gap lands on the following buffer");
+            assertEquals(7002L, reader.seek(9000L), "Seek beyond the end lands at the end");
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void nonRecordingFileIsRejected() throws IOException
+    {
+        Path path = mDirectory.resolve("other" + NativeBufferWriter.EXTENSION);
+        Files.write(path, bytes(1024));
+
+        assertThrows(IOException.class, () -> new NativeBufferReader(path));
+        assertFalse(NativeBufferReader.supports(path));
+
+        Path empty = mDirectory.resolve("empty" + NativeBufferWriter.EXTENSION);
+        new NativeBufferWriter(empty, SAMPLE_RATE).close();
+        assertTrue(NativeBufferReader.supports(empty), "Empty recording still has a valid header");
+    }
+}
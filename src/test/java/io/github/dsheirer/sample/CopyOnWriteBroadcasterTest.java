@@ -0,0 +1,105 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.sample;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the copy-on-write broadcaster.
+ */
+class CopyOnWriteBroadcasterTest
+{
+    @Test
+    void addRemoveAndBroadcast()
+    {
+        CopyOnWriteBroadcaster<Integer> broadcaster = new CopyOnWriteBroadcaster<>();
+        List<Integer> first = new ArrayList<>();
+        List<Integer> second = new ArrayList<>();
+        Listener<Integer> firstListener = first::add;
+        Listener<Integer> secondListener = second::add;
+
+        assertFalse(broadcaster.hasListeners());
+        broadcaster.addListener(firstListener);
+        broadcaster.addListener(firstListener);
+        broadcaster.addListener(secondListener);
+        assertEquals(2, broadcaster.getListenerCount());
+
+        broadcaster.broadcast(1);
+        broadcaster.removeListener(firstListener);
+        broadcaster.receive(2);
+
+        assertEquals(List.of(1), first);
+        assertEquals(List.of(1, 2), second);
+        assertEquals(List.of(secondListener), broadcaster.getListeners());
+
+        broadcaster.clear();
+        assertFalse(broadcaster.hasListeners());
+    }
+
+    @Test
+    void listenerCanRemoveItselfDuringBroadcast()
+    {
+        CopyOnWriteBroadcaster<Integer> broadcaster = new CopyOnWriteBroadcaster<>();
+        List<Integer> received = new ArrayList<>();
+        List<Integer> other = new ArrayList<>();
+
+        broadcaster.addListener(new Listener<>()
+        {
+            @Override
+            public void receive(Integer value)
+            {
+                received.add(value);
+                broadcaster.removeListener(this);
+            }
+        });
+        broadcaster.addListener(other::add);
+
+        broadcaster.broadcast(1);
+        broadcaster.broadcast(2);
+
+        assertEquals(List.of(1), received);
+        assertEquals(List.of(1, 2), other);
+    }
+
+    @Test
+    void timedBroadcastDeliversToAllListeners()
+    {
+        CopyOnWriteBroadcaster<Integer> broadcaster = new CopyOnWriteBroadcaster<>();
+        broadcaster.enableListenerTiming("test", 0, TimeUnit.NANOSECONDS);
+        assertTrue(broadcaster.isListenerTimingEnabled());
+
+        List<Integer> received = new ArrayList<>();
+        broadcaster.addListener(received::add);
+        broadcaster.addListener(value -> received.add(-value));
+        broadcaster.broadcast(3);
+
+        assertEquals(List.of(3, -3), received);
+
+        broadcaster.disableListenerTiming();
+        assertFalse(broadcaster.isListenerTimingEnabled());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.source.wave;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the memory-mapped, seekable wave recording source.
+ */
+class MappedComplexWaveSourceTest
+{
+    private static final int SAMPLE_RATE = 10_000;
+
+    @TempDir
+    Path mDirectory;
+
+    /**
+     * Writes a complex 16-bit wave file where the I sample holds the sample index and Q holds the negated index.
+     * @param dataLength to write in the data chunk header, or -1 to write the actual data length
+     */
+    private static void write(Path path, int firstSample, int samples, int dataLength) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(44 + samples * 4).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("RIFF".getBytes()).putInt(36 + samples * 4).put("WAVE".getBytes());
+        buffer.put("fmt ".getBytes()).putInt(16).putShort((short)1).putShort((short)2).putInt(SAMPLE_RATE)
+            .putInt(SAMPLE_RATE * 4).putShort((short)4).putShort((short)16);
+        buffer.put("data".getBytes()).putInt(dataLength < 0 ? samples * 4 : dataLength);
+
+        for(int x = 0; x < samples; x++)
+        {
+            short value = (short)((firstSample + x) % Short.MAX_VALUE);
+            buffer.putShort(value).putShort((short)-value);
+        }
+
+        Files.write(path, buffer.array());
+    }
+
+    private static float expected(int sample)
+    {
+        return (sample % Short.MAX_VALUE) / (float)Short.MAX_VALUE;
+    }
+
+    @Test
+    void segmentsArePlayedAsSingleRecording() throws Exception
+    {
+        Path first = mDirectory.resolve("tuner_100000000_baseband_20230102_030405.tmp");
+        write(first, 0, 15_000, -1);
+        write(mDirectory.resolve("tuner_100000000_baseband_20230102_030405_2.tmp"), 15_000, 5_000, 0);
+
+        MappedComplexWaveSource source = new MappedComplexWaveSource(first.toFile());
+        List<INativeBuffer> buffers = new ArrayList<>();
+        source.setListener(buffers::add);
+
+        assertEquals(20_000, source.getFrameCount(), "Frames across both segments");
+        assertEquals(2_000, source.getDuration());
+        assertEquals(new SimpleDateFormat("yyyyMMdd_HHmmss").parse("20230102_030405").getTime(),
+            source.getStartTimestamp());
+
+        //Request crosses the segment boundary and is delivered as one view per segment
+        source.seek(1400);
+        assertEquals(1400, source.getPosition());
+        source.next(2_000);
+
+        int sample = 14_000;
+
+        for(INativeBuffer buffer: buffers)
+        {
+            Iterator<ComplexSamples> iterator = buffer.iterator();
+
+            while(iterator.hasNext())
+            {
+                ComplexSamples complexSamples = iterator.next();
+
+                for(int x = 0; x < complexSamples.i().length; x++)
+                {
+                    assertEquals(expected(sample), complexSamples.i()[x], 0.00001f, "I sample " + sample);
+                    assertEquals(-expected(sample), complexSamples.q()[x], 0.00001f, "Q sample " + sample);
+                    sample++;
+                }
+            }
+        }
+
+        assertEquals(16_000, sample, "Samples delivered after seek");
+        assertEquals(1600, source.getPosition());
+
+        source.seek(5_000);
+        assertEquals(2_000, source.getPosition(), "Seek beyond the end is limited to the end");
+        assertThrows(IOException.class, () -> source.next(1));
+        source.close();
+    }
+
+    @Test
+    void truncatedDataChunkUsesFileLength() throws IOException
+    {
+        Path path = mDirectory.resolve("recording.wav");
+        write(path, 0, 1_000, 0);
+
+        MappedWaveFile file = new MappedWaveFile(path);
+        assertEquals(1_000, file.getFrameCount());
+        assertEquals(SAMPLE_RATE, file.getSampleRate());
+        assertEquals(400, file.getFrames(900, 500).remaining(), "View is limited to the end of the file");
+        assertEquals(0, file.getFrames(1_000, 10).remaining());
+    }
+}
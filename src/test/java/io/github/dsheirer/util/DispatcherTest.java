@@ -0,0 +1,287 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the ring buffer and the dispatcher overflow policies.
+ */
+class DispatcherTest
+{
+    private static final Integer POISON_PILL = Integer.MIN_VALUE;
+
+    @Test
+    void ringBufferIsBoundedAndOrdered()
+    {
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(5);
+        assertEquals(8, ringBuffer.getCapacity());
+
+        for(int x = 0; x < 8; x++)
+        {
+            assertTrue(ringBuffer.offer(x));
+        }
+
+        assertFalse(ringBuffer.offer(8));
+        assertEquals(8, ringBuffer.size());
+
+        for(int x = 0; x < 8; x++)
+        {
+            assertEquals(x, ringBuffer.poll());
+        }
+
+        assertNull(ringBuffer.poll());
+        assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    void ringBufferMultipleProducers() throws InterruptedException
+    {
+        int producers = 3;
+        int count = 100_000;
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(64);
+        List<Thread> threads = new ArrayList<>();
+
+        for(int p = 0; p < producers; p++)
+        {
+            Thread thread = new Thread(() -> {
+                for(int x = 1; x <= count; x++)
+                {
+                    while(!ringBuffer.offer(x))
+                    {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long sum = 0;
+        int received = 0;
+
+        while(received < producers * count)
+        {
+            Integer value = ringBuffer.poll();
+
+            if(value != null)
+            {
+                sum += value;
+                received++;
+            }
+            else
+            {
+                Thread.yield();
+            }
+        }
+
+        for(Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals((long)producers * count * (count + 1) / 2, sum);
+        assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    void dispatcherDeliversAllElementsWithEachWaitStrategy() throws InterruptedException
+    {
+        //Spin is excluded since busy spinning threads can starve each other on a single core test host
+        for(WaitStrategy waitStrategy : List.of(WaitStrategy.YIELD, WaitStrategy.PARK))
+        {
+            int count = 10_000;
+            CountDownLatch latch = new CountDownLatch(count);
+            AtomicLong sum = new AtomicLong();
+            Dispatcher<Integer> dispatcher = new Dispatcher<>(16, "test dispatcher", POISON_PILL, waitStrategy,
+                OverflowPolicy.BLOCK);
+            dispatcher.setListener(value -> {
+                sum.addAndGet(value);
+                latch.countDown();
+            });
+            dispatcher.start();
+
+            for(int x = 1; x <= count; x++)
+            {
+                dispatcher.receive(x);
+            }
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS), "Timeout for " + waitStrategy);
+            dispatcher.stop();
+            assertEquals((long)count * (count + 1) / 2, sum.get());
+            assertEquals(0, dispatcher.getDroppedCount());
+            assertTrue(dispatcher.getHighWaterMark() <= dispatcher.getQueueCapacity());
+        }
+    }
+
+    @Test
+    void dispatcherIsIdleOnlyWhenQueueIsEmptyAndNotProcessing() throws InterruptedException
+    {
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Dispatcher<Integer> dispatcher = new Dispatcher<>(4, "idle test dispatcher", POISON_PILL);
+        dispatcher.setListener(value -> {
+            processing.countDown();
+
+            try
+            {
+                release.await();
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.start();
+        assertTrue(dispatcher.isIdle());
+
+        dispatcher.receive(1);
+        assertTrue(processing.await(5, TimeUnit.SECONDS));
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertFalse(dispatcher.isIdle());
+
+        release.countDown();
+        long timeout = System.currentTimeMillis() + 5000;
+
+        while(!dispatcher.isIdle() && System.currentTimeMillis() < timeout)
+        {
+            Thread.sleep(5);
+        }
+
+        assertTrue(dispatcher.isIdle());
+        dispatcher.stop();
+    }
+
+    @Test
+    void dispatcherOverflowPolicies() throws InterruptedException
+    {
+        assertEquals(List.of(1, 2, 3, 4), getDelivered(OverflowPolicy.DROP_NEWEST));
+        assertEquals(List.of(7, 8, 9, 10), getDelivered(OverflowPolicy.DROP_OLDEST));
+    }
+
+    @Test
+    void dispatcherReleasesEachElementOnce() throws InterruptedException
+    {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> released = Collections.synchronizedList(new ArrayList<>());
+        Dispatcher<Integer> dispatcher = new Dispatcher<>(4, "release test dispatcher", POISON_PILL);
+        dispatcher.setReleaseListener(released::add);
+        dispatcher.setListener(value -> {
+            if(value == 0)
+            {
+                blocked.countDown();
+
+                try
+                {
+                    release.await();
+                }
+                catch(InterruptedException e)
+                {
+                    //Ignore
+                }
+            }
+        });
+        dispatcher.start();
+        dispatcher.receive(0);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        for(int x = 1; x <= 10; x++)
+        {
+            dispatcher.receive(x);
+        }
+
+        assertEquals(List.of(5, 6, 7, 8, 9, 10), released, "Dropped elements are released immediately");
+        release.countDown();
+        dispatcher.stop();
+        dispatcher.receive(11);
+
+        List<Integer> sorted = new ArrayList<>(released);
+        Collections.sort(sorted);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11), sorted, "Delivered, queued and rejected " +
+            "elements are each released once");
+    }
+
+    /**
+     * Fills a dispatcher with a capacity of 4 with 10 elements while its listener is blocked and returns the
+     * elements that are delivered once the listener is released.
+     */
+    private static List<Integer> getDelivered(OverflowPolicy overflowPolicy) throws InterruptedException
+    {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        List<Integer> delivered = Collections.synchronizedList(new ArrayList<>());
+
+        Dispatcher<Integer> dispatcher = new Dispatcher<>(4, "test dispatcher", POISON_PILL, WaitStrategy.PARK,
+            overflowPolicy);
+        dispatcher.setListener(value -> {
+            if(value == 0)
+            {
+                blocked.countDown();
+
+                try
+                {
+                    release.await();
+                }
+                catch(InterruptedException e)
+                {
+                    //Ignore
+                }
+            }
+            else
+            {
+                delivered.add(value);
+
+                if(value == 10 || (overflowPolicy == OverflowPolicy.DROP_NEWEST && value == 4))
+                {
+                    finished.countDown();
+                }
+            }
+        });
+        dispatcher.start();
+        dispatcher.receive(0);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        for(int x = 1; x <= 10; x++)
+        {
+            dispatcher.receive(x);
+        }
+
+        assertEquals(4, dispatcher.getQueueDepth());
+        assertEquals(4, dispatcher.getHighWaterMark());
+        assertEquals(6, dispatcher.getDroppedCount());
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        dispatcher.stop();
+        return new ArrayList<>(delivered);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2023 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for coalescing and pausing of batched Swing updates.
+ */
+class SwingBatchUpdaterTest
+{
+    @Test
+    void updatesAreCoalescedIntoBatches() throws InterruptedException
+    {
+        List<List<Integer>> batches = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        SwingBatchUpdater<Integer> updater = new SwingBatchUpdater<>((batch, overflow) -> {
+            batches.add(batch);
+            latch.countDown();
+        }, 3, 20);
+
+        updater.setPaused(true);
+        updater.add(1);
+        updater.add(2);
+        updater.add(1);
+        updater.add(3);
+        assertFalse(latch.await(100, TimeUnit.MILLISECONDS), "No delivery while paused");
+        assertEquals(3, updater.getPendingCount());
+
+        updater.setPaused(false);
+        assertTrue(latch.await(2, TimeUnit.SECONDS), "Batch delivered after resume");
+        assertEquals(List.of(List.of(1, 2, 3)), batches);
+        assertEquals(0, updater.getPendingCount());
+        updater.dispose();
+    }
+
+    @Test
+    void oldestPendingUpdatesAreDiscardedWhenFull() throws InterruptedException
+    {
+        List<Integer> delivered = new ArrayList<>();
+        boolean[] overflowed = new boolean[1];
+        CountDownLatch latch = new CountDownLatch(1);
+        SwingBatchUpdater<Integer> updater = new SwingBatchUpdater<>((batch, overflow) -> {
+            delivered.addAll(batch);
+            overflowed[0] = overflow;
+            latch.countDown();
+        }, 2, 20);
+
+        updater.setPaused(true);
+
+        for(int x = 0; x < 5; x++)
+        {
+            updater.add(x);
+        }
+
+        updater.setPaused(false);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(3, 4), delivered);
+        assertTrue(overflowed[0]);
+        updater.dispose();
+    }
+}